@@ -1,7 +1,14 @@
 package com.sc.config;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MaxSizeConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Properties specific to Jhipster Sample Application.
  * <p>
@@ -10,4 +17,588 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final SearchOutbox searchOutbox = new SearchOutbox();
+
+    private final Cache cache = new Cache();
+
+    private final WarmUp warmUp = new WarmUp();
+
+    private final ChangeFeed changeFeed = new ChangeFeed();
+
+    private final ChangeStream changeStream = new ChangeStream();
+
+    private final CollectionVersion collectionVersion = new CollectionVersion();
+
+    public SearchOutbox getSearchOutbox() {
+        return searchOutbox;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public ChangeStream getChangeStream() {
+        return changeStream;
+    }
+
+    public CollectionVersion getCollectionVersion() {
+        return collectionVersion;
+    }
+
+    public static class SearchOutbox {
+
+        /**
+         * Maximum number of outbox events drained in one Elasticsearch bulk round.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Delay between two polls of the outbox table, used to pick up retries and missed signals.
+         */
+        private long pollIntervalMs = 5000;
+
+        /**
+         * First retry delay after a failed dispatch, doubled on every further attempt.
+         */
+        private long retryBackoffMs = 1000;
+
+        /**
+         * Upper bound of the retry delay.
+         */
+        private long maxRetryBackoffMs = 300000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public long getRetryBackoffMs() {
+            return retryBackoffMs;
+        }
+
+        public void setRetryBackoffMs(long retryBackoffMs) {
+            this.retryBackoffMs = retryBackoffMs;
+        }
+
+        public long getMaxRetryBackoffMs() {
+            return maxRetryBackoffMs;
+        }
+
+        public void setMaxRetryBackoffMs(long maxRetryBackoffMs) {
+            this.maxRetryBackoffMs = maxRetryBackoffMs;
+        }
+    }
+
+    public static class ChangeFeed {
+
+        /**
+         * Number of changes returned when the request does not ask for a size.
+         */
+        private int defaultPageSize = 100;
+
+        /**
+         * Upper bound of the number of changes returned at once.
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * Upper bound of the time a long-polling request waits for a change.
+         */
+        private int maxWaitSeconds = 30;
+
+        /**
+         * Delay between two compactions of the change log.
+         */
+        private long compactionIntervalMs = 3600000;
+
+        /**
+         * How long tombstones are kept: a client which did not sync for longer has to download everything again.
+         */
+        private int tombstoneRetentionHours = 168;
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public int getMaxWaitSeconds() {
+            return maxWaitSeconds;
+        }
+
+        public void setMaxWaitSeconds(int maxWaitSeconds) {
+            this.maxWaitSeconds = maxWaitSeconds;
+        }
+
+        public long getCompactionIntervalMs() {
+            return compactionIntervalMs;
+        }
+
+        public void setCompactionIntervalMs(long compactionIntervalMs) {
+            this.compactionIntervalMs = compactionIntervalMs;
+        }
+
+        public int getTombstoneRetentionHours() {
+            return tombstoneRetentionHours;
+        }
+
+        public void setTombstoneRetentionHours(int tombstoneRetentionHours) {
+            this.tombstoneRetentionHours = tombstoneRetentionHours;
+        }
+    }
+
+    public static class ChangeStream {
+
+        /**
+         * Threads writing the events to all the connected clients of a member.
+         */
+        private int threads = 2;
+
+        /**
+         * Events waiting to be written to one client: a client which falls further behind is disconnected.
+         */
+        private int bufferSize = 256;
+
+        /**
+         * Upper bound of the clients connected to a member.
+         */
+        private int maxConnections = 1000;
+
+        /**
+         * Delay after which a connection is closed, the clients reconnect by themselves.
+         */
+        private long timeoutMs = 1800000;
+
+        /**
+         * Delay between two comments sent to idle connections, which keeps the proxies from closing them.
+         */
+        private long heartbeatIntervalMs = 15000;
+
+        /**
+         * Delay after which a client which does not read an event is disconnected, so that it cannot hold the
+         * thread writing to it for longer.
+         */
+        private long sendTimeoutMs = 10000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public long getHeartbeatIntervalMs() {
+            return heartbeatIntervalMs;
+        }
+
+        public void setHeartbeatIntervalMs(long heartbeatIntervalMs) {
+            this.heartbeatIntervalMs = heartbeatIntervalMs;
+        }
+
+        public long getSendTimeoutMs() {
+            return sendTimeoutMs;
+        }
+
+        public void setSendTimeoutMs(long sendTimeoutMs) {
+            this.sendTimeoutMs = sendTimeoutMs;
+        }
+    }
+
+    public static class CollectionVersion {
+
+        /**
+         * Delay after which a writing transaction which did not report its completion, e.g. because its member
+         * crashed, is counted as finished; longer than the longest transaction.
+         */
+        private long writeLeaseMs = 300000;
+
+        public long getWriteLeaseMs() {
+            return writeLeaseMs;
+        }
+
+        public void setWriteLeaseMs(long writeLeaseMs) {
+            this.writeLeaseMs = writeLeaseMs;
+        }
+    }
+
+    public static class WarmUp {
+
+        /**
+         * Whether caches are loaded and requests replayed at startup, before the instance reports UP.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time after which the instance reports UP even if the warm-up is not done.
+         */
+        private int timeoutSeconds = 120;
+
+        /**
+         * Number of employees loaded, the most read ones first.
+         */
+        private int employees = 1000;
+
+        /**
+         * Interval at which each member publishes the ids it reads the most, which the starting members load.
+         */
+        private long rankingIntervalMs = 60000;
+
+        /**
+         * Paths of the representative GET requests replayed against the instance, e.g. {@code /api/regions}.
+         */
+        private List<String> requests = new ArrayList<>();
+
+        /**
+         * Number of times each request is replayed.
+         */
+        private int iterations = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public int getEmployees() {
+            return employees;
+        }
+
+        public void setEmployees(int employees) {
+            this.employees = employees;
+        }
+
+        public long getRankingIntervalMs() {
+            return rankingIntervalMs;
+        }
+
+        public void setRankingIntervalMs(long rankingIntervalMs) {
+            this.rankingIntervalMs = rankingIntervalMs;
+        }
+
+        public List<String> getRequests() {
+            return requests;
+        }
+
+        public void setRequests(List<String> requests) {
+            this.requests = requests;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Settings of the Hibernate second level cache regions, used where a region does not set its own.
+         */
+        private final Region domainDefaults = new Region(10000, MaxSizeConfig.MaxSizePolicy.PER_NODE, EvictionPolicy.LRU, null, 10,
+            0, false, 1000, false);
+
+        /**
+         * Settings by region name: the entity class name, or the entity class name followed by the collection
+         * property for collection regions, e.g. {@code com.sc.domain.Department.employees}.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        /**
+         * Maximum weight of the in-process tier of each Spring cache: each value weighs 1, plus 1 per element
+         * when it is a collection or a map.
+         */
+        private long localMaxWeight = 1000;
+
+        private final Snapshot snapshot = new Snapshot();
+
+        public Region getDomainDefaults() {
+            return domainDefaults;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public long getLocalMaxWeight() {
+            return localMaxWeight;
+        }
+
+        public void setLocalMaxWeight(long localMaxWeight) {
+            this.localMaxWeight = localMaxWeight;
+        }
+
+        public Snapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Return the settings of a region, completed by the domain defaults.
+         *
+         * @param name the name of the region.
+         * @return the effective settings of the region.
+         */
+        public Region getRegion(String name) {
+            Region region = regions.getOrDefault(name, new Region());
+            return new Region(
+                region.maxSize != null ? region.maxSize : domainDefaults.maxSize,
+                region.maxSizePolicy != null ? region.maxSizePolicy : domainDefaults.maxSizePolicy,
+                region.evictionPolicy != null ? region.evictionPolicy : domainDefaults.evictionPolicy,
+                region.timeToLiveSeconds != null ? region.timeToLiveSeconds : domainDefaults.timeToLiveSeconds,
+                region.timeToLiveJitterPercent != null ? region.timeToLiveJitterPercent : domainDefaults.timeToLiveJitterPercent,
+                region.maxIdleSeconds != null ? region.maxIdleSeconds : domainDefaults.maxIdleSeconds,
+                region.nearCache != null ? region.nearCache : domainDefaults.nearCache,
+                region.nearCacheMaxSize != null ? region.nearCacheMaxSize : domainDefaults.nearCacheMaxSize,
+                region.dtoCache != null ? region.dtoCache : domainDefaults.dtoCache);
+        }
+    }
+
+    public static class Snapshot {
+
+        /**
+         * Whether the configured regions are saved to a local file, and restored from it when the member starts
+         * a new cluster.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Path of the snapshot file.
+         */
+        private String file = "cache-snapshot.bin";
+
+        /**
+         * Delay between two snapshots, one is also written on shutdown.
+         */
+        private long intervalMs = 300000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public void setIntervalMs(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+    }
+
+    public static class Region {
+
+        /**
+         * Maximum size of the region: a number of entries, or megabytes with the USED_HEAP_SIZE policy.
+         */
+        private Integer maxSize;
+
+        /**
+         * How the maximum size is measured.
+         */
+        private MaxSizeConfig.MaxSizePolicy maxSizePolicy;
+
+        /**
+         * Which entries are evicted once the maximum size is reached.
+         */
+        private EvictionPolicy evictionPolicy;
+
+        /**
+         * Lifetime of an entry, defaults to {@code jhipster.cache.hazelcast.time-to-live-seconds}.
+         */
+        private Integer timeToLiveSeconds;
+
+        /**
+         * Maximum share of the time to live, in percent, randomly taken off each entry so that entries written
+         * together do not expire together. Applied when the entries of the Spring caches are written and when a
+         * snapshot is restored; Hibernate writes its entries with the time to live of the region.
+         */
+        private Integer timeToLiveJitterPercent;
+
+        /**
+         * Maximum time an entry is kept without being read, 0 for no limit.
+         */
+        private Integer maxIdleSeconds;
+
+        /**
+         * Whether each member keeps a local copy of the entries it reads, invalidated when they are updated.
+         */
+        private Boolean nearCache;
+
+        /**
+         * Maximum number of entries of the near cache.
+         */
+        private Integer nearCacheMaxSize;
+
+        /**
+         * Whether the DTOs returned by {@code findOne} are cached, for entity regions.
+         */
+        private Boolean dtoCache;
+
+        public Region() {
+        }
+
+        Region(Integer maxSize, MaxSizeConfig.MaxSizePolicy maxSizePolicy, EvictionPolicy evictionPolicy,
+               Integer timeToLiveSeconds, Integer timeToLiveJitterPercent, Integer maxIdleSeconds, Boolean nearCache,
+               Integer nearCacheMaxSize, Boolean dtoCache) {
+            this.maxSize = maxSize;
+            this.maxSizePolicy = maxSizePolicy;
+            this.evictionPolicy = evictionPolicy;
+            this.timeToLiveSeconds = timeToLiveSeconds;
+            this.timeToLiveJitterPercent = timeToLiveJitterPercent;
+            this.maxIdleSeconds = maxIdleSeconds;
+            this.nearCache = nearCache;
+            this.nearCacheMaxSize = nearCacheMaxSize;
+            this.dtoCache = dtoCache;
+        }
+
+        public Integer getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(Integer maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public MaxSizeConfig.MaxSizePolicy getMaxSizePolicy() {
+            return maxSizePolicy;
+        }
+
+        public void setMaxSizePolicy(MaxSizeConfig.MaxSizePolicy maxSizePolicy) {
+            this.maxSizePolicy = maxSizePolicy;
+        }
+
+        public EvictionPolicy getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+
+        public Integer getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Integer getTimeToLiveJitterPercent() {
+            return timeToLiveJitterPercent;
+        }
+
+        public void setTimeToLiveJitterPercent(Integer timeToLiveJitterPercent) {
+            this.timeToLiveJitterPercent = timeToLiveJitterPercent;
+        }
+
+        public Integer getMaxIdleSeconds() {
+            return maxIdleSeconds;
+        }
+
+        public void setMaxIdleSeconds(Integer maxIdleSeconds) {
+            this.maxIdleSeconds = maxIdleSeconds;
+        }
+
+        public Boolean getNearCache() {
+            return nearCache;
+        }
+
+        public void setNearCache(Boolean nearCache) {
+            this.nearCache = nearCache;
+        }
+
+        public Integer getNearCacheMaxSize() {
+            return nearCacheMaxSize;
+        }
+
+        public void setNearCacheMaxSize(Integer nearCacheMaxSize) {
+            this.nearCacheMaxSize = nearCacheMaxSize;
+        }
+
+        public Boolean getDtoCache() {
+            return dtoCache;
+        }
+
+        public void setDtoCache(Boolean dtoCache) {
+            this.dtoCache = dtoCache;
+        }
+    }
 }
@@ -6,7 +6,17 @@ import io.github.jhipster.config.JHipsterProperties;
 import com.hazelcast.config.*;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +32,8 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
+import java.time.Instant;
+
 @Configuration
 @EnableCaching
 public class CacheConfiguration implements DisposableBean {
@@ -34,12 +46,16 @@ public class CacheConfiguration implements DisposableBean {
 
     private final DiscoveryClient discoveryClient;
 
+    private final ApplicationProperties applicationProperties;
+
     private Registration registration;
 
-    public CacheConfiguration(Environment env, ServerProperties serverProperties, DiscoveryClient discoveryClient) {
+    public CacheConfiguration(Environment env, ServerProperties serverProperties, DiscoveryClient discoveryClient,
+                              ApplicationProperties applicationProperties) {
         this.env = env;
         this.serverProperties = serverProperties;
         this.discoveryClient = discoveryClient;
+        this.applicationProperties = applicationProperties;
     }
 
     @Autowired(required = false)
@@ -54,9 +70,10 @@ public class CacheConfiguration implements DisposableBean {
     }
 
     @Bean
-    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
-        log.debug("Starting HazelcastCacheManager");
-        return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+    public CacheManager cacheManager(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        log.debug("Starting HazelcastCacheManager behind a local cache tier");
+        return new TwoTierCacheManager(new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance),
+            hazelcastInstance, applicationProperties.getCache(), meterRegistry);
     }
 
     @Bean
@@ -101,13 +118,70 @@ public class CacheConfiguration implements DisposableBean {
             }
         }
         config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties));
+        initializeSerializationConfig(config.getSerializationConfig());
 
         // Full reference is available at: http://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
-        config.getMapConfigs().put("com.sc.domain.*", initializeDomainMapConfig(jHipsterProperties));
+        config.getMapConfigs().put("com.sc.domain.*", initializeDomainMapConfig(jHipsterProperties, "com.sc.domain.*"));
+        config.getMapConfigs().put("com.sc.service.dto.*", initializeDomainMapConfig(jHipsterProperties, "com.sc.service.dto.*"));
+        for (String region : applicationProperties.getCache().getRegions().keySet()) {
+            config.getMapConfigs().put(region, initializeDomainMapConfig(jHipsterProperties, region));
+        }
         return Hazelcast.newHazelcastInstance(config);
     }
 
+    /**
+     * Export the size, hits, misses and evictions of the configured second level cache regions, and the local
+     * hits and misses of their near caches.
+     */
+    @Bean
+    public MeterBinder hazelcastRegionMetrics(HazelcastInstance hazelcastInstance) {
+        return registry -> {
+            for (String region : applicationProperties.getCache().getRegions().keySet()) {
+                IMap<Object, Object> map = hazelcastInstance.getMap(region);
+                HazelcastCacheMetrics.monitor(registry, map);
+                Counter evictions = Counter.builder("cache.evictions")
+                    .description("cache evictions")
+                    .tag("cache", region)
+                    .register(registry);
+                map.addLocalEntryListener((EntryEvictedListener<Object, Object>) event -> evictions.increment());
+                if (applicationProperties.getCache().getRegion(region).getNearCache()) {
+                    bindNearCacheMetrics(registry, region, map);
+                }
+            }
+        };
+    }
+
+    private void bindNearCacheMetrics(MeterRegistry registry, String region, IMap<Object, Object> map) {
+        Gauge.builder("cache.near.size", map, m -> m.getLocalMapStats().getNearCacheStats().getOwnedEntryCount())
+            .description("The number of entries held in the near cache of this member")
+            .tag("cache", region)
+            .register(registry);
+        FunctionCounter.builder("cache.near.gets", map, m -> m.getLocalMapStats().getNearCacheStats().getHits())
+            .description("The number of reads looked up in the near cache of this member")
+            .tag("cache", region)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("cache.near.gets", map, m -> m.getLocalMapStats().getNearCacheStats().getMisses())
+            .description("The number of reads looked up in the near cache of this member")
+            .tag("cache", region)
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    /**
+     * Register compact serializers for the values of the second level cache which Hazelcast would otherwise
+     * write with Java serialization.
+     */
+    static void initializeSerializationConfig(SerializationConfig serializationConfig) {
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(Instant.class)
+            .setImplementation(new InstantStreamSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(CollectionCacheEntry.class)
+            .setImplementation(new CollectionCacheEntryStreamSerializer()));
+    }
+
     private ManagementCenterConfig initializeDefaultManagementCenterConfig(JHipsterProperties jHipsterProperties) {
         ManagementCenterConfig managementCenterConfig = new ManagementCenterConfig();
         managementCenterConfig.setEnabled(jHipsterProperties.getCache().getHazelcast().getManagementCenter().isEnabled());
@@ -146,9 +220,29 @@ public class CacheConfiguration implements DisposableBean {
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
-        MapConfig mapConfig = new MapConfig();
-        mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties, String name) {
+        ApplicationProperties.Region region = applicationProperties.getCache().getRegion(name);
+        MapConfig mapConfig = new MapConfig(name);
+        mapConfig.setTimeToLiveSeconds(region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds()
+            : jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        mapConfig.setMaxIdleSeconds(region.getMaxIdleSeconds());
+        mapConfig.setEvictionPolicy(region.getEvictionPolicy());
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(region.getMaxSize(), region.getMaxSizePolicy()));
+        if (region.getNearCache()) {
+            /*
+            Entries are kept as objects, so that local hits skip deserialization, and are
+            invalidated on every member as soon as they are updated or removed from the map.
+            */
+            NearCacheConfig nearCacheConfig = new NearCacheConfig(name)
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setInvalidateOnChange(true)
+                .setCacheLocalEntries(true)
+                .setTimeToLiveSeconds(mapConfig.getTimeToLiveSeconds())
+                .setMaxIdleSeconds(mapConfig.getMaxIdleSeconds())
+                .setEvictionConfig(new EvictionConfig(region.getNearCacheMaxSize(),
+                    EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LRU));
+            mapConfig.setNearCacheConfig(nearCacheConfig);
+        }
         return mapConfig;
     }
 
@@ -0,0 +1,322 @@
+package com.sc.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file holding serialized cache entries, see {@link CacheSnapshotService}.
+ * <p>
+ * The file starts with a magic number, the format version, the creation time, the CRC32 and the length of the
+ * body. The body holds the version of the serializer, the number of regions, then each region with its name, the
+ * fingerprint of the cached class and its entries, as serialized key and value, followed by an end marker. A file
+ * which does not match the format version or the checksum is rejected as a whole.
+ * <p>
+ * The file is written through a {@link Writer}, which streams the entries into successive mapped windows of the
+ * file, so that the snapshot is never held in memory.
+ */
+final class CacheSnapshotFile {
+
+    static final int MAGIC = 0x53434353;
+
+    static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 4;
+
+    /**
+     * Marks the end of the entries of a region, in place of the length of a key.
+     */
+    private static final int END_OF_REGION = -1;
+
+    /**
+     * Size of the windows of the file mapped in turn while writing.
+     */
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private CacheSnapshotFile() {
+    }
+
+    /**
+     * Atomically replace the snapshot file.
+     *
+     * @param file the path of the snapshot.
+     * @param snapshot the content of the snapshot.
+     * @throws IOException if the file cannot be written, or the snapshot does not fit in 2 GB.
+     */
+    static void write(Path file, Snapshot snapshot) throws IOException {
+        try (Writer writer = new Writer(file, snapshot.createdAt, snapshot.serializerVersion, snapshot.regions.size())) {
+            for (Region region : snapshot.regions) {
+                writer.startRegion(region.name, region.fingerprint);
+                for (Entry entry : region.entries) {
+                    writer.addEntry(entry.key, entry.value);
+                }
+            }
+            writer.commit();
+        }
+    }
+
+    /**
+     * Read a snapshot file.
+     *
+     * @param file the path of the snapshot.
+     * @return the content of the snapshot.
+     * @throws IOException if the file cannot be read, or is not a valid snapshot.
+     */
+    static Snapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH) {
+                throw new IOException("Truncated cache snapshot");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a cache snapshot");
+            }
+            if (buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported cache snapshot version " + buffer.getInt(4));
+            }
+            long createdAt = buffer.getLong(8);
+            long checksum = buffer.getLong(16);
+            int bodyLength = buffer.getInt(24);
+            if (HEADER_LENGTH + (long) bodyLength != channel.size()) {
+                throw new IOException("Truncated cache snapshot");
+            }
+            ByteBuffer body = buffer.duplicate();
+            body.position(HEADER_LENGTH);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if (crc.getValue() != checksum) {
+                throw new IOException("Corrupted cache snapshot");
+            }
+            buffer.position(HEADER_LENGTH);
+            try {
+                Snapshot snapshot = new Snapshot(createdAt, getString(buffer));
+                int regionCount = buffer.getInt();
+                for (int i = 0; i < regionCount; i++) {
+                    Region region = new Region(getString(buffer), buffer.getLong());
+                    for (int keyLength = buffer.getInt(); keyLength != END_OF_REGION; keyLength = buffer.getInt()) {
+                        byte[] key = new byte[keyLength];
+                        buffer.get(key);
+                        region.entries.add(new Entry(key, getBytes(buffer)));
+                    }
+                    snapshot.regions.add(region);
+                }
+                return snapshot;
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed cache snapshot", e);
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        return new String(getBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes a snapshot to a temporary file, region by region and entry by entry, then replaces the snapshot file
+     * with it on {@link #commit()}; the temporary file is deleted if the writer is closed without being committed.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path file;
+
+        private final Path tmp;
+
+        private final FileChannel channel;
+
+        private final long createdAt;
+
+        private final int windowSize;
+
+        private final CRC32 crc = new CRC32();
+
+        private long windowStart;
+
+        private MappedByteBuffer window;
+
+        /**
+         * The position in the window from which the bytes are not included in the checksum yet.
+         */
+        private int unchecked;
+
+        private boolean inRegion;
+
+        /**
+         * @param file the path of the snapshot.
+         * @param createdAt the creation time of the snapshot.
+         * @param serializerVersion the version of the serializer of the entries.
+         * @param regionCount the number of regions which will be written.
+         * @throws IOException if the temporary file cannot be created.
+         */
+        Writer(Path file, long createdAt, String serializerVersion, int regionCount) throws IOException {
+            this(file, createdAt, serializerVersion, regionCount, WINDOW_SIZE);
+        }
+
+        Writer(Path file, long createdAt, String serializerVersion, int regionCount, int windowSize) throws IOException {
+            this.file = file;
+            this.windowSize = Math.max(windowSize, HEADER_LENGTH);
+            this.createdAt = createdAt;
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                this.channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                this.window = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.windowSize);
+                window.position(HEADER_LENGTH);
+                this.unchecked = HEADER_LENGTH;
+                putBytes(serializerVersion.getBytes(StandardCharsets.UTF_8));
+                reserve(4).putInt(regionCount);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+        }
+
+        /**
+         * Start the next region, ending the previous one.
+         */
+        void startRegion(String name, long fingerprint) throws IOException {
+            endRegion();
+            putBytes(name.getBytes(StandardCharsets.UTF_8));
+            reserve(8).putLong(fingerprint);
+            inRegion = true;
+        }
+
+        /**
+         * Add an entry to the current region.
+         */
+        void addEntry(byte[] key, byte[] value) throws IOException {
+            if (!inRegion) {
+                throw new IllegalStateException("No region started");
+            }
+            putBytes(key);
+            putBytes(value);
+        }
+
+        /**
+         * Finish the file and atomically replace the snapshot file with it.
+         *
+         * @throws IOException if the file cannot be written, or the snapshot does not fit in 2 GB.
+         */
+        void commit() throws IOException {
+            endRegion();
+            checksum();
+            window.force();
+            long bodyLength = windowStart + window.position() - HEADER_LENGTH;
+            if (HEADER_LENGTH + bodyLength > Integer.MAX_VALUE) {
+                throw new IOException("Cache snapshot too large: " + bodyLength + " bytes");
+            }
+            // Mapping the windows extended the file beyond its content
+            channel.truncate(HEADER_LENGTH + bodyLength);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(createdAt)
+                .putLong(crc.getValue())
+                .putInt((int) bodyLength);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        private void endRegion() throws IOException {
+            if (inRegion) {
+                reserve(4).putInt(END_OF_REGION);
+                inRegion = false;
+            }
+        }
+
+        private void putBytes(byte[] bytes) throws IOException {
+            reserve(4 + bytes.length).putInt(bytes.length).put(bytes);
+        }
+
+        /**
+         * Return the window, after mapping the next one if it has less than the given number of bytes left.
+         */
+        private MappedByteBuffer reserve(int length) throws IOException {
+            if (window.remaining() < length) {
+                checksum();
+                window.force();
+                windowStart += window.position();
+                window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, Math.max(windowSize, length));
+                unchecked = 0;
+            }
+            return window;
+        }
+
+        private void checksum() {
+            ByteBuffer written = window.duplicate();
+            written.limit(window.position()).position(unchecked);
+            crc.update(written);
+            unchecked = window.position();
+        }
+    }
+
+    static final class Snapshot {
+
+        final long createdAt;
+
+        final String serializerVersion;
+
+        final List<Region> regions = new ArrayList<>();
+
+        Snapshot(long createdAt, String serializerVersion) {
+            this.createdAt = createdAt;
+            this.serializerVersion = serializerVersion;
+        }
+    }
+
+    static final class Region {
+
+        final String name;
+
+        final long fingerprint;
+
+        final List<Entry> entries = new ArrayList<>();
+
+        Region(String name, long fingerprint) {
+            this.name = name;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    static final class Entry {
+
+        final byte[] key;
+
+        final byte[] value;
+
+        Entry(byte[] key, byte[] value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
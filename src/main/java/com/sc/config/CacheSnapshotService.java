@@ -0,0 +1,205 @@
+package com.sc.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.BuildInfoProvider;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import com.hazelcast.spi.serialization.SerializationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the configured cache regions to a local {@link CacheSnapshotFile} periodically and on shutdown, and
+ * restores them when the member starts.
+ * <p>
+ * The snapshot is only restored by a member which is alone in its cluster: otherwise the regions are still
+ * held by the running members, whose entries are more recent. Only the oldest member saves the regions, one
+ * partition at a time, streaming the entries to the file; when it leaves, the next oldest member takes over, so
+ * that the last member of a cluster shutting down saves the most recent snapshot.
+ * <p>
+ * A region is not restored when its cached class changed since the snapshot, or when the snapshot is older than
+ * its time to live; restored entries only live for the rest of that time to live, shortened by the jitter of the
+ * region.
+ */
+@Component
+public class CacheSnapshotService implements InitializingBean, DisposableBean {
+
+    /**
+     * Entries fetched from a partition per call.
+     */
+    private static final int FETCH_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final ApplicationProperties.Cache properties;
+
+    public CacheSnapshotService(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.properties = applicationProperties.getCache();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Path file = Paths.get(properties.getSnapshot().getFile());
+        if (!properties.getSnapshot().isEnabled() || !Files.exists(file)) {
+            return;
+        }
+        if (hazelcastInstance.getCluster().getMembers().size() > 1) {
+            log.info("Joined a running cluster, the cache snapshot is not restored");
+            return;
+        }
+        try {
+            restore(CacheSnapshotFile.read(file));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore the cache snapshot {}: {}", file, e.toString());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        save();
+    }
+
+    /**
+     * Periodically save the snapshot, on the oldest member only.
+     */
+    @Scheduled(initialDelayString = "${application.cache.snapshot.interval-ms:300000}",
+        fixedDelayString = "${application.cache.snapshot.interval-ms:300000}")
+    public void save() {
+        if (!properties.getSnapshot().isEnabled() || !hazelcastInstance.getLifecycleService().isRunning()) {
+            return;
+        }
+        if (!hazelcastInstance.getCluster().getMembers().iterator().next().localMember()) {
+            // Saved by the oldest member
+            return;
+        }
+        long start = System.currentTimeMillis();
+        SerializationService serializationService = serializationService();
+        int partitionCount = hazelcastInstance.getPartitionService().getPartitions().size();
+        int entries = 0;
+        try (CacheSnapshotFile.Writer writer = new CacheSnapshotFile.Writer(Paths.get(properties.getSnapshot().getFile()),
+            start, serializerVersion(), properties.getRegions().size())) {
+            for (String name : properties.getRegions().keySet()) {
+                writer.startRegion(name, fingerprint(name));
+                IMap<Object, Object> map = hazelcastInstance.getMap(name);
+                for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                    Iterator<Map.Entry<Object, Object>> iterator = ((MapProxyImpl<Object, Object>) map).iterator(FETCH_SIZE, partitionId, true);
+                    while (iterator.hasNext()) {
+                        Map.Entry<Object, Object> entry = iterator.next();
+                        writer.addEntry(serializationService.toData(entry.getKey()).toByteArray(),
+                            serializationService.toData(entry.getValue()).toByteArray());
+                        entries++;
+                    }
+                }
+            }
+            writer.commit();
+            log.debug("Saved {} cache entries in {} ms", entries, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save the cache snapshot: {}", e.toString());
+        }
+    }
+
+    private void restore(CacheSnapshotFile.Snapshot snapshot) {
+        if (!serializerVersion().equals(snapshot.serializerVersion)) {
+            log.info("Cache snapshot written by {}, not restored with {}", snapshot.serializerVersion, serializerVersion());
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long age = start - snapshot.createdAt;
+        SerializationService serializationService = serializationService();
+        int entries = 0;
+        for (CacheSnapshotFile.Region region : snapshot.regions) {
+            if (!properties.getRegions().containsKey(region.name) || fingerprint(region.name) != region.fingerprint) {
+                log.debug("Cache region {} changed since the snapshot, not restored", region.name);
+                continue;
+            }
+            long timeToLive = TimeUnit.SECONDS.toMillis(hazelcastInstance.getConfig().findMapConfig(region.name).getTimeToLiveSeconds());
+            if (timeToLive > 0 && age >= timeToLive) {
+                log.debug("Cache snapshot older than the time to live of region {}, not restored", region.name);
+                continue;
+            }
+            IMap<Object, Object> map = hazelcastInstance.getMap(region.name);
+            long remaining = timeToLive - age;
+            long maxJitter = remaining * properties.getRegion(region.name).getTimeToLiveJitterPercent() / 100;
+            for (CacheSnapshotFile.Entry entry : region.entries) {
+                Object key = serializationService.toObject(new HeapData(entry.key));
+                Object value = serializationService.toObject(new HeapData(entry.value));
+                if (timeToLive > 0) {
+                    // The restored entries were all written now: spread their expiry
+                    long jitter = maxJitter > 0 ? ThreadLocalRandom.current().nextLong(maxJitter + 1) : 0;
+                    map.putIfAbsent(key, value, remaining - jitter, TimeUnit.MILLISECONDS);
+                } else {
+                    map.putIfAbsent(key, value);
+                }
+            }
+            entries += region.entries.size();
+        }
+        log.info("Restored {} cache entries from a {} s old snapshot in {} ms", entries, TimeUnit.MILLISECONDS.toSeconds(age),
+            System.currentTimeMillis() - start);
+    }
+
+    private SerializationService serializationService() {
+        return ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+    }
+
+    /**
+     * The versions of the libraries writing the cached values: Hibernate disassembles the entities, Hazelcast
+     * serializes them.
+     */
+    private static String serializerVersion() {
+        return "hazelcast " + BuildInfoProvider.getBuildInfo().getVersion() + ", hibernate " + org.hibernate.Version.getVersionString();
+    }
+
+    /**
+     * Checksum of the persistent fields of the class cached in a region, named after the entity class or, for
+     * collection regions, the entity class followed by the collection property.
+     */
+    static long fingerprint(String region) {
+        Class<?> cachedClass = null;
+        for (String className = region; cachedClass == null && className.lastIndexOf('.') > 0;
+             className = className.substring(0, className.lastIndexOf('.'))) {
+            try {
+                cachedClass = Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                // A collection region, try the owning class
+            }
+        }
+        if (cachedClass == null) {
+            return 0;
+        }
+        Set<String> fields = new TreeSet<>();
+        for (Class<?> type = cachedClass; type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                    fields.add(type.getName() + "." + field.getName() + ":" + field.getGenericType().getTypeName());
+                }
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(String.join(",", fields).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
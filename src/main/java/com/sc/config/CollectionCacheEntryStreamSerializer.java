@@ -0,0 +1,64 @@
+package com.sc.config;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Hazelcast serializer for the entries of the collection regions (e.g. {@code Department.employees}), which
+ * only hold the ids of the elements: each id is written with its Hazelcast serializer instead of the whole entry
+ * going through Java serialization.
+ */
+public class CollectionCacheEntryStreamSerializer implements StreamSerializer<CollectionCacheEntry> {
+
+    static final int TYPE_ID = 1002;
+
+    private static final Constructor<CollectionCacheEntry> CONSTRUCTOR;
+
+    static {
+        try {
+            // Hibernate only exposes the constructor disassembling a live collection
+            CONSTRUCTOR = CollectionCacheEntry.class.getDeclaredConstructor(Serializable.class);
+            CONSTRUCTOR.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Unsupported Hibernate version", e);
+        }
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, CollectionCacheEntry entry) throws IOException {
+        Serializable[] state = entry.getState();
+        out.writeInt(state.length);
+        for (Serializable element : state) {
+            out.writeObject(element);
+        }
+    }
+
+    @Override
+    public CollectionCacheEntry read(ObjectDataInput in) throws IOException {
+        Serializable[] state = new Serializable[in.readInt()];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = in.readObject();
+        }
+        try {
+            return CONSTRUCTOR.newInstance((Object) state);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IOException("Could not create the collection cache entry", e);
+        }
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
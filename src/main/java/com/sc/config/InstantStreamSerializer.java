@@ -0,0 +1,37 @@
+package com.sc.config;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Hazelcast serializer for {@link Instant}, which is otherwise written with Java serialization, class descriptor
+ * included, in every cached entity holding a date.
+ */
+public class InstantStreamSerializer implements StreamSerializer<Instant> {
+
+    static final int TYPE_ID = 1001;
+
+    @Override
+    public void write(ObjectDataOutput out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    @Override
+    public Instant read(ObjectDataInput in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
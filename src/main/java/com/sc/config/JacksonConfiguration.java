@@ -1,10 +1,14 @@
 package com.sc.config;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
+import com.sc.service.dto.EmployeeDTO;
+import com.sc.web.rest.util.SparseFieldsetUtil;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.zalando.problem.ProblemModule;
@@ -43,6 +47,17 @@ public class JacksonConfiguration {
         return new AfterburnerModule();
     }
 
+    /*
+     * Sparse fieldsets: the DTOs of the list endpoints accepting a fields parameter are written through a property
+     * filter, which only narrows them when the response sets it.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder -> builder
+            .mixIn(EmployeeDTO.class, SparseFieldsetUtil.FilteredMixIn.class)
+            .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
     /*
      * Module for serialization/deserialization of RFC7807 Problem.
      */
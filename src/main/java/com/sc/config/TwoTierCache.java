@@ -0,0 +1,704 @@
+package com.sc.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.IMap;
+import com.hazelcast.spring.cache.HazelcastCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A {@link Cache} reading through a bounded in-process L1 in front of a shared L2 cache.
+ * <p>
+ * The L1 is a Caffeine cache bounded by weight, whose W-TinyLFU policy keeps the entries used most often
+ * recently, already deserialized: cached values must therefore not be mutated by their readers. Every write
+ * goes to both tiers and is published to the other members, which drop the entry from their own L1, so a
+ * member may serve a stale entry only until the invalidation reaches it.
+ * <p>
+ * A value read from the L2 or loaded is only kept in the L1 if its key was not invalidated meanwhile: each
+ * invalidation bumps a stamp shared by a stripe of keys, taken before the read and checked after the L1 put.
+ * Likewise, a value loaded by this member is only kept in the L2 if no key of its stripe was written or evicted
+ * in the cluster meanwhile, as counted by a cluster-wide counter per stripe taken before the load and checked
+ * after the L2 write: the load may have read the state before a change whose eviction the write would otherwise
+ * undo, leaving a stale entry until it expires. Keys are striped by hash code, which must be the same on every
+ * member. A discarded value is dropped without being counted, so that it does not discard the other loads.
+ * <p>
+ * Read-through loads ({@link #get(Object, Callable)}) are protected against stampedes:
+ * <ul>
+ * <li>concurrent loads of a key are coalesced into one per member, and into one per cluster when the L2 locks
+ * the key while loading, as the Hazelcast cache does;</li>
+ * <li>entries are written to both tiers with the time to live of the L2, shortened by a random share so that
+ * they do not expire together;</li>
+ * <li>the member which loaded an entry reloads it early with a probability growing as its expiry nears and
+ * with the time the load took ("XFetch"), so that hot entries are refreshed before they are missed.</li>
+ * </ul>
+ * Batch lookups ({@link #getAll(Collection, Function)}) read the L2 and load the misses with one call each.
+ */
+public class TwoTierCache implements Cache {
+
+    private static final int INVALIDATION_STRIPES = 256;
+
+    /**
+     * Number of cluster-wide counters of the writes and evictions of each cache.
+     */
+    static final int SHARED_INVALIDATION_STRIPES = 64;
+
+    private final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private final String name;
+
+    private final Cache l2;
+
+    private final HazelcastL2 hazelcastL2;
+
+    private final long timeToLiveNanos;
+
+    private final long maxJitterNanos;
+
+    private final BiConsumer<String, Object> invalidationPublisher;
+
+    private final LongUnaryOperator[] sharedInvalidations = new LongUnaryOperator[SHARED_INVALIDATION_STRIPES];
+
+    private final LongSupplier nanoClock;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, LocalEntry> l1;
+
+    private final AtomicLongArray invalidationStamps = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong l1Hits = new AtomicLong();
+
+    private final AtomicLong l1Misses = new AtomicLong();
+
+    private final AtomicLong l2Hits = new AtomicLong();
+
+    private final AtomicLong l2Misses = new AtomicLong();
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private final AtomicLong coalescedLoads = new AtomicLong();
+
+    private final AtomicLong earlyRefreshes = new AtomicLong();
+
+    /**
+     * @param l2 the shared cache.
+     * @param maxLocalWeight the maximum weight of the L1: each value weighs 1, plus 1 per element when it is
+     *                       a collection or a map.
+     * @param timeToLiveSeconds the time to live of the L2 entries, 0 for no limit.
+     * @param jitterPercent the maximum share of the time to live randomly taken off each L1 entry.
+     * @param invalidationPublisher called with the cache name and the key, or {@code null} for all keys,
+     *                              to invalidate the L1 of the other members.
+     * @param invalidationCounters the cluster-wide count of the writes and evictions of each stripe of keys of
+     *                             the cache, by stripe from 0 to {@link #SHARED_INVALIDATION_STRIPES} excluded.
+     */
+    public TwoTierCache(Cache l2, long maxLocalWeight, int timeToLiveSeconds, int jitterPercent,
+                        BiConsumer<String, Object> invalidationPublisher, IntFunction<IAtomicLong> invalidationCounters) {
+        this(l2, maxLocalWeight, timeToLiveSeconds, jitterPercent, invalidationPublisher,
+            stripe -> invalidationCounters.apply(stripe)::addAndGet, System::nanoTime);
+    }
+
+    /**
+     * Create a cache whose L2 is only shared within this process.
+     */
+    TwoTierCache(Cache l2, long maxLocalWeight, int timeToLiveSeconds, int jitterPercent,
+                 BiConsumer<String, Object> invalidationPublisher, LongSupplier nanoClock) {
+        this(l2, maxLocalWeight, timeToLiveSeconds, jitterPercent, invalidationPublisher, stripe -> new AtomicLong()::addAndGet,
+            nanoClock);
+    }
+
+    /**
+     * @param sharedInvalidations by stripe, adds to the count of the writes and evictions of the L2, and returns it.
+     */
+    private TwoTierCache(Cache l2, long maxLocalWeight, int timeToLiveSeconds, int jitterPercent,
+                         BiConsumer<String, Object> invalidationPublisher, IntFunction<LongUnaryOperator> sharedInvalidations,
+                         LongSupplier nanoClock) {
+        this.name = l2.getName();
+        if (l2 instanceof HazelcastCache) {
+            this.hazelcastL2 = new HazelcastL2(((HazelcastCache) l2).getNativeCache(), timeToLiveSeconds, jitterPercent);
+            this.l2 = hazelcastL2;
+        } else {
+            this.hazelcastL2 = null;
+            this.l2 = l2;
+        }
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+        this.maxJitterNanos = timeToLiveNanos * jitterPercent / 100;
+        this.invalidationPublisher = invalidationPublisher;
+        for (int i = 0; i < SHARED_INVALIDATION_STRIPES; i++) {
+            this.sharedInvalidations[i] = sharedInvalidations.apply(i);
+        }
+        this.nanoClock = nanoClock;
+        this.l1 = Caffeine.newBuilder()
+            .maximumWeight(maxLocalWeight)
+            .weigher((Object key, LocalEntry entry) -> entry.weight())
+            .expireAfter(new LocalExpiry())
+            .ticker(nanoClock::getAsLong)
+            // Maintenance is amortized over the callers rather than handed to the common pool
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * Register the hits and misses of both tiers, their hit ratios, the size of the L1 and the loads.
+     * <p>
+     * Meters are tagged with {@code name}, the tag the {@code jhimetrics} endpoint groups cache meters by.
+     */
+    void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("name", name);
+        bindGets(registry, "cache.l1.gets", tags, l1Hits, l1Misses);
+        bindGets(registry, "cache.l2.gets", tags, l2Hits, l2Misses);
+        Gauge.builder("cache.l1.size", this, TwoTierCache::localSize)
+            .description("The number of entries in the in-process tier")
+            .tags(tags)
+            .register(registry);
+        bindLoads(registry, tags, "loaded", loads);
+        bindLoads(registry, tags, "coalesced", coalescedLoads);
+        bindLoads(registry, tags, "refreshed", earlyRefreshes);
+    }
+
+    private static void bindGets(MeterRegistry registry, String meterName, Tags tags, AtomicLong hits, AtomicLong misses) {
+        FunctionCounter.builder(meterName, hits, AtomicLong::get)
+            .tags(tags).tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder(meterName, misses, AtomicLong::get)
+            .tags(tags).tag("result", "miss")
+            .register(registry);
+        Gauge.builder(meterName + ".ratio", () -> {
+            long total = hits.get() + misses.get();
+            return total == 0 ? Double.NaN : (double) hits.get() / total;
+        })
+            .description("The share of reads served by this tier")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private static void bindLoads(MeterRegistry registry, Tags tags, String result, AtomicLong count) {
+        FunctionCounter.builder("cache.loads", count, AtomicLong::get)
+            .description("Read-through loads: run here, coalesced with a load in flight, or refreshed before expiry")
+            .tags(tags).tag("result", result)
+            .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        LocalEntry entry = getLocal(key);
+        if (entry != null) {
+            l1Hits.incrementAndGet();
+            return entry;
+        }
+        l1Misses.incrementAndGet();
+        long stamp = invalidationStamp(key);
+        ValueWrapper value = l2.get(key);
+        if (value == null) {
+            l2Misses.incrementAndGet();
+            return null;
+        }
+        l2Hits.incrementAndGet();
+        putLocal(key, value.get(), 0, stamp);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object result = value == null ? null : value.get();
+        if (result != null && type != null && !type.isInstance(result)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + result);
+        }
+        return (T) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return (T) load(key, valueLoader);
+        }
+        if (value instanceof LocalEntry && ((LocalEntry) value).shouldRefresh(nanoClock.getAsLong())) {
+            refresh(key, valueLoader);
+        }
+        return (T) value.get();
+    }
+
+    /**
+     * Return the values of several keys: from the L1, then from the L2 in a single call for the keys missing
+     * there, and finally from the value loader, called once with the keys missing from both tiers.
+     * <p>
+     * Unlike {@link #get(Object, Callable)}, the loads are not coalesced with those in flight: a batch is
+     * expected to span many keys, few of which are being loaded by single lookups at the same time.
+     *
+     * @param keys the keys.
+     * @param valueLoader loads the values of the given keys; a key it returns no value for is cached as {@code null}.
+     * @return the values by key, in the order of the keys.
+     */
+    public Map<Object, Object> getAll(Collection<?> keys, Function<Set<Object>, Map<?, ?>> valueLoader) {
+        Map<Object, Object> values = new LinkedHashMap<>();
+        Set<Object> localMisses = new LinkedHashSet<>();
+        for (Object key : keys) {
+            LocalEntry entry = getLocal(key);
+            values.put(key, entry == null ? null : entry.get());
+            if (entry != null) {
+                l1Hits.incrementAndGet();
+            } else if (localMisses.add(key)) {
+                l1Misses.incrementAndGet();
+            }
+        }
+        if (localMisses.isEmpty()) {
+            return values;
+        }
+        Map<Object, Long> stamps = new HashMap<>();
+        localMisses.forEach(key -> stamps.put(key, invalidationStamp(key)));
+        Map<Object, ValueWrapper> shared = getAllShared(localMisses);
+        Set<Object> misses = new LinkedHashSet<>();
+        for (Object key : localMisses) {
+            ValueWrapper value = shared.get(key);
+            if (value == null) {
+                l2Misses.incrementAndGet();
+                misses.add(key);
+            } else {
+                l2Hits.incrementAndGet();
+                putLocal(key, value.get(), 0, stamps.get(key));
+                values.put(key, value.get());
+            }
+        }
+        if (misses.isEmpty()) {
+            return values;
+        }
+        Map<Object, Long> sharedStamps = new HashMap<>();
+        misses.forEach(key -> sharedStamps.put(key, sharedInvalidationStamp(key)));
+        long start = nanoClock.getAsLong();
+        Map<?, ?> loaded = valueLoader.apply(misses);
+        long loadNanos = nanoClock.getAsLong() - start;
+        Map<Object, Object> loadedValues = new HashMap<>();
+        for (Object key : misses) {
+            Object value = loaded.get(key);
+            loadedValues.put(key, value);
+            putLocal(key, value, loadNanos, stamps.get(key));
+            values.put(key, value);
+        }
+        putAllShared(loadedValues);
+        sharedStamps.forEach(this::discardIfInvalidated);
+        loads.addAndGet(misses.size());
+        return values;
+    }
+
+    private Map<Object, ValueWrapper> getAllShared(Set<Object> keys) {
+        if (hazelcastL2 != null) {
+            return hazelcastL2.getAll(keys);
+        }
+        Map<Object, ValueWrapper> values = new HashMap<>();
+        for (Object key : keys) {
+            ValueWrapper value = l2.get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    private void putAllShared(Map<Object, Object> values) {
+        if (hazelcastL2 != null) {
+            hazelcastL2.putAll(values);
+        } else {
+            values.forEach(l2::put);
+        }
+    }
+
+    /**
+     * Load a missing entry, or wait for the load of this key already in flight on this member.
+     */
+    private Object load(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            coalescedLoads.incrementAndGet();
+            return join(inFlight);
+        }
+        try {
+            long stamp = invalidationStamp(key);
+            long sharedStamp = sharedInvalidationStamp(key);
+            long[] loadNanos = {-1};
+            Object value = l2.get(key, () -> {
+                long start = nanoClock.getAsLong();
+                Object loaded = valueLoader.call();
+                loadNanos[0] = nanoClock.getAsLong() - start;
+                return loaded;
+            });
+            if (loadNanos[0] < 0) {
+                // Loaded by another member while this one was waiting for the lock of the key
+                coalescedLoads.incrementAndGet();
+            } else {
+                loads.incrementAndGet();
+                discardIfInvalidated(key, sharedStamp);
+            }
+            putLocal(key, value, Math.max(loadNanos[0], 0), stamp);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * Reload an entry before its expiry, unless it is already being loaded; the current value stays in use if
+     * the reload fails.
+     */
+    private void refresh(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, future) != null) {
+            return;
+        }
+        try {
+            long stamp = invalidationStamp(key);
+            long sharedStamp = sharedInvalidationStamp(key);
+            long start = nanoClock.getAsLong();
+            Object value = valueLoader.call();
+            long loadNanos = nanoClock.getAsLong() - start;
+            l2.put(key, value);
+            if (discardIfInvalidated(key, sharedStamp)) {
+                future.complete(value);
+                return;
+            }
+            putLocal(key, value, loadNanos, stamp);
+            invalidationPublisher.accept(name, key);
+            earlyRefreshes.incrementAndGet();
+            future.complete(value);
+        } catch (Exception e) {
+            log.warn("Could not refresh entry {} of cache {}: {}", key, name, e.toString());
+            future.completeExceptionally(e);
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * Drop a value just written to the L2 after loading it, if a key of its stripe was written or evicted since
+     * the load started; checked after the write, so that a racing eviction either removes the value itself or is
+     * seen here.
+     * <p>
+     * The value is dropped without being counted as a write: it is not a change of the data, and counting it
+     * would discard the other loads of the stripe in flight, in turn counted.
+     *
+     * @param sharedStamp the count of the writes and evictions of the stripe of the key before the load.
+     * @return whether the value was dropped.
+     */
+    private boolean discardIfInvalidated(Object key, long sharedStamp) {
+        if (sharedInvalidationStamp(key) == sharedStamp) {
+            return false;
+        }
+        log.debug("Discarding entry {} of cache {} loaded while it was changed", key, name);
+        l2.evict(key);
+        invalidateLocal(key);
+        // The other members may have read the value from the L2 already
+        invalidationPublisher.accept(name, key);
+        return true;
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long stamp = invalidationStamp(key);
+        countSharedInvalidation(key);
+        l2.put(key, value);
+        putLocal(key, value, 0, stamp);
+        invalidationPublisher.accept(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        long stamp = invalidationStamp(key);
+        countSharedInvalidation(key);
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        putLocal(key, existing != null ? existing.get() : value, 0, stamp);
+        if (existing == null) {
+            invalidationPublisher.accept(name, key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        // Counted before the L2 change, which a load checking the count after its own write then cannot miss
+        countSharedInvalidation(key);
+        l2.evict(key);
+        invalidateLocal(key);
+        invalidationPublisher.accept(name, key);
+    }
+
+    @Override
+    public void clear() {
+        for (LongUnaryOperator stripe : sharedInvalidations) {
+            stripe.applyAsLong(1);
+        }
+        l2.clear();
+        invalidateLocal(null);
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * Drop an entry from the L1 only, following a change made on another member.
+     *
+     * @param key the key, or {@code null} for all the entries.
+     */
+    void invalidateLocal(Object key) {
+        // Bumped before the removal, so that a put racing with it sees the new stamp or is removed
+        if (key == null) {
+            for (int i = 0; i < INVALIDATION_STRIPES; i++) {
+                invalidationStamps.incrementAndGet(i);
+            }
+            l1.invalidateAll();
+        } else {
+            invalidationStamps.incrementAndGet(stripe(key));
+            l1.invalidate(key);
+        }
+    }
+
+    private LocalEntry getLocal(Object key) {
+        return l1.getIfPresent(key);
+    }
+
+    /**
+     * @param loadNanos the time taken to load the value, 0 when it was not loaded by this member.
+     * @param stamp the {@link #invalidationStamp(Object) invalidation stamp} of the key before the value was read.
+     */
+    private void putLocal(Object key, Object value, long loadNanos, long stamp) {
+        long expiresAt = 0;
+        if (timeToLiveNanos > 0) {
+            long jitter = maxJitterNanos > 0 ? ThreadLocalRandom.current().nextLong(maxJitterNanos + 1) : 0;
+            expiresAt = nanoClock.getAsLong() + timeToLiveNanos - jitter;
+        }
+        LocalEntry entry = new LocalEntry(value, expiresAt, loadNanos);
+        l1.put(key, entry);
+        if (invalidationStamp(key) != stamp) {
+            // Invalidated while the value was being read: it may be stale
+            l1.asMap().remove(key, entry);
+        }
+    }
+
+    private long invalidationStamp(Object key) {
+        return invalidationStamps.get(stripe(key));
+    }
+
+    private long sharedInvalidationStamp(Object key) {
+        return sharedInvalidations[sharedStripe(key)].applyAsLong(0);
+    }
+
+    private void countSharedInvalidation(Object key) {
+        sharedInvalidations[sharedStripe(key)].applyAsLong(1);
+    }
+
+    private static int sharedStripe(Object key) {
+        return Math.floorMod(key.hashCode(), SHARED_INVALIDATION_STRIPES);
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private long localSize() {
+        return l1.estimatedSize();
+    }
+
+    /**
+     * A value of the L1, with its expiry and load time on the {@link System#nanoTime()} scale.
+     */
+    private static final class LocalEntry implements ValueWrapper {
+
+        private final Object value;
+
+        private final long expiresAt;
+
+        private final long loadNanos;
+
+        LocalEntry(Object value, long expiresAt, long loadNanos) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.loadNanos = loadNanos;
+        }
+
+        @Override
+        public Object get() {
+            return value;
+        }
+
+        /**
+         * The weight of the entry in the L1: 1, plus 1 per element of a collection or map value.
+         */
+        int weight() {
+            if (value instanceof Collection) {
+                return 1 + ((Collection<?>) value).size();
+            }
+            if (value instanceof Map) {
+                return 1 + ((Map<?, ?>) value).size();
+            }
+            return 1;
+        }
+
+        /**
+         * Whether to reload early: always at expiry, with a probability decaying exponentially with the time
+         * left before, in units of the load time.
+         */
+        boolean shouldRefresh(long now) {
+            if (expiresAt == 0 || loadNanos <= 0) {
+                return false;
+            }
+            double random = 1 - ThreadLocalRandom.current().nextDouble();
+            return expiresAt - now <= -loadNanos * Math.log(random);
+        }
+    }
+
+    /**
+     * Expires the L1 entries at the time they carry.
+     */
+    private static final class LocalExpiry implements Expiry<Object, LocalEntry> {
+
+        @Override
+        public long expireAfterCreate(Object key, LocalEntry entry, long currentTime) {
+            return entry.expiresAt == 0 ? Long.MAX_VALUE : Math.max(entry.expiresAt - currentTime, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, LocalEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, LocalEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Access to the Hazelcast map of a {@link HazelcastCache}, storing and reading the values as the cache itself
+     * does, {@code null} included, in batches too.
+     * <p>
+     * Every write, including those of read-through loads, is given the time to live of the map shortened by a
+     * random share, so that entries written together do not expire together.
+     */
+    private static final class HazelcastL2 extends HazelcastCache {
+
+        private final long timeToLiveMillis;
+
+        private final int jitterPercent;
+
+        HazelcastL2(IMap<Object, Object> map, int timeToLiveSeconds, int jitterPercent) {
+            super(map);
+            this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
+            this.jitterPercent = jitterPercent;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (isJittered()) {
+                getNativeCache().set(key, toStoreValue(value), timeToLive(), TimeUnit.MILLISECONDS);
+            } else {
+                super.put(key, value);
+            }
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            if (!isJittered()) {
+                return super.putIfAbsent(key, value);
+            }
+            Object existing = getNativeCache().putIfAbsent(key, toStoreValue(value), timeToLive(), TimeUnit.MILLISECONDS);
+            return existing == null ? null : new SimpleValueWrapper(fromStoreValue(existing));
+        }
+
+        Map<Object, ValueWrapper> getAll(Set<Object> keys) {
+            Map<Object, ValueWrapper> values = new HashMap<>();
+            getNativeCache().getAll(keys).forEach((key, value) -> values.put(key, new SimpleValueWrapper(fromStoreValue(value))));
+            return values;
+        }
+
+        void putAll(Map<Object, Object> values) {
+            if (!isJittered()) {
+                Map<Object, Object> stored = new HashMap<>();
+                values.forEach((key, value) -> stored.put(key, toStoreValue(value)));
+                getNativeCache().putAll(stored);
+                return;
+            }
+            // IMap.putAll takes no time to live: the writes are sent together and then awaited
+            List<Future<Void>> writes = new ArrayList<>(values.size());
+            values.forEach((key, value) ->
+                writes.add(getNativeCache().setAsync(key, toStoreValue(value), timeToLive(), TimeUnit.MILLISECONDS)));
+            for (Future<Void> write : writes) {
+                try {
+                    write.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while writing to cache " + getName(), e);
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                        : new IllegalStateException(e.getCause());
+                }
+            }
+        }
+
+        private boolean isJittered() {
+            return timeToLiveMillis > 0 && jitterPercent > 0;
+        }
+
+        private long timeToLive() {
+            return timeToLiveMillis - ThreadLocalRandom.current().nextLong(timeToLiveMillis * jitterPercent / 100 + 1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.sc.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link CacheManager} giving each cache of a shared (L2) cache manager a bounded in-process L1, see {@link TwoTierCache}.
+ * <p>
+ * L1 invalidations are broadcast to the other members over a Hazelcast topic.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    static final String INVALIDATION_TOPIC = "cache-invalidation";
+
+    static final String INVALIDATION_COUNTER_PREFIX = "cache-invalidation.";
+
+    private final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final CacheManager l2CacheManager;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final ApplicationProperties.Cache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ITopic<Invalidation> invalidationTopic;
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager l2CacheManager, HazelcastInstance hazelcastInstance,
+                               ApplicationProperties.Cache properties, MeterRegistry meterRegistry) {
+        this.l2CacheManager = l2CacheManager;
+        this.hazelcastInstance = hazelcastInstance;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.invalidationTopic = hazelcastInstance.getTopic(INVALIDATION_TOPIC);
+        this.invalidationTopic.addMessageListener(message -> {
+            if (message.getPublishingMember() == null || !message.getPublishingMember().localMember()) {
+                onInvalidation(message.getMessageObject());
+            }
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache == null) {
+            Cache l2 = l2CacheManager.getCache(name);
+            if (l2 == null) {
+                return null;
+            }
+            cache = caches.computeIfAbsent(name, n -> {
+                // The L1 entries expire with the L2 ones, as configured on the Hazelcast map backing the cache
+                TwoTierCache created = new TwoTierCache(l2, properties.getLocalMaxWeight(),
+                    hazelcastInstance.getConfig().findMapConfig(n).getTimeToLiveSeconds(),
+                    properties.getRegion(n).getTimeToLiveJitterPercent(), this::publishInvalidation,
+                    stripe -> hazelcastInstance.getAtomicLong(INVALIDATION_COUNTER_PREFIX + n + "." + stripe));
+                created.bindTo(meterRegistry);
+                return created;
+            });
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        try {
+            invalidationTopic.publish(new Invalidation(cacheName, key));
+        } catch (RuntimeException e) {
+            // The local change is done, the other members catch up when their L1 entries are evicted
+            log.warn("Could not publish the invalidation of cache {}: {}", cacheName, e.toString());
+        }
+    }
+
+    private void onInvalidation(Invalidation invalidation) {
+        TwoTierCache cache = caches.get(invalidation.cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.key);
+        }
+    }
+
+    /**
+     * Message telling the members to drop a key, or all the keys when {@code null}, from the L1 of a cache.
+     */
+    public static class Invalidation implements DataSerializable {
+
+        private String cacheName;
+
+        private Object key;
+
+        public Invalidation() {
+        }
+
+        Invalidation(String cacheName, Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeUTF(cacheName);
+            out.writeObject(key);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            cacheName = in.readUTF();
+            key = in.readObject();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.sc.config;
+
+import com.sc.service.WarmUpService;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the instance OUT_OF_SERVICE until its warm-up is complete, see {@link WarmUpService}.
+ * <p>
+ * With {@code eureka.client.healthcheck.enabled}, the health is also the status registered in Eureka, so
+ * the instance only gets traffic once warmed up.
+ */
+@Component
+public class WarmUpHealthIndicator extends AbstractHealthIndicator {
+
+    private final WarmUpService warmUpService;
+
+    public WarmUpHealthIndicator(WarmUpService warmUpService) {
+        super("Warm-up check failed");
+        this.warmUpService = warmUpService;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (warmUpService.isComplete()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sc.domain;
+
+import com.sc.domain.enumeration.ChangeOperation;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A change of an entity, written in the same transaction as the change and read back by the change feed,
+ * see {@link com.sc.service.ChangeFeedService}. Deletes are kept as tombstones until they are compacted.
+ */
+@Entity
+@Table(name = "change_log")
+public class ChangeLogEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = "com.sc.domain.PreassignedSequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 10, nullable = false)
+    private ChangeOperation operation;
+
+    /**
+     * Position of the change in the commit order of the changes of its entity type.
+     */
+    @Column(name = "sequence_number", nullable = false)
+    private long sequenceNumber;
+
+    @NotNull
+    @Column(name = "changed_date", nullable = false)
+    private Instant changedDate;
+
+    public ChangeLogEntry() {
+    }
+
+    public ChangeLogEntry(String entityType, Long entityId, ChangeOperation operation, long sequenceNumber, Instant changedDate) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.sequenceNumber = sequenceNumber;
+        this.changedDate = changedDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+
+    public Instant getChangedDate() {
+        return changedDate;
+    }
+
+    public void setChangedDate(Instant changedDate) {
+        this.changedDate = changedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeLogEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((ChangeLogEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeLogEntry{" +
+            "id=" + id +
+            ", entityType='" + entityType + '\'' +
+            ", entityId=" + entityId +
+            ", operation=" + operation +
+            ", sequenceNumber=" + sequenceNumber +
+            ", changedDate=" + changedDate +
+            '}';
+    }
+}
@@ -0,0 +1,87 @@
+package com.sc.domain;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * The sequence of the {@link ChangeLogEntry} of an entity type.
+ * <p>
+ * Writers lock the row while they number their entries just before committing, so that the sequence numbers
+ * follow the commit order: once an entry is visible, every entry with a lower number is visible too.
+ */
+@Entity
+@Table(name = "change_log_sequence")
+public class ChangeLogSequence implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "entity_type", length = 50)
+    private String entityType;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    /**
+     * The last sequence number up to which tombstones were compacted: a feed read from an older position
+     * could miss deletes.
+     */
+    @Column(name = "compacted_sequence", nullable = false)
+    private long compactedSequence;
+
+    public ChangeLogSequence() {
+    }
+
+    public ChangeLogSequence(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public long getCompactedSequence() {
+        return compactedSequence;
+    }
+
+    public void setCompactedSequence(long compactedSequence) {
+        this.compactedSequence = compactedSequence;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeLogSequence)) {
+            return false;
+        }
+        return entityType != null && entityType.equals(((ChangeLogSequence) o).entityType);
+    }
+
+    @Override
+    public int hashCode() {
+        return entityType != null ? entityType.hashCode() : getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeLogSequence{" +
+            "entityType='" + entityType + '\'' +
+            ", lastSequence=" + lastSequence +
+            ", compactedSequence=" + compactedSequence +
+            '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.sc.domain;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 
@@ -20,14 +21,18 @@ public class Country implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = "com.sc.domain.PreassignedSequenceGenerator")
     @org.springframework.data.elasticsearch.annotations.Field(type = FieldType.Keyword)
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "country_name")
     private String countryName;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(unique = true)
     private Region region;
 
@@ -40,6 +45,14 @@ public class Country implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getCountryName() {
         return countryName;
     }
@@ -80,7 +93,7 @@ public class Country implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id != null ? id.hashCode() : getClass().hashCode();
     }
 
     @Override
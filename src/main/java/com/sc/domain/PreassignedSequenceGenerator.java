@@ -0,0 +1,38 @@
+package com.sc.domain;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * Generates the ids of the entities from the {@code sequence_generator} sequence, 50 at a time, unless the entity
+ * already has one.
+ * <p>
+ * An entity which is put in a set before being persisted is given its id first, by
+ * {@link com.sc.repository.IdentifierRepository}: persisting it keeps that id, so its hash code does not change.
+ */
+public class PreassignedSequenceGenerator extends SequenceStyleGenerator {
+
+    static final String SEQUENCE_NAME = "sequence_generator";
+
+    static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        params.putIfAbsent(SEQUENCE_PARAM, SEQUENCE_NAME);
+        params.putIfAbsent(INCREMENT_PARAM, String.valueOf(ALLOCATION_SIZE));
+        super.configure(type, params, serviceRegistry);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        Serializable id = session.getEntityPersister(null, object).getIdentifier(object, session);
+        return id != null ? id : super.generate(session, object);
+    }
+}
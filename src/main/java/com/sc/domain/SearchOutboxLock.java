@@ -0,0 +1,54 @@
+package com.sc.domain;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * The lock of the {@link com.sc.service.SearchIndexDispatcher}.
+ * <p>
+ * A drain locks the row for its whole transaction, so that only one member of the cluster dispatches the
+ * outbox at a time: the documents are then written to Elasticsearch in the order of the changes, and a member
+ * cannot index a snapshot older than the one another member has just indexed. The row lock is released by the
+ * database if the member dies.
+ */
+@Entity
+@Table(name = "search_outbox_lock")
+public class SearchOutboxLock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchOutboxLock)) {
+            return false;
+        }
+        return name != null && name.equals(((SearchOutboxLock) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name != null ? name.hashCode() : getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "SearchOutboxLock{" +
+            "name='" + name + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,8 @@
+package com.sc.domain.enumeration;
+
+/**
+ * The ChangeOperation enumeration.
+ */
+public enum ChangeOperation {
+    UPSERT, DELETE
+}
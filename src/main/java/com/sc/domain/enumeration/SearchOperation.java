@@ -0,0 +1,8 @@
+package com.sc.domain.enumeration;
+
+/**
+ * The SearchOperation enumeration.
+ */
+public enum SearchOperation {
+    INDEX, DELETE
+}
@@ -1,4 +1,10 @@
 /**
  * JPA domain objects.
+ * <p>
+ * Entities are equal when they have the same id, and their hash code comes from the id, so that the relationship
+ * sets spread over their buckets. The hash code must not change while an entity is in a set: a new entity which
+ * is put in a set before being persisted is first given its id by {@link com.sc.repository.IdentifierRepository},
+ * and {@link com.sc.domain.PreassignedSequenceGenerator} keeps that id on persist. Entities without an id share
+ * the hash code of their class.
  */
 package com.sc.domain;
@@ -0,0 +1,43 @@
+package com.sc.repository;
+
+import com.sc.domain.ChangeLogEntry;
+import com.sc.domain.enumeration.ChangeOperation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link ChangeLogEntry} entity.
+ */
+@Repository
+public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    @Query("select entry from ChangeLogEntry entry where entry.entityType = :entityType and entry.sequenceNumber > :since " +
+        "order by entry.sequenceNumber")
+    List<ChangeLogEntry> findAfter(@Param("entityType") String entityType, @Param("since") long since, Pageable pageable);
+
+    /**
+     * Delete the entries followed by a later change of the same entity, the feed only needs the latest one.
+     */
+    @Modifying
+    @Query("delete from ChangeLogEntry entry where entry.entityType = :entityType and exists (" +
+        "select later.id from ChangeLogEntry later where later.entityType = entry.entityType " +
+        "and later.entityId = entry.entityId and later.sequenceNumber > entry.sequenceNumber)")
+    int deleteSuperseded(@Param("entityType") String entityType);
+
+    @Query("select max(entry.sequenceNumber) from ChangeLogEntry entry where entry.entityType = :entityType " +
+        "and entry.operation = :operation and entry.changedDate < :before")
+    Long findLastSequenceNumberBefore(@Param("entityType") String entityType, @Param("operation") ChangeOperation operation,
+                                      @Param("before") Instant before);
+
+    @Modifying
+    @Query("delete from ChangeLogEntry entry where entry.entityType = :entityType and entry.operation = :operation " +
+        "and entry.sequenceNumber <= :upTo")
+    int deleteUpTo(@Param("entityType") String entityType, @Param("operation") ChangeOperation operation, @Param("upTo") long upTo);
+}
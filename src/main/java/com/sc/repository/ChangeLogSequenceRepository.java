@@ -0,0 +1,22 @@
+package com.sc.repository;
+
+import com.sc.domain.ChangeLogSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the {@link ChangeLogSequence} entity.
+ */
+@Repository
+public interface ChangeLogSequenceRepository extends JpaRepository<ChangeLogSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select changeLogSequence from ChangeLogSequence changeLogSequence where changeLogSequence.entityType = :entityType")
+    Optional<ChangeLogSequence> findForUpdate(@Param("entityType") String entityType);
+}
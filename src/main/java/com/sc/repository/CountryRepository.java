@@ -3,6 +3,8 @@ import com.sc.domain.Country;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Spring Data  repository for the Country entity.
@@ -11,4 +13,9 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CountryRepository extends JpaRepository<Country, Long> {
 
+    /**
+     * Fetch plan for the search index, whose documents embed the region: loaded in the same select.
+     */
+    @EntityGraph(attributePaths = {"region"})
+    List<Country> findAllWithEagerRelationshipsByIdIn(Collection<Long> ids);
 }
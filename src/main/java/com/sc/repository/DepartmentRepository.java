@@ -3,6 +3,8 @@ import com.sc.domain.Department;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Spring Data  repository for the Department entity.
@@ -11,4 +13,9 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
+    /**
+     * Fetch plan for the search index, whose documents embed the location: loaded in the same select.
+     */
+    @EntityGraph(attributePaths = {"location"})
+    List<Department> findAllWithEagerRelationshipsByIdIn(Collection<Long> ids);
 }
@@ -3,6 +3,8 @@ import com.sc.domain.Employee;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Spring Data  repository for the Employee entity.
@@ -11,4 +13,9 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
 
+    /**
+     * Fetch plan for the search index, whose documents embed the manager and department: loaded in the same select.
+     */
+    @EntityGraph(attributePaths = {"manager", "department"})
+    List<Employee> findAllWithEagerRelationshipsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,39 @@
+package com.sc.repository;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Assigns ids to new entities before they are persisted.
+ * <p>
+ * The hash code of an entity comes from its id, so an entity must have its id before it is put in a set: the id is
+ * drawn from the same sequence as on persist, which then keeps it. Must be called inside a transaction.
+ */
+@Repository
+public class IdentifierRepository {
+
+    private final EntityManager entityManager;
+
+    public IdentifierRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Assign an id to an entity which has none yet.
+     *
+     * @param entity the entity.
+     * @param <T> the entity type.
+     * @return the entity, with its id.
+     */
+    public <T> T assignId(T entity) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getEntityPersister(null, entity);
+        if (persister.getIdentifier(entity, session) == null) {
+            persister.setIdentifier(entity, persister.getIdentifierGenerator().generate(session, entity), session);
+        }
+        return entity;
+    }
+}
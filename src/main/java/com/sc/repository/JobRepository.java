@@ -1,13 +1,19 @@
 package com.sc.repository;
 import com.sc.domain.Job;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Spring Data  repository for the Job entity.
@@ -15,9 +21,33 @@ import java.util.Optional;
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificationExecutor<Job> {
 
-    @Query(value = "select distinct job from Job job left join fetch job.tasks",
-        countQuery = "select count(distinct job) from Job job")
-    Page<Job> findAllWithEagerRelationships(Pageable pageable);
+    /**
+     * Page the jobs with their tasks in two queries: the page of ids first, then the jobs of that page with a
+     * fetch join, so that the database paginates rather than Hibernate in memory.
+     *
+     * @param pageable the pagination information.
+     * @return the page of jobs, their tasks initialized, without those deleted between the two queries.
+     */
+    default Page<Job> findAllWithEagerRelationships(Pageable pageable) {
+        Page<Long> ids = findAllIds(pageable);
+        if (!ids.hasContent()) {
+            return ids.map(id -> null);
+        }
+        Map<Long, Job> jobs = findAllWithEagerRelationshipsByIdIn(ids.getContent()).stream()
+            .collect(Collectors.toMap(Job::getId, Function.identity()));
+        List<Job> content = ids.stream()
+            .map(jobs::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    @Query(value = "select job.id from Job job",
+        countQuery = "select count(job) from Job job")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @Query("select distinct job from Job job left join fetch job.tasks where job.id in :ids")
+    List<Job> findAllWithEagerRelationshipsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("select distinct job from Job job left join fetch job.tasks")
     List<Job> findAllWithEagerRelationships();
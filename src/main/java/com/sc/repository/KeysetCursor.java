@@ -0,0 +1,91 @@
+package com.sc.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset (seek) paginated result: the sort key and id of the last row returned.
+ * <p>
+ * The cursor is bound to the sort it was produced with, so it cannot be replayed against another ordering.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "\n";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final Long id;
+
+    /**
+     * The sort key of the last row, or {@code null} if it was null (or if the sort is on the id).
+     */
+    private final String value;
+
+    KeysetCursor(String property, Sort.Direction direction, Long id, Object value) {
+        this.property = property;
+        this.direction = direction;
+        this.id = id;
+        this.value = value == null ? null : value.toString();
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            String value = parts[3].isEmpty() ? null : parts[3].substring(1);
+            return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]), value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + (value == null ? "" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean matches(Sort.Order order) {
+        return property.equals(order.getProperty()) && direction == order.getDirection();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isNullValue() {
+        return value == null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    <Y extends Comparable<? super Y>> Y getValue(Class<? extends Y> type) {
+        if (String.class.equals(type)) {
+            return (Y) value;
+        } else if (Long.class.equals(type)) {
+            return (Y) Long.valueOf(value);
+        } else if (Integer.class.equals(type)) {
+            return (Y) Integer.valueOf(value);
+        } else if (Instant.class.equals(type)) {
+            return (Y) Instant.parse(value);
+        } else if (LocalDate.class.equals(type)) {
+            return (Y) LocalDate.parse(value);
+        } else if (type.isEnum()) {
+            return (Y) Enum.valueOf((Class<Enum>) (Class<?>) type, value);
+        }
+        throw new IllegalArgumentException("Unsupported keyset sort type: " + type);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "property='" + property + '\'' +
+            ", direction=" + direction +
+            ", id=" + id +
+            ", value='" + value + '\'' +
+            '}';
+    }
+}
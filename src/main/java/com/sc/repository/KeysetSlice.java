@@ -0,0 +1,37 @@
+package com.sc.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link org.springframework.data.domain.Slice} of a keyset paginated query, carrying the cursor of the next slice.
+ *
+ * @param <T> the type of the content.
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String nextCursor;
+
+    public KeysetSlice(List<T> content, Pageable pageable, String nextCursor) {
+        super(content, pageable, nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the cursor to pass as {@code after} to fetch the next slice, or {@code null} if this is the last one.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new KeysetSlice<>(getContent().stream().map(converter).collect(Collectors.toList()), getPageable(), nextCursor);
+    }
+}
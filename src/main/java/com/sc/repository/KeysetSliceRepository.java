@@ -0,0 +1,136 @@
+package com.sc.repository;
+
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset (seek) pagination over a {@link Specification}.
+ * <p>
+ * Instead of an OFFSET, each slice restarts right after the (sort key, id) tuple of the previous one, so the cost
+ * of a slice does not depend on its depth as long as the tuple is indexed. No count query is issued: one extra row
+ * is fetched to know whether there is a next slice.
+ * <p>
+ * Rows with a null sort key are returned after all the others, whatever the direction, ordered by id.
+ */
+@Repository
+public class KeysetSliceRepository {
+
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+
+    public KeysetSliceRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return the slice of entities following the given cursor.
+     *
+     * @param domainClass the entity class.
+     * @param specification the filters to apply, may be {@code null}.
+     * @param pageable the size and sort of the slice; the page number is ignored.
+     * @param after the cursor returned with the previous slice, or {@code null}/empty for the first slice.
+     * @param sortKeys the properties the entity may be sorted on, each backed by a (property, id) index.
+     * @param <T> the entity type.
+     * @return the slice, with the cursor of the next one.
+     * @throws IllegalArgumentException if the sort or the cursor are not supported.
+     */
+    public <T> KeysetSlice<T> findSlice(Class<T> domainClass, Specification<T> specification, Pageable pageable,
+                                        String after, Set<String> sortKeys) {
+        Sort.Order order = keysetOrder(pageable.getSort(), sortKeys);
+        KeysetCursor cursor = after == null || after.isEmpty() ? null : KeysetCursor.decode(after);
+        if (cursor != null && !cursor.matches(order)) {
+            throw new IllegalArgumentException("The cursor does not match the requested sort");
+        }
+        int size = pageable.getPageSize();
+        List<T> content = new ArrayList<>(size + 1);
+        if (ID.equals(order.getProperty()) || cursor == null || !cursor.isNullValue()) {
+            content.addAll(query(domainClass, specification, order, cursor, false, size + 1));
+        }
+        if (!ID.equals(order.getProperty()) && content.size() <= size) {
+            KeysetCursor nullCursor = cursor != null && cursor.isNullValue() ? cursor : null;
+            content.addAll(query(domainClass, specification, order, nullCursor, true, size + 1 - content.size()));
+        }
+        String nextCursor = null;
+        if (content.size() > size) {
+            content = new ArrayList<>(content.subList(0, size));
+            nextCursor = cursorOf(content.get(size - 1), order).encode();
+        }
+        return new KeysetSlice<>(content, pageable, nextCursor);
+    }
+
+    private Sort.Order keysetOrder(Sort sort, Set<String> sortKeys) {
+        Sort.Order keyOrder = null;
+        for (Sort.Order order : sort) {
+            if (ID.equals(order.getProperty())) {
+                if (keyOrder == null) {
+                    keyOrder = order;
+                }
+            } else if (keyOrder == null || ID.equals(keyOrder.getProperty())) {
+                if (!sortKeys.contains(order.getProperty())) {
+                    throw new IllegalArgumentException("Cursor pagination cannot sort on " + order.getProperty());
+                }
+                keyOrder = order;
+            } else {
+                throw new IllegalArgumentException("Cursor pagination supports a single sort key");
+            }
+        }
+        return keyOrder == null ? Sort.Order.asc(ID) : keyOrder;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> List<T> query(Class<T> domainClass, Specification<T> specification, Sort.Order order,
+                              KeysetCursor cursor, boolean nullKeys, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        boolean ascending = order.isAscending();
+        Path<Long> id = root.get(ID);
+        Predicate afterId = cursor == null ? null : (ascending ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId()));
+        Order idOrder = ascending ? cb.asc(id) : cb.desc(id);
+        if (ID.equals(order.getProperty())) {
+            query.orderBy(idOrder);
+        } else if (nullKeys) {
+            Path<?> key = root.get(order.getProperty());
+            predicates.add(cb.isNull(key));
+            query.orderBy(cb.asc(id));
+            afterId = cursor == null ? null : cb.greaterThan(id, cursor.getId());
+        } else {
+            Path<Comparable> key = root.get(order.getProperty());
+            predicates.add(cb.isNotNull(key));
+            if (cursor != null) {
+                Comparable value = cursor.getValue(key.getJavaType());
+                Predicate beyondKey = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+                afterId = cb.or(beyondKey, cb.and(cb.equal(key, value), afterId));
+            }
+            query.orderBy(ascending ? cb.asc(key) : cb.desc(key), idOrder);
+        }
+        if (afterId != null) {
+            predicates.add(afterId);
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private KeysetCursor cursorOf(Object entity, Sort.Order order) {
+        PropertyAccessor accessor = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        Long id = (Long) accessor.getPropertyValue(ID);
+        Object value = ID.equals(order.getProperty()) ? null : accessor.getPropertyValue(order.getProperty());
+        return new KeysetCursor(order.getProperty(), order.getDirection(), id, value);
+    }
+}
@@ -3,6 +3,8 @@ import com.sc.domain.Location;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Spring Data  repository for the Location entity.
@@ -11,4 +13,9 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
 
+    /**
+     * Fetch plan for the search index, whose documents embed the country: loaded in the same select.
+     */
+    @EntityGraph(attributePaths = {"country"})
+    List<Location> findAllWithEagerRelationshipsByIdIn(Collection<Long> ids);
 }
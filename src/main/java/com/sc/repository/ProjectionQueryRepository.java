@@ -0,0 +1,110 @@
+package com.sc.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-only queries over a {@link Specification} selecting only the columns of a projection.
+ * <p>
+ * Rows are read as {@link Tuple}s and mapped straight to the projection type: no entity is hydrated, so nothing
+ * is added to the persistence context nor snapshotted for dirty checking. Selecting the id of a to-one
+ * association reads its foreign key column, without a join.
+ */
+@Repository
+public class ProjectionQueryRepository {
+
+    private final EntityManager entityManager;
+
+    public ProjectionQueryRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return every projected row matching the specification.
+     *
+     * @param domainClass the entity class.
+     * @param specification the filters to apply, may be {@code null}.
+     * @param sort the order of the rows.
+     * @param selection the selected columns, aliased with the names read by {@code mapper}.
+     * @param mapper the function building a projection from a row.
+     * @param <T> the entity type.
+     * @param <R> the projection type.
+     * @return the projections.
+     */
+    public <T, R> List<R> findAll(Class<T> domainClass, Specification<T> specification, Sort sort,
+                                  Function<Root<T>, List<Selection<?>>> selection, Function<Tuple, R> mapper) {
+        return map(createQuery(domainClass, specification, sort, selection).getResultList(), mapper);
+    }
+
+    /**
+     * Return a page of the projected rows matching the specification.
+     *
+     * @param domainClass the entity class.
+     * @param specification the filters to apply, may be {@code null}.
+     * @param pageable the page to return.
+     * @param selection the selected columns, aliased with the names read by {@code mapper}.
+     * @param mapper the function building a projection from a row.
+     * @param <T> the entity type.
+     * @param <R> the projection type.
+     * @return the page of projections; the count query is skipped when the page size tells the total.
+     */
+    public <T, R> Page<R> findAll(Class<T> domainClass, Specification<T> specification, Pageable pageable,
+                                  Function<Root<T>, List<Selection<?>>> selection, Function<Tuple, R> mapper) {
+        TypedQuery<Tuple> query = createQuery(domainClass, specification, pageable.getSort(), selection);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<R> content = map(query.getResultList(), mapper);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(domainClass, specification));
+    }
+
+    private <T> TypedQuery<Tuple> createQuery(Class<T> domainClass, Specification<T> specification, Sort sort,
+                                              Function<Root<T>, List<Selection<?>>> selection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(selection.apply(root));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private <T> long count(Class<T> domainClass, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static <R> List<R> map(List<Tuple> rows, Function<Tuple, R> mapper) {
+        List<R> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            result.add(mapper.apply(row));
+        }
+        return result;
+    }
+}
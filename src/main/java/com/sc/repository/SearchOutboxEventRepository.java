@@ -0,0 +1,24 @@
+package com.sc.repository;
+
+import com.sc.domain.SearchOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link SearchOutboxEvent} entity.
+ */
+@Repository
+public interface SearchOutboxEventRepository extends JpaRepository<SearchOutboxEvent, Long> {
+
+    @Query("select event from SearchOutboxEvent event where event.processAfter <= :now order by event.id")
+    List<SearchOutboxEvent> findReady(@Param("now") Instant now, Pageable pageable);
+
+    @Query("select min(event.createdDate) from SearchOutboxEvent event")
+    Instant findOldestCreatedDate();
+}
@@ -0,0 +1,32 @@
+package com.sc.repository;
+
+import com.sc.domain.SearchOutboxLock;
+import org.hibernate.LockOptions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the {@link SearchOutboxLock} entity.
+ */
+@Repository
+public interface SearchOutboxLockRepository extends JpaRepository<SearchOutboxLock, String> {
+
+    /**
+     * Lock the row for the current transaction, unless another transaction holds it.
+     *
+     * @param name the name of the lock.
+     * @return the locked row, or empty if another transaction holds it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select outboxLock from SearchOutboxLock outboxLock where outboxLock.name = :name")
+    Optional<SearchOutboxLock> tryLock(@Param("name") String name);
+}
@@ -0,0 +1,68 @@
+package com.sc.repository;
+
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams the entities matching a {@link Specification} with constant memory, for exports.
+ * <p>
+ * Rows are read through a JDBC cursor with a large fetch size, as read-only entities bypassing the second-level
+ * cache, and the persistence context is cleared after each fetch so it does not grow with the result.
+ * Must be called inside a (read-only) transaction.
+ */
+@Repository
+public class StreamingQueryRepository {
+
+    /**
+     * Rows fetched per database round trip, also the number of entities kept in the persistence context.
+     */
+    public static final int FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    public StreamingQueryRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Apply an action to every entity matching the specification, in id order.
+     *
+     * @param domainClass the entity class.
+     * @param specification the filters to apply, may be {@code null}.
+     * @param action the action, which must not keep a reference to the (soon detached) entity.
+     * @param <T> the entity type.
+     */
+    public <T> void forEach(Class<T> domainClass, Specification<T> specification, Consumer<? super T> action) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        Predicate filter = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        try (Stream<T> stream = entityManager.createQuery(query)
+            .setHint(QueryHints.HINT_FETCH_SIZE, FETCH_SIZE)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+            .getResultStream()) {
+            int count = 0;
+            for (T entity : (Iterable<T>) stream::iterator) {
+                action.accept(entity);
+                if (++count % FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
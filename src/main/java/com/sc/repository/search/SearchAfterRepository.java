@@ -0,0 +1,192 @@
+package com.sc.repository.search;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Cursor pagination over Elasticsearch searches, with {@code search_after}.
+ * <p>
+ * Instead of skipping {@code from} hits, which Elasticsearch has to collect and sort again for every page and which
+ * is capped by {@code index.max_result_window}, each slice restarts right after the sort values of the last hit of
+ * the previous one, so the cost of a slice does not depend on its depth. The sort always ends with the id so that
+ * the position is unique. One extra hit is fetched to know whether there is a next slice, and the hits are only
+ * counted on request.
+ */
+@Repository
+public class SearchAfterRepository {
+
+    private static final String ID = "id";
+
+    private static final String SCORE = "_score";
+
+    private final JestClient jestClient;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final EntityMapper entityMapper;
+
+    public SearchAfterRepository(JestClient jestClient, ElasticsearchOperations elasticsearchOperations, EntityMapper entityMapper) {
+        this.jestClient = jestClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.entityMapper = entityMapper;
+    }
+
+    /**
+     * Return the slice of hits following the given cursor.
+     *
+     * @param entityClass the class of the indexed entities.
+     * @param query the query of the search.
+     * @param pageable the size and sort of the slice; the page number is ignored. Unsorted hits are sorted by score.
+     * @param after the cursor returned with the previous slice, or {@code null}/empty for the first slice.
+     * @param countTotal whether to count all the hits of the query.
+     * @param <T> the entity type.
+     * @return the slice, with the cursor of the next one.
+     * @throws IllegalArgumentException if the cursor is not valid for this sort.
+     */
+    public <T> SearchAfterSlice<T> search(Class<T> entityClass, QueryBuilder query, Pageable pageable, String after,
+                                          boolean countTotal) {
+        List<Sort.Order> orders = orders(pageable.getSort());
+        String sortKey = sortKey(orders);
+        int size = pageable.getPageSize();
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(query)
+            .size(size + 1)
+            .trackTotalHits(countTotal);
+        for (Sort.Order order : orders) {
+            SortOrder sortOrder = order.isAscending() ? SortOrder.ASC : SortOrder.DESC;
+            source.sort(SCORE.equals(order.getProperty())
+                ? SortBuilders.scoreSort().order(sortOrder)
+                : SortBuilders.fieldSort(order.getProperty()).order(sortOrder));
+        }
+        if (after != null && !after.isEmpty()) {
+            source.searchAfter(decodeCursor(after, sortKey));
+        }
+
+        ElasticsearchPersistentEntity<?> entity = elasticsearchOperations.getPersistentEntityFor(entityClass);
+        Search search = new Search.Builder(source.toString())
+            .addIndex(entity.getIndexName())
+            .addType(entity.getIndexType())
+            .build();
+        SearchResult result;
+        try {
+            result = jestClient.execute(search);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search of " + entityClass.getSimpleName() + " failed", e);
+        }
+        if (!result.isSucceeded()) {
+            if (result.getResponseCode() == 400) {
+                // The cursor values do not fit the sorted fields
+                throw new IllegalArgumentException("Invalid search: " + result.getErrorMessage());
+            }
+            throw new IllegalStateException("Search of " + entityClass.getSimpleName() + " failed: " + result.getErrorMessage());
+        }
+
+        JsonObject hits = result.getJsonObject().getAsJsonObject("hits");
+        JsonArray hitArray = hits.getAsJsonArray("hits");
+        List<T> content = new ArrayList<>(Math.min(hitArray.size(), size));
+        for (int i = 0; i < hitArray.size() && i < size; i++) {
+            content.add(read(hitArray.get(i).getAsJsonObject().get("_source").toString(), entityClass));
+        }
+        String nextCursor = hitArray.size() > size
+            ? encodeCursor(sortKey, hitArray.get(size - 1).getAsJsonObject().getAsJsonArray(SearchResult.SORT_KEY))
+            : null;
+        Long totalHits = countTotal ? hits.get("total").getAsLong() : null;
+        return new SearchAfterSlice<>(content, pageable, nextCursor, totalHits);
+    }
+
+    /**
+     * @return the orders of the sort, by score if unsorted, with the id as tiebreaker.
+     */
+    private static List<Sort.Order> orders(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        sort.forEach(orders::add);
+        if (orders.isEmpty()) {
+            orders.add(Sort.Order.desc(SCORE));
+        }
+        if (orders.stream().noneMatch(order -> ID.equals(order.getProperty()))) {
+            orders.add(Sort.Order.asc(ID));
+        }
+        return orders;
+    }
+
+    private static String sortKey(List<Sort.Order> orders) {
+        StringBuilder key = new StringBuilder();
+        for (Sort.Order order : orders) {
+            key.append(order.getProperty()).append(':').append(order.getDirection()).append(',');
+        }
+        return key.toString();
+    }
+
+    private <T> T read(String source, Class<T> entityClass) {
+        try {
+            return entityMapper.mapToObject(source, entityClass);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read a hit of " + entityClass.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * The cursor is the sort key followed by the sort values of the last hit, so that it cannot be replayed against
+     * another ordering.
+     */
+    static String encodeCursor(String sortKey, JsonArray sortValues) {
+        JsonArray cursor = new JsonArray();
+        cursor.add(sortKey);
+        sortValues.forEach(cursor::add);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object[] decodeCursor(String cursor, String sortKey) {
+        JsonArray values;
+        try {
+            values = new JsonParser().parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8))
+                .getAsJsonArray();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        if (values.size() == 0 || !values.get(0).isJsonPrimitive() || !sortKey.equals(values.get(0).getAsString())) {
+            throw new IllegalArgumentException("The cursor does not match the requested sort");
+        }
+        Object[] searchAfter = new Object[values.size() - 1];
+        for (int i = 1; i < values.size(); i++) {
+            searchAfter[i - 1] = value(values.get(i), cursor);
+        }
+        return searchAfter;
+    }
+
+    private static Object value(JsonElement element, String cursor) {
+        if (!element.isJsonPrimitive()) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isNumber()) {
+            String number = primitive.getAsString();
+            return number.contains(".") || number.contains("e") || number.contains("E")
+                ? (Object) primitive.getAsDouble() : (Object) primitive.getAsLong();
+        }
+        return primitive.isBoolean() ? (Object) primitive.getAsBoolean() : primitive.getAsString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.sc.repository.search;
+
+import com.sc.repository.KeysetSlice;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link KeysetSlice} of a {@code search_after} paginated search, carrying the total number of hits if it was
+ * counted.
+ *
+ * @param <T> the type of the content.
+ */
+public class SearchAfterSlice<T> extends KeysetSlice<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long totalHits;
+
+    public SearchAfterSlice(List<T> content, Pageable pageable, String nextCursor, Long totalHits) {
+        super(content, pageable, nextCursor);
+        this.totalHits = totalHits;
+    }
+
+    /**
+     * @return the total number of hits, or {@code null} if they were not counted.
+     */
+    public Long getTotalHits() {
+        return totalHits;
+    }
+
+    @Override
+    public <U> SearchAfterSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new SearchAfterSlice<>(getContent().stream().map(converter).collect(Collectors.toList()), getPageable(),
+            getNextCursor(), totalHits);
+    }
+}
@@ -1,8 +1,13 @@
 package com.sc.security.jwt;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -16,6 +21,10 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -28,6 +37,39 @@ public class TokenProvider implements InitializingBean {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    /**
+     * Maximum number of verified tokens kept in memory.
+     */
+    static final int VERIFIED_TOKENS_MAX_SIZE = 10000;
+
+    /**
+     * Maximum number of distinct authority claims kept in memory.
+     */
+    private static final int AUTHORITIES_MAX_SIZE = 1000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * Authentications of the tokens already verified, by SHA-256 digest of the token, each expiring with its token.
+     */
+    private final Cache<ByteBuffer, VerifiedToken> verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(VERIFIED_TOKENS_MAX_SIZE)
+        .expireAfter(new VerifiedTokenExpiry())
+        // Maintenance is amortized over the callers rather than handed to the common pool
+        .executor(Runnable::run)
+        .build();
+
+    /**
+     * Authorities by value of the {@value #AUTHORITIES_KEY} claim, shared by all the tokens carrying the same roles.
+     */
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
     private Key key;
 
     private long tokenValidityInMilliseconds;
@@ -82,29 +124,108 @@ public class TokenProvider implements InitializingBean {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parser()
+        return toAuthentication(parseClaims(token), token);
+    }
+
+    public boolean validateToken(String authToken) {
+        try {
+            parseClaims(authToken);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+        }
+        return false;
+    }
+
+    /**
+     * Verify a token and build its authentication with a single parse.
+     * <p>
+     * The authentication of a verified token is kept until the token expires, so that the following requests
+     * carrying the same token skip the signature verification and the claims parsing.
+     *
+     * @param token the JWT token.
+     * @return the authentication, or empty if the token is not valid.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null) {
+            return Optional.of(verified.authentication);
+        }
+        Claims claims;
+        try {
+            claims = parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+            return Optional.empty();
+        }
+        Authentication authentication = toAuthentication(claims, token);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(authentication, claims.getExpiration().getTime()));
+        }
+        return Optional.of(authentication);
+    }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parser()
             .setSigningKey(key)
             .parseClaimsJws(token)
             .getBody();
+    }
 
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+    private Authentication toAuthentication(Claims claims, String token) {
+        List<GrantedAuthority> authorities = getAuthorities(claims.get(AUTHORITIES_KEY).toString());
 
         User principal = new User(claims.getSubject(), "", authorities);
 
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 
-    public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser().setSigningKey(key).parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.info("Invalid JWT token.");
-            log.trace("Invalid JWT token trace.", e);
+    private List<GrantedAuthority> getAuthorities(String claim) {
+        List<GrantedAuthority> authorities = authoritiesByClaim.get(claim);
+        if (authorities == null) {
+            authorities = Collections.unmodifiableList(Arrays.stream(claim.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList()));
+            if (authoritiesByClaim.size() < AUTHORITIES_MAX_SIZE) {
+                authoritiesByClaim.putIfAbsent(claim, authorities);
+            }
+        }
+        return authorities;
+    }
+
+    private static final class VerifiedToken {
+
+        private final Authentication authentication;
+
+        private final long expiresAt;
+
+        private VerifiedToken(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Expires the verified tokens at the expiration time of the token.
+     */
+    private static final class VerifiedTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer digest, VerifiedToken verified, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(verified.expiresAt - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer digest, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer digest, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        return false;
     }
 }
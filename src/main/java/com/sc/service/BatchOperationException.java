@@ -0,0 +1,23 @@
+package com.sc.service;
+
+/**
+ * Thrown when an operation of a batch fails, see {@link BatchService}: none of the operations of the batch is saved.
+ */
+public class BatchOperationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+
+    public BatchOperationException(int index, String message, RuntimeException cause) {
+        super(message, cause);
+        this.index = index;
+    }
+
+    /**
+     * @return the index of the failed operation in the batch.
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,255 @@
+package com.sc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sc.service.dto.BatchOperationDTO;
+import com.sc.service.dto.CountryDTO;
+import com.sc.service.dto.DepartmentDTO;
+import com.sc.service.dto.EmployeeDTO;
+import com.sc.service.dto.JobDTO;
+import com.sc.service.dto.JobHistoryDTO;
+import com.sc.service.dto.LocationDTO;
+import com.sc.service.dto.RegionDTO;
+import com.sc.service.dto.TaskDTO;
+import org.hibernate.HibernateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Service running a batch of create, update and delete operations across entities in one transaction.
+ * <p>
+ * The operations are run in order through the services of their entities, so that they have the same side
+ * effects as the single requests. A run of consecutive creates and updates of the same entity is saved at
+ * once and flushed once, so that its statements are sent as JDBC batches. The search index updates go through the
+ * outbox, and are therefore committed along with the batch and sent once it commits, in one bulk request per
+ * entity type.
+ * <p>
+ * If an operation fails, the whole batch is rolled back. The failure is reported with the exception of the
+ * operation as cause, persistence exceptions being translated to Spring's data access exceptions; its message only
+ * names the operation, since the one of the cause may contain SQL or constraint names.
+ */
+@Service
+@Transactional
+public class BatchService {
+
+    private static final PersistenceExceptionTranslator PERSISTENCE_EXCEPTION_TRANSLATOR = new HibernateJpaDialect();
+
+    private final Logger log = LoggerFactory.getLogger(BatchService.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final EntityManager entityManager;
+
+    private final Map<String, Target<?>> targets = new HashMap<>();
+
+    public BatchService(ObjectMapper objectMapper, Validator validator, EntityManager entityManager,
+                        EmployeeService employeeService, JobHistoryService jobHistoryService, JobService jobService,
+                        DepartmentService departmentService, LocationService locationService, CountryService countryService,
+                        RegionService regionService, TaskService taskService) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        register("employees", new Target<>(EmployeeDTO.class, EmployeeDTO::getId, employeeService::save,
+            employeeService::saveAll, employeeService::delete));
+        register("job-histories", new Target<>(JobHistoryDTO.class, JobHistoryDTO::getId, jobHistoryService::save,
+            jobHistoryService::saveAll, jobHistoryService::delete));
+        register("jobs", new Target<>(JobDTO.class, JobDTO::getId, jobService::save, jobService::saveAll, jobService::delete));
+        register("departments", new Target<>(DepartmentDTO.class, DepartmentDTO::getId, departmentService::save,
+            departmentService::saveAll, departmentService::delete));
+        register("locations", new Target<>(LocationDTO.class, LocationDTO::getId, locationService::save,
+            locationService::saveAll, locationService::delete));
+        register("countries", new Target<>(CountryDTO.class, CountryDTO::getId, countryService::save,
+            countryService::saveAll, countryService::delete));
+        register("regions", new Target<>(RegionDTO.class, RegionDTO::getId, regionService::save, regionService::saveAll,
+            regionService::delete));
+        register("tasks", new Target<>(TaskDTO.class, TaskDTO::getId, taskService::save, taskService::saveAll,
+            taskService::delete));
+    }
+
+    private void register(String entity, Target<?> target) {
+        targets.put(entity, target);
+    }
+
+    /**
+     * Run a batch of operations.
+     *
+     * @param operations the operations, in the order to run them.
+     * @return the id of the entity of every operation, in the same order.
+     * @throws BatchOperationException if an operation fails; the whole batch is then rolled back.
+     */
+    public List<Long> execute(List<BatchOperationDTO> operations) {
+        log.debug("Request to run a batch of {} operations", operations.size());
+        List<Long> ids = new ArrayList<>(operations.size());
+        int index = 0;
+        while (index < operations.size()) {
+            int end = runEnd(operations, index);
+            if (end - index > 1) {
+                ids.addAll(saveAll(operations, index, end));
+            } else {
+                ids.add(run(operations.get(index), index));
+            }
+            index = end;
+        }
+        return ids;
+    }
+
+    /**
+     * @return the end of the run of saves starting at {@code start} that can be saved at once.
+     */
+    private int runEnd(List<BatchOperationDTO> operations, int start) {
+        BatchOperationDTO first = operations.get(start);
+        if (!isSave(first) || !targets.containsKey(first.getEntity())) {
+            return start + 1;
+        }
+        int end = start + 1;
+        while (end < operations.size() && isSave(operations.get(end))
+            && first.getEntity().equals(operations.get(end).getEntity())) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isSave(BatchOperationDTO operation) {
+        return operation.getMethod() == BatchOperationDTO.Method.CREATE || operation.getMethod() == BatchOperationDTO.Method.UPDATE;
+    }
+
+    private List<Long> saveAll(List<BatchOperationDTO> operations, int start, int end) {
+        Target<?> target = targets.get(operations.get(start).getEntity());
+        List<Object> dtos = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            try {
+                dtos.add(target.read(operations.get(i)));
+            } catch (RuntimeException e) {
+                throw failure(i, "Operation " + i + " failed", e);
+            }
+        }
+        try {
+            return target.saveAll(dtos);
+        } catch (RuntimeException e) {
+            // Flushed at once: the statement that failed is not known
+            throw failure(start, "Operations " + start + " to " + (end - 1) + " failed", e);
+        }
+    }
+
+    private Long run(BatchOperationDTO operation, int index) {
+        try {
+            Target<?> target = target(operation);
+            if (operation.getMethod() == BatchOperationDTO.Method.DELETE) {
+                if (operation.getId() == null) {
+                    throw new IllegalArgumentException("A delete needs an ID");
+                }
+                target.delete.accept(operation.getId());
+                // Flushed so that a failure is reported on this operation
+                entityManager.flush();
+                return operation.getId();
+            }
+            return target.save(target.read(operation));
+        } catch (RuntimeException e) {
+            throw failure(index, "Operation " + index + " failed", e);
+        }
+    }
+
+    private BatchOperationException failure(int index, String message, RuntimeException e) {
+        log.debug("{}: {}", message, e.toString());
+        if (e instanceof PersistenceException || e instanceof HibernateException) {
+            DataAccessException translated = PERSISTENCE_EXCEPTION_TRANSLATOR.translateExceptionIfPossible(e);
+            if (translated != null) {
+                return new BatchOperationException(index, message, translated);
+            }
+        }
+        return new BatchOperationException(index, message, e);
+    }
+
+    private Target<?> target(BatchOperationDTO operation) {
+        if (operation.getMethod() == null) {
+            throw new IllegalArgumentException("The method is missing");
+        }
+        Target<?> target = targets.get(operation.getEntity());
+        if (target == null) {
+            throw new IllegalArgumentException("Unknown entity " + operation.getEntity());
+        }
+        return target;
+    }
+
+    private final class Target<D> {
+
+        private final Class<D> dtoClass;
+
+        private final Function<D, Long> idGetter;
+
+        private final Function<D, D> save;
+
+        private final Function<List<D>, List<D>> saveAll;
+
+        private final Consumer<Long> delete;
+
+        Target(Class<D> dtoClass, Function<D, Long> idGetter, Function<D, D> save, Function<List<D>, List<D>> saveAll,
+               Consumer<Long> delete) {
+            this.dtoClass = dtoClass;
+            this.idGetter = idGetter;
+            this.save = save;
+            this.saveAll = saveAll;
+            this.delete = delete;
+        }
+
+        /**
+         * Read and validate the body of a create or update.
+         */
+        D read(BatchOperationDTO operation) {
+            target(operation);
+            if (operation.getBody() == null) {
+                throw new IllegalArgumentException("A " + operation.getMethod().name().toLowerCase() + " needs a body");
+            }
+            D dto;
+            try {
+                dto = objectMapper.treeToValue(operation.getBody(), dtoClass);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid body: " + e.getOriginalMessage(), e);
+            }
+            Long id = idGetter.apply(dto);
+            if (operation.getMethod() == BatchOperationDTO.Method.CREATE && id != null) {
+                throw new IllegalArgumentException("A new entity cannot already have an ID");
+            }
+            if (operation.getMethod() == BatchOperationDTO.Method.UPDATE && id == null) {
+                throw new IllegalArgumentException("An update needs an ID");
+            }
+            Set<ConstraintViolation<D>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            return dto;
+        }
+
+        @SuppressWarnings("unchecked")
+        Long save(Object dto) {
+            return idGetter.apply(save.apply((D) dto));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Long> saveAll(List<Object> dtos) {
+            List<Long> ids = new ArrayList<>(dtos.size());
+            saveAll.apply((List<D>) (List<?>) dtos).forEach(saved -> ids.add(idGetter.apply(saved)));
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.sc.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.ChangeLogEntry;
+import com.sc.domain.ChangeLogSequence;
+import com.sc.domain.Department;
+import com.sc.domain.Employee;
+import com.sc.domain.Job;
+import com.sc.domain.enumeration.ChangeOperation;
+import com.sc.repository.ChangeLogEntryRepository;
+import com.sc.repository.ChangeLogSequenceRepository;
+import com.sc.repository.DepartmentRepository;
+import com.sc.repository.EmployeeRepository;
+import com.sc.repository.JobRepository;
+import com.sc.service.dto.ChangeFeedDTO;
+import com.sc.service.dto.DepartmentDTO;
+import com.sc.service.dto.EmployeeDTO;
+import com.sc.service.dto.JobDTO;
+import com.sc.service.mapper.DepartmentMapper;
+import com.sc.service.mapper.EmployeeMapper;
+import com.sc.service.mapper.JobMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service recording the changes of employees, jobs and departments in the {@link ChangeLogEntry} table, and
+ * reading them back as a feed, so that clients only download what changed since their last sync.
+ * <p>
+ * Changes are collected during the caller's transaction and written just before it commits, numbered under a
+ * lock on the {@link ChangeLogSequence} of their entity type: the numbers follow the commit order, so a client
+ * reading past a number never misses a change committed later with a lower one. Deletes are written as
+ * tombstones. Only the latest change of an entity is needed, so the older ones are compacted away, and
+ * tombstones are dropped once older than the retention; positions before them are then refused.
+ * <p>
+ * A client may long-poll: the committing member announces the entity type over a Hazelcast topic, and each
+ * member reads the feed again for its waiting clients, once for all the clients waiting at the same position.
+ */
+@Service
+public class ChangeFeedService {
+
+    static final String CHANGE_TOPIC = "change-feed";
+
+    private final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final ChangeLogEntryRepository changeLogEntryRepository;
+
+    private final ChangeLogSequenceRepository changeLogSequenceRepository;
+
+    private final ITopic<String> changeTopic;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.ChangeFeed properties;
+
+    private final Map<String, Feed<?>> feeds = new HashMap<>();
+
+    public ChangeFeedService(ChangeLogEntryRepository changeLogEntryRepository,
+                             ChangeLogSequenceRepository changeLogSequenceRepository,
+                             EmployeeRepository employeeRepository, EmployeeMapper employeeMapper,
+                             JobRepository jobRepository, JobMapper jobMapper,
+                             DepartmentRepository departmentRepository, DepartmentMapper departmentMapper,
+                             HazelcastInstance hazelcastInstance, @Qualifier("taskExecutor") Executor taskExecutor,
+                             PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.changeLogEntryRepository = changeLogEntryRepository;
+        this.changeLogSequenceRepository = changeLogSequenceRepository;
+        this.changeTopic = hazelcastInstance.getTopic(CHANGE_TOPIC);
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getChangeFeed();
+        register(Employee.class, ids -> employeeMapper.toDto(employeeRepository.findAllWithEagerRelationshipsByIdIn(ids)),
+            EmployeeDTO::getId);
+        register(Job.class, ids -> jobMapper.toDto(jobRepository.findAllWithEagerRelationshipsByIdIn(ids)), JobDTO::getId);
+        register(Department.class, ids -> departmentMapper.toDto(departmentRepository.findAllWithEagerRelationshipsByIdIn(ids)),
+            DepartmentDTO::getId);
+    }
+
+    private <T> void register(Class<?> entityClass, Function<List<Long>, List<T>> loader, Function<T, Long> idGetter) {
+        feeds.put(entityClass.getSimpleName(), new Feed<>(entityClass.getSimpleName(), loader, idGetter));
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        changeTopic.addMessageListener(message -> wakeUp(message.getMessageObject()));
+    }
+
+    /**
+     * Record that the entity was created or updated.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     */
+    @Transactional
+    public void recordUpsert(Class<?> entityClass, Long id) {
+        record(entityClass, Collections.singletonList(id), ChangeOperation.UPSERT);
+    }
+
+    /**
+     * Record that the entities were created or updated.
+     *
+     * @param entityClass the domain class of the entities.
+     * @param ids the ids of the entities.
+     */
+    @Transactional
+    public void recordUpsertAll(Class<?> entityClass, Collection<Long> ids) {
+        record(entityClass, ids, ChangeOperation.UPSERT);
+    }
+
+    /**
+     * Record that the entity was deleted.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     */
+    @Transactional
+    public void recordDelete(Class<?> entityClass, Long id) {
+        record(entityClass, Collections.singletonList(id), ChangeOperation.DELETE);
+    }
+
+    /**
+     * Get the current position of the feed, to read the changes from once the client has downloaded everything.
+     *
+     * @param entityClass the domain class of the entities.
+     * @return a page without changes.
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDTO<?> getHead(Class<?> entityClass) {
+        String entityType = feed(entityClass).entityType;
+        long head = changeLogSequenceRepository.findById(entityType).map(ChangeLogSequence::getLastSequence).orElse(0L);
+        return new ChangeFeedDTO<>(head, false, new ArrayList<>());
+    }
+
+    /**
+     * Get the changes committed after a position, the latest one of each entity only.
+     *
+     * @param entityClass the domain class of the entities.
+     * @param since the position, the token of the previous page.
+     * @param size the maximum number of changes.
+     * @return the changes, in commit order.
+     * @throws ChangeTokenExpiredException if tombstones after the position were compacted.
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDTO<?> getChanges(Class<?> entityClass, long since, int size) {
+        return read(feed(entityClass), since, size);
+    }
+
+    /**
+     * Wait for the changes committed after a position: the result is completed as soon as there are some, and
+     * should be cancelled when the client gives up.
+     *
+     * @param entityClass the domain class of the entities.
+     * @param since the position, the token of the previous page.
+     * @param size the maximum number of changes.
+     * @return the future changes, in commit order.
+     * @throws ChangeTokenExpiredException if tombstones after the position were compacted.
+     */
+    public CompletableFuture<ChangeFeedDTO<?>> awaitChanges(Class<?> entityClass, long since, int size) {
+        Feed<?> feed = feed(entityClass);
+        Waiter waiter = new Waiter(since, size);
+        // Registered before reading, so that a change committed meanwhile wakes the waiter up
+        feed.waiters.add(waiter);
+        waiter.future.whenComplete((result, error) -> feed.waiters.remove(waiter));
+        try {
+            complete(Collections.singletonList(waiter), readOnlyTransactionTemplate.execute(status -> read(feed, since, size)));
+        } catch (RuntimeException e) {
+            waiter.future.cancel(false);
+            throw e;
+        }
+        return waiter.future;
+    }
+
+    /**
+     * Periodically drop the superseded entries and the tombstones older than the retention.
+     */
+    @Scheduled(initialDelayString = "${application.change-feed.compaction-interval-ms:3600000}",
+        fixedDelayString = "${application.change-feed.compaction-interval-ms:3600000}")
+    public void compact() {
+        Instant tombstonesBefore = Instant.now().minus(properties.getTombstoneRetentionHours(), ChronoUnit.HOURS);
+        for (String entityType : feeds.keySet()) {
+            try {
+                transactionTemplate.execute(status -> {
+                    compact(entityType, tombstonesBefore);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.error("Could not compact the change log of {}", entityType, e);
+            }
+        }
+    }
+
+    private void compact(String entityType, Instant tombstonesBefore) {
+        int superseded = changeLogEntryRepository.deleteSuperseded(entityType);
+        Long upTo = changeLogEntryRepository.findLastSequenceNumberBefore(entityType, ChangeOperation.DELETE, tombstonesBefore);
+        int tombstones = 0;
+        if (upTo != null) {
+            tombstones = changeLogEntryRepository.deleteUpTo(entityType, ChangeOperation.DELETE, upTo);
+            ChangeLogSequence sequence = changeLogSequenceRepository.findForUpdate(entityType)
+                .orElseGet(() -> new ChangeLogSequence(entityType));
+            sequence.setCompactedSequence(Math.max(sequence.getCompactedSequence(), upTo));
+            changeLogSequenceRepository.save(sequence);
+        }
+        log.debug("Compacted the change log of {}: {} superseded entries and {} tombstones", entityType, superseded, tombstones);
+    }
+
+    private Feed<?> feed(Class<?> entityClass) {
+        Feed<?> feed = feeds.get(entityClass.getSimpleName());
+        if (feed == null) {
+            throw new IllegalArgumentException("No change feed for " + entityClass.getSimpleName());
+        }
+        return feed;
+    }
+
+    private void record(Class<?> entityClass, Collection<Long> ids, ChangeOperation operation) {
+        String entityType = feed(entityClass).entityType;
+        @SuppressWarnings("unchecked")
+        Map<String, Map<Long, ChangeOperation>> pending =
+            (Map<String, Map<Long, ChangeOperation>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            // Sorted, so that transactions writing several entity types lock their sequences in the same order
+            Map<String, Map<Long, ChangeOperation>> changes = new TreeMap<>();
+            pending = changes;
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedService.this);
+                    if (status == STATUS_COMMITTED) {
+                        changes.keySet().forEach(ChangeFeedService.this::publishChange);
+                    }
+                }
+            });
+        }
+        Map<Long, ChangeOperation> changes = pending.computeIfAbsent(entityType, key -> new LinkedHashMap<>());
+        ids.forEach(id -> changes.put(id, operation));
+    }
+
+    private void write(Map<String, Map<Long, ChangeOperation>> pending) {
+        Instant now = Instant.now();
+        pending.forEach((entityType, changes) -> {
+            // Locked until the commit, which keeps the sequence numbers in commit order
+            ChangeLogSequence sequence = changeLogSequenceRepository.findForUpdate(entityType)
+                .orElseGet(() -> new ChangeLogSequence(entityType));
+            long sequenceNumber = sequence.getLastSequence();
+            List<ChangeLogEntry> entries = new ArrayList<>(changes.size());
+            for (Map.Entry<Long, ChangeOperation> change : changes.entrySet()) {
+                entries.add(new ChangeLogEntry(entityType, change.getKey(), change.getValue(), ++sequenceNumber, now));
+            }
+            sequence.setLastSequence(sequenceNumber);
+            changeLogSequenceRepository.save(sequence);
+            changeLogEntryRepository.saveAll(entries);
+        });
+    }
+
+    private <T> ChangeFeedDTO<T> read(Feed<T> feed, long since, int size) {
+        List<ChangeLogEntry> entries = changeLogEntryRepository.findAfter(feed.entityType, since, PageRequest.of(0, size + 1));
+        // Read after the entries: a compaction which removed some of them has moved the mark already
+        long compactedSequence = changeLogSequenceRepository.findById(feed.entityType)
+            .map(ChangeLogSequence::getCompactedSequence).orElse(0L);
+        if (since < compactedSequence) {
+            throw new ChangeTokenExpiredException(feed.entityType, since, compactedSequence);
+        }
+        boolean hasMore = entries.size() > size;
+        if (hasMore) {
+            entries = entries.subList(0, size);
+        }
+        long token = entries.isEmpty() ? since : entries.get(entries.size() - 1).getSequenceNumber();
+
+        Map<Long, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            latest.remove(entry.getEntityId());
+            latest.put(entry.getEntityId(), entry);
+        }
+        List<Long> upsertedIds = latest.values().stream()
+            .filter(entry -> entry.getOperation() == ChangeOperation.UPSERT)
+            .map(ChangeLogEntry::getEntityId)
+            .collect(Collectors.toList());
+        Map<Long, T> upserted = upsertedIds.isEmpty() ? Collections.emptyMap() : feed.loader.apply(upsertedIds).stream()
+            .collect(Collectors.toMap(feed.idGetter, Function.identity()));
+
+        List<ChangeFeedDTO.Change<T>> changes = new ArrayList<>(latest.size());
+        for (ChangeLogEntry entry : latest.values()) {
+            T data = upserted.get(entry.getEntityId());
+            if (entry.getOperation() == ChangeOperation.UPSERT && data == null) {
+                // Deleted since, its tombstone comes later in the feed
+                continue;
+            }
+            changes.add(new ChangeFeedDTO.Change<>(entry.getEntityId(), entry.getOperation(), entry.getSequenceNumber(), data));
+        }
+        return new ChangeFeedDTO<>(token, hasMore, changes);
+    }
+
+    private void publishChange(String entityType) {
+        try {
+            changeTopic.publish(entityType);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish the change of {}, long-polling clients will wait for the next one: {}",
+                entityType, e.toString());
+        }
+    }
+
+    /**
+     * Schedule a read for the clients waiting for changes of the entity type, unless one is already scheduled.
+     */
+    private void wakeUp(String entityType) {
+        Feed<?> feed = feeds.get(entityType);
+        if (feed == null || feed.waiters.isEmpty()) {
+            return;
+        }
+        if (feed.wakeUpRequested.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                feed.wakeUpRequested.set(false);
+                readForWaiters(feed);
+            });
+        }
+    }
+
+    private void readForWaiters(Feed<?> feed) {
+        Map<List<Long>, List<Waiter>> byPosition = feed.waiters.stream()
+            .collect(Collectors.groupingBy(waiter -> Arrays.asList(waiter.since, (long) waiter.size)));
+        byPosition.forEach((position, waiters) -> {
+            try {
+                complete(waiters, readOnlyTransactionTemplate.execute(status -> read(feed, waiters.get(0).since, waiters.get(0).size)));
+            } catch (RuntimeException e) {
+                waiters.forEach(waiter -> waiter.future.completeExceptionally(e));
+            }
+        });
+    }
+
+    private static void complete(List<Waiter> waiters, ChangeFeedDTO<?> changes) {
+        if (changes.getToken() != waiters.get(0).since) {
+            waiters.forEach(waiter -> waiter.future.complete(changes));
+        }
+    }
+
+    private static final class Feed<T> {
+
+        private final String entityType;
+
+        private final Function<List<Long>, List<T>> loader;
+
+        private final Function<T, Long> idGetter;
+
+        private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+        private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+
+        Feed(String entityType, Function<List<Long>, List<T>> loader, Function<T, Long> idGetter) {
+            this.entityType = entityType;
+            this.loader = loader;
+            this.idGetter = idGetter;
+        }
+    }
+
+    private static final class Waiter {
+
+        private final long since;
+
+        private final int size;
+
+        private final CompletableFuture<ChangeFeedDTO<?>> future = new CompletableFuture<>();
+
+        Waiter(long since, int size) {
+            this.since = since;
+            this.size = size;
+        }
+    }
+}
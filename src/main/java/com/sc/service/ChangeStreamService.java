@@ -0,0 +1,386 @@
+package com.sc.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Employee;
+import com.sc.domain.JobHistory;
+import com.sc.domain.enumeration.ChangeOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the changes of employees and job histories to the connected clients as Server-Sent Events.
+ * <p>
+ * Changes are collected during the caller's transaction and, once it commits, serialized once and published
+ * on a Hazelcast topic per entity type, so that every member forwards them to its own clients as they are.
+ * <p>
+ * Each client has a bounded buffer, filled by the topic listener without blocking, and drained by a small
+ * scheduler shared by all the clients of the member, which also sends the heartbeats. A client whose buffer
+ * is full is too slow to keep up and is disconnected, so that it cannot hold events in memory for ever; its
+ * event source reconnects and the client reloads what it missed.
+ * <p>
+ * The blocking writes to the connections are handed over to separate threads, which the drain waits for up to
+ * a timeout: a client which does not read is disconnected then, instead of holding one of the few drain threads
+ * until the container gives up on its connection.
+ */
+@Service
+public class ChangeStreamService {
+
+    static final String TOPIC_NAME_PREFIX = "change-stream.";
+
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.ChangeStream properties;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final ExecutorService writer;
+
+    private final Map<String, Stream> streams = new HashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public ChangeStreamService(HazelcastInstance hazelcastInstance, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               ApplicationProperties applicationProperties) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.properties = applicationProperties.getChangeStream();
+        this.scheduler = new ThreadPoolTaskScheduler();
+        this.scheduler.setPoolSize(properties.getThreads());
+        this.scheduler.setThreadNamePrefix("change-stream-");
+        this.scheduler.setDaemon(true);
+        CustomizableThreadFactory writerThreadFactory = new CustomizableThreadFactory("change-stream-write-");
+        writerThreadFactory.setDaemon(true);
+        // At most one write per client, which is disconnected if it stays blocked
+        this.writer = Executors.newCachedThreadPool(writerThreadFactory);
+        register(Employee.class);
+        register(JobHistory.class);
+    }
+
+    /**
+     * Create the emitter of a new client.
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(properties.getTimeoutMs());
+    }
+
+    private void register(Class<?> entityClass) {
+        streams.put(entityClass.getSimpleName(), new Stream(entityClass.getSimpleName()));
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::sendHeartbeats, properties.getHeartbeatIntervalMs());
+        for (Stream stream : streams.values()) {
+            stream.topic.addMessageListener(message -> stream.offer(message.getMessageObject()));
+            Gauge.builder("change.stream.connections", stream.clients, Set::size)
+                .description("Clients connected to the change stream")
+                .tag("entity", stream.entityType)
+                .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        streams.values().forEach(stream -> stream.clients.forEach(client -> client.emitter.complete()));
+        scheduler.shutdown();
+        writer.shutdownNow();
+    }
+
+    /**
+     * Connect a client to the changes of an entity type.
+     *
+     * @param entityClass the domain class of the entities.
+     * @return the emitter to return to the client, empty if the member has no room for another client.
+     */
+    public Optional<SseEmitter> connect(Class<?> entityClass) {
+        Stream stream = stream(entityClass);
+        if (connections.incrementAndGet() > properties.getMaxConnections()) {
+            connections.decrementAndGet();
+            return Optional.empty();
+        }
+        Client client = new Client(stream, createEmitter());
+        stream.clients.add(client);
+        client.emitter.onCompletion(client::close);
+        client.emitter.onTimeout(client::close);
+        client.emitter.onError(error -> client.close());
+        log.debug("Client connected to the changes of {}, {} connections", stream.entityType, connections.get());
+        return Optional.of(client.emitter);
+    }
+
+    /**
+     * Record that the entity was created or updated, to push it once the transaction commits.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     * @param dto the entity, as pushed to the clients.
+     */
+    public void recordUpsert(Class<?> entityClass, Long id, Object dto) {
+        record(entityClass, new ChangeEvent(id, ChangeOperation.UPSERT, dto));
+    }
+
+    /**
+     * Record that the entity was deleted, to push it once the transaction commits.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     */
+    public void recordDelete(Class<?> entityClass, Long id) {
+        record(entityClass, new ChangeEvent(id, ChangeOperation.DELETE, null));
+    }
+
+    private Stream stream(Class<?> entityClass) {
+        Stream stream = streams.get(entityClass.getSimpleName());
+        if (stream == null) {
+            throw new IllegalArgumentException("No change stream for " + entityClass.getSimpleName());
+        }
+        return stream;
+    }
+
+    private void record(Class<?> entityClass, ChangeEvent event) {
+        Stream stream = stream(entityClass);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(stream, event);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Runnable> pending = (List<Runnable>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Runnable> publications = new ArrayList<>();
+            pending = publications;
+            TransactionSynchronizationManager.bindResource(this, publications);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeStreamService.this);
+                    if (status == STATUS_COMMITTED) {
+                        publications.forEach(Runnable::run);
+                    }
+                }
+            });
+        }
+        pending.add(() -> publish(stream, event));
+    }
+
+    private void publish(Stream stream, ChangeEvent event) {
+        try {
+            stream.topic.publish(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not publish the change of {} : {}", stream.entityType, event.getId(), e);
+        }
+    }
+
+    private void sendHeartbeats() {
+        streams.values().forEach(stream -> stream.clients.forEach(client -> client.offer(HEARTBEAT)));
+    }
+
+    private final class Stream {
+
+        private final String entityType;
+
+        private final ITopic<String> topic;
+
+        private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+        private final Counter sent;
+
+        Stream(String entityType) {
+            this.entityType = entityType;
+            this.topic = hazelcastInstance.getTopic(TOPIC_NAME_PREFIX + entityType);
+            this.sent = Counter.builder("change.stream.events")
+                .description("Change events written to the clients")
+                .tag("entity", entityType)
+                .register(meterRegistry);
+        }
+
+        void offer(String event) {
+            clients.forEach(client -> client.offer(event));
+        }
+
+        void dropped(String reason) {
+            meterRegistry.counter("change.stream.dropped", "entity", entityType, "reason", reason).increment();
+        }
+    }
+
+    private final class Client {
+
+        private final Stream stream;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<String> buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Client(Stream stream, SseEmitter emitter) {
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+
+        void offer(String event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                log.debug("Disconnecting a slow client from the changes of {}", stream.entityType);
+                stream.dropped("slow");
+                close();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                scheduler.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                String event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    // Compared by identity: a published event is never this instance
+                    if (event == HEARTBEAT) {
+                        send(SseEmitter.event().comment(HEARTBEAT));
+                    } else {
+                        send(SseEmitter.event().name("change").data(event, MediaType.APPLICATION_JSON));
+                        stream.sent.increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Disconnecting a client from the changes of {}: {}", stream.entityType, e.toString());
+                stream.dropped("error");
+                close();
+                emitter.completeWithError(e);
+            } catch (TimeoutException e) {
+                log.debug("Disconnecting a client which did not read the changes of {} for {} ms", stream.entityType,
+                    properties.getSendTimeoutMs());
+                stream.dropped("timeout");
+                close();
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                emitter.complete();
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the last poll found the drain still running
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Write an event, waiting for at most the send timeout; the write is interrupted after it.
+         */
+        private void send(SseEmitter.SseEventBuilder event) throws IOException, TimeoutException, InterruptedException {
+            Future<?> write = writer.submit(() -> {
+                emitter.send(event);
+                return null;
+            });
+            try {
+                write.get(properties.getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (TimeoutException | InterruptedException e) {
+                write.cancel(true);
+                throw e;
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                stream.clients.remove(this);
+                connections.decrementAndGet();
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * The data of a change event: the entity, or only its id once deleted.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static final class ChangeEvent {
+
+        private final Long id;
+
+        private final ChangeOperation operation;
+
+        private final Object data;
+
+        ChangeEvent(Long id, ChangeOperation operation, Object data) {
+            this.id = id;
+            this.operation = operation;
+            this.data = data;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public ChangeOperation getOperation() {
+            return operation;
+        }
+
+        public Object getData() {
+            return data;
+        }
+    }
+}
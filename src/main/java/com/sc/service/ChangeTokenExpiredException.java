@@ -0,0 +1,14 @@
+package com.sc.service;
+
+/**
+ * Thrown when the change feed is read from a position older than its compacted tombstones: deletes could be
+ * missing, so the client has to download everything again.
+ */
+public class ChangeTokenExpiredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ChangeTokenExpiredException(String entityType, long since, long compactedSequence) {
+        super("The changes of " + entityType + " since " + since + " were compacted up to " + compactedSequence);
+    }
+}
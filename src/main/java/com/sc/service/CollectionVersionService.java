@@ -0,0 +1,265 @@
+package com.sc.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MembershipAdapter;
+import com.hazelcast.core.MembershipEvent;
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Country;
+import com.sc.domain.Department;
+import com.sc.domain.Employee;
+import com.sc.domain.Job;
+import com.sc.domain.JobHistory;
+import com.sc.domain.Location;
+import com.sc.domain.Region;
+import com.sc.domain.Task;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a cluster-wide change counter per entity, which grows whenever an entity of the class is created, updated
+ * or deleted, and so versions the whole collection, e.g. for the ETag of a list.
+ * <p>
+ * A counter holds the number of finished writing transactions, and a small Hazelcast map holds the running ones:
+ * a transaction is counted as running from its first flushed write of the class until it completes. While a write
+ * is running the committed data may change at any time, so there is no version; a reader which gets the same
+ * version before and after reading the data knows that no commit happened in between. Counters start from the
+ * current time, so that they keep growing when the cluster restarts.
+ * <p>
+ * A running write is a lease: when its member leaves the cluster, or when it did not report its completion within
+ * the lease, e.g. because the counter could not be updated, it is counted as finished by the other members.
+ */
+@Service
+public class CollectionVersionService {
+
+    static final String COUNTER_NAME_PREFIX = "collection-version.";
+
+    static final String RUNNING_MAP_NAME_PREFIX = "collection-version.running.";
+
+    private static final List<Class<?>> ENTITY_CLASSES = Arrays.asList(Region.class, Country.class, Location.class,
+        Department.class, Task.class, Employee.class, Job.class, JobHistory.class);
+
+    private final Logger log = LoggerFactory.getLogger(CollectionVersionService.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final long writeLeaseMs;
+
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    public CollectionVersionService(HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory,
+                                    ApplicationProperties applicationProperties) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.entityManagerFactory = entityManagerFactory;
+        this.writeLeaseMs = applicationProperties.getCollectionVersion().getWriteLeaseMs();
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        WriteListener listener = new WriteListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        hazelcastInstance.getCluster().addMembershipListener(new MembershipAdapter() {
+            @Override
+            public void memberRemoved(MembershipEvent membershipEvent) {
+                releaseWritesOf(membershipEvent.getMember().getUuid());
+            }
+        });
+    }
+
+    /**
+     * Get the current version of the entities of a class.
+     *
+     * @param entityClass the domain class of the entities.
+     * @return the version, or empty while a transaction writing entities of the class is running.
+     */
+    public OptionalLong getVersion(Class<?> entityClass) {
+        // The running writes are read before the counter, which a write increments before it stops running
+        IMap<String, Long> running = runningMap(entityClass);
+        if (!running.isEmpty()) {
+            long now = System.currentTimeMillis();
+            boolean writing = false;
+            for (Map.Entry<String, Long> write : running.entrySet()) {
+                if (write.getValue() + writeLeaseMs > now) {
+                    writing = true;
+                } else {
+                    log.warn("The write {} of {} did not complete within its lease", write.getKey(), entityClass.getSimpleName());
+                    release(entityClass, write.getKey(), write.getValue());
+                }
+            }
+            if (writing) {
+                return OptionalLong.empty();
+            }
+        }
+        return OptionalLong.of(counter(entityClass));
+    }
+
+    /**
+     * Count the running writes of a member which left the cluster as finished: they may have committed.
+     *
+     * @param memberUuid the uuid of the member.
+     */
+    void releaseWritesOf(String memberUuid) {
+        String prefix = memberUuid + ":";
+        for (Class<?> entityClass : ENTITY_CLASSES) {
+            try {
+                runningMap(entityClass).entrySet().stream()
+                    .filter(write -> write.getKey().startsWith(prefix))
+                    .forEach(write -> release(entityClass, write.getKey(), write.getValue()));
+            } catch (RuntimeException e) {
+                log.warn("Could not release the writes of {} to {}: {}", memberUuid, entityClass.getSimpleName(), e.toString());
+            }
+        }
+    }
+
+    /**
+     * Count a running write as finished, unless another member, or its own transaction, already did.
+     */
+    private void release(Class<?> entityClass, String writeId, Long startedAt) {
+        if (runningMap(entityClass).remove(writeId, startedAt)) {
+            atomicLong(entityClass).incrementAndGet();
+        }
+    }
+
+    /**
+     * The counter of a class, seeded if this is its first use since the cluster started.
+     */
+    private long counter(Class<?> entityClass) {
+        IAtomicLong counter = atomicLong(entityClass);
+        long value = counter.get();
+        if (value == 0) {
+            counter.compareAndSet(0, System.currentTimeMillis());
+            value = counter.get();
+        }
+        return value;
+    }
+
+    private IAtomicLong atomicLong(Class<?> entityClass) {
+        return hazelcastInstance.getAtomicLong(COUNTER_NAME_PREFIX + entityClass.getSimpleName());
+    }
+
+    private IMap<String, Long> runningMap(Class<?> entityClass) {
+        return hazelcastInstance.getMap(RUNNING_MAP_NAME_PREFIX + entityClass.getSimpleName());
+    }
+
+    /**
+     * Count a finished write.
+     *
+     * @return whether the counter was incremented.
+     */
+    private boolean finish(Class<?> entityClass) {
+        try {
+            counter(entityClass);
+            atomicLong(entityClass).incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not update the version of {}: {}", entityClass.getSimpleName(), e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Count a running write.
+     *
+     * @return the id of the write, or {@code null} when it could not be counted.
+     */
+    private String start(Class<?> entityClass) {
+        try {
+            String writeId = hazelcastInstance.getCluster().getLocalMember().getUuid() + ":" + writeSequence.incrementAndGet();
+            runningMap(entityClass).set(writeId, System.currentTimeMillis());
+            return writeId;
+        } catch (RuntimeException e) {
+            log.warn("Could not update the version of {}: {}", entityClass.getSimpleName(), e.toString());
+            return null;
+        }
+    }
+
+    void onWrite(Object entity) {
+        Class<?> entityClass = ENTITY_CLASSES.stream().filter(candidate -> candidate.isInstance(entity)).findFirst().orElse(null);
+        if (entityClass == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            finish(entityClass);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Class<?>, String> running = (Map<Class<?>, String>) TransactionSynchronizationManager.getResource(this);
+        if (running == null) {
+            Map<Class<?>, String> writes = new HashMap<>();
+            running = writes;
+            TransactionSynchronizationManager.bindResource(this, writes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CollectionVersionService.this);
+                    // Counted as a change even when rolled back, the readers only need a different version
+                    writes.forEach((finished, writeId) -> {
+                        // Left running when the counter could not be incremented, the lapse of the lease does it
+                        if (finish(finished) && writeId != null) {
+                            try {
+                                runningMap(finished).remove(writeId);
+                            } catch (RuntimeException e) {
+                                log.warn("Could not update the version of {}: {}", finished.getSimpleName(), e.toString());
+                            }
+                        }
+                    });
+                }
+            });
+        }
+        if (!running.containsKey(entityClass)) {
+            running.put(entityClass, start(entityClass));
+        }
+    }
+
+    private final class WriteListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            onWrite(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            onWrite(event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            onWrite(event.getEntity());
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+    }
+}
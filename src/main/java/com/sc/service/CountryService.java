@@ -4,6 +4,7 @@ import com.sc.service.dto.CountryDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Service Interface for managing {@link com.sc.domain.Country}.
@@ -18,6 +19,14 @@ public interface CountryService {
      */
     CountryDTO save(CountryDTO countryDTO);
 
+    /**
+     * Save a chunk of countries in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param countryDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<CountryDTO> saveAll(List<CountryDTO> countryDTOs);
+
     /**
      * Get all the countries.
      *
@@ -25,6 +34,13 @@ public interface CountryService {
      */
     List<CountryDTO> findAll();
 
+    /**
+     * Get the version of the list of all the countries, which changes whenever the list may have changed.
+     *
+     * @return the version, or empty when it cannot be told, e.g. while the countries are being written.
+     */
+    OptionalLong findAllVersion();
+
 
     /**
      * Get the "id" country.
@@ -34,6 +50,14 @@ public interface CountryService {
      */
     Optional<CountryDTO> findOne(Long id);
 
+    /**
+     * Get the countries of several ids, in the order of the ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    List<CountryDTO> findAllById(List<Long> ids);
+
     /**
      * Delete the "id" country.
      *
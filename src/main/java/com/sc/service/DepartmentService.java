@@ -4,6 +4,7 @@ import com.sc.service.dto.DepartmentDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Service Interface for managing {@link com.sc.domain.Department}.
@@ -18,6 +19,14 @@ public interface DepartmentService {
      */
     DepartmentDTO save(DepartmentDTO departmentDTO);
 
+    /**
+     * Save a chunk of departments in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param departmentDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<DepartmentDTO> saveAll(List<DepartmentDTO> departmentDTOs);
+
     /**
      * Get all the departments.
      *
@@ -25,6 +34,13 @@ public interface DepartmentService {
      */
     List<DepartmentDTO> findAll();
 
+    /**
+     * Get the version of the list of all the departments, which changes whenever the list may have changed.
+     *
+     * @return the version, or empty when it cannot be told, e.g. while the departments are being written.
+     */
+    OptionalLong findAllVersion();
+
 
     /**
      * Get the "id" department.
@@ -34,6 +50,14 @@ public interface DepartmentService {
      */
     Optional<DepartmentDTO> findOne(Long id);
 
+    /**
+     * Get the departments of several ids, in the order of the ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    List<DepartmentDTO> findAllById(List<Long> ids);
+
     /**
      * Delete the "id" department.
      *
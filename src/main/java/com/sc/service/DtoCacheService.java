@@ -0,0 +1,183 @@
+package com.sc.service;
+
+import com.sc.config.ApplicationProperties;
+import com.sc.config.TwoTierCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service caching the DTOs returned by the {@code findOne} methods, keyed by entity id.
+ * <p>
+ * Each entity has its own Spring cache, named after its DTO class, which is only used when the
+ * {@code dto-cache} setting of the entity region is on. Writers evict the changed entries both right away and
+ * once their transaction completes, so that a DTO read in between from the uncommitted or the previous state
+ * does not outlive the transaction.
+ */
+@Service
+public class DtoCacheService {
+
+    /**
+     * Prefix of the cache names, followed by the simple name of the DTO class.
+     */
+    public static final String CACHE_NAME_PREFIX = "com.sc.service.dto.";
+
+    private final Logger log = LoggerFactory.getLogger(DtoCacheService.class);
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationProperties.Cache properties;
+
+    public DtoCacheService(CacheManager cacheManager, ApplicationProperties applicationProperties) {
+        this.cacheManager = cacheManager;
+        this.properties = applicationProperties.getCache();
+    }
+
+    /**
+     * Return the cached DTO of an entity, or load and cache it.
+     * <p>
+     * Missing entities are cached too, so that repeated lookups of a wrong id do not reach the database: the id
+     * is evicted when the entity is created.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     * @param loader loads the DTO from the database, empty when the entity does not exist.
+     * @param <T> the type of the DTO.
+     * @return the DTO, empty when the entity does not exist.
+     */
+    public <T> Optional<T> findOne(Class<?> entityClass, Long id, Function<Long, Optional<T>> loader) {
+        Cache cache = getCache(entityClass);
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return Optional.ofNullable(cache.get(id, () -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Return the DTOs of several entities, in the order of the ids, skipping duplicate ids and missing entities.
+     * <p>
+     * The cached DTOs are read at once, the shared tier being queried with a single call, and the others are
+     * loaded with one call to the loader, then cached, missing entities included.
+     *
+     * @param entityClass the domain class of the entities.
+     * @param ids the ids of the entities.
+     * @param loader loads the DTOs of the given ids from the database, in any order, without the missing entities.
+     * @param idGetter returns the id of a DTO.
+     * @param <T> the type of the DTOs.
+     * @return the DTOs.
+     */
+    public <T> List<T> findAll(Class<?> entityClass, Collection<Long> ids, Function<Collection<Long>, List<T>> loader,
+                               Function<T, Long> idGetter) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Function<Set<Long>, Map<Long, T>> loadById = keys -> loader.apply(keys).stream()
+            .collect(Collectors.toMap(idGetter, Function.identity()));
+        Cache cache = getCache(entityClass);
+        Map<?, ?> dtos;
+        if (cache == null) {
+            dtos = loadById.apply(distinctIds);
+        } else if (cache instanceof TwoTierCache) {
+            dtos = ((TwoTierCache) cache).getAll(distinctIds, keys -> loadById.apply(toIds(keys)));
+        } else {
+            dtos = getAll(cache, distinctIds, loadById);
+        }
+        @SuppressWarnings("unchecked")
+        List<T> result = distinctIds.stream()
+            .map(id -> (T) dtos.get(id))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return result;
+    }
+
+    private static <T> Map<Long, T> getAll(Cache cache, Set<Long> ids, Function<Set<Long>, Map<Long, T>> loader) {
+        Map<Long, T> dtos = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Cache.ValueWrapper value = cache.get(id);
+            if (value == null) {
+                misses.add(id);
+            } else {
+                @SuppressWarnings("unchecked")
+                T dto = (T) value.get();
+                dtos.put(id, dto);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, T> loaded = loader.apply(misses);
+            misses.forEach(id -> cache.put(id, loaded.get(id)));
+            dtos.putAll(loaded);
+        }
+        return dtos;
+    }
+
+    private static Set<Long> toIds(Set<Object> keys) {
+        return keys.stream().map(Long.class::cast).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Evict the DTO of an entity which is being created, updated or deleted.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     */
+    public void evict(Class<?> entityClass, Long id) {
+        Cache cache = getCache(entityClass);
+        if (cache != null) {
+            log.trace("Evicting cached DTO of {} : {}", entityClass.getSimpleName(), id);
+            cache.evict(id);
+            afterCompletion(() -> cache.evict(id));
+        }
+    }
+
+    /**
+     * Evict the DTOs of all the entities of a class, used when a change affects DTOs which cannot be told
+     * apart, e.g. the jobs embedding an updated task.
+     *
+     * @param entityClass the domain class of the entities.
+     */
+    public void evictAll(Class<?> entityClass) {
+        Cache cache = getCache(entityClass);
+        if (cache != null) {
+            log.trace("Evicting all cached DTOs of {}", entityClass.getSimpleName());
+            cache.clear();
+            afterCompletion(cache::clear);
+        }
+    }
+
+    private Cache getCache(Class<?> entityClass) {
+        if (!properties.getRegion(entityClass.getName()).getDtoCache()) {
+            return null;
+        }
+        return cacheManager.getCache(CACHE_NAME_PREFIX + entityClass.getSimpleName() + "DTO");
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
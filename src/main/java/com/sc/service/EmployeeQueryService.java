@@ -1,13 +1,30 @@
 package com.sc.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import javax.persistence.Tuple;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +34,10 @@ import io.github.jhipster.service.QueryService;
 import com.sc.domain.Employee;
 import com.sc.domain.*; // for static metamodels
 import com.sc.repository.EmployeeRepository;
+import com.sc.repository.KeysetSlice;
+import com.sc.repository.KeysetSliceRepository;
+import com.sc.repository.ProjectionQueryRepository;
+import com.sc.repository.StreamingQueryRepository;
 import com.sc.repository.search.EmployeeSearchRepository;
 import com.sc.service.dto.EmployeeCriteria;
 import com.sc.service.dto.EmployeeDTO;
@@ -32,6 +53,32 @@ import com.sc.service.mapper.EmployeeMapper;
 @Transactional(readOnly = true)
 public class EmployeeQueryService extends QueryService<Employee> {
 
+    /**
+     * Properties which can be used as cursor pagination sort key, each backed by a (property, id) index.
+     */
+    private static final Set<String> KEYSET_SORT_KEYS = new HashSet<>(Arrays.asList("lastName", "hireDate"));
+
+    /**
+     * The properties of {@link EmployeeDTO} which can be selected, in the order they are written; the id of a
+     * to-one association is read from its foreign key column, without a join.
+     */
+    private static final Map<String, DtoColumn<?>> DTO_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        addColumn(new DtoColumn<>("id", Long.class, root -> root.get(Employee_.id), EmployeeDTO::setId));
+        addColumn(new DtoColumn<>("version", Long.class, root -> root.get(Employee_.version), EmployeeDTO::setVersion));
+        addColumn(new DtoColumn<>("firstName", String.class, root -> root.get(Employee_.firstName), EmployeeDTO::setFirstName));
+        addColumn(new DtoColumn<>("lastName", String.class, root -> root.get(Employee_.lastName), EmployeeDTO::setLastName));
+        addColumn(new DtoColumn<>("email", String.class, root -> root.get(Employee_.email), EmployeeDTO::setEmail));
+        addColumn(new DtoColumn<>("phoneNumber", String.class, root -> root.get(Employee_.phoneNumber), EmployeeDTO::setPhoneNumber));
+        addColumn(new DtoColumn<>("hireDate", Instant.class, root -> root.get(Employee_.hireDate), EmployeeDTO::setHireDate));
+        addColumn(new DtoColumn<>("salary", Long.class, root -> root.get(Employee_.salary), EmployeeDTO::setSalary));
+        addColumn(new DtoColumn<>("commissionPct", Long.class, root -> root.get(Employee_.commissionPct), EmployeeDTO::setCommissionPct));
+        addColumn(new DtoColumn<>("managerId", Long.class, root -> root.get(Employee_.manager).get(Employee_.id), EmployeeDTO::setManagerId));
+        addColumn(new DtoColumn<>("departmentId", Long.class, root -> root.get(Employee_.department).get(Department_.id),
+            EmployeeDTO::setDepartmentId));
+    }
+
     private final Logger log = LoggerFactory.getLogger(EmployeeQueryService.class);
 
     private final EmployeeRepository employeeRepository;
@@ -40,14 +87,26 @@ public class EmployeeQueryService extends QueryService<Employee> {
 
     private final EmployeeSearchRepository employeeSearchRepository;
 
-    public EmployeeQueryService(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper, EmployeeSearchRepository employeeSearchRepository) {
+    private final KeysetSliceRepository keysetSliceRepository;
+
+    private final StreamingQueryRepository streamingQueryRepository;
+
+    private final ProjectionQueryRepository projectionQueryRepository;
+
+    public EmployeeQueryService(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper, EmployeeSearchRepository employeeSearchRepository,
+                                KeysetSliceRepository keysetSliceRepository, StreamingQueryRepository streamingQueryRepository,
+                                ProjectionQueryRepository projectionQueryRepository) {
         this.employeeRepository = employeeRepository;
         this.employeeMapper = employeeMapper;
         this.employeeSearchRepository = employeeSearchRepository;
+        this.keysetSliceRepository = keysetSliceRepository;
+        this.streamingQueryRepository = streamingQueryRepository;
+        this.projectionQueryRepository = projectionQueryRepository;
     }
 
     /**
      * Return a {@link List} of {@link EmployeeDTO} which matches the criteria from the database.
+     * Only the columns of the DTO are selected, no entity is loaded.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the matching entities.
      */
@@ -55,23 +114,70 @@ public class EmployeeQueryService extends QueryService<Employee> {
     public List<EmployeeDTO> findByCriteria(EmployeeCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
         final Specification<Employee> specification = createSpecification(criteria);
-        return employeeMapper.toDto(employeeRepository.findAll(specification));
+        List<DtoColumn<?>> columns = columns(null);
+        return projectionQueryRepository.findAll(Employee.class, specification, Sort.unsorted(),
+            root -> dtoSelection(root, columns), row -> toDto(row, columns));
     }
 
     /**
      * Return a {@link Page} of {@link EmployeeDTO} which matches the criteria from the database.
+     * Only the columns of the DTO are selected, no entity is loaded.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
     public Page<EmployeeDTO> findByCriteria(EmployeeCriteria criteria, Pageable page) {
-        log.debug("find by criteria : {}, page: {}", criteria, page);
+        return findFieldsByCriteria(criteria, null, page);
+    }
+
+    /**
+     * Return a {@link Page} of {@link EmployeeDTO} which matches the criteria from the database, with only the
+     * given properties: only their columns are selected, and the other properties are left {@code null}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The names of the {@link EmployeeDTO} properties to read, or {@code null} for all of them.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     * @throws IllegalArgumentException if a field is not a property of {@link EmployeeDTO}.
+     */
+    @Transactional(readOnly = true)
+    public Page<EmployeeDTO> findFieldsByCriteria(EmployeeCriteria criteria, Collection<String> fields, Pageable page) {
+        log.debug("find by criteria : {}, fields: {}, page: {}", criteria, fields, page);
+        List<DtoColumn<?>> columns = columns(fields);
+        final Specification<Employee> specification = createSpecification(criteria);
+        return projectionQueryRepository.findAll(Employee.class, specification, page,
+            root -> dtoSelection(root, columns), row -> toDto(row, columns));
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link EmployeeDTO} which matches the criteria from the database,
+     * starting right after the given cursor. No count query is executed.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous slice, or {@code null} for the first one.
+     * @param page The size and sort of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<EmployeeDTO> findByCriteria(EmployeeCriteria criteria, String after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
         final Specification<Employee> specification = createSpecification(criteria);
-        return employeeRepository.findAll(specification, page)
+        return keysetSliceRepository.findSlice(Employee.class, specification, page, after, KEYSET_SORT_KEYS)
             .map(employeeMapper::toDto);
     }
 
+    /**
+     * Stream every {@link EmployeeDTO} which matches the criteria from the database to a consumer, one at a time,
+     * without loading the whole result in memory.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of the matching entities, in id order.
+     */
+    @Transactional(readOnly = true)
+    public void exportByCriteria(EmployeeCriteria criteria, Consumer<EmployeeDTO> consumer) {
+        log.debug("export by criteria : {}", criteria);
+        final Specification<Employee> specification = createSpecification(criteria);
+        streamingQueryRepository.forEach(Employee.class, specification, employee -> consumer.accept(employeeMapper.toDto(employee)));
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -84,6 +190,80 @@ public class EmployeeQueryService extends QueryService<Employee> {
         return employeeRepository.count(specification);
     }
 
+    /**
+     * Check the names of selected {@link EmployeeDTO} properties.
+     * @param fields The property names.
+     * @return the unknown names, empty if they are all known.
+     */
+    public Set<String> unknownFields(Collection<String> fields) {
+        Set<String> unknown = new LinkedHashSet<>(fields);
+        unknown.removeAll(DTO_COLUMNS.keySet());
+        return unknown;
+    }
+
+    private static List<DtoColumn<?>> columns(Collection<String> fields) {
+        if (fields == null) {
+            return new ArrayList<>(DTO_COLUMNS.values());
+        }
+        List<DtoColumn<?>> columns = new ArrayList<>();
+        for (String field : new LinkedHashSet<>(fields)) {
+            DtoColumn<?> column = DTO_COLUMNS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * The columns of the given {@link EmployeeDTO} properties, aliased with the property names.
+     */
+    private static List<Selection<?>> dtoSelection(Root<Employee> root, List<DtoColumn<?>> columns) {
+        List<Selection<?>> selection = new ArrayList<>(columns.size());
+        for (DtoColumn<?> column : columns) {
+            selection.add(column.path.apply(root).alias(column.name));
+        }
+        return selection;
+    }
+
+    private static EmployeeDTO toDto(Tuple row, List<DtoColumn<?>> columns) {
+        EmployeeDTO employeeDTO = new EmployeeDTO();
+        for (DtoColumn<?> column : columns) {
+            column.read(row, employeeDTO);
+        }
+        return employeeDTO;
+    }
+
+    private static void addColumn(DtoColumn<?> column) {
+        DTO_COLUMNS.put(column.name, column);
+    }
+
+    /**
+     * A property of {@link EmployeeDTO} and the column it is read from.
+     */
+    private static final class DtoColumn<V> {
+
+        private final String name;
+
+        private final Class<V> type;
+
+        private final Function<Root<Employee>, Path<V>> path;
+
+        private final BiConsumer<EmployeeDTO, V> setter;
+
+        DtoColumn(String name, Class<V> type, Function<Root<Employee>, Path<V>> path, BiConsumer<EmployeeDTO, V> setter) {
+            this.name = name;
+            this.type = type;
+            this.path = path;
+            this.setter = setter;
+        }
+
+        void read(Tuple row, EmployeeDTO employeeDTO) {
+            setter.accept(employeeDTO, row.get(name, type));
+        }
+    }
+
     /**
      * Function to convert {@link EmployeeCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
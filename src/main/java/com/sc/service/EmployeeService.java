@@ -1,10 +1,12 @@
 package com.sc.service;
 
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.dto.EmployeeDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,6 +22,14 @@ public interface EmployeeService {
      */
     EmployeeDTO save(EmployeeDTO employeeDTO);
 
+    /**
+     * Save a chunk of employees in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param employeeDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<EmployeeDTO> saveAll(List<EmployeeDTO> employeeDTOs);
+
     /**
      * Get all the employees.
      *
@@ -37,6 +47,14 @@ public interface EmployeeService {
      */
     Optional<EmployeeDTO> findOne(Long id);
 
+    /**
+     * Get the employees of several ids, in the order of the ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    List<EmployeeDTO> findAllById(List<Long> ids);
+
     /**
      * Delete the "id" employee.
      *
@@ -53,4 +71,15 @@ public interface EmployeeService {
      * @return the list of entities.
      */
     Page<EmployeeDTO> search(String query, Pageable pageable);
+
+    /**
+     * Search for the slice of employees corresponding to the query following a cursor, with {@code search_after}.
+     *
+     * @param query the query of the search.
+     * @param after the cursor of the previous slice, or {@code null} for the first one.
+     * @param pageable the size and sort of the slice.
+     * @param countTotal whether to count all the employees corresponding to the query.
+     * @return the list of entities.
+     */
+    SearchAfterSlice<EmployeeDTO> search(String query, String after, Pageable pageable, boolean countTotal);
 }
@@ -1,11 +1,15 @@
 package com.sc.service;
 
+import com.sc.repository.KeysetSlice;
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.dto.JobHistoryDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service Interface for managing {@link com.sc.domain.JobHistory}.
@@ -20,6 +24,14 @@ public interface JobHistoryService {
      */
     JobHistoryDTO save(JobHistoryDTO jobHistoryDTO);
 
+    /**
+     * Save a chunk of jobHistories in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param jobHistoryDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<JobHistoryDTO> saveAll(List<JobHistoryDTO> jobHistoryDTOs);
+
     /**
      * Get all the jobHistories.
      *
@@ -28,6 +40,22 @@ public interface JobHistoryService {
      */
     Page<JobHistoryDTO> findAll(Pageable pageable);
 
+    /**
+     * Get the slice of jobHistories following a cursor, without counting them.
+     *
+     * @param after the cursor of the previous slice, or {@code null} for the first one.
+     * @param pageable the size and sort of the slice.
+     * @return the list of entities.
+     */
+    KeysetSlice<JobHistoryDTO> findAll(String after, Pageable pageable);
+
+    /**
+     * Stream all the jobHistories to a consumer, one at a time.
+     *
+     * @param consumer the consumer of the entities, in id order.
+     */
+    void exportAll(Consumer<JobHistoryDTO> consumer);
+
 
     /**
      * Get the "id" jobHistory.
@@ -37,6 +65,14 @@ public interface JobHistoryService {
      */
     Optional<JobHistoryDTO> findOne(Long id);
 
+    /**
+     * Get the jobHistories of several ids, in the order of the ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    List<JobHistoryDTO> findAllById(List<Long> ids);
+
     /**
      * Delete the "id" jobHistory.
      *
@@ -53,4 +89,15 @@ public interface JobHistoryService {
      * @return the list of entities.
      */
     Page<JobHistoryDTO> search(String query, Pageable pageable);
+
+    /**
+     * Search for the slice of jobHistories corresponding to the query following a cursor, with {@code search_after}.
+     *
+     * @param query the query of the search.
+     * @param after the cursor of the previous slice, or {@code null} for the first one.
+     * @param pageable the size and sort of the slice.
+     * @param countTotal whether to count all the jobHistories corresponding to the query.
+     * @return the list of entities.
+     */
+    SearchAfterSlice<JobHistoryDTO> search(String query, String after, Pageable pageable, boolean countTotal);
 }
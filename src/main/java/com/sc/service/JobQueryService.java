@@ -1,13 +1,22 @@
 package com.sc.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.persistence.Tuple;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,9 +26,11 @@ import io.github.jhipster.service.QueryService;
 import com.sc.domain.Job;
 import com.sc.domain.*; // for static metamodels
 import com.sc.repository.JobRepository;
+import com.sc.repository.ProjectionQueryRepository;
 import com.sc.repository.search.JobSearchRepository;
 import com.sc.service.dto.JobCriteria;
 import com.sc.service.dto.JobDTO;
+import com.sc.service.dto.TaskDTO;
 import com.sc.service.mapper.JobMapper;
 
 /**
@@ -40,10 +51,14 @@ public class JobQueryService extends QueryService<Job> {
 
     private final JobSearchRepository jobSearchRepository;
 
-    public JobQueryService(JobRepository jobRepository, JobMapper jobMapper, JobSearchRepository jobSearchRepository) {
+    private final ProjectionQueryRepository projectionQueryRepository;
+
+    public JobQueryService(JobRepository jobRepository, JobMapper jobMapper, JobSearchRepository jobSearchRepository,
+                           ProjectionQueryRepository projectionQueryRepository) {
         this.jobRepository = jobRepository;
         this.jobMapper = jobMapper;
         this.jobSearchRepository = jobSearchRepository;
+        this.projectionQueryRepository = projectionQueryRepository;
     }
 
     /**
@@ -55,7 +70,7 @@ public class JobQueryService extends QueryService<Job> {
     public List<JobDTO> findByCriteria(JobCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
         final Specification<Job> specification = createSpecification(criteria);
-        return jobMapper.toDto(jobRepository.findAll(specification));
+        return withTasks(projectionQueryRepository.findAll(Job.class, specification, Sort.unsorted(), this::dtoSelection, this::toDto));
     }
 
     /**
@@ -68,8 +83,9 @@ public class JobQueryService extends QueryService<Job> {
     public Page<JobDTO> findByCriteria(JobCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Job> specification = createSpecification(criteria);
-        return jobRepository.findAll(specification, page)
-            .map(jobMapper::toDto);
+        Page<JobDTO> result = projectionQueryRepository.findAll(Job.class, specification, page, this::dtoSelection, this::toDto);
+        withTasks(result.getContent());
+        return result;
     }
 
     /**
@@ -84,6 +100,57 @@ public class JobQueryService extends QueryService<Job> {
         return jobRepository.count(specification);
     }
 
+    /**
+     * The scalar columns of {@link JobDTO}, aliased with its property names.
+     */
+    private List<Selection<?>> dtoSelection(Root<Job> root) {
+        return Arrays.asList(
+            root.get(Job_.id).alias("id"),
+            root.get(Job_.jobTitle).alias("jobTitle"),
+            root.get(Job_.minSalary).alias("minSalary"),
+            root.get(Job_.maxSalary).alias("maxSalary"),
+            root.get(Job_.employee).get(Employee_.id).alias("employeeId"));
+    }
+
+    private JobDTO toDto(Tuple row) {
+        JobDTO jobDTO = new JobDTO();
+        jobDTO.setId(row.get("id", Long.class));
+        jobDTO.setJobTitle(row.get("jobTitle", String.class));
+        jobDTO.setMinSalary(row.get("minSalary", Long.class));
+        jobDTO.setMaxSalary(row.get("maxSalary", Long.class));
+        jobDTO.setEmployeeId(row.get("employeeId", Long.class));
+        return jobDTO;
+    }
+
+    /**
+     * Fill the tasks of the jobs with a single projection query over the job_task join table.
+     */
+    private List<JobDTO> withTasks(List<JobDTO> jobs) {
+        if (jobs.isEmpty()) {
+            return jobs;
+        }
+        // A job is listed once per matching task when filtering on tasks
+        Map<Long, List<JobDTO>> jobsById = new LinkedHashMap<>();
+        jobs.forEach(job -> jobsById.computeIfAbsent(job.getId(), id -> new ArrayList<>()).add(job));
+        Specification<Job> ofJobs = (root, query, cb) -> root.get(Job_.id).in(jobsById.keySet());
+        projectionQueryRepository.findAll(Job.class, ofJobs, Sort.unsorted(), root -> {
+            Join<Job, Task> task = root.join(Job_.tasks);
+            return Arrays.asList(
+                root.get(Job_.id).alias("jobId"),
+                task.get(Task_.id).alias("id"),
+                task.get(Task_.title).alias("title"),
+                task.get(Task_.description).alias("description"));
+        }, row -> {
+            TaskDTO taskDTO = new TaskDTO();
+            taskDTO.setId(row.get("id", Long.class));
+            taskDTO.setTitle(row.get("title", String.class));
+            taskDTO.setDescription(row.get("description", String.class));
+            jobsById.get(row.get("jobId", Long.class)).forEach(job -> job.getTasks().add(taskDTO));
+            return taskDTO;
+        });
+        return jobs;
+    }
+
     /**
      * Function to convert {@link JobCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
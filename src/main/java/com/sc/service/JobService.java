@@ -3,6 +3,8 @@ package com.sc.service;
 import com.sc.domain.Job;
 import com.sc.repository.JobRepository;
 import com.sc.repository.search.JobSearchRepository;
+import com.sc.repository.search.SearchAfterRepository;
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.dto.JobDTO;
 import com.sc.service.mapper.JobMapper;
 import org.slf4j.Logger;
@@ -13,7 +15,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
@@ -32,10 +37,23 @@ public class JobService {
 
     private final JobSearchRepository jobSearchRepository;
 
-    public JobService(JobRepository jobRepository, JobMapper jobMapper, JobSearchRepository jobSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final DtoCacheService dtoCacheService;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final SearchAfterRepository searchAfterRepository;
+
+    public JobService(JobRepository jobRepository, JobMapper jobMapper, JobSearchRepository jobSearchRepository, SearchOutboxService searchOutboxService, DtoCacheService dtoCacheService, ChangeFeedService changeFeedService,
+                      SearchAfterRepository searchAfterRepository) {
         this.jobRepository = jobRepository;
         this.jobMapper = jobMapper;
         this.jobSearchRepository = jobSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.dtoCacheService = dtoCacheService;
+        this.changeFeedService = changeFeedService;
+        this.searchAfterRepository = searchAfterRepository;
     }
 
     /**
@@ -47,12 +65,49 @@ public class JobService {
     public JobDTO save(JobDTO jobDTO) {
         log.debug("Request to save Job : {}", jobDTO);
         Job job = jobMapper.toEntity(jobDTO);
-        job = jobRepository.save(job);
+        if (job.getId() != null && job.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            job.setVersion(jobRepository.findById(job.getId()).map(Job::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        job = jobRepository.saveAndFlush(job);
         JobDTO result = jobMapper.toDto(job);
-        jobSearchRepository.save(job);
+        searchOutboxService.index(Job.class, job.getId());
+        changeFeedService.recordUpsert(Job.class, job.getId());
+        dtoCacheService.evict(Job.class, job.getId());
         return result;
     }
 
+    /**
+     * Save a chunk of jobs in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param jobDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    public List<JobDTO> saveAll(List<JobDTO> jobDTOs) {
+        log.debug("Request to save {} Jobs", jobDTOs.size());
+        List<Job> jobs = jobMapper.toEntity(jobDTOs);
+        List<Long> unversionedIds = jobs.stream()
+            .filter(job -> job.getId() != null && job.getVersion() == null)
+            .map(Job::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = jobRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(Job::getId, Job::getVersion));
+            jobs.stream()
+                .filter(job -> job.getId() != null && job.getVersion() == null)
+                .forEach(job -> job.setVersion(versions.getOrDefault(job.getId(), 0L)));
+        }
+        jobs = jobRepository.saveAll(jobs);
+        jobRepository.flush();
+        List<Long> ids = jobs.stream().map(Job::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(Job.class, ids);
+        changeFeedService.recordUpsertAll(Job.class, ids);
+        jobs.forEach(job -> dtoCacheService.evict(Job.class, job.getId()));
+        return jobMapper.toDto(jobs);
+    }
+
     /**
      * Get all the jobs.
      *
@@ -85,8 +140,20 @@ public class JobService {
     @Transactional(readOnly = true)
     public Optional<JobDTO> findOne(Long id) {
         log.debug("Request to get Job : {}", id);
-        return jobRepository.findOneWithEagerRelationships(id)
-            .map(jobMapper::toDto);
+        return dtoCacheService.findOne(Job.class, id, key -> jobRepository.findOneWithEagerRelationships(key)
+            .map(jobMapper::toDto));
+    }
+
+    /**
+     * Get the jobs of several ids, in the order of the ids: the cached ones at once, the others with a single query.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Transactional(readOnly = true)
+    public List<JobDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Jobs : {}", ids);
+        return dtoCacheService.findAll(Job.class, ids, keys -> jobMapper.toDto(jobRepository.findAllWithEagerRelationshipsByIdIn(keys)), JobDTO::getId);
     }
 
     /**
@@ -97,7 +164,9 @@ public class JobService {
     public void delete(Long id) {
         log.debug("Request to delete Job : {}", id);
         jobRepository.deleteById(id);
-        jobSearchRepository.deleteById(id);
+        searchOutboxService.delete(Job.class, id);
+        changeFeedService.recordDelete(Job.class, id);
+        dtoCacheService.evict(Job.class, id);
     }
 
     /**
@@ -113,4 +182,20 @@ public class JobService {
         return jobSearchRepository.search(queryStringQuery(query), pageable)
             .map(jobMapper::toDto);
     }
+
+    /**
+     * Search for the slice of jobs corresponding to the query following a cursor, with {@code search_after}.
+     *
+     * @param query the query of the search.
+     * @param after the cursor of the previous slice, or {@code null} for the first one.
+     * @param pageable the size and sort of the slice.
+     * @param countTotal whether to count all the jobs corresponding to the query.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public SearchAfterSlice<JobDTO> search(String query, String after, Pageable pageable, boolean countTotal) {
+        log.debug("Request to search for a slice of Jobs for query {} after {}", query, after);
+        return searchAfterRepository.search(Job.class, queryStringQuery(query), pageable, after, countTotal)
+            .map(jobMapper::toDto);
+    }
 }
@@ -4,6 +4,7 @@ import com.sc.service.dto.LocationDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Service Interface for managing {@link com.sc.domain.Location}.
@@ -18,6 +19,14 @@ public interface LocationService {
      */
     LocationDTO save(LocationDTO locationDTO);
 
+    /**
+     * Save a chunk of locations in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param locationDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<LocationDTO> saveAll(List<LocationDTO> locationDTOs);
+
     /**
      * Get all the locations.
      *
@@ -25,6 +34,13 @@ public interface LocationService {
      */
     List<LocationDTO> findAll();
 
+    /**
+     * Get the version of the list of all the locations, which changes whenever the list may have changed.
+     *
+     * @return the version, or empty when it cannot be told, e.g. while the locations are being written.
+     */
+    OptionalLong findAllVersion();
+
 
     /**
      * Get the "id" location.
@@ -34,6 +50,14 @@ public interface LocationService {
      */
     Optional<LocationDTO> findOne(Long id);
 
+    /**
+     * Get the locations of several ids, in the order of the ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    List<LocationDTO> findAllById(List<Long> ids);
+
     /**
      * Delete the "id" location.
      *
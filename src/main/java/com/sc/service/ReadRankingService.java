@@ -0,0 +1,152 @@
+package com.sc.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.sc.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Service ranking the entities by number of reads, so that a starting member can load the most read ones first.
+ * <p>
+ * Each member counts the reads it serves, from any cache tier or from the database, and periodically publishes
+ * its own top entries to a small Hazelcast map, under its member id; the published counts are then halved, so
+ * that the ranking follows the recent reads. A starting member merges the rankings of the running members: it
+ * reads one entry per member, instead of the whole cache with one call per key.
+ * <p>
+ * Reads are not counted while the member warms up, so that the entities it loads do not rank themselves again.
+ */
+@Service
+public class ReadRankingService {
+
+    /**
+     * Prefix of the Hazelcast map names, followed by the simple name of the entity class.
+     */
+    static final String MAP_NAME_PREFIX = "read-ranking.";
+
+    /**
+     * Number of ids counted per entity for each id published, beyond which new ids are not counted until the next publication.
+     */
+    private static final int TRACKED_PER_PUBLISHED = 10;
+
+    private final Logger log = LoggerFactory.getLogger(ReadRankingService.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final ApplicationProperties.WarmUp properties;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Long, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    private volatile boolean paused;
+
+    public ReadRankingService(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.properties = applicationProperties.getWarmUp();
+    }
+
+    /**
+     * Count a read of an entity.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     */
+    public void recordRead(Class<?> entityClass, Long id) {
+        if (paused || id == null || properties.getEmployees() <= 0) {
+            return;
+        }
+        ConcurrentMap<Long, LongAdder> entityCounts = counts.computeIfAbsent(entityClass, c -> new ConcurrentHashMap<>());
+        LongAdder count = entityCounts.get(id);
+        if (count == null) {
+            if (entityCounts.size() >= properties.getEmployees() * TRACKED_PER_PUBLISHED) {
+                return;
+            }
+            count = entityCounts.computeIfAbsent(id, i -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Stop or resume counting the reads, for the warm-up.
+     *
+     * @param paused {@code true} to stop counting.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Publish the top entries of this member, then halve its counts and forget those which drop to zero.
+     */
+    @Scheduled(initialDelayString = "${application.warm-up.ranking-interval-ms:60000}",
+        fixedDelayString = "${application.warm-up.ranking-interval-ms:60000}")
+    public void publish() {
+        String memberId = hazelcastInstance.getCluster().getLocalMember().getUuid();
+        counts.forEach((entityClass, entityCounts) -> {
+            Map<Long, Long> top = new HashMap<>();
+            snapshot(entityCounts).stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(properties.getEmployees())
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+            try {
+                // Outlives a few publications, so that the ranking of a member which left is dropped
+                rankingMap(entityClass).set(memberId, top, properties.getRankingIntervalMs() * 3, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish the read ranking of {}: {}", entityClass.getSimpleName(), e.toString());
+                return;
+            }
+            entityCounts.forEach((id, count) -> {
+                long halved = count.sumThenReset() / 2;
+                if (halved == 0) {
+                    entityCounts.remove(id, count);
+                } else {
+                    count.add(halved);
+                }
+            });
+        });
+    }
+
+    /**
+     * Return the ids of the most read entities, according to the rankings published by the members.
+     *
+     * @param entityClass the domain class of the entities.
+     * @param limit the maximum number of ids.
+     * @return the ids, the most read first; empty when no member published a ranking yet.
+     */
+    public List<Long> findMostRead(Class<?> entityClass, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        Map<Long, Long> merged = new HashMap<>();
+        for (Map<Long, Long> ranking : rankingMap(entityClass).values()) {
+            ranking.forEach((id, count) -> merged.merge(id, count, Long::sum));
+        }
+        return merged.entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    private static List<Map.Entry<Long, Long>> snapshot(ConcurrentMap<Long, LongAdder> entityCounts) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(entityCounts.size());
+        entityCounts.forEach((id, count) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(id, count.sum())));
+        return entries;
+    }
+
+    private IMap<String, Map<Long, Long>> rankingMap(Class<?> entityClass) {
+        return hazelcastInstance.getMap(MAP_NAME_PREFIX + entityClass.getSimpleName());
+    }
+}
@@ -0,0 +1,211 @@
+package com.sc.service;
+
+import com.sc.service.dto.CountryDTO;
+import com.sc.service.dto.DepartmentDTO;
+import com.sc.service.dto.LocationDTO;
+import com.sc.service.dto.RegionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable index of the reference data: regions, countries, locations and departments, by id, by parent and
+ * by name, see {@link ReferenceDataService}.
+ * <p>
+ * The index is never changed once built: a write builds a new one, so readers always see a consistent
+ * hierarchy without locking. Lists are ordered by id and cannot be modified; the DTOs are shared by all the
+ * readers and must not be modified either.
+ */
+public final class ReferenceData {
+
+    private final long version;
+
+    private final Table<RegionDTO> regions;
+
+    private final Table<CountryDTO> countries;
+
+    private final Table<LocationDTO> locations;
+
+    private final Table<DepartmentDTO> departments;
+
+    ReferenceData(Collection<RegionDTO> regions, Collection<CountryDTO> countries, Collection<LocationDTO> locations,
+                  Collection<DepartmentDTO> departments) {
+        this.regions = new Table<>(regions, RegionDTO::getId, RegionDTO::getVersion, region -> null, RegionDTO::getRegionName);
+        this.countries = new Table<>(countries, CountryDTO::getId, CountryDTO::getVersion, CountryDTO::getRegionId,
+            CountryDTO::getCountryName);
+        this.locations = new Table<>(locations, LocationDTO::getId, LocationDTO::getVersion, LocationDTO::getCountryId,
+            LocationDTO::getCity);
+        this.departments = new Table<>(departments, DepartmentDTO::getId, DepartmentDTO::getVersion,
+            DepartmentDTO::getLocationId, DepartmentDTO::getDepartmentName);
+        long hash = 1;
+        for (Table<?> table : Arrays.asList(this.regions, this.countries, this.locations, this.departments)) {
+            hash = 31 * hash + table.version;
+        }
+        this.version = hash;
+    }
+
+    /**
+     * The version of the indexed data: a hash of the ids and versions of all the entities, which changes
+     * whenever one of them is created, updated or deleted, and is the same on every member holding the same data.
+     *
+     * @return the version of the index.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<RegionDTO> getRegions() {
+        return regions.all;
+    }
+
+    public Optional<RegionDTO> getRegion(Long id) {
+        return regions.get(id);
+    }
+
+    public List<RegionDTO> getRegionsByName(String regionName) {
+        return regions.byName(regionName);
+    }
+
+    public List<CountryDTO> getCountries() {
+        return countries.all;
+    }
+
+    public Optional<CountryDTO> getCountry(Long id) {
+        return countries.get(id);
+    }
+
+    public List<CountryDTO> getCountriesByName(String countryName) {
+        return countries.byName(countryName);
+    }
+
+    /**
+     * @param regionId the id of the region.
+     * @return the countries of the region, empty when there are none or the region does not exist.
+     */
+    public List<CountryDTO> getCountriesOfRegion(Long regionId) {
+        return countries.byParent(regionId);
+    }
+
+    public List<LocationDTO> getLocations() {
+        return locations.all;
+    }
+
+    public Optional<LocationDTO> getLocation(Long id) {
+        return locations.get(id);
+    }
+
+    public List<LocationDTO> getLocationsByCity(String city) {
+        return locations.byName(city);
+    }
+
+    /**
+     * @param countryId the id of the country.
+     * @return the locations of the country, empty when there are none or the country does not exist.
+     */
+    public List<LocationDTO> getLocationsOfCountry(Long countryId) {
+        return locations.byParent(countryId);
+    }
+
+    public List<DepartmentDTO> getDepartments() {
+        return departments.all;
+    }
+
+    public Optional<DepartmentDTO> getDepartment(Long id) {
+        return departments.get(id);
+    }
+
+    public List<DepartmentDTO> getDepartmentsByName(String departmentName) {
+        return departments.byName(departmentName);
+    }
+
+    /**
+     * @param locationId the id of the location.
+     * @return the departments of the location, empty when there are none or the location does not exist.
+     */
+    public List<DepartmentDTO> getDepartmentsOfLocation(Long locationId) {
+        return departments.byParent(locationId);
+    }
+
+    /**
+     * Navigate from a department up to its region.
+     *
+     * @param departmentId the id of the department.
+     * @return the region, empty when the department or one of its parents does not exist or is not set.
+     */
+    public Optional<RegionDTO> getRegionOfDepartment(Long departmentId) {
+        return getDepartment(departmentId)
+            .map(DepartmentDTO::getLocationId).flatMap(this::getLocation)
+            .map(LocationDTO::getCountryId).flatMap(this::getCountry)
+            .map(CountryDTO::getRegionId).flatMap(this::getRegion);
+    }
+
+    /**
+     * The rows of one entity, by id, by parent id and by name.
+     */
+    private static final class Table<T> {
+
+        private final long version;
+
+        private final List<T> all;
+
+        private final Map<Long, T> byId;
+
+        private final Map<Long, List<T>> byParent;
+
+        private final Map<String, List<T>> byName;
+
+        Table(Collection<T> rows, Function<T, Long> idGetter, Function<T, Long> versionGetter, Function<T, Long> parentIdGetter,
+              Function<T, String> nameGetter) {
+            List<T> sorted = new ArrayList<>(rows);
+            sorted.sort(Comparator.comparing(idGetter));
+            long hash = 1;
+            Map<Long, T> byId = new LinkedHashMap<>();
+            Map<Long, List<T>> byParent = new HashMap<>();
+            Map<String, List<T>> byName = new HashMap<>();
+            for (T row : sorted) {
+                hash = 31 * (31 * hash + toLong(idGetter.apply(row))) + toLong(versionGetter.apply(row));
+                byId.put(idGetter.apply(row), row);
+                Long parentId = parentIdGetter.apply(row);
+                if (parentId != null) {
+                    byParent.computeIfAbsent(parentId, key -> new ArrayList<>()).add(row);
+                }
+                String name = nameGetter.apply(row);
+                if (name != null) {
+                    byName.computeIfAbsent(name, key -> new ArrayList<>()).add(row);
+                }
+            }
+            byParent.replaceAll((key, children) -> Collections.unmodifiableList(children));
+            byName.replaceAll((key, named) -> Collections.unmodifiableList(named));
+            this.version = hash;
+            this.all = Collections.unmodifiableList(sorted);
+            this.byId = byId;
+            this.byParent = byParent;
+            this.byName = byName;
+        }
+
+        Optional<T> get(Long id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        List<T> byParent(Long parentId) {
+            return byParent.getOrDefault(parentId, Collections.emptyList());
+        }
+
+        List<T> byName(String name) {
+            return byName.getOrDefault(name, Collections.emptyList());
+        }
+
+        private static long toLong(Long value) {
+            return value == null ? 0 : value;
+        }
+    }
+}
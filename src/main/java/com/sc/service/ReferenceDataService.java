@@ -0,0 +1,261 @@
+package com.sc.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.sc.domain.Country;
+import com.sc.domain.Department;
+import com.sc.domain.Location;
+import com.sc.domain.Region;
+import com.sc.repository.CountryRepository;
+import com.sc.repository.DepartmentRepository;
+import com.sc.repository.LocationRepository;
+import com.sc.repository.RegionRepository;
+import com.sc.service.mapper.CountryMapper;
+import com.sc.service.mapper.DepartmentMapper;
+import com.sc.service.mapper.LocationMapper;
+import com.sc.service.mapper.RegionMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the reference data (regions, countries, locations and departments) from an in-process
+ * {@link ReferenceData} index.
+ * <p>
+ * The index is built from the database on first use, and replaced as a whole after a write: a Hibernate listener
+ * catches every insert, update and delete of the reference entities, whatever the code path, and invalidates the
+ * index both when the change is flushed and once its transaction completes. The other members are told over a
+ * Hazelcast topic when the transaction completes. The next reader rebuilds the index, while concurrent readers
+ * wait for that single rebuild instead of loading the tables again.
+ * <p>
+ * The index is always rebuilt in a new transaction, so that it only holds committed rows. A transaction which
+ * wrote reference data reads them through to the database instead, to see its own changes, without replacing
+ * the shared index.
+ */
+@Service
+public class ReferenceDataService {
+
+    static final String INVALIDATION_TOPIC = "reference-data-invalidation";
+
+    private static final Class<?>[] ENTITY_CLASSES = {Region.class, Country.class, Location.class, Department.class};
+
+    private final Logger log = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    private final RegionRepository regionRepository;
+
+    private final RegionMapper regionMapper;
+
+    private final CountryRepository countryRepository;
+
+    private final CountryMapper countryMapper;
+
+    private final LocationRepository locationRepository;
+
+    private final LocationMapper locationMapper;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final DepartmentMapper departmentMapper;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ITopic<String> invalidationTopic;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer rebuildTimer;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot current;
+
+    public ReferenceDataService(RegionRepository regionRepository, RegionMapper regionMapper,
+                                CountryRepository countryRepository, CountryMapper countryMapper,
+                                LocationRepository locationRepository, LocationMapper locationMapper,
+                                DepartmentRepository departmentRepository, DepartmentMapper departmentMapper,
+                                EntityManagerFactory entityManagerFactory, HazelcastInstance hazelcastInstance,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.regionRepository = regionRepository;
+        this.regionMapper = regionMapper;
+        this.countryRepository = countryRepository;
+        this.countryMapper = countryMapper;
+        this.locationRepository = locationRepository;
+        this.locationMapper = locationMapper;
+        this.departmentRepository = departmentRepository;
+        this.departmentMapper = departmentMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.invalidationTopic = hazelcastInstance.getTopic(INVALIDATION_TOPIC);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTimer = Timer.builder("reference.data.rebuild")
+            .description("Time taken to load the reference data index")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        WriteListener listener = new WriteListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        invalidationTopic.addMessageListener(message -> {
+            if (message.getPublishingMember() == null || !message.getPublishingMember().localMember()) {
+                log.debug("Reference data {} changed on another member", message.getMessageObject());
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Get the current index, building it first if it is missing or out of date.
+     *
+     * @return the index of the reference data.
+     */
+    public ReferenceData get() {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            // Written by the current transaction: its changes are not in the index, nor may be shared yet
+            return load();
+        }
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.version == version.get()) {
+            return snapshot.data;
+        }
+        synchronized (rebuildLock) {
+            snapshot = current;
+            long expectedVersion = version.get();
+            if (snapshot != null && snapshot.version == expectedVersion) {
+                return snapshot.data;
+            }
+            // A write during the load changes the version again, so the next reader rebuilds once more
+            ReferenceData data = rebuildTimer.record(() -> transactionTemplate.execute(status -> load()));
+            current = new Snapshot(expectedVersion, data);
+            return data;
+        }
+    }
+
+    private ReferenceData load() {
+        ReferenceData data = new ReferenceData(
+            regionMapper.toDto(regionRepository.findAll()),
+            countryMapper.toDto(countryRepository.findAll()),
+            locationMapper.toDto(locationRepository.findAll()),
+            departmentMapper.toDto(departmentRepository.findAll()));
+        log.debug("Loaded {} regions, {} countries, {} locations and {} departments", data.getRegions().size(),
+            data.getCountries().size(), data.getLocations().size(), data.getDepartments().size());
+        return data;
+    }
+
+    private void onWrite(Class<?> entityClass) {
+        log.trace("Reference data {} changed, invalidating the index", entityClass.getSimpleName());
+        version.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishInvalidation(entityClass);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Class<?>> written = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+        if (written != null) {
+            written.add(entityClass);
+            return;
+        }
+        Set<Class<?>> changes = new LinkedHashSet<>();
+        changes.add(entityClass);
+        TransactionSynchronizationManager.bindResource(this, changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReferenceDataService.this);
+                // An index rebuilt before the commit may hold the previous state
+                version.incrementAndGet();
+                if (status == STATUS_COMMITTED) {
+                    changes.forEach(ReferenceDataService.this::publishInvalidation);
+                }
+            }
+        });
+    }
+
+    private void publishInvalidation(Class<?> entityClass) {
+        try {
+            invalidationTopic.publish(entityClass.getSimpleName());
+        } catch (RuntimeException e) {
+            log.warn("Could not publish the invalidation of the reference data: {}", e.toString());
+        }
+    }
+
+    private static boolean isReferenceData(Object entity) {
+        for (Class<?> entityClass : ENTITY_CLASSES) {
+            if (entityClass.isInstance(entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+
+        private final ReferenceData data;
+
+        Snapshot(long version, ReferenceData data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+
+    private final class WriteListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (isReferenceData(event.getEntity())) {
+                onWrite(event.getEntity().getClass());
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (isReferenceData(event.getEntity())) {
+                onWrite(event.getEntity().getClass());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (isReferenceData(event.getEntity())) {
+                onWrite(event.getEntity().getClass());
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.sc.service.dto.RegionDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Service Interface for managing {@link com.sc.domain.Region}.
@@ -18,6 +19,14 @@ public interface RegionService {
      */
     RegionDTO save(RegionDTO regionDTO);
 
+    /**
+     * Save a chunk of regions in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param regionDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<RegionDTO> saveAll(List<RegionDTO> regionDTOs);
+
     /**
      * Get all the regions.
      *
@@ -25,6 +34,13 @@ public interface RegionService {
      */
     List<RegionDTO> findAll();
 
+    /**
+     * Get the version of the list of all the regions, which changes whenever the list may have changed.
+     *
+     * @return the version, or empty when it cannot be told, e.g. while the regions are being written.
+     */
+    OptionalLong findAllVersion();
+
 
     /**
      * Get the "id" region.
@@ -34,6 +50,14 @@ public interface RegionService {
      */
     Optional<RegionDTO> findOne(Long id);
 
+    /**
+     * Get the regions of several ids, in the order of the ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    List<RegionDTO> findAllById(List<Long> ids);
+
     /**
      * Delete the "id" region.
      *
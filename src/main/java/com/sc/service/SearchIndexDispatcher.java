@@ -0,0 +1,268 @@
+package com.sc.service;
+
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.*;
+import com.sc.domain.enumeration.SearchOperation;
+import com.sc.repository.*;
+import com.sc.repository.search.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the {@link SearchOutboxEvent} table to Elasticsearch.
+ * <p>
+ * Events are read in commit order, coalesced per entity (only the latest operation of an entity is applied)
+ * and sent with one bulk index request per entity type. Indexed documents are always reloaded from the
+ * database, so replaying an event is idempotent. Failed events are retried with an exponential backoff.
+ * <p>
+ * Associations are lazy: each entity type is loaded with the fetch plan of its document, so the associations
+ * embedded in the document come with the same select while the ones beyond are written as references.
+ * <p>
+ * Each batch is dispatched while holding the {@link SearchOutboxLock} row, so that only one member of the cluster
+ * drains at a time; the others skip their drain instead of waiting for it.
+ */
+@Service
+public class SearchIndexDispatcher {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexDispatcher.class);
+
+    private static final String LOCK_NAME = "SearchIndexDispatcher";
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private final SearchOutboxLockRepository searchOutboxLockRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.SearchOutbox properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SearchTarget<?>> targets = new HashMap<>();
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    private final AtomicLong oldestPendingEpochMilli = new AtomicLong();
+
+    private final Timer lagTimer;
+
+    public SearchIndexDispatcher(SearchOutboxEventRepository searchOutboxEventRepository,
+                                 SearchOutboxLockRepository searchOutboxLockRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("taskExecutor") Executor taskExecutor,
+                                 ApplicationProperties applicationProperties,
+                                 MeterRegistry meterRegistry,
+                                 RegionRepository regionRepository, RegionSearchRepository regionSearchRepository,
+                                 CountryRepository countryRepository, CountrySearchRepository countrySearchRepository,
+                                 LocationRepository locationRepository, LocationSearchRepository locationSearchRepository,
+                                 DepartmentRepository departmentRepository, DepartmentSearchRepository departmentSearchRepository,
+                                 TaskRepository taskRepository, TaskSearchRepository taskSearchRepository,
+                                 EmployeeRepository employeeRepository, EmployeeSearchRepository employeeSearchRepository,
+                                 JobRepository jobRepository, JobSearchRepository jobSearchRepository,
+                                 JobHistoryRepository jobHistoryRepository, JobHistorySearchRepository jobHistorySearchRepository) {
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+        this.searchOutboxLockRepository = searchOutboxLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.properties = applicationProperties.getSearchOutbox();
+        this.meterRegistry = meterRegistry;
+        register(Region.class, Region::getId, regionRepository::findAllById, regionSearchRepository);
+        register(Country.class, Country::getId, countryRepository::findAllWithEagerRelationshipsByIdIn, countrySearchRepository);
+        register(Location.class, Location::getId, locationRepository::findAllWithEagerRelationshipsByIdIn, locationSearchRepository);
+        register(Department.class, Department::getId, departmentRepository::findAllWithEagerRelationshipsByIdIn, departmentSearchRepository);
+        register(Task.class, Task::getId, taskRepository::findAllById, taskSearchRepository);
+        register(Employee.class, Employee::getId, employeeRepository::findAllWithEagerRelationshipsByIdIn, employeeSearchRepository);
+        register(Job.class, Job::getId, jobRepository::findAllById, jobSearchRepository);
+        register(JobHistory.class, JobHistory::getId, jobHistoryRepository::findAllById, jobHistorySearchRepository);
+
+        this.lagTimer = Timer.builder("search.outbox.lag")
+            .description("Delay between an entity change and its dispatch to Elasticsearch")
+            .register(meterRegistry);
+        Gauge.builder("search.outbox.oldest.age", oldestPendingEpochMilli, oldest ->
+                oldest.get() == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest.get()) / 1000.0)
+            .description("Age in seconds of the oldest event waiting in the search outbox")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    private <T> void register(Class<T> entityClass, Function<T, Long> idGetter,
+                              Function<List<Long>, List<T>> loader, ElasticsearchRepository<T, Long> searchRepository) {
+        targets.put(entityClass.getSimpleName(), new SearchTarget<>(idGetter, loader, searchRepository));
+    }
+
+    /**
+     * Schedule an asynchronous drain on the task executor, unless one is already scheduled.
+     */
+    public void dispatchAsync() {
+        if (dispatchRequested.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                dispatchRequested.set(false);
+                dispatchPending();
+            });
+        }
+    }
+
+    /**
+     * Periodically drain the outbox, to pick up retries and events whose commit signal was lost.
+     */
+    @Scheduled(fixedDelayString = "${application.search-outbox.poll-interval-ms:5000}")
+    public void dispatchPending() {
+        // Set before trying the lock, so that a running drain sees it once it releases the lock
+        drainRequested.set(true);
+        if (!drainLock.tryLock()) {
+            return;
+        }
+        try {
+            drainRequested.set(false);
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Could not drain the search outbox", e);
+        } finally {
+            drainLock.unlock();
+        }
+        if (drainRequested.get()) {
+            // Events committed during the drain, whose signal found the lock taken
+            dispatchAsync();
+        }
+    }
+
+    /**
+     * Synchronously drain every event which is ready to be dispatched, waiting for a running drain to finish first.
+     * <p>
+     * Meant for tests and maintenance tasks. When called inside a transaction, events written by that
+     * transaction are dispatched as well.
+     *
+     * @return the number of events processed.
+     */
+    public int flush() {
+        drainLock.lock();
+        try {
+            return drain();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private int drain() {
+        int total = 0;
+        int processed;
+        do {
+            processed = dispatchBatch();
+            total += processed;
+        } while (processed > 0);
+        Instant oldest = transactionTemplate.execute(status -> searchOutboxEventRepository.findOldestCreatedDate());
+        oldestPendingEpochMilli.set(oldest == null ? 0 : oldest.toEpochMilli());
+        return total;
+    }
+
+    private int dispatchBatch() {
+        Integer processed = transactionTemplate.execute(status -> {
+            if (!searchOutboxLockRepository.tryLock(LOCK_NAME).isPresent()) {
+                log.debug("The search outbox is being drained by another member");
+                return 0;
+            }
+            Instant now = Instant.now();
+            List<SearchOutboxEvent> events = searchOutboxEventRepository.findReady(now, PageRequest.of(0, properties.getBatchSize()));
+            events.stream()
+                .collect(Collectors.groupingBy(SearchOutboxEvent::getEntityType, LinkedHashMap::new, Collectors.toList()))
+                .forEach((entityType, typeEvents) -> dispatch(entityType, typeEvents, now));
+            return events.size();
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    private void dispatch(String entityType, List<SearchOutboxEvent> events, Instant now) {
+        // Events are ordered by id, so the last operation recorded for an entity wins
+        Map<Long, SearchOperation> latest = new LinkedHashMap<>();
+        events.forEach(event -> latest.put(event.getEntityId(), event.getOperation()));
+        List<Long> indexIds = new ArrayList<>();
+        List<Long> deleteIds = new ArrayList<>();
+        latest.forEach((id, operation) -> (operation == SearchOperation.INDEX ? indexIds : deleteIds).add(id));
+        try {
+            SearchTarget<?> target = targets.get(entityType);
+            if (target == null) {
+                throw new IllegalStateException("No search repository registered for " + entityType);
+            }
+            target.dispatch(indexIds, deleteIds);
+            searchOutboxEventRepository.deleteInBatch(events);
+            Instant dispatched = Instant.now();
+            events.forEach(event -> lagTimer.record(Duration.between(event.getCreatedDate(), dispatched)));
+            counter("search.outbox.dispatched", entityType).increment(latest.size());
+            log.debug("Dispatched {} {} change(s) to Elasticsearch ({} coalesced)", latest.size(), entityType, events.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not dispatch {} {} change(s) to Elasticsearch, will retry: {}", latest.size(), entityType, e.toString());
+            counter("search.outbox.failed", entityType).increment(latest.size());
+            events.forEach(event -> reschedule(event, now, e));
+        }
+    }
+
+    private void reschedule(SearchOutboxEvent event, Instant now, RuntimeException cause) {
+        int attempts = event.getAttempts() + 1;
+        long backoff = properties.getRetryBackoffMs() << Math.min(attempts - 1, 20);
+        event.setAttempts(attempts);
+        event.setProcessAfter(now.plusMillis(Math.min(backoff, properties.getMaxRetryBackoffMs())));
+        String message = String.valueOf(cause.getMessage());
+        event.setLastError(message.length() > 255 ? message.substring(0, 255) : message);
+    }
+
+    private Counter counter(String name, String entityType) {
+        return meterRegistry.counter(name, "entity", entityType);
+    }
+
+    private static final class SearchTarget<T> {
+
+        private final Function<T, Long> idGetter;
+
+        private final Function<List<Long>, List<T>> loader;
+
+        private final ElasticsearchRepository<T, Long> searchRepository;
+
+        private SearchTarget(Function<T, Long> idGetter, Function<List<Long>, List<T>> loader, ElasticsearchRepository<T, Long> searchRepository) {
+            this.idGetter = idGetter;
+            this.loader = loader;
+            this.searchRepository = searchRepository;
+        }
+
+        private void dispatch(List<Long> indexIds, List<Long> deleteIds) {
+            if (!indexIds.isEmpty()) {
+                List<T> entities = loader.apply(indexIds);
+                if (!entities.isEmpty()) {
+                    searchRepository.saveAll(entities);
+                }
+                if (entities.size() < indexIds.size()) {
+                    // Rows removed without a delete event (e.g. cascades) must not linger in the index
+                    Set<Long> found = entities.stream().map(idGetter).collect(Collectors.toSet());
+                    indexIds.stream().filter(id -> !found.contains(id)).forEach(deleteIds::add);
+                }
+            }
+            deleteIds.forEach(searchRepository::deleteById);
+        }
+    }
+}
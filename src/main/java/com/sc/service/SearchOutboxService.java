@@ -0,0 +1,100 @@
+package com.sc.service;
+
+import com.sc.domain.SearchOutboxEvent;
+import com.sc.domain.enumeration.SearchOperation;
+import com.sc.repository.SearchOutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Service recording Elasticsearch side effects in the {@link SearchOutboxEvent} table.
+ * <p>
+ * Events are written in the caller's transaction, so they are committed or rolled back together with the
+ * entity change. Once the transaction commits, the {@link SearchIndexDispatcher} is signalled to drain them.
+ */
+@Service
+@Transactional
+public class SearchOutboxService {
+
+    private static final Object DISPATCH_SIGNAL_KEY = new Object();
+
+    private final Logger log = LoggerFactory.getLogger(SearchOutboxService.class);
+
+    private final SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private final SearchIndexDispatcher searchIndexDispatcher;
+
+    public SearchOutboxService(SearchOutboxEventRepository searchOutboxEventRepository, SearchIndexDispatcher searchIndexDispatcher) {
+        this.searchOutboxEventRepository = searchOutboxEventRepository;
+        this.searchIndexDispatcher = searchIndexDispatcher;
+    }
+
+    /**
+     * Record that the entity must be (re)indexed from its committed database state.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     */
+    public void index(Class<?> entityClass, Long id) {
+        enqueue(entityClass, id, SearchOperation.INDEX);
+    }
+
+    /**
+     * Record that the entities must be (re)indexed; the events are inserted as one JDBC batch.
+     *
+     * @param entityClass the domain class of the entities.
+     * @param ids the ids of the entities.
+     */
+    public void indexAll(Class<?> entityClass, Collection<Long> ids) {
+        log.trace("Queueing search INDEX of {} {}", ids.size(), entityClass.getSimpleName());
+        Instant now = Instant.now();
+        searchOutboxEventRepository.saveAll(ids.stream()
+            .map(id -> new SearchOutboxEvent(entityClass.getSimpleName(), id, SearchOperation.INDEX, now))
+            .collect(Collectors.toList()));
+        signalDispatcherAfterCommit();
+    }
+
+    /**
+     * Record that the entity must be removed from its index.
+     *
+     * @param entityClass the domain class of the entity.
+     * @param id the id of the entity.
+     */
+    public void delete(Class<?> entityClass, Long id) {
+        enqueue(entityClass, id, SearchOperation.DELETE);
+    }
+
+    private void enqueue(Class<?> entityClass, Long id, SearchOperation operation) {
+        log.trace("Queueing search {} of {} : {}", operation, entityClass.getSimpleName(), id);
+        searchOutboxEventRepository.save(new SearchOutboxEvent(entityClass.getSimpleName(), id, operation, Instant.now()));
+        signalDispatcherAfterCommit();
+    }
+
+    /**
+     * Register, once per transaction, a callback waking up the dispatcher after commit.
+     */
+    private void signalDispatcherAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.hasResource(DISPATCH_SIGNAL_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(DISPATCH_SIGNAL_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DISPATCH_SIGNAL_KEY);
+                if (status == STATUS_COMMITTED) {
+                    searchIndexDispatcher.dispatchAsync();
+                }
+            }
+        });
+    }
+}
@@ -4,6 +4,7 @@ import com.sc.service.dto.TaskDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Service Interface for managing {@link com.sc.domain.Task}.
@@ -18,6 +19,14 @@ public interface TaskService {
      */
     TaskDTO save(TaskDTO taskDTO);
 
+    /**
+     * Save a chunk of tasks in one transaction, so inserts and updates are sent as JDBC batches.
+     *
+     * @param taskDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     */
+    List<TaskDTO> saveAll(List<TaskDTO> taskDTOs);
+
     /**
      * Get all the tasks.
      *
@@ -25,6 +34,13 @@ public interface TaskService {
      */
     List<TaskDTO> findAll();
 
+    /**
+     * Get the version of the list of all the tasks, which changes whenever the list may have changed.
+     *
+     * @return the version, or empty when it cannot be told, e.g. while the tasks are being written.
+     */
+    OptionalLong findAllVersion();
+
 
     /**
      * Get the "id" task.
@@ -34,6 +50,14 @@ public interface TaskService {
      */
     Optional<TaskDTO> findOne(Long id);
 
+    /**
+     * Get the tasks of several ids, in the order of the ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    List<TaskDTO> findAllById(List<Long> ids);
+
     /**
      * Delete the "id" task.
      *
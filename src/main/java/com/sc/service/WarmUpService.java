@@ -0,0 +1,189 @@
+package com.sc.service;
+
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Employee;
+import com.sc.security.AuthoritiesConstants;
+import com.sc.security.jwt.TokenProvider;
+import com.sc.service.dto.CountryDTO;
+import com.sc.service.dto.DepartmentDTO;
+import com.sc.service.dto.LocationDTO;
+import com.sc.service.dto.RegionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Warms up a starting instance before it takes traffic.
+ * <p>
+ * Once the application is ready, the reference data and the most read employees are loaded through their
+ * services, which builds the reference data index and fills the second level, near and DTO caches of this
+ * member, then representative requests are replayed against the instance to get the request path compiled by the
+ * JIT. Until this is done, or the timeout is reached, the {@code warmUp} health indicator keeps the instance
+ * OUT_OF_SERVICE, in the health endpoint and in Eureka.
+ */
+@Service
+public class WarmUpService {
+
+    private final Logger log = LoggerFactory.getLogger(WarmUpService.class);
+
+    private final ApplicationProperties.WarmUp properties;
+
+    private final RegionService regionService;
+
+    private final CountryService countryService;
+
+    private final LocationService locationService;
+
+    private final DepartmentService departmentService;
+
+    private final EmployeeService employeeService;
+
+    private final ReadRankingService readRankingService;
+
+    private final TokenProvider tokenProvider;
+
+    private final RestTemplate restTemplate;
+
+    private final Executor taskExecutor;
+
+    private volatile long deadline;
+
+    private volatile boolean complete;
+
+    public WarmUpService(ApplicationProperties applicationProperties, RegionService regionService, CountryService countryService,
+                         LocationService locationService, DepartmentService departmentService, EmployeeService employeeService,
+                         ReadRankingService readRankingService, TokenProvider tokenProvider, RestTemplateBuilder restTemplateBuilder,
+                         @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.properties = applicationProperties.getWarmUp();
+        this.regionService = regionService;
+        this.countryService = countryService;
+        this.locationService = locationService;
+        this.departmentService = departmentService;
+        this.employeeService = employeeService;
+        this.readRankingService = readRankingService;
+        this.tokenProvider = tokenProvider;
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofSeconds(5))
+            .setReadTimeout(Duration.ofSeconds(30))
+            .build();
+        this.taskExecutor = taskExecutor;
+        this.complete = !properties.isEnabled();
+    }
+
+    /**
+     * Whether the instance is ready for traffic: the warm-up is done, timed out or disabled.
+     *
+     * @return {@code true} once the instance can report UP.
+     */
+    public boolean isComplete() {
+        return complete || (deadline != 0 && System.currentTimeMillis() >= deadline);
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (complete) {
+            return;
+        }
+        deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(properties.getTimeoutSeconds());
+        Environment env = event.getApplicationContext().getEnvironment();
+        String port = env.getProperty("local.server.port");
+        String baseUrl = port == null ? null : "http://localhost:" + port + env.getProperty("server.servlet.context-path", "");
+        taskExecutor.execute(() -> warmUp(baseUrl));
+    }
+
+    private void warmUp(String baseUrl) {
+        long start = System.currentTimeMillis();
+        // The reads of the warm-up, replayed requests included, are not the reads of the users
+        readRankingService.setPaused(true);
+        try {
+            warmUp("Region", ids(regionService.findAll(), RegionDTO::getId), regionService::findOne);
+            warmUp("Country", ids(countryService.findAll(), CountryDTO::getId), countryService::findOne);
+            warmUp("Location", ids(locationService.findAll(), LocationDTO::getId), locationService::findOne);
+            warmUp("Department", ids(departmentService.findAll(), DepartmentDTO::getId), departmentService::findOne);
+            warmUp("Employee", mostReadEmployeeIds(), employeeService::findOne);
+            if (baseUrl != null) {
+                replayRequests(baseUrl);
+            }
+            if (isComplete()) {
+                log.warn("Warm-up timed out after {} seconds, the instance went UP with partly cold caches", properties.getTimeoutSeconds());
+            } else {
+                log.info("Warm-up done in {} ms", System.currentTimeMillis() - start);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up failed, the instance goes UP with cold caches", e);
+        } finally {
+            readRankingService.setPaused(false);
+            complete = true;
+        }
+    }
+
+    private static <T> List<Long> ids(List<T> dtos, Function<T, Long> idGetter) {
+        return dtos.stream().map(idGetter).collect(Collectors.toList());
+    }
+
+    /**
+     * Read each entity by id, as a request would, until the deadline.
+     */
+    private void warmUp(String entityName, List<Long> ids, Function<Long, Optional<?>> findOne) {
+        int loaded = 0;
+        for (Long id : ids) {
+            if (isComplete()) {
+                return;
+            }
+            findOne.apply(id);
+            loaded++;
+        }
+        log.debug("Warmed up {} {}", loaded, entityName);
+    }
+
+    /**
+     * Ids of the employees read the most by the running members, see {@link ReadRankingService}; empty when this is
+     * the first member.
+     */
+    private List<Long> mostReadEmployeeIds() {
+        return readRankingService.findMostRead(Employee.class, properties.getEmployees());
+    }
+
+    private void replayRequests(String baseUrl) {
+        if (properties.getRequests().isEmpty()) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenProvider.createToken(new UsernamePasswordAuthenticationToken("warm-up", null,
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false));
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        for (int i = 0; i < properties.getIterations(); i++) {
+            for (String path : properties.getRequests()) {
+                if (isComplete()) {
+                    return;
+                }
+                try {
+                    restTemplate.exchange(baseUrl + path, HttpMethod.GET, request, byte[].class);
+                } catch (RestClientException e) {
+                    log.debug("Warm-up request {} failed: {}", path, e.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sc.service.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One operation of a batch, see {@link com.sc.service.BatchService}.
+ */
+public class BatchOperationDTO {
+
+    public enum Method {
+        CREATE, UPDATE, DELETE
+    }
+
+    private Method method;
+
+    /**
+     * The entity, named as in the REST paths, e.g. {@code job-histories}.
+     */
+    private String entity;
+
+    /**
+     * The id of the entity to delete.
+     */
+    private Long id;
+
+    /**
+     * The entity to create or update, as its DTO.
+     */
+    private JsonNode body;
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public void setMethod(Method method) {
+        this.method = method;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public JsonNode getBody() {
+        return body;
+    }
+
+    public void setBody(JsonNode body) {
+        this.body = body;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchOperationDTO{" +
+            "method=" + getMethod() +
+            ", entity='" + getEntity() + "'" +
+            ", id=" + getId() +
+            "}";
+    }
+}
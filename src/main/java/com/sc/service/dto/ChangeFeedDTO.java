@@ -0,0 +1,138 @@
+package com.sc.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sc.domain.enumeration.ChangeOperation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of the change feed of an entity, see {@link com.sc.service.ChangeFeedService}.
+ *
+ * @param <T> the DTO of the entity.
+ */
+public class ChangeFeedDTO<T> implements Serializable {
+
+    /**
+     * The position to read the next changes from.
+     */
+    private long token;
+
+    /**
+     * Whether more changes are available right away from {@link #token}.
+     */
+    private boolean hasMore;
+
+    private List<Change<T>> changes = new ArrayList<>();
+
+    public ChangeFeedDTO() {
+    }
+
+    public ChangeFeedDTO(long token, boolean hasMore, List<Change<T>> changes) {
+        this.token = token;
+        this.hasMore = hasMore;
+        this.changes = changes;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public void setToken(long token) {
+        this.token = token;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<Change<T>> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<Change<T>> changes) {
+        this.changes = changes;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeFeedDTO{" +
+            "token=" + getToken() +
+            ", hasMore=" + isHasMore() +
+            ", changes=" + getChanges().size() +
+            "}";
+    }
+
+    /**
+     * The latest change of an entity: its current state, or a tombstone without data once deleted.
+     *
+     * @param <T> the DTO of the entity.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Change<T> implements Serializable {
+
+        private Long id;
+
+        private ChangeOperation operation;
+
+        private long sequenceNumber;
+
+        private T data;
+
+        public Change() {
+        }
+
+        public Change(Long id, ChangeOperation operation, long sequenceNumber, T data) {
+            this.id = id;
+            this.operation = operation;
+            this.sequenceNumber = sequenceNumber;
+            this.data = data;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public ChangeOperation getOperation() {
+            return operation;
+        }
+
+        public void setOperation(ChangeOperation operation) {
+            this.operation = operation;
+        }
+
+        public long getSequenceNumber() {
+            return sequenceNumber;
+        }
+
+        public void setSequenceNumber(long sequenceNumber) {
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        public T getData() {
+            return data;
+        }
+
+        public void setData(T data) {
+            this.data = data;
+        }
+
+        @Override
+        public String toString() {
+            return "Change{" +
+                "id=" + getId() +
+                ", operation=" + getOperation() +
+                ", sequenceNumber=" + getSequenceNumber() +
+                "}";
+        }
+    }
+}
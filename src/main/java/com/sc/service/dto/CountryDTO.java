@@ -9,6 +9,8 @@ public class CountryDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String countryName;
 
 
@@ -22,6 +24,14 @@ public class CountryDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getCountryName() {
         return countryName;
     }
@@ -11,6 +11,8 @@ public class DepartmentDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     @NotNull
     private String departmentName;
 
@@ -29,6 +31,14 @@ public class DepartmentDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getDepartmentName() {
         return departmentName;
     }
@@ -13,6 +13,8 @@ public class EmployeeDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     /**
      * The firstname attribute.
      */
@@ -48,6 +50,14 @@ public class EmployeeDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -11,6 +11,8 @@ public class JobDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String jobTitle;
 
     private Long minSalary;
@@ -30,6 +32,14 @@ public class JobDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getJobTitle() {
         return jobTitle;
     }
@@ -11,6 +11,8 @@ public class JobHistoryDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private Instant startDate;
 
     private Instant endDate;
@@ -32,6 +34,14 @@ public class JobHistoryDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Instant getStartDate() {
         return startDate;
     }
@@ -11,6 +11,8 @@ public class LocationDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String streetAddress;
 
     private String postalCode;
@@ -30,6 +32,14 @@ public class LocationDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getStreetAddress() {
         return streetAddress;
     }
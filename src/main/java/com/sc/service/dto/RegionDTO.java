@@ -9,6 +9,8 @@ public class RegionDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String regionName;
 
 
@@ -20,6 +22,14 @@ public class RegionDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getRegionName() {
         return regionName;
     }
@@ -11,6 +11,8 @@ public class TaskDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String title;
 
     private String description;
@@ -24,6 +26,14 @@ public class TaskDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -1,6 +1,9 @@
 package com.sc.service.impl;
 
 import com.sc.service.CountryService;
+import com.sc.service.ReferenceData;
+import com.sc.service.ReferenceDataService;
+import com.sc.service.SearchOutboxService;
 import com.sc.domain.Country;
 import com.sc.repository.CountryRepository;
 import com.sc.repository.search.CountrySearchRepository;
@@ -10,11 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -35,10 +40,16 @@ public class CountryServiceImpl implements CountryService {
 
     private final CountrySearchRepository countrySearchRepository;
 
-    public CountryServiceImpl(CountryRepository countryRepository, CountryMapper countryMapper, CountrySearchRepository countrySearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final ReferenceDataService referenceDataService;
+
+    public CountryServiceImpl(CountryRepository countryRepository, CountryMapper countryMapper, CountrySearchRepository countrySearchRepository, SearchOutboxService searchOutboxService, ReferenceDataService referenceDataService) {
         this.countryRepository = countryRepository;
         this.countryMapper = countryMapper;
         this.countrySearchRepository = countrySearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.referenceDataService = referenceDataService;
     }
 
     /**
@@ -51,39 +62,93 @@ public class CountryServiceImpl implements CountryService {
     public CountryDTO save(CountryDTO countryDTO) {
         log.debug("Request to save Country : {}", countryDTO);
         Country country = countryMapper.toEntity(countryDTO);
-        country = countryRepository.save(country);
+        if (country.getId() != null && country.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            country.setVersion(countryRepository.findById(country.getId()).map(Country::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        country = countryRepository.saveAndFlush(country);
         CountryDTO result = countryMapper.toDto(country);
-        countrySearchRepository.save(country);
+        searchOutboxService.index(Country.class, country.getId());
         return result;
     }
 
+    @Override
+    public List<CountryDTO> saveAll(List<CountryDTO> countryDTOs) {
+        log.debug("Request to save {} Countries", countryDTOs.size());
+        List<Country> countries = countryMapper.toEntity(countryDTOs);
+        List<Long> unversionedIds = countries.stream()
+            .filter(country -> country.getId() != null && country.getVersion() == null)
+            .map(Country::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = countryRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(Country::getId, Country::getVersion));
+            countries.stream()
+                .filter(country -> country.getId() != null && country.getVersion() == null)
+                .forEach(country -> country.setVersion(versions.getOrDefault(country.getId(), 0L)));
+        }
+        countries = countryRepository.saveAll(countries);
+        countryRepository.flush();
+        List<Long> ids = countries.stream().map(Country::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(Country.class, ids);
+        return countryMapper.toDto(countries);
+    }
+
     /**
-     * Get all the countries.
+     * Get all the countries, from the reference data index.
      *
      * @return the list of entities.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<CountryDTO> findAll() {
         log.debug("Request to get all Countries");
-        return countryRepository.findAll().stream()
-            .map(countryMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+        return referenceDataService.get().getCountries();
+    }
+
+    /**
+     * Get the version of the list of all the countries, from the reference data index.
+     *
+     * @return the version.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong findAllVersion() {
+        return OptionalLong.of(referenceDataService.get().getVersion());
     }
 
 
     /**
-     * Get one country by id.
+     * Get one country by id, from the reference data index.
      *
      * @param id the id of the entity.
      * @return the entity.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<CountryDTO> findOne(Long id) {
         log.debug("Request to get Country : {}", id);
-        return countryRepository.findById(id)
-            .map(countryMapper::toDto);
+        return referenceDataService.get().getCountry(id);
+    }
+
+    /**
+     * Get the countries of several ids, in the order of the ids, from the reference data index.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<CountryDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Countries : {}", ids);
+        ReferenceData referenceData = referenceDataService.get();
+        return ids.stream().distinct()
+            .map(referenceData::getCountry)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
     }
 
     /**
@@ -95,7 +160,7 @@ public class CountryServiceImpl implements CountryService {
     public void delete(Long id) {
         log.debug("Request to delete Country : {}", id);
         countryRepository.deleteById(id);
-        countrySearchRepository.deleteById(id);
+        searchOutboxService.delete(Country.class, id);
     }
 
     /**
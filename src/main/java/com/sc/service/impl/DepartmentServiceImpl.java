@@ -1,6 +1,10 @@
 package com.sc.service.impl;
 
+import com.sc.service.ChangeFeedService;
 import com.sc.service.DepartmentService;
+import com.sc.service.ReferenceData;
+import com.sc.service.ReferenceDataService;
+import com.sc.service.SearchOutboxService;
 import com.sc.domain.Department;
 import com.sc.repository.DepartmentRepository;
 import com.sc.repository.search.DepartmentSearchRepository;
@@ -10,11 +14,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -35,10 +41,19 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentSearchRepository departmentSearchRepository;
 
-    public DepartmentServiceImpl(DepartmentRepository departmentRepository, DepartmentMapper departmentMapper, DepartmentSearchRepository departmentSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final ReferenceDataService referenceDataService;
+
+    private final ChangeFeedService changeFeedService;
+
+    public DepartmentServiceImpl(DepartmentRepository departmentRepository, DepartmentMapper departmentMapper, DepartmentSearchRepository departmentSearchRepository, SearchOutboxService searchOutboxService, ReferenceDataService referenceDataService, ChangeFeedService changeFeedService) {
         this.departmentRepository = departmentRepository;
         this.departmentMapper = departmentMapper;
         this.departmentSearchRepository = departmentSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.referenceDataService = referenceDataService;
+        this.changeFeedService = changeFeedService;
     }
 
     /**
@@ -51,39 +66,95 @@ public class DepartmentServiceImpl implements DepartmentService {
     public DepartmentDTO save(DepartmentDTO departmentDTO) {
         log.debug("Request to save Department : {}", departmentDTO);
         Department department = departmentMapper.toEntity(departmentDTO);
-        department = departmentRepository.save(department);
+        if (department.getId() != null && department.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            department.setVersion(departmentRepository.findById(department.getId()).map(Department::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        department = departmentRepository.saveAndFlush(department);
         DepartmentDTO result = departmentMapper.toDto(department);
-        departmentSearchRepository.save(department);
+        searchOutboxService.index(Department.class, department.getId());
+        changeFeedService.recordUpsert(Department.class, department.getId());
         return result;
     }
 
+    @Override
+    public List<DepartmentDTO> saveAll(List<DepartmentDTO> departmentDTOs) {
+        log.debug("Request to save {} Departments", departmentDTOs.size());
+        List<Department> departments = departmentMapper.toEntity(departmentDTOs);
+        List<Long> unversionedIds = departments.stream()
+            .filter(department -> department.getId() != null && department.getVersion() == null)
+            .map(Department::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = departmentRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(Department::getId, Department::getVersion));
+            departments.stream()
+                .filter(department -> department.getId() != null && department.getVersion() == null)
+                .forEach(department -> department.setVersion(versions.getOrDefault(department.getId(), 0L)));
+        }
+        departments = departmentRepository.saveAll(departments);
+        departmentRepository.flush();
+        List<Long> ids = departments.stream().map(Department::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(Department.class, ids);
+        changeFeedService.recordUpsertAll(Department.class, ids);
+        return departmentMapper.toDto(departments);
+    }
+
     /**
-     * Get all the departments.
+     * Get all the departments, from the reference data index.
      *
      * @return the list of entities.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<DepartmentDTO> findAll() {
         log.debug("Request to get all Departments");
-        return departmentRepository.findAll().stream()
-            .map(departmentMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+        return referenceDataService.get().getDepartments();
+    }
+
+    /**
+     * Get the version of the list of all the departments, from the reference data index.
+     *
+     * @return the version.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong findAllVersion() {
+        return OptionalLong.of(referenceDataService.get().getVersion());
     }
 
 
     /**
-     * Get one department by id.
+     * Get one department by id, from the reference data index.
      *
      * @param id the id of the entity.
      * @return the entity.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<DepartmentDTO> findOne(Long id) {
         log.debug("Request to get Department : {}", id);
-        return departmentRepository.findById(id)
-            .map(departmentMapper::toDto);
+        return referenceDataService.get().getDepartment(id);
+    }
+
+    /**
+     * Get the departments of several ids, in the order of the ids, from the reference data index.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<DepartmentDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Departments : {}", ids);
+        ReferenceData referenceData = referenceDataService.get();
+        return ids.stream().distinct()
+            .map(referenceData::getDepartment)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
     }
 
     /**
@@ -95,7 +166,8 @@ public class DepartmentServiceImpl implements DepartmentService {
     public void delete(Long id) {
         log.debug("Request to delete Department : {}", id);
         departmentRepository.deleteById(id);
-        departmentSearchRepository.deleteById(id);
+        searchOutboxService.delete(Department.class, id);
+        changeFeedService.recordDelete(Department.class, id);
     }
 
     /**
@@ -1,9 +1,16 @@
 package com.sc.service.impl;
 
+import com.sc.service.ChangeFeedService;
 import com.sc.service.EmployeeService;
+import com.sc.service.ChangeStreamService;
+import com.sc.service.DtoCacheService;
+import com.sc.service.ReadRankingService;
+import com.sc.service.SearchOutboxService;
 import com.sc.domain.Employee;
 import com.sc.repository.EmployeeRepository;
 import com.sc.repository.search.EmployeeSearchRepository;
+import com.sc.repository.search.SearchAfterRepository;
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.dto.EmployeeDTO;
 import com.sc.service.mapper.EmployeeMapper;
 import org.slf4j.Logger;
@@ -14,7 +21,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
@@ -33,10 +43,30 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private final EmployeeSearchRepository employeeSearchRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper, EmployeeSearchRepository employeeSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final DtoCacheService dtoCacheService;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final ChangeStreamService changeStreamService;
+
+    private final SearchAfterRepository searchAfterRepository;
+
+    private final ReadRankingService readRankingService;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper, EmployeeSearchRepository employeeSearchRepository, SearchOutboxService searchOutboxService, DtoCacheService dtoCacheService, ChangeFeedService changeFeedService,
+                                 ChangeStreamService changeStreamService, SearchAfterRepository searchAfterRepository,
+                                 ReadRankingService readRankingService) {
         this.employeeRepository = employeeRepository;
         this.employeeMapper = employeeMapper;
         this.employeeSearchRepository = employeeSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.dtoCacheService = dtoCacheService;
+        this.changeFeedService = changeFeedService;
+        this.changeStreamService = changeStreamService;
+        this.searchAfterRepository = searchAfterRepository;
+        this.readRankingService = readRankingService;
     }
 
     /**
@@ -49,9 +79,50 @@ public class EmployeeServiceImpl implements EmployeeService {
     public EmployeeDTO save(EmployeeDTO employeeDTO) {
         log.debug("Request to save Employee : {}", employeeDTO);
         Employee employee = employeeMapper.toEntity(employeeDTO);
-        employee = employeeRepository.save(employee);
+        if (employee.getId() != null && employee.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            employee.setVersion(employeeRepository.findById(employee.getId()).map(Employee::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        employee = employeeRepository.saveAndFlush(employee);
         EmployeeDTO result = employeeMapper.toDto(employee);
-        employeeSearchRepository.save(employee);
+        searchOutboxService.index(Employee.class, employee.getId());
+        changeFeedService.recordUpsert(Employee.class, employee.getId());
+        dtoCacheService.evict(Employee.class, employee.getId());
+        changeStreamService.recordUpsert(Employee.class, result.getId(), result);
+        return result;
+    }
+
+    /**
+     * Save a chunk of employees.
+     *
+     * @param employeeDTOs the entities to save.
+     * @return the persisted entities.
+     */
+    @Override
+    public List<EmployeeDTO> saveAll(List<EmployeeDTO> employeeDTOs) {
+        log.debug("Request to save {} Employees", employeeDTOs.size());
+        List<Employee> employees = employeeMapper.toEntity(employeeDTOs);
+        List<Long> unversionedIds = employees.stream()
+            .filter(employee -> employee.getId() != null && employee.getVersion() == null)
+            .map(Employee::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = employeeRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Employee::getVersion));
+            employees.stream()
+                .filter(employee -> employee.getId() != null && employee.getVersion() == null)
+                .forEach(employee -> employee.setVersion(versions.getOrDefault(employee.getId(), 0L)));
+        }
+        employees = employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+        List<Long> ids = employees.stream().map(Employee::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(Employee.class, ids);
+        changeFeedService.recordUpsertAll(Employee.class, ids);
+        employees.forEach(employee -> dtoCacheService.evict(Employee.class, employee.getId()));
+        List<EmployeeDTO> result = employeeMapper.toDto(employees);
+        result.forEach(employeeDTO -> changeStreamService.recordUpsert(Employee.class, employeeDTO.getId(), employeeDTO));
         return result;
     }
 
@@ -80,8 +151,22 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Transactional(readOnly = true)
     public Optional<EmployeeDTO> findOne(Long id) {
         log.debug("Request to get Employee : {}", id);
-        return employeeRepository.findById(id)
-            .map(employeeMapper::toDto);
+        readRankingService.recordRead(Employee.class, id);
+        return dtoCacheService.findOne(Employee.class, id, key -> employeeRepository.findById(key)
+            .map(employeeMapper::toDto));
+    }
+
+    /**
+     * Get the employees of several ids, in the order of the ids: the cached ones at once, the others with a single query.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Employees : {}", ids);
+        return dtoCacheService.findAll(Employee.class, ids, keys -> employeeMapper.toDto(employeeRepository.findAllById(keys)), EmployeeDTO::getId);
     }
 
     /**
@@ -93,7 +178,10 @@ public class EmployeeServiceImpl implements EmployeeService {
     public void delete(Long id) {
         log.debug("Request to delete Employee : {}", id);
         employeeRepository.deleteById(id);
-        employeeSearchRepository.deleteById(id);
+        searchOutboxService.delete(Employee.class, id);
+        changeFeedService.recordDelete(Employee.class, id);
+        dtoCacheService.evict(Employee.class, id);
+        changeStreamService.recordDelete(Employee.class, id);
     }
 
     /**
@@ -110,4 +198,21 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeSearchRepository.search(queryStringQuery(query), pageable)
             .map(employeeMapper::toDto);
     }
+
+    /**
+     * Search for the slice of employees corresponding to the query following a cursor, with {@code search_after}.
+     *
+     * @param query the query of the search.
+     * @param after the cursor of the previous slice, or {@code null} for the first one.
+     * @param pageable the size and sort of the slice.
+     * @param countTotal whether to count all the employees corresponding to the query.
+     * @return the list of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SearchAfterSlice<EmployeeDTO> search(String query, String after, Pageable pageable, boolean countTotal) {
+        log.debug("Request to search for a slice of Employees for query {} after {}", query, after);
+        return searchAfterRepository.search(Employee.class, queryStringQuery(query), pageable, after, countTotal)
+            .map(employeeMapper::toDto);
+    }
 }
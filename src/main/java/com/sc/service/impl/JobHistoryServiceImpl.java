@@ -1,9 +1,17 @@
 package com.sc.service.impl;
 
 import com.sc.service.JobHistoryService;
+import com.sc.service.ChangeStreamService;
+import com.sc.service.DtoCacheService;
+import com.sc.service.SearchOutboxService;
 import com.sc.domain.JobHistory;
 import com.sc.repository.JobHistoryRepository;
+import com.sc.repository.KeysetSlice;
+import com.sc.repository.KeysetSliceRepository;
+import com.sc.repository.StreamingQueryRepository;
 import com.sc.repository.search.JobHistorySearchRepository;
+import com.sc.repository.search.SearchAfterRepository;
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.dto.JobHistoryDTO;
 import com.sc.service.mapper.JobHistoryMapper;
 import org.slf4j.Logger;
@@ -14,7 +22,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
@@ -25,6 +39,11 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 @Transactional
 public class JobHistoryServiceImpl implements JobHistoryService {
 
+    /**
+     * Properties which can be used as cursor pagination sort key, each backed by a (property, id) index.
+     */
+    private static final Set<String> KEYSET_SORT_KEYS = Collections.singleton("startDate");
+
     private final Logger log = LoggerFactory.getLogger(JobHistoryServiceImpl.class);
 
     private final JobHistoryRepository jobHistoryRepository;
@@ -33,10 +52,30 @@ public class JobHistoryServiceImpl implements JobHistoryService {
 
     private final JobHistorySearchRepository jobHistorySearchRepository;
 
-    public JobHistoryServiceImpl(JobHistoryRepository jobHistoryRepository, JobHistoryMapper jobHistoryMapper, JobHistorySearchRepository jobHistorySearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final DtoCacheService dtoCacheService;
+
+    private final ChangeStreamService changeStreamService;
+
+    private final KeysetSliceRepository keysetSliceRepository;
+
+    private final StreamingQueryRepository streamingQueryRepository;
+
+    private final SearchAfterRepository searchAfterRepository;
+
+    public JobHistoryServiceImpl(JobHistoryRepository jobHistoryRepository, JobHistoryMapper jobHistoryMapper, JobHistorySearchRepository jobHistorySearchRepository, SearchOutboxService searchOutboxService,
+                                 KeysetSliceRepository keysetSliceRepository, StreamingQueryRepository streamingQueryRepository, DtoCacheService dtoCacheService,
+                                 ChangeStreamService changeStreamService, SearchAfterRepository searchAfterRepository) {
         this.jobHistoryRepository = jobHistoryRepository;
         this.jobHistoryMapper = jobHistoryMapper;
         this.jobHistorySearchRepository = jobHistorySearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.dtoCacheService = dtoCacheService;
+        this.changeStreamService = changeStreamService;
+        this.searchAfterRepository = searchAfterRepository;
+        this.keysetSliceRepository = keysetSliceRepository;
+        this.streamingQueryRepository = streamingQueryRepository;
     }
 
     /**
@@ -49,9 +88,48 @@ public class JobHistoryServiceImpl implements JobHistoryService {
     public JobHistoryDTO save(JobHistoryDTO jobHistoryDTO) {
         log.debug("Request to save JobHistory : {}", jobHistoryDTO);
         JobHistory jobHistory = jobHistoryMapper.toEntity(jobHistoryDTO);
-        jobHistory = jobHistoryRepository.save(jobHistory);
+        if (jobHistory.getId() != null && jobHistory.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            jobHistory.setVersion(jobHistoryRepository.findById(jobHistory.getId()).map(JobHistory::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        jobHistory = jobHistoryRepository.saveAndFlush(jobHistory);
         JobHistoryDTO result = jobHistoryMapper.toDto(jobHistory);
-        jobHistorySearchRepository.save(jobHistory);
+        searchOutboxService.index(JobHistory.class, jobHistory.getId());
+        dtoCacheService.evict(JobHistory.class, jobHistory.getId());
+        changeStreamService.recordUpsert(JobHistory.class, result.getId(), result);
+        return result;
+    }
+
+    /**
+     * Save a chunk of jobHistories.
+     *
+     * @param jobHistoryDTOs the entities to save.
+     * @return the persisted entities.
+     */
+    @Override
+    public List<JobHistoryDTO> saveAll(List<JobHistoryDTO> jobHistoryDTOs) {
+        log.debug("Request to save {} JobHistories", jobHistoryDTOs.size());
+        List<JobHistory> jobHistories = jobHistoryMapper.toEntity(jobHistoryDTOs);
+        List<Long> unversionedIds = jobHistories.stream()
+            .filter(jobHistory -> jobHistory.getId() != null && jobHistory.getVersion() == null)
+            .map(JobHistory::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = jobHistoryRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(JobHistory::getId, JobHistory::getVersion));
+            jobHistories.stream()
+                .filter(jobHistory -> jobHistory.getId() != null && jobHistory.getVersion() == null)
+                .forEach(jobHistory -> jobHistory.setVersion(versions.getOrDefault(jobHistory.getId(), 0L)));
+        }
+        jobHistories = jobHistoryRepository.saveAll(jobHistories);
+        jobHistoryRepository.flush();
+        List<Long> ids = jobHistories.stream().map(JobHistory::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(JobHistory.class, ids);
+        jobHistories.forEach(jobHistory -> dtoCacheService.evict(JobHistory.class, jobHistory.getId()));
+        List<JobHistoryDTO> result = jobHistoryMapper.toDto(jobHistories);
+        result.forEach(jobHistoryDTO -> changeStreamService.recordUpsert(JobHistory.class, jobHistoryDTO.getId(), jobHistoryDTO));
         return result;
     }
 
@@ -69,6 +147,32 @@ public class JobHistoryServiceImpl implements JobHistoryService {
             .map(jobHistoryMapper::toDto);
     }
 
+    /**
+     * Get the slice of jobHistories following a cursor.
+     *
+     * @param after the cursor of the previous slice, or {@code null} for the first one.
+     * @param pageable the size and sort of the slice.
+     * @return the list of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetSlice<JobHistoryDTO> findAll(String after, Pageable pageable) {
+        log.debug("Request to get a slice of JobHistories after {}", after);
+        return keysetSliceRepository.findSlice(JobHistory.class, null, pageable, after, KEYSET_SORT_KEYS)
+            .map(jobHistoryMapper::toDto);
+    }
+
+    /**
+     * Stream all the jobHistories to a consumer.
+     *
+     * @param consumer the consumer of the entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<JobHistoryDTO> consumer) {
+        log.debug("Request to export all JobHistories");
+        streamingQueryRepository.forEach(JobHistory.class, null, jobHistory -> consumer.accept(jobHistoryMapper.toDto(jobHistory)));
+    }
 
     /**
      * Get one jobHistory by id.
@@ -80,8 +184,21 @@ public class JobHistoryServiceImpl implements JobHistoryService {
     @Transactional(readOnly = true)
     public Optional<JobHistoryDTO> findOne(Long id) {
         log.debug("Request to get JobHistory : {}", id);
-        return jobHistoryRepository.findById(id)
-            .map(jobHistoryMapper::toDto);
+        return dtoCacheService.findOne(JobHistory.class, id, key -> jobHistoryRepository.findById(key)
+            .map(jobHistoryMapper::toDto));
+    }
+
+    /**
+     * Get the jobHistories of several ids, in the order of the ids: the cached ones at once, the others with a single query.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<JobHistoryDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get JobHistories : {}", ids);
+        return dtoCacheService.findAll(JobHistory.class, ids, keys -> jobHistoryMapper.toDto(jobHistoryRepository.findAllById(keys)), JobHistoryDTO::getId);
     }
 
     /**
@@ -93,7 +210,9 @@ public class JobHistoryServiceImpl implements JobHistoryService {
     public void delete(Long id) {
         log.debug("Request to delete JobHistory : {}", id);
         jobHistoryRepository.deleteById(id);
-        jobHistorySearchRepository.deleteById(id);
+        searchOutboxService.delete(JobHistory.class, id);
+        dtoCacheService.evict(JobHistory.class, id);
+        changeStreamService.recordDelete(JobHistory.class, id);
     }
 
     /**
@@ -110,4 +229,21 @@ public class JobHistoryServiceImpl implements JobHistoryService {
         return jobHistorySearchRepository.search(queryStringQuery(query), pageable)
             .map(jobHistoryMapper::toDto);
     }
+
+    /**
+     * Search for the slice of jobHistories corresponding to the query following a cursor, with {@code search_after}.
+     *
+     * @param query the query of the search.
+     * @param after the cursor of the previous slice, or {@code null} for the first one.
+     * @param pageable the size and sort of the slice.
+     * @param countTotal whether to count all the jobHistories corresponding to the query.
+     * @return the list of entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SearchAfterSlice<JobHistoryDTO> search(String query, String after, Pageable pageable, boolean countTotal) {
+        log.debug("Request to search for a slice of JobHistories for query {} after {}", query, after);
+        return searchAfterRepository.search(JobHistory.class, queryStringQuery(query), pageable, after, countTotal)
+            .map(jobHistoryMapper::toDto);
+    }
 }
@@ -1,6 +1,9 @@
 package com.sc.service.impl;
 
 import com.sc.service.LocationService;
+import com.sc.service.ReferenceData;
+import com.sc.service.ReferenceDataService;
+import com.sc.service.SearchOutboxService;
 import com.sc.domain.Location;
 import com.sc.repository.LocationRepository;
 import com.sc.repository.search.LocationSearchRepository;
@@ -10,11 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -35,10 +40,16 @@ public class LocationServiceImpl implements LocationService {
 
     private final LocationSearchRepository locationSearchRepository;
 
-    public LocationServiceImpl(LocationRepository locationRepository, LocationMapper locationMapper, LocationSearchRepository locationSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final ReferenceDataService referenceDataService;
+
+    public LocationServiceImpl(LocationRepository locationRepository, LocationMapper locationMapper, LocationSearchRepository locationSearchRepository, SearchOutboxService searchOutboxService, ReferenceDataService referenceDataService) {
         this.locationRepository = locationRepository;
         this.locationMapper = locationMapper;
         this.locationSearchRepository = locationSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.referenceDataService = referenceDataService;
     }
 
     /**
@@ -51,39 +62,93 @@ public class LocationServiceImpl implements LocationService {
     public LocationDTO save(LocationDTO locationDTO) {
         log.debug("Request to save Location : {}", locationDTO);
         Location location = locationMapper.toEntity(locationDTO);
-        location = locationRepository.save(location);
+        if (location.getId() != null && location.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            location.setVersion(locationRepository.findById(location.getId()).map(Location::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        location = locationRepository.saveAndFlush(location);
         LocationDTO result = locationMapper.toDto(location);
-        locationSearchRepository.save(location);
+        searchOutboxService.index(Location.class, location.getId());
         return result;
     }
 
+    @Override
+    public List<LocationDTO> saveAll(List<LocationDTO> locationDTOs) {
+        log.debug("Request to save {} Locations", locationDTOs.size());
+        List<Location> locations = locationMapper.toEntity(locationDTOs);
+        List<Long> unversionedIds = locations.stream()
+            .filter(location -> location.getId() != null && location.getVersion() == null)
+            .map(Location::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = locationRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(Location::getId, Location::getVersion));
+            locations.stream()
+                .filter(location -> location.getId() != null && location.getVersion() == null)
+                .forEach(location -> location.setVersion(versions.getOrDefault(location.getId(), 0L)));
+        }
+        locations = locationRepository.saveAll(locations);
+        locationRepository.flush();
+        List<Long> ids = locations.stream().map(Location::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(Location.class, ids);
+        return locationMapper.toDto(locations);
+    }
+
     /**
-     * Get all the locations.
+     * Get all the locations, from the reference data index.
      *
      * @return the list of entities.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<LocationDTO> findAll() {
         log.debug("Request to get all Locations");
-        return locationRepository.findAll().stream()
-            .map(locationMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+        return referenceDataService.get().getLocations();
+    }
+
+    /**
+     * Get the version of the list of all the locations, from the reference data index.
+     *
+     * @return the version.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong findAllVersion() {
+        return OptionalLong.of(referenceDataService.get().getVersion());
     }
 
 
     /**
-     * Get one location by id.
+     * Get one location by id, from the reference data index.
      *
      * @param id the id of the entity.
      * @return the entity.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<LocationDTO> findOne(Long id) {
         log.debug("Request to get Location : {}", id);
-        return locationRepository.findById(id)
-            .map(locationMapper::toDto);
+        return referenceDataService.get().getLocation(id);
+    }
+
+    /**
+     * Get the locations of several ids, in the order of the ids, from the reference data index.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<LocationDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Locations : {}", ids);
+        ReferenceData referenceData = referenceDataService.get();
+        return ids.stream().distinct()
+            .map(referenceData::getLocation)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
     }
 
     /**
@@ -95,7 +160,7 @@ public class LocationServiceImpl implements LocationService {
     public void delete(Long id) {
         log.debug("Request to delete Location : {}", id);
         locationRepository.deleteById(id);
-        locationSearchRepository.deleteById(id);
+        searchOutboxService.delete(Location.class, id);
     }
 
     /**
@@ -1,6 +1,9 @@
 package com.sc.service.impl;
 
 import com.sc.service.RegionService;
+import com.sc.service.ReferenceData;
+import com.sc.service.ReferenceDataService;
+import com.sc.service.SearchOutboxService;
 import com.sc.domain.Region;
 import com.sc.repository.RegionRepository;
 import com.sc.repository.search.RegionSearchRepository;
@@ -10,11 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -35,10 +40,16 @@ public class RegionServiceImpl implements RegionService {
 
     private final RegionSearchRepository regionSearchRepository;
 
-    public RegionServiceImpl(RegionRepository regionRepository, RegionMapper regionMapper, RegionSearchRepository regionSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final ReferenceDataService referenceDataService;
+
+    public RegionServiceImpl(RegionRepository regionRepository, RegionMapper regionMapper, RegionSearchRepository regionSearchRepository, SearchOutboxService searchOutboxService, ReferenceDataService referenceDataService) {
         this.regionRepository = regionRepository;
         this.regionMapper = regionMapper;
         this.regionSearchRepository = regionSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.referenceDataService = referenceDataService;
     }
 
     /**
@@ -51,39 +62,93 @@ public class RegionServiceImpl implements RegionService {
     public RegionDTO save(RegionDTO regionDTO) {
         log.debug("Request to save Region : {}", regionDTO);
         Region region = regionMapper.toEntity(regionDTO);
-        region = regionRepository.save(region);
+        if (region.getId() != null && region.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            region.setVersion(regionRepository.findById(region.getId()).map(Region::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        region = regionRepository.saveAndFlush(region);
         RegionDTO result = regionMapper.toDto(region);
-        regionSearchRepository.save(region);
+        searchOutboxService.index(Region.class, region.getId());
         return result;
     }
 
+    @Override
+    public List<RegionDTO> saveAll(List<RegionDTO> regionDTOs) {
+        log.debug("Request to save {} Regions", regionDTOs.size());
+        List<Region> regions = regionMapper.toEntity(regionDTOs);
+        List<Long> unversionedIds = regions.stream()
+            .filter(region -> region.getId() != null && region.getVersion() == null)
+            .map(Region::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = regionRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(Region::getId, Region::getVersion));
+            regions.stream()
+                .filter(region -> region.getId() != null && region.getVersion() == null)
+                .forEach(region -> region.setVersion(versions.getOrDefault(region.getId(), 0L)));
+        }
+        regions = regionRepository.saveAll(regions);
+        regionRepository.flush();
+        List<Long> ids = regions.stream().map(Region::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(Region.class, ids);
+        return regionMapper.toDto(regions);
+    }
+
     /**
-     * Get all the regions.
+     * Get all the regions, from the reference data index.
      *
      * @return the list of entities.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<RegionDTO> findAll() {
         log.debug("Request to get all Regions");
-        return regionRepository.findAll().stream()
-            .map(regionMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+        return referenceDataService.get().getRegions();
+    }
+
+    /**
+     * Get the version of the list of all the regions, from the reference data index.
+     *
+     * @return the version.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong findAllVersion() {
+        return OptionalLong.of(referenceDataService.get().getVersion());
     }
 
 
     /**
-     * Get one region by id.
+     * Get one region by id, from the reference data index.
      *
      * @param id the id of the entity.
      * @return the entity.
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<RegionDTO> findOne(Long id) {
         log.debug("Request to get Region : {}", id);
-        return regionRepository.findById(id)
-            .map(regionMapper::toDto);
+        return referenceDataService.get().getRegion(id);
+    }
+
+    /**
+     * Get the regions of several ids, in the order of the ids, from the reference data index.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<RegionDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Regions : {}", ids);
+        ReferenceData referenceData = referenceDataService.get();
+        return ids.stream().distinct()
+            .map(referenceData::getRegion)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
     }
 
     /**
@@ -95,7 +160,7 @@ public class RegionServiceImpl implements RegionService {
     public void delete(Long id) {
         log.debug("Request to delete Region : {}", id);
         regionRepository.deleteById(id);
-        regionSearchRepository.deleteById(id);
+        searchOutboxService.delete(Region.class, id);
     }
 
     /**
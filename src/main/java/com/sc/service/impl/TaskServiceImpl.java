@@ -1,6 +1,10 @@
 package com.sc.service.impl;
 
 import com.sc.service.TaskService;
+import com.sc.service.CollectionVersionService;
+import com.sc.service.DtoCacheService;
+import com.sc.service.SearchOutboxService;
+import com.sc.domain.Job;
 import com.sc.domain.Task;
 import com.sc.repository.TaskRepository;
 import com.sc.repository.search.TaskSearchRepository;
@@ -10,11 +14,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -35,10 +42,19 @@ public class TaskServiceImpl implements TaskService {
 
     private final TaskSearchRepository taskSearchRepository;
 
-    public TaskServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, TaskSearchRepository taskSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final DtoCacheService dtoCacheService;
+
+    private final CollectionVersionService collectionVersionService;
+
+    public TaskServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, TaskSearchRepository taskSearchRepository, SearchOutboxService searchOutboxService, DtoCacheService dtoCacheService, CollectionVersionService collectionVersionService) {
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
         this.taskSearchRepository = taskSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.dtoCacheService = dtoCacheService;
+        this.collectionVersionService = collectionVersionService;
     }
 
     /**
@@ -51,12 +67,50 @@ public class TaskServiceImpl implements TaskService {
     public TaskDTO save(TaskDTO taskDTO) {
         log.debug("Request to save Task : {}", taskDTO);
         Task task = taskMapper.toEntity(taskDTO);
-        task = taskRepository.save(task);
+        if (task.getId() != null && task.getVersion() == null) {
+            // No version to check against: overwrite the current one
+            task.setVersion(taskRepository.findById(task.getId()).map(Task::getVersion).orElse(0L));
+        }
+        // Flushed to return the incremented version
+        task = taskRepository.saveAndFlush(task);
         TaskDTO result = taskMapper.toDto(task);
-        taskSearchRepository.save(task);
+        searchOutboxService.index(Task.class, task.getId());
+        dtoCacheService.evict(Task.class, task.getId());
+        if (taskDTO.getId() != null) {
+            // Job DTOs embed their tasks
+            dtoCacheService.evictAll(Job.class);
+        }
         return result;
     }
 
+    @Override
+    public List<TaskDTO> saveAll(List<TaskDTO> taskDTOs) {
+        log.debug("Request to save {} Tasks", taskDTOs.size());
+        List<Task> tasks = taskMapper.toEntity(taskDTOs);
+        List<Long> unversionedIds = tasks.stream()
+            .filter(task -> task.getId() != null && task.getVersion() == null)
+            .map(Task::getId)
+            .collect(Collectors.toList());
+        if (!unversionedIds.isEmpty()) {
+            // No version to check against: overwrite the current ones
+            Map<Long, Long> versions = taskRepository.findAllById(unversionedIds).stream()
+                .collect(Collectors.toMap(Task::getId, Task::getVersion));
+            tasks.stream()
+                .filter(task -> task.getId() != null && task.getVersion() == null)
+                .forEach(task -> task.setVersion(versions.getOrDefault(task.getId(), 0L)));
+        }
+        tasks = taskRepository.saveAll(tasks);
+        taskRepository.flush();
+        List<Long> ids = tasks.stream().map(Task::getId).collect(Collectors.toList());
+        searchOutboxService.indexAll(Task.class, ids);
+        tasks.forEach(task -> dtoCacheService.evict(Task.class, task.getId()));
+        if (taskDTOs.stream().anyMatch(taskDTO -> taskDTO.getId() != null)) {
+            // Job DTOs embed their tasks
+            dtoCacheService.evictAll(Job.class);
+        }
+        return taskMapper.toDto(tasks);
+    }
+
     /**
      * Get all the tasks.
      *
@@ -71,6 +125,17 @@ public class TaskServiceImpl implements TaskService {
             .collect(Collectors.toCollection(LinkedList::new));
     }
 
+    /**
+     * Get the version of the list of all the tasks, from the change counter of the tasks.
+     *
+     * @return the version.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong findAllVersion() {
+        return collectionVersionService.getVersion(Task.class);
+    }
+
 
     /**
      * Get one task by id.
@@ -82,8 +147,21 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public Optional<TaskDTO> findOne(Long id) {
         log.debug("Request to get Task : {}", id);
-        return taskRepository.findById(id)
-            .map(taskMapper::toDto);
+        return dtoCacheService.findOne(Task.class, id, key -> taskRepository.findById(key)
+            .map(taskMapper::toDto));
+    }
+
+    /**
+     * Get the tasks of several ids, in the order of the ids: the cached ones at once, the others with a single query.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities, without duplicates nor the ids which do not exist.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Tasks : {}", ids);
+        return dtoCacheService.findAll(Task.class, ids, keys -> taskMapper.toDto(taskRepository.findAllById(keys)), TaskDTO::getId);
     }
 
     /**
@@ -95,7 +173,9 @@ public class TaskServiceImpl implements TaskService {
     public void delete(Long id) {
         log.debug("Request to delete Task : {}", id);
         taskRepository.deleteById(id);
-        taskSearchRepository.deleteById(id);
+        searchOutboxService.delete(Task.class, id);
+        dtoCacheService.evict(Task.class, id);
+        dtoCacheService.evictAll(Job.class);
     }
 
     /**
@@ -0,0 +1,88 @@
+package com.sc.web.rest;
+
+import com.sc.service.BatchOperationException;
+import com.sc.service.BatchService;
+import com.sc.service.dto.BatchOperationDTO;
+import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BulkItemErrorUtil;
+import com.sc.web.rest.vm.BulkItemResultVM;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST controller running batches of operations across entities, see {@link BatchService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class BatchResource {
+
+    private final Logger log = LoggerFactory.getLogger(BatchResource.class);
+
+    private static final String ENTITY_NAME = "jhipsterSampleApplicationBatch";
+
+    static final int MAX_OPERATIONS = 1000;
+
+    private final BatchService batchService;
+
+    public BatchResource(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    /**
+     * {@code POST  /_batch} : Run a list of create, update and delete operations in one transaction.
+     * <p>
+     * Each operation names its entity as in the REST paths, e.g. {@code job-histories}, and has the DTO to save as
+     * its body, or the ID to delete. Either all the operations are applied, or none of them.
+     *
+     * @param operations the operations, in the order to run them.
+     * @return the {@link ResponseEntity} with the result of every operation in body, in request order: with status
+     * {@code 200 (OK)} if the batch was applied, or with the status of the failed operation if it was rolled back,
+     * the failed operation then having an error key and the others status {@code 424 (Failed Dependency)}.
+     */
+    @PostMapping("/_batch")
+    public ResponseEntity<List<BulkItemResultVM>> executeBatch(@RequestBody List<BatchOperationDTO> operations) {
+        log.debug("REST request to run a batch of {} operations", operations.size());
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new BadRequestAlertException("A batch cannot have more than " + MAX_OPERATIONS + " operations",
+                ENTITY_NAME, "batchtoolarge");
+        }
+        List<BulkItemResultVM> results = new ArrayList<>(operations.size());
+        try {
+            List<Long> ids = batchService.execute(operations);
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(new BulkItemResultVM(i, ids.get(i), status(operations.get(i).getMethod()).value(), null));
+            }
+            return ResponseEntity.ok().body(results);
+        } catch (BatchOperationException e) {
+            HttpStatus status = BulkItemErrorUtil.status(e.getCause());
+            for (int i = 0; i < operations.size(); i++) {
+                BatchOperationDTO operation = operations.get(i);
+                if (i == e.getIndex()) {
+                    results.add(BulkItemErrorUtil.failure(i, operation.getId(), e.getCause()));
+                } else {
+                    results.add(new BulkItemResultVM(i, operation.getId(), HttpStatus.FAILED_DEPENDENCY.value(),
+                        "Not applied: operation " + e.getIndex() + " failed"));
+                }
+            }
+            return ResponseEntity.status(status).body(results);
+        }
+    }
+
+    private static HttpStatus status(BatchOperationDTO.Method method) {
+        switch (method) {
+            case CREATE:
+                return HttpStatus.CREATED;
+            case DELETE:
+                return HttpStatus.NO_CONTENT;
+            default:
+                return HttpStatus.OK;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.sc.web.rest;
+
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Department;
+import com.sc.domain.Employee;
+import com.sc.domain.Job;
+import com.sc.service.ChangeFeedService;
+import com.sc.service.ChangeTokenExpiredException;
+import com.sc.service.dto.ChangeFeedDTO;
+import com.sc.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller for the change feeds of {@link Employee}, {@link Job} and {@link Department}, see
+ * {@link ChangeFeedService}.
+ * <p>
+ * A client first gets the current token without {@code since}, then downloads the whole list, and from then on
+ * only asks for the changes since the token of its previous call. With {@code wait}, a call without changes
+ * waits for the next commit instead of returning an empty page right away.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeFeedResource {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeFeedResource.class);
+
+    private static final String ENTITY_NAME = "jhipsterSampleApplicationChangeFeed";
+
+    private final ChangeFeedService changeFeedService;
+
+    private final ApplicationProperties.ChangeFeed properties;
+
+    public ChangeFeedResource(ChangeFeedService changeFeedService, ApplicationProperties applicationProperties) {
+        this.changeFeedService = changeFeedService;
+        this.properties = applicationProperties.getChangeFeed();
+    }
+
+    /**
+     * {@code GET  /employees/_changes?since=:since} : get the employees created, updated or deleted since a token.
+     *
+     * @param since the token of the previous call, or none for the current token.
+     * @param size the maximum number of changes.
+     * @param wait the number of seconds to wait for a change when there is none yet.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the changes in body, or with status
+     * {@code 410 (Gone)} if the token is too old and everything has to be downloaded again.
+     */
+    @GetMapping("/employees/_changes")
+    public DeferredResult<ResponseEntity<ChangeFeedDTO<?>>> getEmployeeChanges(@RequestParam(required = false) Long since,
+                                                                               @RequestParam(required = false) Integer size,
+                                                                               @RequestParam(defaultValue = "0") int wait) {
+        log.debug("REST request to get the changes of Employees since {}", since);
+        return getChanges(Employee.class, since, size, wait);
+    }
+
+    /**
+     * {@code GET  /jobs/_changes?since=:since} : get the jobs created, updated or deleted since a token.
+     *
+     * @param since the token of the previous call, or none for the current token.
+     * @param size the maximum number of changes.
+     * @param wait the number of seconds to wait for a change when there is none yet.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the changes in body, or with status
+     * {@code 410 (Gone)} if the token is too old and everything has to be downloaded again.
+     */
+    @GetMapping("/jobs/_changes")
+    public DeferredResult<ResponseEntity<ChangeFeedDTO<?>>> getJobChanges(@RequestParam(required = false) Long since,
+                                                                          @RequestParam(required = false) Integer size,
+                                                                          @RequestParam(defaultValue = "0") int wait) {
+        log.debug("REST request to get the changes of Jobs since {}", since);
+        return getChanges(Job.class, since, size, wait);
+    }
+
+    /**
+     * {@code GET  /departments/_changes?since=:since} : get the departments created, updated or deleted since a token.
+     *
+     * @param since the token of the previous call, or none for the current token.
+     * @param size the maximum number of changes.
+     * @param wait the number of seconds to wait for a change when there is none yet.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the changes in body, or with status
+     * {@code 410 (Gone)} if the token is too old and everything has to be downloaded again.
+     */
+    @GetMapping("/departments/_changes")
+    public DeferredResult<ResponseEntity<ChangeFeedDTO<?>>> getDepartmentChanges(@RequestParam(required = false) Long since,
+                                                                                 @RequestParam(required = false) Integer size,
+                                                                                 @RequestParam(defaultValue = "0") int wait) {
+        log.debug("REST request to get the changes of Departments since {}", since);
+        return getChanges(Department.class, since, size, wait);
+    }
+
+    private DeferredResult<ResponseEntity<ChangeFeedDTO<?>>> getChanges(Class<?> entityClass, Long since, Integer size, int wait) {
+        int pageSize = size == null ? properties.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > properties.getMaxPageSize()) {
+            throw new BadRequestAlertException("The size must be between 1 and " + properties.getMaxPageSize(), ENTITY_NAME, "sizeinvalid");
+        }
+        if (wait < 0 || wait > properties.getMaxWaitSeconds()) {
+            throw new BadRequestAlertException("The wait must be between 0 and " + properties.getMaxWaitSeconds() + " seconds",
+                ENTITY_NAME, "waitinvalid");
+        }
+        DeferredResult<ResponseEntity<ChangeFeedDTO<?>>> result;
+        try {
+            if (since == null) {
+                result = new DeferredResult<>();
+                result.setResult(ResponseEntity.ok(changeFeedService.getHead(entityClass)));
+            } else if (wait == 0) {
+                result = new DeferredResult<>();
+                result.setResult(ResponseEntity.ok(changeFeedService.getChanges(entityClass, since, pageSize)));
+            } else {
+                // Answers with no changes and the same token once the wait is over
+                result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait),
+                    ResponseEntity.ok(new ChangeFeedDTO<>(since, false, new ArrayList<>())));
+                CompletableFuture<ChangeFeedDTO<?>> changes = changeFeedService.awaitChanges(entityClass, since, pageSize);
+                DeferredResult<ResponseEntity<ChangeFeedDTO<?>>> deferred = result;
+                changes.whenComplete((page, error) -> {
+                    if (error == null) {
+                        deferred.setResult(ResponseEntity.ok(page));
+                    } else {
+                        deferred.setErrorResult(translate(error));
+                    }
+                });
+                result.onCompletion(() -> changes.cancel(false));
+            }
+        } catch (ChangeTokenExpiredException e) {
+            throw translate(e);
+        }
+        return result;
+    }
+
+    private static RuntimeException translate(Throwable error) {
+        if (error instanceof ChangeTokenExpiredException) {
+            return new ResponseStatusException(HttpStatus.GONE, error.getMessage(), error);
+        }
+        return error instanceof RuntimeException ? (RuntimeException) error : new IllegalStateException(error);
+    }
+}
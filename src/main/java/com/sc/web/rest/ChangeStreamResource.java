@@ -0,0 +1,61 @@
+package com.sc.web.rest;
+
+import com.sc.domain.Employee;
+import com.sc.domain.JobHistory;
+import com.sc.service.ChangeStreamService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST controller streaming the changes of {@link Employee} and {@link JobHistory} as Server-Sent Events, see
+ * {@link ChangeStreamService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeStreamResource {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeStreamResource.class);
+
+    private static final Map<String, Class<?>> ENTITIES = new HashMap<>();
+
+    static {
+        ENTITIES.put("employees", Employee.class);
+        ENTITIES.put("job-histories", JobHistory.class);
+    }
+
+    private final ChangeStreamService changeStreamService;
+
+    public ChangeStreamResource(ChangeStreamService changeStreamService) {
+        this.changeStreamService = changeStreamService;
+    }
+
+    /**
+     * {@code GET  /_stream/:entity} : stream the changes of the "entity" entities, as they are committed.
+     * <p>
+     * Each change is a {@code change} event whose data is the id, the operation and, unless it is a delete, the
+     * entity. Events committed while the client is not connected are not replayed.
+     *
+     * @param entity the entities, {@code employees} or {@code job-histories}.
+     * @return the stream of events, or with status {@code 404 (Not Found)} for other entities, or with status
+     * {@code 503 (Service Unavailable)} if too many clients are connected.
+     */
+    @GetMapping(path = "/_stream/{entity}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@PathVariable String entity) {
+        log.debug("REST request to stream the changes of {}", entity);
+        Class<?> entityClass = ENTITIES.get(entity);
+        if (entityClass == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return changeStreamService.connect(entityClass)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many clients are streaming changes"));
+    }
+}
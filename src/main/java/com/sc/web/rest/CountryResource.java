@@ -2,13 +2,15 @@ package com.sc.web.rest;
 
 import com.sc.service.CountryService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.CountryDTO;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -56,6 +58,7 @@ public class CountryResource {
         }
         CountryDTO result = countryService.save(countryDTO);
         return ResponseEntity.created(new URI("/api/countries/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
@@ -64,19 +67,27 @@ public class CountryResource {
      * {@code PUT  /countries} : Updates an existing country.
      *
      * @param countryDTO the countryDTO to update.
+     * @param ifMatch the entity tag the countryDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated countryDTO,
      * or with status {@code 400 (Bad Request)} if the countryDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the countryDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the countryDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/countries")
-    public ResponseEntity<CountryDTO> updateCountry(@RequestBody CountryDTO countryDTO) throws URISyntaxException {
+    public ResponseEntity<CountryDTO> updateCountry(@RequestBody CountryDTO countryDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Country : {}", countryDTO);
         if (countryDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        CountryDTO result = countryService.save(countryDTO);
+        CountryDTO current = ETagUtil.checkIfMatch(ifMatch, countryService.findOne(countryDTO.getId()), CountryResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            countryDTO.setVersion(current.getVersion());
+        }
+        CountryDTO result = ETagUtil.updateIfMatch(ifMatch, () -> countryService.save(countryDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, countryDTO.getId().toString()))
             .body(result);
     }
@@ -85,12 +96,26 @@ public class CountryResource {
      * {@code GET  /countries} : get all the countries.
      *
 
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of countries in body.
+     * @param ifNoneMatch the entity tag of the list the client already has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 304 (Not Modified)} if it did not change, and the list of countries in body.
      */
     @GetMapping("/countries")
-    public List<CountryDTO> getAllCountries() {
+    public ResponseEntity<List<CountryDTO>> getAllCountries(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Countries");
-        return countryService.findAll();
+        return ETagUtil.conditionalGet(ifNoneMatch, countryService::findAllVersion, countryService::findAll);
+    }
+
+    /**
+     * {@code GET  /countries?ids=:ids} : get the countries of several ids.
+     *
+     * @param ids the ids of the countries to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of countries in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/countries", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<List<CountryDTO>> getCountriesById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids) {
+        log.debug("REST request to get Countries : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        return ResponseEntity.ok().body(countryService.findAllById(ids));
     }
 
     /**
@@ -103,7 +128,7 @@ public class CountryResource {
     public ResponseEntity<CountryDTO> getCountry(@PathVariable Long id) {
         log.debug("REST request to get Country : {}", id);
         Optional<CountryDTO> countryDTO = countryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(countryDTO);
+        return ETagUtil.wrapOrNotFound(countryDTO, CountryResource::entityTag);
     }
 
     /**
@@ -131,4 +156,8 @@ public class CountryResource {
         log.debug("REST request to search Countries for query {}", query);
         return countryService.search(query);
     }
+
+    private static String entityTag(CountryDTO countryDTO) {
+        return ETagUtil.entityTag(countryDTO.getVersion());
+    }
 }
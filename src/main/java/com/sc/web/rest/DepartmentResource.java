@@ -2,13 +2,15 @@ package com.sc.web.rest;
 
 import com.sc.service.DepartmentService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.DepartmentDTO;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -57,6 +59,7 @@ public class DepartmentResource {
         }
         DepartmentDTO result = departmentService.save(departmentDTO);
         return ResponseEntity.created(new URI("/api/departments/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
@@ -65,19 +68,27 @@ public class DepartmentResource {
      * {@code PUT  /departments} : Updates an existing department.
      *
      * @param departmentDTO the departmentDTO to update.
+     * @param ifMatch the entity tag the departmentDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated departmentDTO,
      * or with status {@code 400 (Bad Request)} if the departmentDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the departmentDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the departmentDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/departments")
-    public ResponseEntity<DepartmentDTO> updateDepartment(@Valid @RequestBody DepartmentDTO departmentDTO) throws URISyntaxException {
+    public ResponseEntity<DepartmentDTO> updateDepartment(@Valid @RequestBody DepartmentDTO departmentDTO,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Department : {}", departmentDTO);
         if (departmentDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        DepartmentDTO result = departmentService.save(departmentDTO);
+        DepartmentDTO current = ETagUtil.checkIfMatch(ifMatch, departmentService.findOne(departmentDTO.getId()), DepartmentResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            departmentDTO.setVersion(current.getVersion());
+        }
+        DepartmentDTO result = ETagUtil.updateIfMatch(ifMatch, () -> departmentService.save(departmentDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, departmentDTO.getId().toString()))
             .body(result);
     }
@@ -86,12 +97,26 @@ public class DepartmentResource {
      * {@code GET  /departments} : get all the departments.
      *
 
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of departments in body.
+     * @param ifNoneMatch the entity tag of the list the client already has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 304 (Not Modified)} if it did not change, and the list of departments in body.
      */
     @GetMapping("/departments")
-    public List<DepartmentDTO> getAllDepartments() {
+    public ResponseEntity<List<DepartmentDTO>> getAllDepartments(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Departments");
-        return departmentService.findAll();
+        return ETagUtil.conditionalGet(ifNoneMatch, departmentService::findAllVersion, departmentService::findAll);
+    }
+
+    /**
+     * {@code GET  /departments?ids=:ids} : get the departments of several ids.
+     *
+     * @param ids the ids of the departments to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of departments in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/departments", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<List<DepartmentDTO>> getDepartmentsById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids) {
+        log.debug("REST request to get Departments : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        return ResponseEntity.ok().body(departmentService.findAllById(ids));
     }
 
     /**
@@ -104,7 +129,7 @@ public class DepartmentResource {
     public ResponseEntity<DepartmentDTO> getDepartment(@PathVariable Long id) {
         log.debug("REST request to get Department : {}", id);
         Optional<DepartmentDTO> departmentDTO = departmentService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(departmentDTO);
+        return ETagUtil.wrapOrNotFound(departmentDTO, DepartmentResource::entityTag);
     }
 
     /**
@@ -132,4 +157,8 @@ public class DepartmentResource {
         log.debug("REST request to search Departments for query {}", query);
         return departmentService.search(query);
     }
+
+    private static String entityTag(DepartmentDTO departmentDTO) {
+        return ETagUtil.entityTag(departmentDTO.getVersion());
+    }
 }
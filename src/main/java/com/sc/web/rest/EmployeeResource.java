@@ -1,14 +1,30 @@
 package com.sc.web.rest;
 
+import com.sc.repository.KeysetSlice;
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.EmployeeService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.errors.ErrorConstants;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.BulkItemErrorUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.EmployeeDTO;
 import com.sc.service.dto.EmployeeCriteria;
 import com.sc.service.EmployeeQueryService;
+import com.sc.web.rest.util.CursorPaginationUtil;
+import com.sc.web.rest.util.ExportUtil;
+import com.sc.web.rest.util.SparseFieldsetUtil;
+import com.sc.web.rest.vm.BulkItemResultVM;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,13 +34,24 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
@@ -40,6 +67,11 @@ public class EmployeeResource {
 
     private static final String ENTITY_NAME = "jhipsterSampleApplicationEmployee";
 
+    /**
+     * Number of employees saved per transaction by the bulk endpoint, a multiple of {@code hibernate.jdbc.batch_size}.
+     */
+    static final int BULK_CHUNK_SIZE = 500;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -47,9 +79,16 @@ public class EmployeeResource {
 
     private final EmployeeQueryService employeeQueryService;
 
-    public EmployeeResource(EmployeeService employeeService, EmployeeQueryService employeeQueryService) {
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    public EmployeeResource(EmployeeService employeeService, EmployeeQueryService employeeQueryService, ObjectMapper objectMapper,
+                            Validator validator) {
         this.employeeService = employeeService;
         this.employeeQueryService = employeeQueryService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
     /**
@@ -67,27 +106,122 @@ public class EmployeeResource {
         }
         EmployeeDTO result = employeeService.save(employeeDTO);
         return ResponseEntity.created(new URI("/api/employees/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /employees/_bulk} : Create or update employees from a JSON array.
+     * <p>
+     * The array is read as a stream and its items are validated before any of them is saved, so that a body which turns
+     * out not to be a JSON array saves nothing. The valid items are then saved in chunks of {@link #BULK_CHUNK_SIZE},
+     * each chunk in its own transaction so that inserts are sent as JDBC batches. If a chunk fails, its items are
+     * retried one by one so that only the faulty items are rejected. Items which are not valid employees are rejected
+     * without being saved.
+     *
+     * @param body the JSON array of employeeDTOs; items with an ID are updated, the others are created.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of every item, in request
+     * order, or with status {@code 400 (Bad Request)} if the body is not a JSON array.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping("/employees/_bulk")
+    public ResponseEntity<List<BulkItemResultVM>> bulkSaveEmployees(InputStream body) throws IOException {
+        log.debug("REST request to bulk save Employees");
+        List<BulkItemResultVM> results = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<EmployeeDTO> items = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestAlertException("A JSON array of employees is expected", ENTITY_NAME, "bulkformat");
+            }
+            JsonToken token;
+            for (int index = 0; (token = parser.nextToken()) != JsonToken.END_ARRAY; index++) {
+                if (token == null) {
+                    throw new BadRequestAlertException("The JSON array of employees is not closed", ENTITY_NAME, "bulkformat");
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    results.add(new BulkItemResultVM(index, null, HttpStatus.BAD_REQUEST.value(), ErrorConstants.ERR_VALIDATION));
+                    continue;
+                }
+                JsonNode item = objectMapper.readTree(parser);
+                try {
+                    items.add(readBulkItem(item));
+                    indexes.add(index);
+                } catch (JsonProcessingException | ValidationException e) {
+                    results.add(BulkItemErrorUtil.failure(index, item.path("id").isIntegralNumber() ? item.get("id").asLong() : null, e));
+                }
+            }
+        } catch (JsonParseException e) {
+            throw new BadRequestAlertException("The JSON array of employees is malformed", ENTITY_NAME, "bulkformat");
+        }
+        for (int from = 0; from < items.size(); from += BULK_CHUNK_SIZE) {
+            int to = Math.min(from + BULK_CHUNK_SIZE, items.size());
+            bulkSaveChunk(items.subList(from, to), indexes.subList(from, to), results);
+        }
+        results.sort(Comparator.comparingInt(BulkItemResultVM::getIndex));
+        return ResponseEntity.ok().body(results);
+    }
+
+    private EmployeeDTO readBulkItem(JsonNode item) throws JsonProcessingException {
+        EmployeeDTO employeeDTO = objectMapper.treeToValue(item, EmployeeDTO.class);
+        Set<ConstraintViolation<EmployeeDTO>> violations = validator.validate(employeeDTO);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return employeeDTO;
+    }
+
+    private void bulkSaveChunk(List<EmployeeDTO> chunk, List<Integer> chunkIndexes, List<BulkItemResultVM> results) {
+        try {
+            List<EmployeeDTO> saved = employeeService.saveAll(chunk);
+            for (int i = 0; i < saved.size(); i++) {
+                results.add(bulkItemResult(chunkIndexes.get(i), chunk.get(i), saved.get(i)));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Bulk chunk of {} Employees failed, saving items one by one: {}", chunk.size(), e.toString());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    results.add(bulkItemResult(chunkIndexes.get(i), chunk.get(i), employeeService.save(chunk.get(i))));
+                } catch (RuntimeException itemException) {
+                    log.debug("Bulk item {} failed: {}", chunkIndexes.get(i), itemException.toString());
+                    results.add(BulkItemErrorUtil.failure(chunkIndexes.get(i), chunk.get(i).getId(), itemException));
+                }
+            }
+        }
+    }
+
+    private BulkItemResultVM bulkItemResult(int index, EmployeeDTO requested, EmployeeDTO saved) {
+        HttpStatus status = requested.getId() == null ? HttpStatus.CREATED : HttpStatus.OK;
+        return new BulkItemResultVM(index, saved.getId(), status.value(), null);
+    }
+
     /**
      * {@code PUT  /employees} : Updates an existing employee.
      *
      * @param employeeDTO the employeeDTO to update.
+     * @param ifMatch the entity tag the employeeDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated employeeDTO,
      * or with status {@code 400 (Bad Request)} if the employeeDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the employeeDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the employeeDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/employees")
-    public ResponseEntity<EmployeeDTO> updateEmployee(@RequestBody EmployeeDTO employeeDTO) throws URISyntaxException {
+    public ResponseEntity<EmployeeDTO> updateEmployee(@RequestBody EmployeeDTO employeeDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Employee : {}", employeeDTO);
         if (employeeDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        EmployeeDTO result = employeeService.save(employeeDTO);
+        EmployeeDTO current = ETagUtil.checkIfMatch(ifMatch, employeeService.findOne(employeeDTO.getId()), EmployeeResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            employeeDTO.setVersion(current.getVersion());
+        }
+        EmployeeDTO result = ETagUtil.updateIfMatch(ifMatch, () -> employeeService.save(employeeDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, employeeDTO.getId().toString()))
             .body(result);
     }
@@ -99,14 +233,48 @@ public class EmployeeResource {
      * @param pageable the pagination information.
 
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body.
+     * @param after if present, switches to cursor pagination: the cursor of the previous slice, empty for the first one.
+     * @param fields if present, the comma separated properties to return, e.g. {@code id,firstName,departmentId}: only
+     * their columns are read.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body, or with status
+     * {@code 400 (Bad Request)} if a field is unknown.
      */
     @GetMapping("/employees")
-    public ResponseEntity<List<EmployeeDTO>> getAllEmployees(EmployeeCriteria criteria, Pageable pageable) {
+    public ResponseEntity<MappingJacksonValue> getAllEmployees(EmployeeCriteria criteria, Pageable pageable,
+                                                               @RequestParam(value = CursorPaginationUtil.AFTER_PARAMETER, required = false) String after,
+                                                               @RequestParam(value = SparseFieldsetUtil.FIELDS_PARAMETER, required = false) String fields) {
         log.debug("REST request to get Employees by criteria: {}", criteria);
-        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(criteria, pageable);
+        Set<String> fieldSet = SparseFieldsetUtil.parseFields(fields, employeeQueryService::unknownFields, ENTITY_NAME);
+        if (after != null) {
+            KeysetSlice<EmployeeDTO> slice;
+            try {
+                slice = employeeQueryService.findByCriteria(criteria, after, pageable);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "badcursor");
+            }
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice.getNextCursor());
+            return ResponseEntity.ok().headers(headers).body(SparseFieldsetUtil.filter(slice.getContent(), fieldSet));
+        }
+        Page<EmployeeDTO> page = employeeQueryService.findFieldsByCriteria(criteria, fieldSet, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity.ok().headers(headers).body(SparseFieldsetUtil.filter(page.getContent(), fieldSet));
+    }
+
+    /**
+     * {@code GET  /employees/_export} : export all the employees matching the criteria.
+     * <p>
+     * Rows are streamed from the database to the response one at a time, so memory use does not depend on their number.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param format {@code ndjson} (the default) or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed employees in body.
+     */
+    @GetMapping("/employees/_export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(EmployeeCriteria criteria,
+                                                                 @RequestParam(defaultValue = ExportUtil.NDJSON) String format) {
+        log.debug("REST request to export Employees by criteria: {}", criteria);
+        return ExportUtil.export(format, "employees", EmployeeDTO.class, objectMapper, ENTITY_NAME,
+            consumer -> employeeQueryService.exportByCriteria(criteria, consumer));
     }
 
     /**
@@ -121,6 +289,22 @@ public class EmployeeResource {
         return ResponseEntity.ok().body(employeeQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /employees?ids=:ids} : get the employees of several ids.
+     *
+     * @param ids the ids of the employees to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @param fields if present, the comma separated properties to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/employees", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<MappingJacksonValue> getEmployeesById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids,
+                                                                @RequestParam(value = SparseFieldsetUtil.FIELDS_PARAMETER, required = false) String fields) {
+        log.debug("REST request to get Employees : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        Set<String> fieldSet = SparseFieldsetUtil.parseFields(fields, employeeQueryService::unknownFields, ENTITY_NAME);
+        return ResponseEntity.ok().body(SparseFieldsetUtil.filter(employeeService.findAllById(ids), fieldSet));
+    }
+
     /**
      * {@code GET  /employees/:id} : get the "id" employee.
      *
@@ -131,7 +315,7 @@ public class EmployeeResource {
     public ResponseEntity<EmployeeDTO> getEmployee(@PathVariable Long id) {
         log.debug("REST request to get Employee : {}", id);
         Optional<EmployeeDTO> employeeDTO = employeeService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(employeeDTO);
+        return ETagUtil.wrapOrNotFound(employeeDTO, EmployeeResource::entityTag);
     }
 
     /**
@@ -153,13 +337,33 @@ public class EmployeeResource {
      *
      * @param query the query of the employee search.
      * @param pageable the pagination information.
+     * @param after if present, switches to cursor pagination with {@code search_after}: the cursor of the previous
+     * slice, empty for the first one. Deep slices then cost no more than the first one.
+     * @param total with a cursor, whether to count all the hits in the {@code X-Total-Count} header.
      * @return the result of the search.
      */
     @GetMapping("/_search/employees")
-    public ResponseEntity<List<EmployeeDTO>> searchEmployees(@RequestParam String query, Pageable pageable) {
+    public ResponseEntity<List<EmployeeDTO>> searchEmployees(@RequestParam String query, Pageable pageable,
+                                                             @RequestParam(value = CursorPaginationUtil.AFTER_PARAMETER, required = false) String after,
+                                                             @RequestParam(value = CursorPaginationUtil.TOTAL_PARAMETER, defaultValue = "false") boolean total) {
         log.debug("REST request to search for a page of Employees for query {}", query);
+        if (after != null) {
+            SearchAfterSlice<EmployeeDTO> slice;
+            try {
+                slice = employeeService.search(query, after, pageable, total);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "badcursor");
+            }
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice.getNextCursor(), slice.getTotalHits());
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<EmployeeDTO> page = employeeService.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
+
+    private static String entityTag(EmployeeDTO employeeDTO) {
+        return ETagUtil.entityTag(employeeDTO.getVersion());
+    }
 }
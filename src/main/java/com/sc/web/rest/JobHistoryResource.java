@@ -1,12 +1,19 @@
 package com.sc.web.rest;
 
+import com.sc.repository.KeysetSlice;
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.JobHistoryService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.JobHistoryDTO;
+import com.sc.web.rest.util.CursorPaginationUtil;
+import com.sc.web.rest.util.ExportUtil;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -43,8 +51,11 @@ public class JobHistoryResource {
 
     private final JobHistoryService jobHistoryService;
 
-    public JobHistoryResource(JobHistoryService jobHistoryService) {
+    private final ObjectMapper objectMapper;
+
+    public JobHistoryResource(JobHistoryService jobHistoryService, ObjectMapper objectMapper) {
         this.jobHistoryService = jobHistoryService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -62,6 +73,7 @@ public class JobHistoryResource {
         }
         JobHistoryDTO result = jobHistoryService.save(jobHistoryDTO);
         return ResponseEntity.created(new URI("/api/job-histories/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
@@ -70,19 +82,27 @@ public class JobHistoryResource {
      * {@code PUT  /job-histories} : Updates an existing jobHistory.
      *
      * @param jobHistoryDTO the jobHistoryDTO to update.
+     * @param ifMatch the entity tag the jobHistoryDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated jobHistoryDTO,
      * or with status {@code 400 (Bad Request)} if the jobHistoryDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the jobHistoryDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the jobHistoryDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/job-histories")
-    public ResponseEntity<JobHistoryDTO> updateJobHistory(@RequestBody JobHistoryDTO jobHistoryDTO) throws URISyntaxException {
+    public ResponseEntity<JobHistoryDTO> updateJobHistory(@RequestBody JobHistoryDTO jobHistoryDTO,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update JobHistory : {}", jobHistoryDTO);
         if (jobHistoryDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        JobHistoryDTO result = jobHistoryService.save(jobHistoryDTO);
+        JobHistoryDTO current = ETagUtil.checkIfMatch(ifMatch, jobHistoryService.findOne(jobHistoryDTO.getId()), JobHistoryResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            jobHistoryDTO.setVersion(current.getVersion());
+        }
+        JobHistoryDTO result = ETagUtil.updateIfMatch(ifMatch, () -> jobHistoryService.save(jobHistoryDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, jobHistoryDTO.getId().toString()))
             .body(result);
     }
@@ -92,17 +112,55 @@ public class JobHistoryResource {
      *
 
      * @param pageable the pagination information.
-
+     * @param after if present, switches to cursor pagination: the cursor of the previous slice, empty for the first one.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobHistories in body.
      */
     @GetMapping("/job-histories")
-    public ResponseEntity<List<JobHistoryDTO>> getAllJobHistories(Pageable pageable) {
+    public ResponseEntity<List<JobHistoryDTO>> getAllJobHistories(Pageable pageable,
+                                                                  @RequestParam(value = CursorPaginationUtil.AFTER_PARAMETER, required = false) String after) {
         log.debug("REST request to get a page of JobHistories");
+        if (after != null) {
+            KeysetSlice<JobHistoryDTO> slice;
+            try {
+                slice = jobHistoryService.findAll(after, pageable);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "badcursor");
+            }
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice.getNextCursor());
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<JobHistoryDTO> page = jobHistoryService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /job-histories/_export} : export all the jobHistories.
+     * <p>
+     * Rows are streamed from the database to the response one at a time, so memory use does not depend on their number.
+     *
+     * @param format {@code ndjson} (the default) or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed jobHistories in body.
+     */
+    @GetMapping("/job-histories/_export")
+    public ResponseEntity<StreamingResponseBody> exportJobHistories(@RequestParam(defaultValue = ExportUtil.NDJSON) String format) {
+        log.debug("REST request to export JobHistories");
+        return ExportUtil.export(format, "job-histories", JobHistoryDTO.class, objectMapper, ENTITY_NAME, jobHistoryService::exportAll);
+    }
+
+    /**
+     * {@code GET  /job-histories?ids=:ids} : get the jobHistories of several ids.
+     *
+     * @param ids the ids of the jobHistories to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobHistories in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/job-histories", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<List<JobHistoryDTO>> getJobHistoriesById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids) {
+        log.debug("REST request to get JobHistories : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        return ResponseEntity.ok().body(jobHistoryService.findAllById(ids));
+    }
+
     /**
      * {@code GET  /job-histories/:id} : get the "id" jobHistory.
      *
@@ -113,7 +171,7 @@ public class JobHistoryResource {
     public ResponseEntity<JobHistoryDTO> getJobHistory(@PathVariable Long id) {
         log.debug("REST request to get JobHistory : {}", id);
         Optional<JobHistoryDTO> jobHistoryDTO = jobHistoryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(jobHistoryDTO);
+        return ETagUtil.wrapOrNotFound(jobHistoryDTO, JobHistoryResource::entityTag);
     }
 
     /**
@@ -135,13 +193,33 @@ public class JobHistoryResource {
      *
      * @param query the query of the jobHistory search.
      * @param pageable the pagination information.
+     * @param after if present, switches to cursor pagination with {@code search_after}: the cursor of the previous
+     * slice, empty for the first one. Deep slices then cost no more than the first one.
+     * @param total with a cursor, whether to count all the hits in the {@code X-Total-Count} header.
      * @return the result of the search.
      */
     @GetMapping("/_search/job-histories")
-    public ResponseEntity<List<JobHistoryDTO>> searchJobHistories(@RequestParam String query, Pageable pageable) {
+    public ResponseEntity<List<JobHistoryDTO>> searchJobHistories(@RequestParam String query, Pageable pageable,
+                                                                  @RequestParam(value = CursorPaginationUtil.AFTER_PARAMETER, required = false) String after,
+                                                                  @RequestParam(value = CursorPaginationUtil.TOTAL_PARAMETER, defaultValue = "false") boolean total) {
         log.debug("REST request to search for a page of JobHistories for query {}", query);
+        if (after != null) {
+            SearchAfterSlice<JobHistoryDTO> slice;
+            try {
+                slice = jobHistoryService.search(query, after, pageable, total);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "badcursor");
+            }
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice.getNextCursor(), slice.getTotalHits());
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<JobHistoryDTO> page = jobHistoryService.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
+
+    private static String entityTag(JobHistoryDTO jobHistoryDTO) {
+        return ETagUtil.entityTag(jobHistoryDTO.getVersion());
+    }
 }
@@ -1,14 +1,17 @@
 package com.sc.web.rest;
 
+import com.sc.repository.search.SearchAfterSlice;
 import com.sc.service.JobService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.CursorPaginationUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.JobDTO;
 import com.sc.service.dto.JobCriteria;
 import com.sc.service.JobQueryService;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -67,6 +70,7 @@ public class JobResource {
         }
         JobDTO result = jobService.save(jobDTO);
         return ResponseEntity.created(new URI("/api/jobs/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
@@ -75,19 +79,27 @@ public class JobResource {
      * {@code PUT  /jobs} : Updates an existing job.
      *
      * @param jobDTO the jobDTO to update.
+     * @param ifMatch the entity tag the jobDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated jobDTO,
      * or with status {@code 400 (Bad Request)} if the jobDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the jobDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the jobDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/jobs")
-    public ResponseEntity<JobDTO> updateJob(@RequestBody JobDTO jobDTO) throws URISyntaxException {
+    public ResponseEntity<JobDTO> updateJob(@RequestBody JobDTO jobDTO,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Job : {}", jobDTO);
         if (jobDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        JobDTO result = jobService.save(jobDTO);
+        JobDTO current = ETagUtil.checkIfMatch(ifMatch, jobService.findOne(jobDTO.getId()), JobResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            jobDTO.setVersion(current.getVersion());
+        }
+        JobDTO result = ETagUtil.updateIfMatch(ifMatch, () -> jobService.save(jobDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, jobDTO.getId().toString()))
             .body(result);
     }
@@ -121,6 +133,19 @@ public class JobResource {
         return ResponseEntity.ok().body(jobQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /jobs?ids=:ids} : get the jobs of several ids.
+     *
+     * @param ids the ids of the jobs to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobs in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/jobs", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<List<JobDTO>> getJobsById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids) {
+        log.debug("REST request to get Jobs : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        return ResponseEntity.ok().body(jobService.findAllById(ids));
+    }
+
     /**
      * {@code GET  /jobs/:id} : get the "id" job.
      *
@@ -131,7 +156,7 @@ public class JobResource {
     public ResponseEntity<JobDTO> getJob(@PathVariable Long id) {
         log.debug("REST request to get Job : {}", id);
         Optional<JobDTO> jobDTO = jobService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(jobDTO);
+        return ETagUtil.wrapOrNotFound(jobDTO, JobResource::entityTag);
     }
 
     /**
@@ -153,13 +178,35 @@ public class JobResource {
      *
      * @param query the query of the job search.
      * @param pageable the pagination information.
+     * @param after if present, switches to cursor pagination with {@code search_after}: the cursor of the previous
+     * slice, empty for the first one. Deep slices then cost no more than the first one.
+     * @param total with a cursor, whether to count all the hits in the {@code X-Total-Count} header.
      * @return the result of the search.
      */
     @GetMapping("/_search/jobs")
-    public ResponseEntity<List<JobDTO>> searchJobs(@RequestParam String query, Pageable pageable) {
+    public ResponseEntity<List<JobDTO>> searchJobs(@RequestParam String query, Pageable pageable,
+                                                   @RequestParam(value = CursorPaginationUtil.AFTER_PARAMETER, required = false) String after,
+                                                   @RequestParam(value = CursorPaginationUtil.TOTAL_PARAMETER, defaultValue = "false") boolean total) {
         log.debug("REST request to search for a page of Jobs for query {}", query);
+        if (after != null) {
+            SearchAfterSlice<JobDTO> slice;
+            try {
+                slice = jobService.search(query, after, pageable, total);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "badcursor");
+            }
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice.getNextCursor(), slice.getTotalHits());
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<JobDTO> page = jobService.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
+
+    private static String entityTag(JobDTO jobDTO) {
+        // The tasks are embedded, so their versions are part of the representation
+        long taskVersions = jobDTO.getTasks().stream().mapToLong(task -> task.getVersion() == null ? 0 : task.getVersion()).sum();
+        return ETagUtil.entityTag(jobDTO.getVersion(), taskVersions, jobDTO.getTasks().size());
+    }
 }
@@ -2,13 +2,15 @@ package com.sc.web.rest;
 
 import com.sc.service.LocationService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.LocationDTO;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -56,6 +58,7 @@ public class LocationResource {
         }
         LocationDTO result = locationService.save(locationDTO);
         return ResponseEntity.created(new URI("/api/locations/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
@@ -64,19 +67,27 @@ public class LocationResource {
      * {@code PUT  /locations} : Updates an existing location.
      *
      * @param locationDTO the locationDTO to update.
+     * @param ifMatch the entity tag the locationDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated locationDTO,
      * or with status {@code 400 (Bad Request)} if the locationDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the locationDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the locationDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/locations")
-    public ResponseEntity<LocationDTO> updateLocation(@RequestBody LocationDTO locationDTO) throws URISyntaxException {
+    public ResponseEntity<LocationDTO> updateLocation(@RequestBody LocationDTO locationDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Location : {}", locationDTO);
         if (locationDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        LocationDTO result = locationService.save(locationDTO);
+        LocationDTO current = ETagUtil.checkIfMatch(ifMatch, locationService.findOne(locationDTO.getId()), LocationResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            locationDTO.setVersion(current.getVersion());
+        }
+        LocationDTO result = ETagUtil.updateIfMatch(ifMatch, () -> locationService.save(locationDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, locationDTO.getId().toString()))
             .body(result);
     }
@@ -85,12 +96,26 @@ public class LocationResource {
      * {@code GET  /locations} : get all the locations.
      *
 
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of locations in body.
+     * @param ifNoneMatch the entity tag of the list the client already has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 304 (Not Modified)} if it did not change, and the list of locations in body.
      */
     @GetMapping("/locations")
-    public List<LocationDTO> getAllLocations() {
+    public ResponseEntity<List<LocationDTO>> getAllLocations(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Locations");
-        return locationService.findAll();
+        return ETagUtil.conditionalGet(ifNoneMatch, locationService::findAllVersion, locationService::findAll);
+    }
+
+    /**
+     * {@code GET  /locations?ids=:ids} : get the locations of several ids.
+     *
+     * @param ids the ids of the locations to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of locations in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/locations", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<List<LocationDTO>> getLocationsById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids) {
+        log.debug("REST request to get Locations : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        return ResponseEntity.ok().body(locationService.findAllById(ids));
     }
 
     /**
@@ -103,7 +128,7 @@ public class LocationResource {
     public ResponseEntity<LocationDTO> getLocation(@PathVariable Long id) {
         log.debug("REST request to get Location : {}", id);
         Optional<LocationDTO> locationDTO = locationService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(locationDTO);
+        return ETagUtil.wrapOrNotFound(locationDTO, LocationResource::entityTag);
     }
 
     /**
@@ -131,4 +156,8 @@ public class LocationResource {
         log.debug("REST request to search Locations for query {}", query);
         return locationService.search(query);
     }
+
+    private static String entityTag(LocationDTO locationDTO) {
+        return ETagUtil.entityTag(locationDTO.getVersion());
+    }
 }
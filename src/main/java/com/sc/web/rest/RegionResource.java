@@ -2,13 +2,15 @@ package com.sc.web.rest;
 
 import com.sc.service.RegionService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.RegionDTO;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -56,6 +58,7 @@ public class RegionResource {
         }
         RegionDTO result = regionService.save(regionDTO);
         return ResponseEntity.created(new URI("/api/regions/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
@@ -64,19 +67,27 @@ public class RegionResource {
      * {@code PUT  /regions} : Updates an existing region.
      *
      * @param regionDTO the regionDTO to update.
+     * @param ifMatch the entity tag the regionDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated regionDTO,
      * or with status {@code 400 (Bad Request)} if the regionDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the regionDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the regionDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/regions")
-    public ResponseEntity<RegionDTO> updateRegion(@RequestBody RegionDTO regionDTO) throws URISyntaxException {
+    public ResponseEntity<RegionDTO> updateRegion(@RequestBody RegionDTO regionDTO,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Region : {}", regionDTO);
         if (regionDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        RegionDTO result = regionService.save(regionDTO);
+        RegionDTO current = ETagUtil.checkIfMatch(ifMatch, regionService.findOne(regionDTO.getId()), RegionResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            regionDTO.setVersion(current.getVersion());
+        }
+        RegionDTO result = ETagUtil.updateIfMatch(ifMatch, () -> regionService.save(regionDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, regionDTO.getId().toString()))
             .body(result);
     }
@@ -85,12 +96,26 @@ public class RegionResource {
      * {@code GET  /regions} : get all the regions.
      *
 
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of regions in body.
+     * @param ifNoneMatch the entity tag of the list the client already has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 304 (Not Modified)} if it did not change, and the list of regions in body.
      */
     @GetMapping("/regions")
-    public List<RegionDTO> getAllRegions() {
+    public ResponseEntity<List<RegionDTO>> getAllRegions(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Regions");
-        return regionService.findAll();
+        return ETagUtil.conditionalGet(ifNoneMatch, regionService::findAllVersion, regionService::findAll);
+    }
+
+    /**
+     * {@code GET  /regions?ids=:ids} : get the regions of several ids.
+     *
+     * @param ids the ids of the regions to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of regions in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/regions", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<List<RegionDTO>> getRegionsById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids) {
+        log.debug("REST request to get Regions : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        return ResponseEntity.ok().body(regionService.findAllById(ids));
     }
 
     /**
@@ -103,7 +128,7 @@ public class RegionResource {
     public ResponseEntity<RegionDTO> getRegion(@PathVariable Long id) {
         log.debug("REST request to get Region : {}", id);
         Optional<RegionDTO> regionDTO = regionService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(regionDTO);
+        return ETagUtil.wrapOrNotFound(regionDTO, RegionResource::entityTag);
     }
 
     /**
@@ -131,4 +156,8 @@ public class RegionResource {
         log.debug("REST request to search Regions for query {}", query);
         return regionService.search(query);
     }
+
+    private static String entityTag(RegionDTO regionDTO) {
+        return ETagUtil.entityTag(regionDTO.getVersion());
+    }
 }
@@ -2,13 +2,15 @@ package com.sc.web.rest;
 
 import com.sc.service.TaskService;
 import com.sc.web.rest.errors.BadRequestAlertException;
+import com.sc.web.rest.util.BatchGetUtil;
+import com.sc.web.rest.util.ETagUtil;
 import com.sc.service.dto.TaskDTO;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -56,6 +58,7 @@ public class TaskResource {
         }
         TaskDTO result = taskService.save(taskDTO);
         return ResponseEntity.created(new URI("/api/tasks/" + result.getId()))
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
@@ -64,19 +67,27 @@ public class TaskResource {
      * {@code PUT  /tasks} : Updates an existing task.
      *
      * @param taskDTO the taskDTO to update.
+     * @param ifMatch the entity tag the taskDTO was read with, to update it only if it was not modified since.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated taskDTO,
      * or with status {@code 400 (Bad Request)} if the taskDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the taskDTO was modified since it was read,
      * or with status {@code 500 (Internal Server Error)} if the taskDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/tasks")
-    public ResponseEntity<TaskDTO> updateTask(@RequestBody TaskDTO taskDTO) throws URISyntaxException {
+    public ResponseEntity<TaskDTO> updateTask(@RequestBody TaskDTO taskDTO,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Task : {}", taskDTO);
         if (taskDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        TaskDTO result = taskService.save(taskDTO);
+        TaskDTO current = ETagUtil.checkIfMatch(ifMatch, taskService.findOne(taskDTO.getId()), TaskResource::entityTag, ENTITY_NAME);
+        if (current != null) {
+            taskDTO.setVersion(current.getVersion());
+        }
+        TaskDTO result = ETagUtil.updateIfMatch(ifMatch, () -> taskService.save(taskDTO), ENTITY_NAME);
         return ResponseEntity.ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, taskDTO.getId().toString()))
             .body(result);
     }
@@ -85,12 +96,26 @@ public class TaskResource {
      * {@code GET  /tasks} : get all the tasks.
      *
 
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tasks in body.
+     * @param ifNoneMatch the entity tag of the list the client already has.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 304 (Not Modified)} if it did not change, and the list of tasks in body.
      */
     @GetMapping("/tasks")
-    public List<TaskDTO> getAllTasks() {
+    public ResponseEntity<List<TaskDTO>> getAllTasks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get all Tasks");
-        return taskService.findAll();
+        return ETagUtil.conditionalGet(ifNoneMatch, taskService::findAllVersion, taskService::findAll);
+    }
+
+    /**
+     * {@code GET  /tasks?ids=:ids} : get the tasks of several ids.
+     *
+     * @param ids the ids of the tasks to retrieve, at most {@link BatchGetUtil#MAX_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tasks in body, in the order of the ids, without those which do not exist.
+     */
+    @GetMapping(value = "/tasks", params = BatchGetUtil.IDS_PARAMETER)
+    public ResponseEntity<List<TaskDTO>> getTasksById(@RequestParam(BatchGetUtil.IDS_PARAMETER) List<Long> ids) {
+        log.debug("REST request to get Tasks : {}", ids);
+        BatchGetUtil.checkIds(ids, ENTITY_NAME);
+        return ResponseEntity.ok().body(taskService.findAllById(ids));
     }
 
     /**
@@ -103,7 +128,7 @@ public class TaskResource {
     public ResponseEntity<TaskDTO> getTask(@PathVariable Long id) {
         log.debug("REST request to get Task : {}", id);
         Optional<TaskDTO> taskDTO = taskService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(taskDTO);
+        return ETagUtil.wrapOrNotFound(taskDTO, TaskResource::entityTag);
     }
 
     /**
@@ -131,4 +156,8 @@ public class TaskResource {
         log.debug("REST request to search Tasks for query {}", query);
         return taskService.search(query);
     }
+
+    private static String entityTag(TaskDTO taskDTO) {
+        return ETagUtil.entityTag(taskDTO.getVersion());
+    }
 }
@@ -0,0 +1,40 @@
+package com.sc.web.rest.util;
+
+import com.sc.web.rest.errors.BadRequestAlertException;
+
+import java.util.List;
+
+/**
+ * Utility class for getting several entities by id in one request, e.g. {@code GET /api/employees?ids=1,2,3}.
+ * <p>
+ * The entities are returned in the order of the ids, without duplicates. Ids which do not exist are skipped
+ * rather than failing the whole request: the client tells them by the ids missing from the response.
+ */
+public final class BatchGetUtil {
+
+    public static final String IDS_PARAMETER = "ids";
+
+    /**
+     * The maximum number of ids of a request, the maximum number of expressions of an Oracle {@code IN} list.
+     */
+    public static final int MAX_IDS = 1000;
+
+    private BatchGetUtil() {
+    }
+
+    /**
+     * Check the ids of a request.
+     *
+     * @param ids the ids.
+     * @param entityName the name of the entity, for the error.
+     * @throws BadRequestAlertException if an id is empty, or if there are more than {@link #MAX_IDS} ids.
+     */
+    public static void checkIds(List<Long> ids, String entityName) {
+        if (ids.contains(null)) {
+            throw new BadRequestAlertException("Invalid id", entityName, "idnull");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_IDS + " ids can be requested at once", entityName, "toomanyids");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.sc.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sc.web.rest.errors.ErrorConstants;
+import com.sc.web.rest.vm.BulkItemResultVM;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectRetrievalFailureException;
+
+import javax.persistence.EntityNotFoundException;
+import javax.validation.ValidationException;
+
+/**
+ * Utility class to report the failure of one item of a bulk request.
+ * <p>
+ * Like {@link com.sc.web.rest.errors.BadRequestAlertException}, the result carries an error key and not the
+ * message of the exception, which may contain SQL or constraint names.
+ */
+public final class BulkItemErrorUtil {
+
+    private BulkItemErrorUtil() {
+    }
+
+    /**
+     * @param index the index of the item in the request.
+     * @param id the ID of the item, if any.
+     * @param error the exception the item failed with.
+     * @return the result of the failed item.
+     */
+    public static BulkItemResultVM failure(int index, Long id, Throwable error) {
+        return new BulkItemResultVM(index, id, status(error).value(), errorKey(error));
+    }
+
+    /**
+     * @param error the exception an item failed with.
+     * @return the status of the item.
+     */
+    public static HttpStatus status(Throwable error) {
+        if (isInvalid(error)) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (isNotFound(error)) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (error instanceof ConcurrencyFailureException || error instanceof DataIntegrityViolationException) {
+            return HttpStatus.CONFLICT;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * @param error the exception an item failed with.
+     * @return the error key of the item.
+     */
+    public static String errorKey(Throwable error) {
+        if (isInvalid(error)) {
+            return ErrorConstants.ERR_VALIDATION;
+        }
+        if (isNotFound(error)) {
+            return ErrorConstants.ERR_NOT_FOUND;
+        }
+        if (error instanceof ConcurrencyFailureException) {
+            return ErrorConstants.ERR_CONCURRENCY_FAILURE;
+        }
+        if (error instanceof DataIntegrityViolationException) {
+            return ErrorConstants.ERR_DATA_INTEGRITY;
+        }
+        return ErrorConstants.ERR_INTERNAL;
+    }
+
+    private static boolean isInvalid(Throwable error) {
+        return error instanceof IllegalArgumentException || error instanceof ValidationException
+            || error instanceof JsonProcessingException;
+    }
+
+    private static boolean isNotFound(Throwable error) {
+        return error instanceof EmptyResultDataAccessException || error instanceof ObjectRetrievalFailureException
+            || error instanceof EntityNotFoundException;
+    }
+}
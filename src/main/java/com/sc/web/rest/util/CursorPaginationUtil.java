@@ -0,0 +1,59 @@
+package com.sc.web.rest.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling cursor (keyset) pagination.
+ * <p>
+ * The cursor of the next slice is returned in the {@code X-Next-Cursor} header, and as a {@code next} link
+ * following the <a href="https://tools.ietf.org/html/rfc5988">RFC 5988 (Link header)</a> used by offset pagination.
+ * There is no {@code X-Total-Count} header, as the point of cursor pagination is to not count the rows, unless the
+ * count is requested with {@code total=true} where the query supports it.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    public static final String TOTAL_PARAMETER = "total";
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private CursorPaginationUtil() {
+    }
+
+    /**
+     * Generate the pagination headers of a cursor paginated response.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param nextCursor the cursor of the next slice, or {@code null} if this is the last one.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+            String next = uriBuilder.replaceQueryParam(AFTER_PARAMETER, nextCursor).replaceQueryParam("page").toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    /**
+     * Generate the pagination headers of a cursor paginated response, with the total count if it was requested.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param nextCursor the cursor of the next slice, or {@code null} if this is the last one.
+     * @param totalCount the total number of items, or {@code null} if they were not counted.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, Long totalCount) {
+        HttpHeaders headers = generateCursorHttpHeaders(uriBuilder, nextCursor);
+        if (totalCount != null) {
+            headers.add(TOTAL_COUNT_HEADER, Long.toString(totalCount));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,153 @@
+package com.sc.web.rest.util;
+
+import com.sc.web.rest.errors.PreconditionFailedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Utility class for conditional requests, following <a href="https://tools.ietf.org/html/rfc7232">RFC 7232</a>.
+ * <p>
+ * Entity tags are strong, and built from the version of the entity, or of the collection for lists. A
+ * {@code GET} whose {@code If-None-Match} matches gets a {@code 304 (Not Modified)} without a body: for a
+ * {@link ResponseEntity} with an ETag, Spring MVC checks the precondition itself before serializing the body.
+ * A {@code PUT} whose {@code If-Match} does not match gets a {@code 412 (Precondition Failed)}.
+ */
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Build a strong entity tag.
+     *
+     * @param versions the versions the representation depends on, e.g. of an entity and of the entities it embeds.
+     * @return the quoted entity tag.
+     */
+    public static String entityTag(long... versions) {
+        StringJoiner tag = new StringJoiner(".", "\"", "\"");
+        for (long version : versions) {
+            tag.add(Long.toString(version));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Whether an {@code If-Match} or {@code If-None-Match} header matches an existing representation.
+     *
+     * @param header the value of the header, a list of entity tags or {@code *}.
+     * @param entityTag the entity tag of the current representation.
+     * @param weak {@code true} for the weak comparison of {@code If-None-Match}, {@code false} for the strong
+     *             comparison of {@code If-Match}.
+     * @return {@code true} if one of the entity tags of the header matches.
+     */
+    public static boolean matches(@Nullable String header, String entityTag, boolean weak) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (weak && candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wrap the optional response with its entity tag into a {@link ResponseEntity} with status {@code 200 (OK)},
+     * or {@code 304 (Not Modified)} if the {@code If-None-Match} header matches; or throw a
+     * {@link ResponseStatusException} with status {@code 404 (Not Found)} if the response is empty.
+     *
+     * @param maybeResponse the response to return if present.
+     * @param entityTagger builds the entity tag of the response.
+     * @param <X> the type of the response.
+     * @return the response.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse, Function<X, String> entityTagger) {
+        return maybeResponse.map(response -> ResponseEntity.ok().eTag(entityTagger.apply(response)).body(response))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Answer a {@code GET} with {@code 304 (Not Modified)} when the version of the collection matches the
+     * {@code If-None-Match} header, without loading the body; or load the body and tag it with the version, as
+     * long as the version did not change while the body was loaded.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header of the request.
+     * @param version the current version of the collection, empty when it cannot be told.
+     * @param body loads the body.
+     * @param <X> the type of the body.
+     * @return the response.
+     */
+    public static <X> ResponseEntity<X> conditionalGet(@Nullable String ifNoneMatch, Supplier<OptionalLong> version, Supplier<X> body) {
+        OptionalLong before = version.get();
+        String entityTag = before.isPresent() ? entityTag(before.getAsLong()) : null;
+        if (entityTag != null && matches(ifNoneMatch, entityTag, true)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).build();
+        }
+        X result = body.get();
+        if (entityTag != null && before.equals(version.get())) {
+            return ResponseEntity.ok().eTag(entityTag).body(result);
+        }
+        return ResponseEntity.ok().body(result);
+    }
+
+    /**
+     * Check the {@code If-Match} header of an update against the current representation.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, {@code null} for an unconditional update.
+     * @param current the current representation, empty if it does not exist.
+     * @param entityTagger builds the entity tag of the representation.
+     * @param entityName the name of the entity, for the error.
+     * @param <X> the type of the representation.
+     * @return the current representation, {@code null} for an unconditional update.
+     * @throws PreconditionFailedException if the header does not match.
+     */
+    public static <X> X checkIfMatch(@Nullable String ifMatch, Optional<X> current, Function<X, String> entityTagger,
+                                     String entityName) {
+        if (ifMatch == null) {
+            return null;
+        }
+        if (!current.isPresent() || !matches(ifMatch, entityTagger.apply(current.get()), false)) {
+            throw new PreconditionFailedException("The entity was modified", entityName);
+        }
+        return current.get();
+    }
+
+    /**
+     * Run an update whose {@code If-Match} header matched, reporting a concurrent update of the entity as a
+     * failed precondition too.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, {@code null} for an unconditional update.
+     * @param update runs the update.
+     * @param entityName the name of the entity, for the error.
+     * @param <X> the type of the result.
+     * @return the result of the update.
+     * @throws PreconditionFailedException if the entity was updated concurrently.
+     */
+    public static <X> X updateIfMatch(@Nullable String ifMatch, Supplier<X> update, String entityName) {
+        try {
+            return update.get();
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            throw new PreconditionFailedException("The entity was modified", entityName);
+        }
+    }
+}
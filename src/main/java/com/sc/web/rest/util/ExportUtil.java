@@ -0,0 +1,96 @@
+package com.sc.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sc.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Utility class for streaming exports, written row by row as NDJSON or CSV.
+ */
+public final class ExportUtil {
+
+    public static final String NDJSON = "ndjson";
+
+    public static final String CSV = "csv";
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    static {
+        CSV_MAPPER.registerModule(new JavaTimeModule());
+        CSV_MAPPER.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private ExportUtil() {
+    }
+
+    /**
+     * Build a response streaming the rows produced by a query.
+     *
+     * @param format {@value #NDJSON} or {@value #CSV}.
+     * @param fileName the name of the downloaded file, without extension.
+     * @param type the type of the rows.
+     * @param objectMapper the mapper used for JSON rows.
+     * @param entityName the name of the exported entity, for error messages.
+     * @param query the query, called with the consumer of its rows once the response is being written.
+     * @param <T> the type of the rows.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed rows in body.
+     * @throws BadRequestAlertException if the format is not supported.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> export(String format, String fileName, Class<T> type,
+                                                                   ObjectMapper objectMapper, String entityName,
+                                                                   Consumer<Consumer<T>> query) {
+        ObjectWriter writer;
+        MediaType mediaType;
+        if (NDJSON.equalsIgnoreCase(format)) {
+            writer = objectMapper.writerFor(type).without(SerializationFeature.INDENT_OUTPUT).withRootValueSeparator("\n");
+            mediaType = APPLICATION_NDJSON;
+        } else if (CSV.equalsIgnoreCase(format)) {
+            writer = CSV_MAPPER.writerFor(type).with(CSV_MAPPER.schemaFor(type).withHeader());
+            mediaType = TEXT_CSV;
+        } else {
+            throw new BadRequestAlertException("Unsupported export format: " + format, entityName, "exportformat");
+        }
+        ObjectWriter rowWriter = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // The separator only goes between rows: NDJSON needs one after the last row too
+        boolean terminated = mediaType == APPLICATION_NDJSON;
+        StreamingResponseBody body = outputStream -> {
+            boolean[] written = {false};
+            try (SequenceWriter rows = rowWriter.writeValues(outputStream)) {
+                query.accept(row -> {
+                    try {
+                        rows.write(row);
+                        written[0] = true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (terminated && written[0]) {
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(mediaType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + format.toLowerCase() + "\"")
+            .body(body);
+    }
+}
@@ -0,0 +1,82 @@
+package com.sc.web.rest.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.sc.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for sparse fieldsets: {@code ?fields=id,firstName} narrows each entity of a response to the listed
+ * properties.
+ * <p>
+ * The DTOs supporting it are written through the {@value #FILTER_ID} property filter, see {@link FilteredMixIn}:
+ * every property is written unless the response sets the filter with {@link #filter(Object, Set)}.
+ */
+public final class SparseFieldsetUtil {
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    public static final String FILTER_ID = "sparseFieldset";
+
+    private SparseFieldsetUtil() {
+    }
+
+    /**
+     * Parse the {@code fields} parameter of a request.
+     *
+     * @param fields the comma separated property names, or {@code null} if the parameter is absent.
+     * @param unknownFields returns the names which are not properties of the entity.
+     * @param entityName the name of the entity, for the error.
+     * @return the property names, or {@code null} for all the properties.
+     * @throws BadRequestAlertException if there is no name or a name is unknown.
+     */
+    @Nullable
+    public static Set<String> parseFields(@Nullable String fields, Function<Set<String>, Set<String>> unknownFields, String entityName) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (names.isEmpty()) {
+            throw new BadRequestAlertException("At least one field is required", entityName, "fieldsempty");
+        }
+        Set<String> unknown = unknownFields.apply(names);
+        if (!unknown.isEmpty()) {
+            throw new BadRequestAlertException("Unknown fields: " + String.join(",", unknown), entityName, "fieldsinvalid");
+        }
+        return names;
+    }
+
+    /**
+     * Wrap a response body to only write the given properties of its DTOs.
+     *
+     * @param body the DTO or list of DTOs.
+     * @param fields the property names, or {@code null} to write them all.
+     * @return the body to return.
+     */
+    public static MappingJacksonValue filter(Object body, @Nullable Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fields != null) {
+            value.setFilters(new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+        return value;
+    }
+
+    /**
+     * Jackson mix-in writing a DTO through the sparse fieldset filter; the application {@code ObjectMapper} does not
+     * fail on filters it does not know, so a DTO written without the filter set keeps all its properties.
+     */
+    @JsonFilter(FILTER_ID)
+    public abstract static class FilteredMixIn {
+    }
+}
@@ -0,0 +1,156 @@
+package com.sc.config;
+
+import com.sc.domain.Employee;
+import com.sc.domain.Region;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link CacheSnapshotFile} and the fingerprints of {@link CacheSnapshotService}.
+ */
+public class CacheSnapshotFileTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("cache-snapshot");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        CacheSnapshotFile.write(file, snapshot());
+
+        CacheSnapshotFile.Snapshot snapshot = CacheSnapshotFile.read(file);
+
+        assertThat(snapshot.createdAt).isEqualTo(1234L);
+        assertThat(snapshot.serializerVersion).isEqualTo("hazelcast 3.11");
+        assertThat(snapshot.regions).hasSize(2);
+        assertThat(snapshot.regions.get(0).name).isEqualTo("com.sc.domain.Region");
+        assertThat(snapshot.regions.get(0).fingerprint).isEqualTo(42L);
+        assertThat(snapshot.regions.get(0).entries).hasSize(2);
+        assertThat(snapshot.regions.get(0).entries.get(1).key).isEqualTo(bytes("2"));
+        assertThat(snapshot.regions.get(0).entries.get(1).value).isEqualTo(bytes("Europe"));
+        assertThat(snapshot.regions.get(1).entries).isEmpty();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    public void testWriteAcrossWindows() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        try (CacheSnapshotFile.Writer writer = new CacheSnapshotFile.Writer(file, 1234L, "hazelcast 3.11", 2, 64)) {
+            writer.startRegion("com.sc.domain.Employee", 1L);
+            for (int i = 0; i < 100; i++) {
+                writer.addEntry(bytes(Integer.toString(i)), bytes("employee " + i));
+            }
+            writer.startRegion("com.sc.domain.Job", 2L);
+            writer.addEntry(bytes("1"), new byte[200]);
+            writer.commit();
+        }
+
+        CacheSnapshotFile.Snapshot snapshot = CacheSnapshotFile.read(file);
+
+        assertThat(snapshot.regions).hasSize(2);
+        assertThat(snapshot.regions.get(0).entries).hasSize(100);
+        assertThat(snapshot.regions.get(0).entries.get(99).value).isEqualTo(bytes("employee 99"));
+        assertThat(snapshot.regions.get(1).fingerprint).isEqualTo(2L);
+        assertThat(snapshot.regions.get(1).entries.get(0).value).hasSize(200);
+    }
+
+    @Test
+    public void testUncommittedWriterLeavesNoFile() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        try (CacheSnapshotFile.Writer writer = new CacheSnapshotFile.Writer(file, 1234L, "hazelcast 3.11", 1)) {
+            writer.startRegion("com.sc.domain.Employee", 1L);
+            writer.addEntry(bytes("1"), bytes("employee"));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void testCorruptedFileIsRejected() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        CacheSnapshotFile.write(file, snapshot());
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 1] ^= 1;
+        Files.write(file, content);
+
+        assertThatThrownBy(() -> CacheSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("Corrupted");
+    }
+
+    @Test
+    public void testTruncatedFileIsRejected() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        CacheSnapshotFile.write(file, snapshot());
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 3));
+
+        assertThatThrownBy(() -> CacheSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("Truncated");
+    }
+
+    @Test
+    public void testOtherFormatVersionIsRejected() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        CacheSnapshotFile.write(file, snapshot());
+        byte[] content = Files.readAllBytes(file);
+        content[7] = (byte) (CacheSnapshotFile.FORMAT_VERSION + 1);
+        Files.write(file, content);
+
+        assertThatThrownBy(() -> CacheSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("version");
+    }
+
+    @Test
+    public void testOtherFileIsRejected() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        Files.write(file, new byte[64]);
+
+        assertThatThrownBy(() -> CacheSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("Not a cache snapshot");
+    }
+
+    @Test
+    public void testFingerprint() {
+        assertThat(CacheSnapshotService.fingerprint(Region.class.getName()))
+            .isEqualTo(CacheSnapshotService.fingerprint(Region.class.getName()))
+            .isNotEqualTo(CacheSnapshotService.fingerprint(Employee.class.getName()));
+        assertThat(CacheSnapshotService.fingerprint(Employee.class.getName() + ".jobs"))
+            .isEqualTo(CacheSnapshotService.fingerprint(Employee.class.getName()));
+        assertThat(CacheSnapshotService.fingerprint("unknown")).isZero();
+    }
+
+    private static CacheSnapshotFile.Snapshot snapshot() {
+        CacheSnapshotFile.Snapshot snapshot = new CacheSnapshotFile.Snapshot(1234L, "hazelcast 3.11");
+        CacheSnapshotFile.Region regions = new CacheSnapshotFile.Region("com.sc.domain.Region", 42L);
+        regions.entries.add(new CacheSnapshotFile.Entry(bytes("1"), bytes("Americas")));
+        regions.entries.add(new CacheSnapshotFile.Entry(bytes("2"), bytes("Europe")));
+        snapshot.regions.add(regions);
+        snapshot.regions.add(new CacheSnapshotFile.Region("com.sc.domain.Employee.jobs", 7L));
+        return snapshot;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
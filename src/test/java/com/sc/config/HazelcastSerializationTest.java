@@ -0,0 +1,73 @@
+package com.sc.config;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the Hazelcast serializers registered by {@link CacheConfiguration}, against Java serialization.
+ */
+public class HazelcastSerializationTest {
+
+    private InternalSerializationService compactSerialization;
+
+    private InternalSerializationService javaSerialization;
+
+    @BeforeEach
+    public void setup() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        CacheConfiguration.initializeSerializationConfig(serializationConfig);
+        compactSerialization = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+        javaSerialization = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @Test
+    public void testInstantRoundTrip() {
+        Instant instant = Instant.parse("2019-11-05T16:01:02.123456789Z");
+
+        Data data = compactSerialization.toData(instant);
+
+        assertThat((Instant) compactSerialization.toObject(data)).isEqualTo(instant);
+        assertThat(data.totalSize()).isLessThan(javaSerialization.toData(instant).totalSize());
+    }
+
+    @Test
+    public void testCollectionCacheEntryRoundTrip() throws Exception {
+        Serializable[] ids = new Serializable[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1000L + i;
+        }
+        CollectionCacheEntry entry = createCollectionCacheEntry(ids);
+
+        Data data = compactSerialization.toData(entry);
+        CollectionCacheEntry read = compactSerialization.toObject(data);
+
+        assertThat(read.getState()).containsExactly(ids);
+        assertThat(data.totalSize()).isLessThan(javaSerialization.toData(entry).totalSize());
+    }
+
+    @Test
+    public void testEmptyCollectionCacheEntryRoundTrip() throws Exception {
+        CollectionCacheEntry entry = createCollectionCacheEntry(new Serializable[0]);
+
+        CollectionCacheEntry read = compactSerialization.toObject(compactSerialization.toData(entry));
+
+        assertThat(read.getState()).isEmpty();
+    }
+
+    private static CollectionCacheEntry createCollectionCacheEntry(Serializable[] state) throws Exception {
+        Constructor<CollectionCacheEntry> constructor = CollectionCacheEntry.class.getDeclaredConstructor(Serializable.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance((Object) state);
+    }
+}
@@ -0,0 +1,398 @@
+package com.sc.config;
+
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.spring.cache.HazelcastCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link TwoTierCache}.
+ */
+public class TwoTierCacheTest {
+
+    private ConcurrentMapCache l2;
+
+    private List<Object> invalidations;
+
+    private MeterRegistry meterRegistry;
+
+    private AtomicLong clock;
+
+    private TwoTierCache cache;
+
+    private final AtomicReference<TwoTierCache> invalidatingCache = new AtomicReference<>();
+
+    @BeforeEach
+    public void setup() {
+        l2 = new ConcurrentMapCache("test");
+        invalidations = new ArrayList<>();
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        cache = new TwoTierCache(l2, 2, 100, 0, (name, key) -> invalidations.add(key), clock::get);
+        cache.bindTo(meterRegistry);
+    }
+
+    @Test
+    public void testReadsThroughL2ThenServesFromL1() {
+        l2.put("a", "value");
+
+        assertThat(cache.get("a", String.class)).isEqualTo("value");
+        l2.evict("a");
+        assertThat(cache.get("a", String.class)).isEqualTo("value");
+
+        assertThat(count("cache.l1.gets", "hit")).isEqualTo(1);
+        assertThat(count("cache.l1.gets", "miss")).isEqualTo(1);
+        assertThat(count("cache.l2.gets", "hit")).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.l1.gets.ratio").tag("name", "test").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void testWritesGoToBothTiersAndArePublished() {
+        cache.put("a", "value");
+        assertThat(l2.get("a", String.class)).isEqualTo("value");
+
+        cache.evict("a");
+        assertThat(l2.get("a")).isNull();
+        assertThat(cache.get("a")).isNull();
+
+        cache.put("b", "value");
+        cache.clear();
+        assertThat(cache.get("b")).isNull();
+
+        assertThat(invalidations).containsExactly("a", "a", "b", null);
+    }
+
+    @Test
+    public void testRemoteInvalidationOnlyDropsL1() {
+        cache.put("a", "value");
+        l2.put("a", "changed");
+
+        cache.invalidateLocal("a");
+
+        assertThat(cache.get("a", String.class)).isEqualTo("changed");
+    }
+
+    @Test
+    public void testL1IsBounded() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+        l2.clear();
+
+        long kept = Arrays.asList("a", "b", "c").stream().filter(key -> cache.get(key) != null).count();
+        assertThat(kept).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.l1.size").tag("name", "test").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void testL1IsBoundedByWeight() {
+        // A list weighs 1 plus its size, more than the whole L1
+        cache.put("a", Arrays.asList("1", "2"));
+        cache.put("b", Collections.singletonList("1"));
+        l2.clear();
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b", List.class)).containsExactly("1");
+    }
+
+    @Test
+    public void testLoadInvalidatedMeanwhileIsNotKeptInL1() {
+        // A change on another member invalidates the key while it is being loaded here
+        assertThat(cache.get("a", () -> {
+            cache.invalidateLocal("a");
+            return "stale";
+        })).isEqualTo("stale");
+        l2.evict("a");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("a", () -> "fresh")).isEqualTo("fresh");
+        l2.evict("a");
+        assertThat(cache.get("a", String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    public void testReadInvalidatedMeanwhileIsNotKeptInL1() {
+        l2.put("a", "stale");
+        TwoTierCache racing = new TwoTierCache(new ConcurrentMapCache("test") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper value = l2.get(key);
+                // The evict of a concurrent write lands after the L2 read, before the L1 put
+                l2.put(key, "fresh");
+                invalidatingCache.get().invalidateLocal(key);
+                return value;
+            }
+        }, 2, 100, 0, (name, key) -> { }, clock::get);
+        invalidatingCache.set(racing);
+
+        assertThat(racing.get("a", String.class)).isEqualTo("stale");
+        assertThat(racing.get("a", String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    public void testLoaderResultIsCachedInBothTiers() {
+        assertThat(cache.get("a", () -> "loaded")).isEqualTo("loaded");
+
+        assertThat(l2.get("a", String.class)).isEqualTo("loaded");
+        assertThat(cache.get("a", () -> "reloaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    public void testGetAllReadsEachTierOnceInKeyOrder() {
+        cache.put("a", "1");
+        l2.put("b", "2");
+        List<Set<Object>> loaded = new ArrayList<>();
+
+        Map<Object, Object> values = cache.getAll(Arrays.asList("c", "b", "a", "d"), keys -> {
+            loaded.add(keys);
+            return Collections.singletonMap("c", "3");
+        });
+
+        assertThat(values).containsExactly(entry("c", "3"), entry("b", "2"), entry("a", "1"), entry("d", null));
+        assertThat(loaded).containsExactly(new HashSet<>(Arrays.asList("c", "d")));
+        assertThat(l2.get("c", String.class)).isEqualTo("3");
+        // Missing keys are cached too
+        assertThat(l2.get("d")).isNotNull();
+        assertThat(count("cache.l2.gets", "hit")).isEqualTo(1);
+        assertThat(count("cache.loads", "loaded")).isEqualTo(2);
+    }
+
+    @Test
+    public void testConcurrentLoadsAreCoalesced() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("a", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "loaded";
+            }));
+            loading.await();
+            List<Future<String>> others = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                others.add(executor.submit(() -> cache.get("a", () -> {
+                    loads.incrementAndGet();
+                    return "reloaded";
+                })));
+            }
+            while (count("cache.loads", "coalesced") < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            for (Future<String> other : others) {
+                assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("cache.loads", "loaded")).isEqualTo(1);
+    }
+
+    @Test
+    public void testL1EntriesExpireWithL2() {
+        cache.put("a", "value");
+        l2.evict("a");
+
+        clock.set(TimeUnit.SECONDS.toNanos(99));
+        assertThat(cache.get("a")).isNotNull();
+        clock.set(TimeUnit.SECONDS.toNanos(100));
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    public void testEntryIsRefreshedBeforeExpiry() {
+        long loadNanos = TimeUnit.SECONDS.toNanos(1);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", () -> {
+            clock.addAndGet(loadNanos);
+            return "value " + loads.incrementAndGet();
+        });
+        invalidations.clear();
+
+        // A hundred load times away from expiry, a refresh is all but impossible
+        assertThat(cache.get("a", () -> "value " + loads.incrementAndGet())).isEqualTo("value 1");
+        assertThat(loads).hasValue(1);
+
+        // At expiry, the value is still served but reloaded first
+        clock.set(loadNanos + TimeUnit.SECONDS.toNanos(100) - 1);
+        assertThat(cache.get("a", () -> "value " + loads.incrementAndGet())).isEqualTo("value 1");
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get("a", String.class)).isEqualTo("value 2");
+        assertThat(l2.get("a", String.class)).isEqualTo("value 2");
+        assertThat(invalidations).containsExactly("a");
+        assertThat(count("cache.loads", "refreshed")).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedRefreshKeepsValue() {
+        cache.get("a", () -> {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+            return "value";
+        });
+        clock.set(TimeUnit.SECONDS.toNanos(110) - 1);
+
+        String value = cache.get("a", () -> {
+            throw new IllegalStateException("database down");
+        });
+
+        assertThat(value).isEqualTo("value");
+        assertThat(cache.get("a", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    public void testLoadRacingWithEvictionIsNotKeptInL2() {
+        TwoTierCache racing = new TwoTierCache(new LoadThenWriteCache(), 2, 100, 0, (name, key) -> { }, clock::get);
+
+        // A writer commits and evicts the key after it was read from the database, before it is cached
+        assertThat(racing.get("a", () -> {
+            racing.evict("a");
+            return "stale";
+        })).isEqualTo("stale");
+
+        assertThat(racing.get("a")).isNull();
+        assertThat(racing.get("a", () -> "fresh")).isEqualTo("fresh");
+        assertThat(racing.get("a", String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    public void testGetAllLoadRacingWithEvictionIsNotKeptInL2() {
+        Map<Object, Object> values = cache.getAll(Arrays.asList("a", "b"), keys -> {
+            cache.evict("b");
+            Map<Object, Object> loaded = new HashMap<>();
+            keys.forEach(key -> loaded.put(key, "stale " + key));
+            return loaded;
+        });
+
+        assertThat(values).containsExactly(entry("a", "stale a"), entry("b", "stale b"));
+        // Only the keys of the stripes written meanwhile are discarded
+        assertThat(l2.get("a", String.class)).isEqualTo("stale a");
+        assertThat(l2.get("b")).isNull();
+        assertThat(cache.get("b")).isNull();
+    }
+
+    @Test
+    public void testDiscardedLoadIsNotCountedAsAWrite() {
+        long[] counts = new long[TwoTierCache.SHARED_INVALIDATION_STRIPES];
+        TwoTierCache racing = new TwoTierCache(new LoadThenWriteCache(), 2, 100, 0, (name, key) -> { }, stripe -> {
+            IAtomicLong counter = mock(IAtomicLong.class);
+            when(counter.addAndGet(anyLong())).then(invocation -> counts[stripe] += invocation.<Long>getArgument(0));
+            return counter;
+        });
+
+        racing.get("a", () -> {
+            racing.evict("a");
+            return "stale";
+        });
+
+        // Only the eviction is counted: the discard of the load would discard the other loads of its stripe
+        assertThat(racing.get("a")).isNull();
+        assertThat(Arrays.stream(counts).sum()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRefreshRacingWithEvictionIsNotKeptInL2() {
+        long loadNanos = TimeUnit.SECONDS.toNanos(1);
+        cache.get("a", () -> {
+            clock.addAndGet(loadNanos);
+            return "value";
+        });
+        clock.set(loadNanos + TimeUnit.SECONDS.toNanos(100) - 1);
+
+        assertThat(cache.get("a", () -> {
+            cache.evict("a");
+            return "stale";
+        })).isEqualTo("value");
+
+        assertThat(l2.get("a")).isNull();
+        assertThat(cache.get("a")).isNull();
+        assertThat(count("cache.loads", "refreshed")).isEqualTo(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHazelcastEntriesAreWrittenWithJitteredTimeToLive() {
+        IMap<Object, Object> map = mock(IMap.class);
+        when(map.getName()).thenReturn("test");
+        when(map.setAsync(any(), any(), anyLong(), any())).thenReturn(mock(ICompletableFuture.class));
+        TwoTierCache hazelcastCache = new TwoTierCache(new HazelcastCache(map), 10, 100, 50, (name, key) -> { }, clock::get);
+
+        hazelcastCache.put("a", "1");
+        hazelcastCache.putIfAbsent("b", "2");
+        hazelcastCache.getAll(Collections.singletonList("c"), keys -> Collections.singletonMap("c", "3"));
+
+        ArgumentCaptor<Long> timesToLive = ArgumentCaptor.forClass(Long.class);
+        verify(map).set(eq("a"), eq("1"), timesToLive.capture(), eq(TimeUnit.MILLISECONDS));
+        verify(map).putIfAbsent(eq("b"), eq("2"), timesToLive.capture(), eq(TimeUnit.MILLISECONDS));
+        verify(map).setAsync(eq("c"), eq("3"), timesToLive.capture(), eq(TimeUnit.MILLISECONDS));
+        verify(map, never()).setTtl(any(), anyLong(), any());
+        assertThat(timesToLive.getAllValues()).allSatisfy(timeToLive -> assertThat(timeToLive).isBetween(50_000L, 100_000L));
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.get(name).tag("name", "test").tag("result", result).functionCounter().count();
+    }
+
+    /**
+     * Loads then writes the value without holding a lock, as the Hazelcast cache does.
+     */
+    private static class LoadThenWriteCache extends ConcurrentMapCache {
+
+        LoadThenWriteCache() {
+            super("test");
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper value = get(key);
+            if (value != null) {
+                return (T) value.get();
+            }
+            try {
+                T loaded = valueLoader.call();
+                put(key, loaded);
+                return loaded;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -19,4 +19,39 @@ public class DepartmentTest {
         department1.setId(null);
         assertThat(department1).isNotEqualTo(department2);
     }
+
+    @Test
+    public void largeEmployeeSetSpreadsOverBuckets() {
+        Department department = new Department();
+        int size = 20000;
+        for (long id = 1; id <= size; id++) {
+            Employee employee = new Employee();
+            employee.setId(id);
+            department.addEmployee(employee);
+        }
+        assertThat(department.getEmployees()).hasSize(size);
+        assertThat(department.getEmployees().stream().mapToInt(Object::hashCode).distinct().count()).isEqualTo(size);
+        Employee lookup = new Employee();
+        lookup.setId((long) size);
+        assertThat(department.getEmployees()).contains(lookup);
+        department.removeEmployee(lookup);
+        assertThat(department.getEmployees()).hasSize(size - 1);
+    }
+
+    @Test
+    public void detachedAndLoadedEmployeesAreTheSameElement() {
+        Department department = new Department();
+        Employee detached = new Employee();
+        // The id is assigned before the employee is put in the set, and kept by persist
+        detached.setId(42L);
+        department.addEmployee(detached);
+        Employee loaded = new Employee();
+        loaded.setId(42L);
+        assertThat(loaded.hashCode()).isEqualTo(detached.hashCode());
+        assertThat(department.getEmployees()).contains(loaded);
+        assertThat(department.getEmployees().add(loaded)).isFalse();
+        assertThat(department.getEmployees()).hasSize(1);
+        department.removeEmployee(loaded);
+        assertThat(department.getEmployees()).isEmpty();
+    }
 }
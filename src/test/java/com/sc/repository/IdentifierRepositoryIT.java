@@ -0,0 +1,64 @@
+package com.sc.repository;
+
+import com.sc.JhipsterSampleApplicationApp;
+import com.sc.domain.Department;
+import com.sc.domain.Employee;
+import com.sc.web.rest.EmployeeResourceIT;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link IdentifierRepository}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+@Transactional
+public class IdentifierRepositoryIT {
+
+    @Autowired
+    private IdentifierRepository identifierRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    public void assignedIdIsKeptOnPersist() {
+        Department department = departmentRepository.saveAndFlush(new Department().departmentName("IDENTIFIED"));
+        Employee employee = identifierRepository.assignId(EmployeeResourceIT.createEntity(em));
+        Long id = employee.getId();
+        assertThat(id).isNotNull();
+        int hashCode = employee.hashCode();
+        department.addEmployee(employee);
+
+        employeeRepository.saveAndFlush(employee);
+
+        assertThat(employee.getId()).isEqualTo(id);
+        assertThat(employee.hashCode()).isEqualTo(hashCode);
+        assertThat(department.getEmployees()).contains(employee);
+        em.clear();
+        Employee loaded = employeeRepository.findById(id).get();
+        assertThat(department.getEmployees()).contains(loaded);
+    }
+
+    @Test
+    public void assignedIdsAreNotGeneratedAgain() {
+        Employee assigned = identifierRepository.assignId(EmployeeResourceIT.createEntity(em));
+        Long id = assigned.getId();
+
+        assertThat(identifierRepository.assignId(assigned).getId()).isEqualTo(id);
+        Employee generated = employeeRepository.saveAndFlush(EmployeeResourceIT.createEntity(em));
+        assertThat(generated.getId()).isNotEqualTo(id);
+    }
+}
@@ -0,0 +1,73 @@
+package com.sc.repository;
+
+import com.sc.domain.Job;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the paged eager fetch of {@link JobRepository}.
+ */
+public class JobRepositoryTest {
+
+    private JobRepository jobRepository;
+
+    @BeforeEach
+    public void setup() {
+        jobRepository = mock(JobRepository.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+    }
+
+    @Test
+    public void findAllWithEagerRelationshipsKeepsPageOrder() {
+        Pageable pageable = PageRequest.of(1, 3);
+        doReturn(new PageImpl<>(Arrays.asList(4L, 5L, 6L), pageable, 10)).when(jobRepository).findAllIds(pageable);
+        doReturn(Arrays.asList(job(6L), job(4L), job(5L))).when(jobRepository).findAllWithEagerRelationshipsByIdIn(any());
+
+        Page<Job> page = jobRepository.findAllWithEagerRelationships(pageable);
+
+        assertThat(page.getContent()).extracting(Job::getId).containsExactly(4L, 5L, 6L);
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getPageable()).isEqualTo(pageable);
+    }
+
+    @Test
+    public void findAllWithEagerRelationshipsSkipsJobsDeletedBetweenQueries() {
+        Pageable pageable = PageRequest.of(0, 3);
+        doReturn(new PageImpl<>(Arrays.asList(1L, 2L, 3L), pageable, 10)).when(jobRepository).findAllIds(pageable);
+        // Job 2 is deleted after its id was paged
+        doReturn(Arrays.asList(job(1L), job(3L))).when(jobRepository).findAllWithEagerRelationshipsByIdIn(any());
+
+        Page<Job> page = jobRepository.findAllWithEagerRelationships(pageable);
+
+        assertThat(page.getContent()).extracting(Job::getId).containsExactly(1L, 3L);
+        assertThat(page.getContent()).doesNotContainNull();
+        assertThat(page.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    public void findAllWithEagerRelationshipsOfEmptyPage() {
+        Pageable pageable = PageRequest.of(2, 3);
+        doReturn(new PageImpl<>(Collections.emptyList(), pageable, 4)).when(jobRepository).findAllIds(pageable);
+
+        Page<Job> page = jobRepository.findAllWithEagerRelationships(pageable);
+
+        assertThat(page.getContent()).isEmpty();
+        verify(jobRepository, never()).findAllWithEagerRelationshipsByIdIn(any());
+    }
+
+    private static Job job(Long id) {
+        Job job = new Job();
+        job.setId(id);
+        return job;
+    }
+}
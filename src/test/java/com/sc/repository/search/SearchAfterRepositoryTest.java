@@ -0,0 +1,110 @@
+package com.sc.repository.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.sc.domain.Region;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link SearchAfterRepository}.
+ */
+public class SearchAfterRepositoryTest {
+
+    private JestClient jestClient;
+
+    private SearchAfterRepository searchAfterRepository;
+
+    @BeforeEach
+    public void setup() {
+        jestClient = mock(JestClient.class);
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class, RETURNS_DEEP_STUBS);
+        when(elasticsearchOperations.getPersistentEntityFor(Region.class).getIndexName()).thenReturn("region");
+        when(elasticsearchOperations.getPersistentEntityFor(Region.class).getIndexType()).thenReturn("region");
+        ObjectMapper objectMapper = new ObjectMapper();
+        EntityMapper entityMapper = new EntityMapper() {
+            @Override
+            public String mapToString(Object object) throws IOException {
+                return objectMapper.writeValueAsString(object);
+            }
+
+            @Override
+            public <T> T mapToObject(String source, Class<T> clazz) throws IOException {
+                return objectMapper.readValue(source, clazz);
+            }
+        };
+        searchAfterRepository = new SearchAfterRepository(jestClient, elasticsearchOperations, entityMapper);
+    }
+
+    @Test
+    public void testSliceAndCursor() throws Exception {
+        respond("{\"hits\":{\"total\":-1,\"hits\":[" +
+            "{\"_source\":{\"id\":1,\"regionName\":\"a\"},\"sort\":[\"a\",1]}," +
+            "{\"_source\":{\"id\":2,\"regionName\":\"b\"},\"sort\":[\"b\",2]}," +
+            "{\"_source\":{\"id\":3,\"regionName\":\"c\"},\"sort\":[\"c\",3]}]}}");
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("regionName"));
+
+        SearchAfterSlice<Region> slice = searchAfterRepository.search(Region.class, queryStringQuery("*"), pageable, "", false);
+
+        assertThat(slice.getContent()).extracting(Region::getId).containsExactly(1L, 2L);
+        assertThat(slice.getTotalHits()).isNull();
+        assertThat(slice.getNextCursor()).isNotNull();
+        String source = executedSource();
+        assertThat(source).contains("\"size\":3").contains("\"track_total_hits\":false").doesNotContain("search_after");
+        assertThat(source).containsSubsequence("\"regionName\"", "\"id\"");
+
+        respond("{\"hits\":{\"total\":3,\"hits\":[{\"_source\":{\"id\":3,\"regionName\":\"c\"},\"sort\":[\"c\",3]}]}}");
+
+        slice = searchAfterRepository.search(Region.class, queryStringQuery("*"), pageable, slice.getNextCursor(), true);
+
+        assertThat(slice.getContent()).extracting(Region::getId).containsExactly(3L);
+        assertThat(slice.getTotalHits()).isEqualTo(3);
+        assertThat(slice.getNextCursor()).isNull();
+        assertThat(executedSource()).contains("\"search_after\":[\"b\",2]");
+    }
+
+    @Test
+    public void testCursorOfAnotherSort() {
+        String cursor = SearchAfterRepository.encodeCursor("regionName:ASC,id:ASC,",
+            new JsonParser().parse("[\"b\",2]").getAsJsonArray());
+
+        assertThatThrownBy(() -> searchAfterRepository.search(Region.class, queryStringQuery("*"),
+            PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "regionName")), cursor, false))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchAfterRepository.search(Region.class, queryStringQuery("*"),
+            PageRequest.of(0, 2), "not a cursor", false))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void respond(String json) throws IOException {
+        SearchResult result = new SearchResult(new Gson());
+        result.setSucceeded(true);
+        result.setResponseCode(200);
+        result.setJsonString(json);
+        result.setJsonObject(new JsonParser().parse(json).getAsJsonObject());
+        when(jestClient.execute(any(Search.class))).thenReturn(result);
+    }
+
+    private String executedSource() throws IOException {
+        ArgumentCaptor<Search> search = ArgumentCaptor.forClass(Search.class);
+        verify(jestClient, atLeastOnce()).execute(search.capture());
+        return search.getValue().getData(new Gson()).replaceAll("\\s", "");
+    }
+}
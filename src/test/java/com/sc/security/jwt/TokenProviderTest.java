@@ -13,6 +13,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -83,6 +85,60 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testResolveAuthenticationReusesVerifiedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> first = tokenProvider.resolveAuthentication(token);
+        Optional<Authentication> second = tokenProvider.resolveAuthentication(token);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getName()).isEqualTo("anonymous");
+        assertThat(first.get().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(second.get()).isSameAs(first.get());
+    }
+
+    @Test
+    public void testResolveAuthenticationSharesAuthorities() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String otherToken = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken("other", "other", createAuthentication().getAuthorities()), false);
+
+        GrantedAuthority authority = tokenProvider.resolveAuthentication(token).get().getAuthorities().iterator().next();
+        GrantedAuthority otherAuthority = tokenProvider.resolveAuthentication(otherToken).get().getAuthorities().iterator().next();
+
+        assertThat(otherAuthority).isSameAs(authority);
+    }
+
+    @Test
+    public void testVerifiedTokensAreBounded() {
+        String first = tokenProvider.createToken(createAuthentication(), false);
+        Authentication firstAuthentication = tokenProvider.resolveAuthentication(first).get();
+        for (int i = 0; i < TokenProvider.VERIFIED_TOKENS_MAX_SIZE; i++) {
+            tokenProvider.resolveAuthentication(tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken("user" + i, "user" + i, createAuthentication().getAuthorities()), false));
+        }
+
+        Cache<?, ?> verifiedTokens = (Cache<?, ?>) ReflectionTestUtils.getField(tokenProvider, "verifiedTokens");
+        verifiedTokens.cleanUp();
+        assertThat(verifiedTokens.estimatedSize()).isLessThanOrEqualTo(TokenProvider.VERIFIED_TOKENS_MAX_SIZE);
+        // Whether it was evicted or kept, the first token still resolves
+        Optional<Authentication> again = tokenProvider.resolveAuthentication(first);
+        assertThat(again).isPresent();
+        assertThat(again.get().getName()).isEqualTo(firstAuthentication.getName());
+    }
+
+    @Test
+    public void testResolveAuthenticationRejectsInvalidTokens() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String expiredToken = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(createTokenWithDifferentSignature())).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication(expiredToken)).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication(createUnsupportedToken())).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication("")).isEmpty();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,172 @@
+package com.sc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sc.service.dto.BatchOperationDTO;
+import com.sc.service.dto.EmployeeDTO;
+import com.sc.service.dto.RegionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.Validation;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link BatchService}.
+ */
+public class BatchServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmployeeService employeeService;
+
+    private RegionService regionService;
+
+    private EntityManager entityManager;
+
+    private BatchService batchService;
+
+    @BeforeEach
+    public void setup() {
+        employeeService = mock(EmployeeService.class);
+        regionService = mock(RegionService.class);
+        entityManager = mock(EntityManager.class);
+        batchService = new BatchService(objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), entityManager,
+            employeeService, mock(JobHistoryService.class), mock(JobService.class), mock(DepartmentService.class),
+            mock(LocationService.class), mock(CountryService.class), regionService, mock(TaskService.class));
+        when(employeeService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<EmployeeDTO> saved = new ArrayList<>();
+            long id = 100;
+            for (Object requested : invocation.<List<?>>getArgument(0)) {
+                EmployeeDTO employeeDTO = (EmployeeDTO) requested;
+                employeeDTO.setId(employeeDTO.getId() == null ? id++ : employeeDTO.getId());
+                saved.add(employeeDTO);
+            }
+            return saved;
+        });
+        when(regionService.save(any(RegionDTO.class))).thenAnswer(invocation -> {
+            RegionDTO regionDTO = invocation.getArgument(0);
+            regionDTO.setId(7L);
+            return regionDTO;
+        });
+        when(regionService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<RegionDTO> saved = new ArrayList<>();
+            long id = 200;
+            for (Object requested : invocation.<List<?>>getArgument(0)) {
+                RegionDTO regionDTO = (RegionDTO) requested;
+                regionDTO.setId(regionDTO.getId() == null ? id++ : regionDTO.getId());
+                saved.add(regionDTO);
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    public void testConsecutiveSavesAreSavedAtOnce() {
+        List<Long> ids = batchService.execute(Arrays.asList(
+            save(BatchOperationDTO.Method.CREATE, "employees", null),
+            save(BatchOperationDTO.Method.UPDATE, "employees", 5L),
+            save(BatchOperationDTO.Method.CREATE, "regions", null),
+            delete("employees", 6L)));
+
+        assertThat(ids).containsExactly(100L, 5L, 7L, 6L);
+        verify(employeeService).saveAll(anyList());
+        verify(employeeService, never()).save(any());
+        verify(employeeService).delete(6L);
+        verify(entityManager).flush();
+    }
+
+    @Test
+    public void testConsecutiveSavesOfEveryEntityAreSavedAtOnce() {
+        List<Long> ids = batchService.execute(Arrays.asList(
+            save(BatchOperationDTO.Method.CREATE, "regions", null),
+            save(BatchOperationDTO.Method.UPDATE, "regions", 3L),
+            save(BatchOperationDTO.Method.CREATE, "regions", null)));
+
+        assertThat(ids).containsExactly(200L, 3L, 201L);
+        verify(regionService).saveAll(anyList());
+        verify(regionService, never()).save(any());
+    }
+
+    @Test
+    public void testFailureIsReportedOnItsOperation() {
+        doThrow(new EmptyResultDataAccessException(1)).when(employeeService).delete(6L);
+
+        assertThatThrownBy(() -> batchService.execute(Arrays.asList(
+            save(BatchOperationDTO.Method.CREATE, "regions", null),
+            delete("employees", 6L))))
+            .isInstanceOf(BatchOperationException.class)
+            .hasCauseInstanceOf(EmptyResultDataAccessException.class)
+            .satisfies(e -> assertThat(((BatchOperationException) e).getIndex()).isEqualTo(1));
+    }
+
+    @Test
+    public void testPersistenceFailureIsTranslatedAndKeptOutOfTheMessage() {
+        doThrow(new PersistenceException("could not execute statement", new ConstraintViolationException(
+            "could not execute statement", new SQLException("Referential integrity constraint violation: FK_EMPLOYEE_DEPARTMENT_ID"),
+            "FK_EMPLOYEE_DEPARTMENT_ID"))).when(entityManager).flush();
+
+        assertThatThrownBy(() -> batchService.execute(Arrays.asList(
+            save(BatchOperationDTO.Method.CREATE, "regions", null),
+            delete("departments", 3L))))
+            .isInstanceOf(BatchOperationException.class)
+            .hasMessage("Operation 1 failed")
+            .hasCauseInstanceOf(DataIntegrityViolationException.class)
+            .satisfies(e -> assertThat(((BatchOperationException) e).getIndex()).isEqualTo(1));
+    }
+
+    @Test
+    public void testInvalidOperations() {
+        assertThatThrownBy(() -> batchService.execute(Arrays.asList(
+            save(BatchOperationDTO.Method.CREATE, "regions", null),
+            save(BatchOperationDTO.Method.CREATE, "regions", 3L))))
+            .isInstanceOf(BatchOperationException.class)
+            .hasCauseInstanceOf(IllegalArgumentException.class)
+            .satisfies(e -> assertThat(((BatchOperationException) e).getIndex()).isEqualTo(1));
+
+        assertThatThrownBy(() -> batchService.execute(Arrays.asList(
+            save(BatchOperationDTO.Method.CREATE, "employees", null),
+            save(BatchOperationDTO.Method.UPDATE, "employees", null))))
+            .isInstanceOf(BatchOperationException.class)
+            .satisfies(e -> assertThat(((BatchOperationException) e).getIndex()).isEqualTo(1));
+
+        assertThatThrownBy(() -> batchService.execute(Arrays.asList(delete("unknown", 1L))))
+            .isInstanceOf(BatchOperationException.class)
+            .hasCauseInstanceOf(IllegalArgumentException.class);
+        verify(employeeService, never()).saveAll(anyList());
+    }
+
+    private BatchOperationDTO save(BatchOperationDTO.Method method, String entity, Long id) {
+        ObjectNode body = objectMapper.createObjectNode();
+        if (id != null) {
+            body.put("id", id);
+        }
+        BatchOperationDTO operation = new BatchOperationDTO();
+        operation.setMethod(method);
+        operation.setEntity(entity);
+        operation.setBody(body);
+        return operation;
+    }
+
+    private BatchOperationDTO delete(String entity, Long id) {
+        BatchOperationDTO operation = new BatchOperationDTO();
+        operation.setMethod(BatchOperationDTO.Method.DELETE);
+        operation.setEntity(entity);
+        operation.setId(id);
+        return operation;
+    }
+}
@@ -0,0 +1,180 @@
+package com.sc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.core.MessageListener;
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Employee;
+import com.sc.domain.JobHistory;
+import com.sc.domain.Region;
+import com.sc.service.dto.EmployeeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ChangeStreamService}.
+ */
+public class ChangeStreamServiceTest {
+
+    private ITopic<String> employeeTopic;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private ChangeStreamService changeStreamService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        employeeTopic = mock(ITopic.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String>getTopic(anyString())).thenReturn(mock(ITopic.class));
+        when(hazelcastInstance.<String>getTopic(ChangeStreamService.TOPIC_NAME_PREFIX + "Employee")).thenReturn(employeeTopic);
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getChangeStream().setMaxConnections(2);
+        changeStreamService = new ChangeStreamService(hazelcastInstance, new ObjectMapper(), meterRegistry, applicationProperties);
+        changeStreamService.start();
+    }
+
+    @AfterEach
+    public void teardown() {
+        changeStreamService.stop();
+    }
+
+    @Test
+    public void testPublishedOnCommit() {
+        EmployeeDTO employeeDTO = new EmployeeDTO();
+        employeeDTO.setId(1L);
+        employeeDTO.setFirstName("first");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeStreamService.recordUpsert(Employee.class, 1L, employeeDTO);
+            changeStreamService.recordDelete(Employee.class, 2L);
+            verify(employeeTopic, never()).publish(anyString());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(employeeTopic).publish(contains("\"operation\":\"UPSERT\""));
+        verify(employeeTopic).publish(contains("\"firstName\":\"first\""));
+        verify(employeeTopic).publish("{\"id\":2,\"operation\":\"DELETE\"}");
+    }
+
+    @Test
+    public void testNotPublishedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeStreamService.recordDelete(Employee.class, 2L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(employeeTopic, never()).publish(anyString());
+    }
+
+    @Test
+    public void testMaxConnections() {
+        assertThat(changeStreamService.connect(Employee.class)).isPresent();
+        assertThat(changeStreamService.connect(JobHistory.class)).isPresent();
+        assertThat(changeStreamService.connect(Employee.class)).isEmpty();
+
+        assertThat(meterRegistry.get("change.stream.connections").tag("entity", "Employee").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testClientWhichDoesNotReadIsDisconnectedWithoutHoldingTheDrain() throws Exception {
+        applicationProperties.getChangeStream().setThreads(1);
+        applicationProperties.getChangeStream().setSendTimeoutMs(100);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblocked = new CountDownLatch(1);
+        BlockingQueue<SseEmitter> emitters = new LinkedBlockingQueue<>();
+        // The first client never reads, its writes block until the end of the test
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                writing.countDown();
+                try {
+                    unblocked.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        });
+        CountDownLatch received = new CountDownLatch(1);
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.countDown();
+            }
+        });
+        ITopic<String> jobHistoryTopic = mock(ITopic.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String>getTopic(ChangeStreamService.TOPIC_NAME_PREFIX + "Employee")).thenReturn(employeeTopic);
+        when(hazelcastInstance.<String>getTopic(ChangeStreamService.TOPIC_NAME_PREFIX + "JobHistory")).thenReturn(jobHistoryTopic);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChangeStreamService service = new ChangeStreamService(hazelcastInstance, new ObjectMapper(), meterRegistry, applicationProperties) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitters.remove();
+            }
+        };
+        service.start();
+        try {
+            ArgumentCaptor<MessageListener<String>> employeeListener = ArgumentCaptor.forClass(MessageListener.class);
+            verify(employeeTopic, times(2)).addMessageListener(employeeListener.capture());
+            ArgumentCaptor<MessageListener<String>> jobHistoryListener = ArgumentCaptor.forClass(MessageListener.class);
+            verify(jobHistoryTopic).addMessageListener(jobHistoryListener.capture());
+            assertThat(service.connect(Employee.class)).isPresent();
+            assertThat(service.connect(JobHistory.class)).isPresent();
+
+            // The single drain thread is held by the client which does not read
+            employeeListener.getValue().onMessage(new Message<>("change-stream.Employee", "{\"id\":1,\"operation\":\"DELETE\"}", 0, null));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+            jobHistoryListener.getValue().onMessage(new Message<>("change-stream.JobHistory", "{\"id\":2,\"operation\":\"DELETE\"}", 0, null));
+
+            assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(meterRegistry.get("change.stream.dropped").tag("reason", "timeout").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("change.stream.connections").tag("entity", "Employee").gauge().value()).isEqualTo(0);
+            assertThat(meterRegistry.get("change.stream.connections").tag("entity", "JobHistory").gauge().value()).isEqualTo(1);
+        } finally {
+            unblocked.countDown();
+            service.stop();
+        }
+    }
+
+    @Test
+    public void testUnknownEntity() {
+        assertThatThrownBy(() -> changeStreamService.connect(Region.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> changeStreamService.recordDelete(Region.class, 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
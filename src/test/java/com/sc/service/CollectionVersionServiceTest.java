@@ -0,0 +1,144 @@
+package com.sc.service;
+
+import com.hazelcast.core.Cluster;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link CollectionVersionService}, against maps standing in for the Hazelcast structures.
+ */
+public class CollectionVersionServiceTest {
+
+    private static final long WRITE_LEASE_MS = 60000;
+
+    private final Map<String, Long> running = new ConcurrentHashMap<>();
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private IAtomicLong atomicLong;
+
+    private CollectionVersionService collectionVersionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        IMap<String, Long> runningMap = mock(IMap.class);
+        when(runningMap.isEmpty()).then(invocation -> running.isEmpty());
+        when(runningMap.entrySet()).then(invocation -> running.entrySet());
+        doAnswer(invocation -> running.put(invocation.getArgument(0), invocation.getArgument(1))).when(runningMap).set(any(), any());
+        when(runningMap.remove(any())).then(invocation -> running.remove(invocation.<String>getArgument(0)));
+        when(runningMap.remove(any(), any())).then(invocation -> running.remove(invocation.getArgument(0), invocation.getArgument(1)));
+        atomicLong = mock(IAtomicLong.class);
+        when(atomicLong.get()).then(invocation -> counter.get());
+        when(atomicLong.compareAndSet(anyLong(), anyLong())).then(invocation ->
+            counter.compareAndSet(invocation.getArgument(0), invocation.getArgument(1)));
+        when(atomicLong.incrementAndGet()).then(invocation -> counter.incrementAndGet());
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, Long>getMap(CollectionVersionService.RUNNING_MAP_NAME_PREFIX + "Employee")).thenReturn(runningMap);
+        when(hazelcastInstance.getAtomicLong(CollectionVersionService.COUNTER_NAME_PREFIX + "Employee")).thenReturn(atomicLong);
+        Cluster cluster = mock(Cluster.class);
+        Member member = mock(Member.class);
+        when(hazelcastInstance.getCluster()).thenReturn(cluster);
+        when(cluster.getLocalMember()).thenReturn(member);
+        when(member.getUuid()).thenReturn("member-1");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCollectionVersion().setWriteLeaseMs(WRITE_LEASE_MS);
+        collectionVersionService = new CollectionVersionService(hazelcastInstance, mock(EntityManagerFactory.class), applicationProperties);
+    }
+
+    @AfterEach
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testNoVersionWhileWriting() {
+        long before = collectionVersionService.getVersion(Employee.class).getAsLong();
+
+        TransactionSynchronizationManager.initSynchronization();
+        collectionVersionService.onWrite(new Employee());
+        collectionVersionService.onWrite(new Employee());
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEmpty();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEqualTo(OptionalLong.of(before + 1));
+        assertThat(running).isEmpty();
+    }
+
+    @Test
+    public void testWriteOfRemovedMemberIsCountedAsFinished() {
+        long before = collectionVersionService.getVersion(Employee.class).getAsLong();
+        running.put("member-2:1", System.currentTimeMillis());
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEmpty();
+
+        collectionVersionService.releaseWritesOf("member-2");
+
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEqualTo(OptionalLong.of(before + 1));
+        assertThat(running).isEmpty();
+    }
+
+    @Test
+    public void testWritesOfOtherMembersAreKept() {
+        running.put("member-2:1", System.currentTimeMillis());
+
+        collectionVersionService.releaseWritesOf("member-3");
+
+        assertThat(running).containsOnlyKeys("member-2:1");
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEmpty();
+    }
+
+    @Test
+    public void testWriteNotCompletedWithinLeaseIsCountedAsFinished() {
+        long before = collectionVersionService.getVersion(Employee.class).getAsLong();
+        running.put("member-1:1", System.currentTimeMillis() - WRITE_LEASE_MS - 1);
+
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEqualTo(OptionalLong.of(before + 1));
+        assertThat(running).isEmpty();
+    }
+
+    @Test
+    public void testWriteWhichCouldNotBeCountedAsFinishedRunsUntilItsLeaseLapses() {
+        long before = collectionVersionService.getVersion(Employee.class).getAsLong();
+        doThrow(new HazelcastException("Lost")).doAnswer(invocation -> counter.incrementAndGet()).when(atomicLong).incrementAndGet();
+
+        TransactionSynchronizationManager.initSynchronization();
+        collectionVersionService.onWrite(new Employee());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // The version of the data before the commit must not be served again
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEmpty();
+        running.replaceAll((writeId, startedAt) -> startedAt - WRITE_LEASE_MS);
+        assertThat(collectionVersionService.getVersion(Employee.class)).isEqualTo(OptionalLong.of(before + 1));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,143 @@
+package com.sc.service;
+
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Job;
+import com.sc.domain.Region;
+import com.sc.service.dto.RegionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DtoCacheService}.
+ */
+public class DtoCacheServiceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private DtoCacheService dtoCacheService;
+
+    private AtomicInteger loads;
+
+    private Function<Long, Optional<RegionDTO>> loader;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getDomainDefaults().setDtoCache(true);
+        cacheManager = new ConcurrentMapCacheManager();
+        dtoCacheService = new DtoCacheService(cacheManager, applicationProperties);
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            if (id > 10) {
+                return Optional.empty();
+            }
+            RegionDTO regionDTO = new RegionDTO();
+            regionDTO.setId(id);
+            regionDTO.setRegionName("region " + loads.get());
+            return Optional.of(regionDTO);
+        };
+    }
+
+    @Test
+    public void testFindOneIsCached() {
+        RegionDTO first = dtoCacheService.findOne(Region.class, 1L, loader).get();
+        RegionDTO second = dtoCacheService.findOne(Region.class, 1L, loader).get();
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(cacheManager.getCacheNames()).containsExactly("com.sc.service.dto.RegionDTO");
+    }
+
+    @Test
+    public void testMissingEntityIsCachedUntilCreated() {
+        assertThat(dtoCacheService.findOne(Region.class, 11L, loader)).isEmpty();
+        assertThat(dtoCacheService.findOne(Region.class, 11L, loader)).isEmpty();
+        assertThat(loads).hasValue(1);
+
+        dtoCacheService.evict(Region.class, 11L);
+        assertThat(dtoCacheService.findOne(Region.class, 11L, loader)).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testFindAllLoadsMissesAtOnce() {
+        dtoCacheService.findOne(Region.class, 2L, loader);
+        List<Collection<Long>> batches = new ArrayList<>();
+        Function<Collection<Long>, List<RegionDTO>> batchLoader = ids -> {
+            batches.add(new ArrayList<>(ids));
+            return ids.stream().map(loader).filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
+        };
+
+        List<RegionDTO> regions = dtoCacheService.findAll(Region.class, Arrays.asList(3L, 11L, 2L, 1L, 3L), batchLoader, RegionDTO::getId);
+
+        assertThat(regions).extracting(RegionDTO::getId).containsExactly(3L, 2L, 1L);
+        assertThat(batches).containsExactly(Arrays.asList(3L, 11L, 1L));
+
+        dtoCacheService.findAll(Region.class, Arrays.asList(1L, 11L), batchLoader, RegionDTO::getId);
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    public void testEntityCanBeExcluded() {
+        ApplicationProperties.Region region = new ApplicationProperties.Region();
+        region.setDtoCache(false);
+        applicationProperties.getCache().getRegions().put(Region.class.getName(), region);
+
+        dtoCacheService.findOne(Region.class, 1L, loader);
+        dtoCacheService.findOne(Region.class, 1L, loader);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cacheManager.getCacheNames()).isEmpty();
+    }
+
+    @Test
+    public void testEvict() {
+        dtoCacheService.findOne(Region.class, 1L, loader);
+        dtoCacheService.findOne(Region.class, 2L, loader);
+
+        dtoCacheService.evict(Region.class, 1L);
+        dtoCacheService.findOne(Region.class, 1L, loader);
+        dtoCacheService.findOne(Region.class, 2L, loader);
+        assertThat(loads).hasValue(3);
+
+        dtoCacheService.evictAll(Region.class);
+        dtoCacheService.findOne(Region.class, 2L, loader);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    public void testEvictAgainAfterTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dtoCacheService.evict(Region.class, 1L);
+            dtoCacheService.evictAll(Job.class);
+            // Read back before commit, e.g. by another request
+            dtoCacheService.findOne(Region.class, 1L, loader);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        dtoCacheService.findOne(Region.class, 1L, loader);
+        assertThat(loads).hasValue(2);
+    }
+}
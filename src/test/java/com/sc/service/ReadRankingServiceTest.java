@@ -0,0 +1,109 @@
+package com.sc.service;
+
+import com.hazelcast.core.Cluster;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ReadRankingService}.
+ */
+public class ReadRankingServiceTest {
+
+    private IMap<String, Map<Long, Long>> rankings;
+
+    private ReadRankingService readRankingService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        rankings = mock(IMap.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, Map<Long, Long>>getMap(ReadRankingService.MAP_NAME_PREFIX + "Employee")).thenReturn(rankings);
+        Cluster cluster = mock(Cluster.class);
+        Member member = mock(Member.class);
+        when(hazelcastInstance.getCluster()).thenReturn(cluster);
+        when(cluster.getLocalMember()).thenReturn(member);
+        when(member.getUuid()).thenReturn("member-1");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getWarmUp().setEmployees(2);
+        readRankingService = new ReadRankingService(hazelcastInstance, applicationProperties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPublishesTopReadsAndHalvesCounts() {
+        for (int i = 0; i < 4; i++) {
+            readRankingService.recordRead(Employee.class, 1L);
+        }
+        readRankingService.recordRead(Employee.class, 2L);
+        readRankingService.recordRead(Employee.class, 2L);
+        readRankingService.recordRead(Employee.class, 3L);
+
+        readRankingService.publish();
+        readRankingService.publish();
+
+        ArgumentCaptor<Map<Long, Long>> published = ArgumentCaptor.forClass(Map.class);
+        verify(rankings, times(2)).set(eq("member-1"), published.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        assertThat(published.getAllValues().get(0)).containsOnly(entry(1L, 4L), entry(2L, 2L));
+        // Id 3 dropped to zero and was forgotten
+        assertThat(published.getAllValues().get(1)).containsOnly(entry(1L, 2L), entry(2L, 1L));
+    }
+
+    @Test
+    public void testMergesRankingsOfMembers() {
+        Map<Long, Long> first = new HashMap<>();
+        first.put(1L, 5L);
+        first.put(2L, 1L);
+        Map<Long, Long> second = new HashMap<>();
+        second.put(2L, 10L);
+        second.put(3L, 3L);
+        when(rankings.values()).thenReturn(Arrays.asList(first, second));
+
+        assertThat(readRankingService.findMostRead(Employee.class, 2)).containsExactly(2L, 1L);
+        assertThat(readRankingService.findMostRead(Employee.class, 0)).isEmpty();
+    }
+
+    @Test
+    public void testReadsAreNotCountedWhilePaused() {
+        readRankingService.setPaused(true);
+        readRankingService.recordRead(Employee.class, 1L);
+        readRankingService.setPaused(false);
+        readRankingService.recordRead(Employee.class, 2L);
+
+        readRankingService.publish();
+
+        verify(rankings).set(eq("member-1"), eq(Collections.singletonMap(2L, 1L)), anyLong(), any());
+    }
+
+    @Test
+    public void testPublishFailureKeepsCounts() {
+        readRankingService.recordRead(Employee.class, 1L);
+        readRankingService.recordRead(Employee.class, 1L);
+        doThrow(new IllegalStateException("cluster down")).doNothing()
+            .when(rankings).set(any(), any(), anyLong(), any());
+
+        readRankingService.publish();
+        readRankingService.publish();
+
+        verify(rankings, times(2)).set(eq("member-1"), eq(Collections.singletonMap(1L, 2L)), anyLong(), any());
+    }
+}
@@ -0,0 +1,90 @@
+package com.sc.service;
+
+import com.sc.JhipsterSampleApplicationApp;
+import com.sc.domain.Region;
+import com.sc.repository.RegionRepository;
+import com.sc.service.dto.RegionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link ReferenceDataService}.
+ * <p>
+ * Not transactional: each test runs its own transactions.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class ReferenceDataServiceIT {
+
+    private static final String REGION_NAME = "Reference data test";
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    public void writingTransactionReadsThroughWithoutSharingItsChanges() {
+        transactionTemplate.execute(status -> {
+            Region region = regionRepository.saveAndFlush(new Region().regionName(REGION_NAME));
+
+            // The writer sees its own change
+            assertThat(referenceDataService.get().getRegion(region.getId())).map(RegionDTO::getRegionName).contains(REGION_NAME);
+            // Other readers meanwhile get an index of the committed rows only
+            assertThat(CompletableFuture.supplyAsync(() -> referenceDataService.get().getRegionsByName(REGION_NAME)).join()).isEmpty();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(referenceDataService.get().getRegionsByName(REGION_NAME)).isEmpty();
+    }
+
+    @Test
+    public void indexIsNotRebuiltFromUncommittedRows() {
+        referenceDataService.get();
+        transactionTemplate.execute(status -> {
+            regionRepository.saveAndFlush(new Region().regionName(REGION_NAME));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        transactionTemplate.execute(status -> {
+            // Another transaction, which did not write, only sees the committed rows
+            assertThat(referenceDataService.get().getRegionsByName(REGION_NAME)).isEmpty();
+            return null;
+        });
+        assertThat(referenceDataService.get().getRegionsByName(REGION_NAME)).isEmpty();
+    }
+
+    @Test
+    public void committedWriteIsIndexed() {
+        Region region = transactionTemplate.execute(status -> regionRepository.saveAndFlush(new Region().regionName(REGION_NAME)));
+        try {
+            assertThat(referenceDataService.get().getRegion(region.getId())).map(RegionDTO::getRegionName).contains(REGION_NAME);
+        } finally {
+            transactionTemplate.execute(status -> {
+                regionRepository.deleteById(region.getId());
+                return null;
+            });
+        }
+        assertThat(referenceDataService.get().getRegion(region.getId())).isEmpty();
+    }
+}
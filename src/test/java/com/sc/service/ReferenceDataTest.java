@@ -0,0 +1,103 @@
+package com.sc.service;
+
+import com.sc.service.dto.CountryDTO;
+import com.sc.service.dto.DepartmentDTO;
+import com.sc.service.dto.LocationDTO;
+import com.sc.service.dto.RegionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ReferenceData}.
+ */
+public class ReferenceDataTest {
+
+    private ReferenceData referenceData;
+
+    @BeforeEach
+    public void setup() {
+        referenceData = new ReferenceData(
+            Arrays.asList(region(2L, "Europe"), region(1L, "Americas")),
+            Arrays.asList(country(11L, "France", 2L), country(10L, "Canada", 1L), country(12L, "Germany", 2L)),
+            Arrays.asList(location(20L, "Paris", 11L), location(21L, "Lyon", 11L), location(22L, "Paris", null)),
+            Arrays.asList(department(30L, "Sales", 20L), department(31L, "Sales", 21L)));
+    }
+
+    @Test
+    public void testOrderedById() {
+        assertThat(referenceData.getRegions()).extracting(RegionDTO::getId).containsExactly(1L, 2L);
+        assertThat(referenceData.getCountries()).extracting(CountryDTO::getId).containsExactly(10L, 11L, 12L);
+        assertThatThrownBy(() -> referenceData.getRegions().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testById() {
+        assertThat(referenceData.getCountry(11L)).map(CountryDTO::getCountryName).contains("France");
+        assertThat(referenceData.getDepartment(31L)).map(DepartmentDTO::getLocationId).contains(21L);
+        assertThat(referenceData.getLocation(99L)).isEmpty();
+        assertThat(referenceData.getRegion(null)).isEmpty();
+    }
+
+    @Test
+    public void testByParent() {
+        assertThat(referenceData.getCountriesOfRegion(2L)).extracting(CountryDTO::getId).containsExactly(11L, 12L);
+        assertThat(referenceData.getLocationsOfCountry(11L)).extracting(LocationDTO::getId).containsExactly(20L, 21L);
+        assertThat(referenceData.getLocationsOfCountry(12L)).isEmpty();
+        assertThat(referenceData.getDepartmentsOfLocation(20L)).extracting(DepartmentDTO::getId).containsExactly(30L);
+        assertThat(referenceData.getRegionOfDepartment(31L)).map(RegionDTO::getRegionName).contains("Europe");
+    }
+
+    @Test
+    public void testByName() {
+        assertThat(referenceData.getRegionsByName("Europe")).extracting(RegionDTO::getId).containsExactly(2L);
+        assertThat(referenceData.getLocationsByCity("Paris")).extracting(LocationDTO::getId).containsExactly(20L, 22L);
+        assertThat(referenceData.getDepartmentsByName("Sales")).hasSize(2);
+        assertThat(referenceData.getCountriesByName("Spain")).isEmpty();
+    }
+
+    @Test
+    public void testEmpty() {
+        ReferenceData empty = new ReferenceData(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList());
+
+        assertThat(empty.getDepartments()).isEmpty();
+        assertThat(empty.getRegionOfDepartment(1L)).isEmpty();
+    }
+
+    private static RegionDTO region(Long id, String name) {
+        RegionDTO region = new RegionDTO();
+        region.setId(id);
+        region.setRegionName(name);
+        return region;
+    }
+
+    private static CountryDTO country(Long id, String name, Long regionId) {
+        CountryDTO country = new CountryDTO();
+        country.setId(id);
+        country.setCountryName(name);
+        country.setRegionId(regionId);
+        return country;
+    }
+
+    private static LocationDTO location(Long id, String city, Long countryId) {
+        LocationDTO location = new LocationDTO();
+        location.setId(id);
+        location.setCity(city);
+        location.setCountryId(countryId);
+        return location;
+    }
+
+    private static DepartmentDTO department(Long id, String name, Long locationId) {
+        DepartmentDTO department = new DepartmentDTO();
+        department.setId(id);
+        department.setDepartmentName(name);
+        department.setLocationId(locationId);
+        return department;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sc.service;
+
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.SearchOutboxLock;
+import com.sc.repository.*;
+import com.sc.repository.search.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link SearchIndexDispatcher}.
+ */
+public class SearchIndexDispatcherTest {
+
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    private SearchOutboxLockRepository searchOutboxLockRepository;
+
+    private List<Runnable> tasks;
+
+    private SearchIndexDispatcher searchIndexDispatcher;
+
+    @BeforeEach
+    public void setup() {
+        searchOutboxEventRepository = mock(SearchOutboxEventRepository.class);
+        searchOutboxLockRepository = mock(SearchOutboxLockRepository.class);
+        when(searchOutboxLockRepository.tryLock(anyString())).thenReturn(Optional.of(new SearchOutboxLock()));
+        when(searchOutboxEventRepository.findReady(any(Instant.class), any(Pageable.class))).thenReturn(Collections.emptyList());
+        tasks = new ArrayList<>();
+        searchIndexDispatcher = new SearchIndexDispatcher(searchOutboxEventRepository, searchOutboxLockRepository,
+            mock(PlatformTransactionManager.class), tasks::add, new ApplicationProperties(), new SimpleMeterRegistry(),
+            mock(RegionRepository.class), mock(RegionSearchRepository.class),
+            mock(CountryRepository.class), mock(CountrySearchRepository.class),
+            mock(LocationRepository.class), mock(LocationSearchRepository.class),
+            mock(DepartmentRepository.class), mock(DepartmentSearchRepository.class),
+            mock(TaskRepository.class), mock(TaskSearchRepository.class),
+            mock(EmployeeRepository.class), mock(EmployeeSearchRepository.class),
+            mock(JobRepository.class), mock(JobSearchRepository.class),
+            mock(JobHistoryRepository.class), mock(JobHistorySearchRepository.class));
+    }
+
+    @Test
+    public void testSkipsWhenAnotherMemberDrains() {
+        when(searchOutboxLockRepository.tryLock(anyString())).thenReturn(Optional.empty());
+
+        assertThat(searchIndexDispatcher.flush()).isZero();
+
+        verify(searchOutboxEventRepository, never()).findReady(any(Instant.class), any(Pageable.class));
+    }
+
+    @Test
+    public void testSignalDuringDrainQueuesAnotherDrain() {
+        when(searchOutboxEventRepository.findReady(any(Instant.class), any(Pageable.class))).thenAnswer(invocation -> {
+            // A commit signal arriving from another thread while the drain holds the lock
+            Thread signal = new Thread(searchIndexDispatcher::dispatchPending);
+            signal.start();
+            signal.join();
+            return Collections.emptyList();
+        });
+
+        searchIndexDispatcher.dispatchPending();
+
+        assertThat(tasks).hasSize(1);
+        when(searchOutboxEventRepository.findReady(any(Instant.class), any(Pageable.class))).thenReturn(Collections.emptyList());
+        tasks.get(0).run();
+        assertThat(tasks).hasSize(1);
+        verify(searchOutboxEventRepository, times(2)).findReady(any(Instant.class), any(Pageable.class));
+    }
+}
@@ -0,0 +1,132 @@
+package com.sc.service;
+
+import com.sc.config.ApplicationProperties;
+import com.sc.config.WarmUpHealthIndicator;
+import com.sc.domain.Employee;
+import com.sc.security.jwt.TokenProvider;
+import com.sc.service.dto.RegionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link WarmUpService} and {@link WarmUpHealthIndicator}.
+ */
+public class WarmUpServiceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private RegionService regionService;
+
+    private EmployeeService employeeService;
+
+    private ReadRankingService readRankingService;
+
+    private List<Runnable> tasks;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getWarmUp().setEmployees(2);
+        regionService = mock(RegionService.class);
+        RegionDTO region = new RegionDTO();
+        region.setId(1L);
+        when(regionService.findAll()).thenReturn(Collections.singletonList(region));
+        when(regionService.findOne(anyLong())).thenReturn(Optional.empty());
+        employeeService = mock(EmployeeService.class);
+        when(employeeService.findOne(anyLong())).thenReturn(Optional.empty());
+        readRankingService = mock(ReadRankingService.class);
+        when(readRankingService.findMostRead(Employee.class, 2)).thenReturn(Arrays.asList(5L, 7L));
+        tasks = new ArrayList<>();
+    }
+
+    @Test
+    public void testOutOfServiceUntilWarmedUp() {
+        WarmUpService warmUpService = createWarmUpService();
+        WarmUpHealthIndicator healthIndicator = new WarmUpHealthIndicator(warmUpService);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        warmUpService.onApplicationReady(applicationReadyEvent());
+        assertThat(tasks).hasSize(1);
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        tasks.get(0).run();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        verify(regionService).findOne(1L);
+        // The reads of the warm-up are not counted in the ranking
+        InOrder inOrder = inOrder(readRankingService, employeeService);
+        inOrder.verify(readRankingService).setPaused(true);
+        inOrder.verify(employeeService).findOne(5L);
+        inOrder.verify(employeeService).findOne(7L);
+        inOrder.verify(readRankingService).setPaused(false);
+    }
+
+    @Test
+    public void testUpOnTimeout() {
+        applicationProperties.getWarmUp().setTimeoutSeconds(0);
+        WarmUpService warmUpService = createWarmUpService();
+        WarmUpHealthIndicator healthIndicator = new WarmUpHealthIndicator(warmUpService);
+
+        warmUpService.onApplicationReady(applicationReadyEvent());
+
+        // The warm-up has not even started, but its time is up
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        tasks.get(0).run();
+        verify(regionService, never()).findOne(anyLong());
+        verify(employeeService, never()).findOne(anyLong());
+    }
+
+    @Test
+    public void testUpWhenWarmUpFails() {
+        when(regionService.findAll()).thenThrow(new IllegalStateException("database down"));
+        WarmUpService warmUpService = createWarmUpService();
+        WarmUpHealthIndicator healthIndicator = new WarmUpHealthIndicator(warmUpService);
+
+        warmUpService.onApplicationReady(applicationReadyEvent());
+        tasks.get(0).run();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        verify(employeeService, never()).findOne(anyLong());
+        verify(readRankingService).setPaused(false);
+    }
+
+    @Test
+    public void testUpWhenDisabled() {
+        applicationProperties.getWarmUp().setEnabled(false);
+        WarmUpService warmUpService = createWarmUpService();
+
+        warmUpService.onApplicationReady(applicationReadyEvent());
+
+        assertThat(new WarmUpHealthIndicator(warmUpService).health().getStatus()).isEqualTo(Status.UP);
+        assertThat(tasks).isEmpty();
+    }
+
+    private WarmUpService createWarmUpService() {
+        return new WarmUpService(applicationProperties, regionService, mock(CountryService.class), mock(LocationService.class),
+            mock(DepartmentService.class), employeeService, readRankingService, mock(TokenProvider.class),
+            new RestTemplateBuilder(), tasks::add);
+    }
+
+    private static ApplicationReadyEvent applicationReadyEvent() {
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        when(context.getEnvironment()).thenReturn(new MockEnvironment());
+        return new ApplicationReadyEvent(new SpringApplication(), new String[0], context);
+    }
+}
@@ -0,0 +1,150 @@
+package com.sc.web.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sc.JhipsterSampleApplicationApp;
+import com.sc.domain.Department;
+import com.sc.domain.Employee;
+import com.sc.repository.ChangeLogEntryRepository;
+import com.sc.repository.DepartmentRepository;
+import com.sc.repository.EmployeeRepository;
+import com.sc.repository.RegionRepository;
+import com.sc.repository.SearchOutboxEventRepository;
+import com.sc.service.BatchService;
+import com.sc.service.DtoCacheService;
+import com.sc.service.EmployeeService;
+import com.sc.service.dto.EmployeeDTO;
+import com.sc.web.rest.errors.ErrorConstants;
+import com.sc.web.rest.errors.ExceptionTranslator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.persistence.EntityManager;
+
+import static com.sc.web.rest.TestUtil.createFormattingConversionService;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link BatchResource} REST controller.
+ * <p>
+ * Not transactional: the batch runs in its own transaction, whose rollback is what is tested.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class BatchResourceIT {
+
+    @Autowired
+    private BatchService batchService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private SearchOutboxEventRepository searchOutboxEventRepository;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogEntryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    @Autowired
+    private EntityManager em;
+
+    private MockMvc restBatchMockMvc;
+
+    @BeforeEach
+    public void setup() {
+        BatchResource batchResource = new BatchResource(batchService);
+        this.restBatchMockMvc = MockMvcBuilders.standaloneSetup(batchResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setConversionService(createFormattingConversionService())
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Test
+    public void batchWhoseLastOperationFailsIsRolledBack() throws Exception {
+        Department department = departmentRepository.saveAndFlush(new Department().departmentName("BATCHED"));
+        Employee employee = employeeRepository.saveAndFlush(EmployeeResourceIT.createEntity(em).department(department));
+        try {
+            // Cached before the batch, which must leave the cached DTO as it is
+            EmployeeDTO cached = employeeService.findOne(employee.getId()).get();
+            long employees = employeeRepository.count();
+            long regions = regionRepository.count();
+            long outboxEvents = searchOutboxEventRepository.count();
+            long changeLogEntries = changeLogEntryRepository.count();
+
+            ObjectMapper objectMapper = jacksonMessageConverter.getObjectMapper();
+            ArrayNode operations = objectMapper.createArrayNode();
+            operations.add(operation("create", "employees").set("body", objectMapper.createObjectNode().put("firstName", "BATCHED")));
+            operations.add(operation("create", "employees").set("body", objectMapper.createObjectNode().put("firstName", "BATCHED")));
+            ObjectNode updated = objectMapper.valueToTree(cached);
+            updated.put("firstName", "UPDATED");
+            operations.add(operation("update", "employees").set("body", updated));
+            operations.add(operation("create", "regions").set("body", objectMapper.createObjectNode().put("regionName", "BATCHED")));
+            // Fails on the foreign key of the employee
+            operations.add(operation("delete", "departments").put("id", department.getId()));
+
+            restBatchMockMvc.perform(post("/api/_batch")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(operations)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(jsonPath("$[0].status").value(424))
+                .andExpect(jsonPath("$[3].status").value(424))
+                .andExpect(jsonPath("$[4].status").value(409))
+                .andExpect(jsonPath("$[4].error").value(ErrorConstants.ERR_DATA_INTEGRITY))
+                .andExpect(content().string(not(containsString("constraint"))));
+
+            assertThat(employeeRepository.count()).isEqualTo(employees);
+            assertThat(regionRepository.count()).isEqualTo(regions);
+            assertThat(searchOutboxEventRepository.count()).isEqualTo(outboxEvents);
+            assertThat(changeLogEntryRepository.count()).isEqualTo(changeLogEntries);
+            assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo(employee.getFirstName());
+            assertThat(departmentRepository.existsById(department.getId())).isTrue();
+            Cache dtoCache = cacheManager.getCache(DtoCacheService.CACHE_NAME_PREFIX + "EmployeeDTO");
+            Cache.ValueWrapper cachedAfter = dtoCache.get(employee.getId());
+            if (cachedAfter != null) {
+                assertThat(((EmployeeDTO) cachedAfter.get()).getFirstName()).isEqualTo(employee.getFirstName());
+            }
+            assertThat(employeeService.findOne(employee.getId()).get().getFirstName()).isEqualTo(employee.getFirstName());
+        } finally {
+            employeeRepository.delete(employee);
+            departmentRepository.delete(department);
+        }
+    }
+
+    private ObjectNode operation(String method, String entity) {
+        return jacksonMessageConverter.getObjectMapper().createObjectNode()
+            .put("method", method.toUpperCase())
+            .put("entity", entity);
+    }
+}
@@ -0,0 +1,183 @@
+package com.sc.web.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sc.JhipsterSampleApplicationApp;
+import com.sc.config.ApplicationProperties;
+import com.sc.domain.ChangeLogSequence;
+import com.sc.repository.ChangeLogSequenceRepository;
+import com.sc.service.ChangeFeedService;
+import com.sc.service.DepartmentService;
+import com.sc.service.dto.DepartmentDTO;
+import com.sc.web.rest.errors.ExceptionTranslator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sc.web.rest.TestUtil.createFormattingConversionService;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link ChangeFeedResource} REST controller.
+ * <p>
+ * Not transactional: the change log is only written when the transaction of the change commits.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class ChangeFeedResourceIT {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private ChangeLogSequenceRepository changeLogSequenceRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc restChangeFeedMockMvc;
+
+    private final List<Long> departmentIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        ChangeFeedResource changeFeedResource = new ChangeFeedResource(changeFeedService, applicationProperties);
+        this.restChangeFeedMockMvc = MockMvcBuilders.standaloneSetup(changeFeedResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setConversionService(createFormattingConversionService())
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        departmentIds.forEach(departmentService::delete);
+    }
+
+    @Test
+    public void getChangesSinceToken() throws Exception {
+        long token = getHead();
+        DepartmentDTO department = saveDepartment(null, "AAAAAAAAAA");
+        DepartmentDTO other = saveDepartment(null, "BBBBBBBBBB");
+        department = saveDepartment(department, "CCCCCCCCCC");
+        departmentService.delete(other.getId());
+        departmentIds.remove(other.getId());
+
+        JsonNode changes = getChanges("/api/departments/_changes?since=" + token);
+
+        // Only the latest change of each department, in commit order
+        assertThat(changes.get("changes")).hasSize(2);
+        assertThat(changes.get("changes").get(0).get("id").asLong()).isEqualTo(department.getId());
+        assertThat(changes.get("changes").get(0).get("operation").asText()).isEqualTo("UPSERT");
+        assertThat(changes.get("changes").get(0).get("data").get("departmentName").asText()).isEqualTo("CCCCCCCCCC");
+        assertThat(changes.get("changes").get(1).get("id").asLong()).isEqualTo(other.getId());
+        assertThat(changes.get("changes").get(1).get("operation").asText()).isEqualTo("DELETE");
+        assertThat(changes.get("changes").get(1).has("data")).isFalse();
+        assertThat(changes.get("token").asLong()).isEqualTo(token + 4);
+
+        JsonNode none = getChanges("/api/departments/_changes?since=" + changes.get("token").asLong());
+        assertThat(none.get("changes")).isEmpty();
+        assertThat(none.get("token").asLong()).isEqualTo(token + 4);
+    }
+
+    @Test
+    public void getChangesByPage() throws Exception {
+        long token = getHead();
+        saveDepartment(null, "AAAAAAAAAA");
+        saveDepartment(null, "BBBBBBBBBB");
+
+        JsonNode first = getChanges("/api/departments/_changes?size=1&since=" + token);
+        assertThat(first.get("changes")).hasSize(1);
+        assertThat(first.get("hasMore").asBoolean()).isTrue();
+
+        JsonNode second = getChanges("/api/departments/_changes?size=1&since=" + first.get("token").asLong());
+        assertThat(second.get("changes")).hasSize(1);
+        assertThat(second.get("hasMore").asBoolean()).isFalse();
+        assertThat(second.get("changes").get(0).get("data").get("departmentName").asText()).isEqualTo("BBBBBBBBBB");
+    }
+
+    @Test
+    public void longPollIsWokenUpByCommit() throws Exception {
+        long token = getHead();
+
+        MvcResult waiting = restChangeFeedMockMvc.perform(get("/api/departments/_changes?wait=10&since=" + token))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        saveDepartment(null, "AAAAAAAAAA");
+        waiting.getAsyncResult(10000);
+
+        String body = restChangeFeedMockMvc.perform(asyncDispatch(waiting))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(body).get("changes")).hasSize(1);
+    }
+
+    @Test
+    public void getChangesWithCompactedToken() throws Exception {
+        ChangeLogSequence sequence = changeLogSequenceRepository.findById("Department").get();
+        long compactedSequence = sequence.getCompactedSequence();
+        sequence.setCompactedSequence(sequence.getLastSequence() + 1);
+        changeLogSequenceRepository.save(sequence);
+        try {
+            restChangeFeedMockMvc.perform(get("/api/departments/_changes?since=" + sequence.getLastSequence()))
+                .andExpect(status().isGone());
+        } finally {
+            sequence = changeLogSequenceRepository.findById("Department").get();
+            sequence.setCompactedSequence(compactedSequence);
+            changeLogSequenceRepository.save(sequence);
+        }
+    }
+
+    @Test
+    public void getChangesWithInvalidSize() throws Exception {
+        restChangeFeedMockMvc.perform(get("/api/departments/_changes?since=0&size=0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private long getHead() throws Exception {
+        return getChanges("/api/departments/_changes").get("token").asLong();
+    }
+
+    private JsonNode getChanges(String url) throws Exception {
+        MvcResult result = restChangeFeedMockMvc.perform(get(url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = restChangeFeedMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private DepartmentDTO saveDepartment(DepartmentDTO department, String departmentName) {
+        DepartmentDTO departmentDTO = department == null ? new DepartmentDTO() : department;
+        departmentDTO.setDepartmentName(departmentName);
+        DepartmentDTO result = departmentService.save(departmentDTO);
+        if (department == null) {
+            departmentIds.add(result.getId());
+        }
+        return result;
+    }
+}
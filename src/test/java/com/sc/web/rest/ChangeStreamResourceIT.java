@@ -0,0 +1,119 @@
+package com.sc.web.rest;
+
+import com.sc.JhipsterSampleApplicationApp;
+import com.sc.service.ChangeStreamService;
+import com.sc.service.EmployeeService;
+import com.sc.service.SearchIndexDispatcher;
+import com.sc.service.dto.EmployeeDTO;
+import com.sc.web.rest.errors.ExceptionTranslator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static com.sc.web.rest.TestUtil.createFormattingConversionService;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link ChangeStreamResource} REST controller.
+ * <p>
+ * Not transactional: the changes are only pushed when the transaction of the change commits.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class ChangeStreamResourceIT {
+
+    private static final long EVENT_TIMEOUT_MS = 10000;
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc restChangeStreamMockMvc;
+
+    @BeforeEach
+    public void setup() {
+        ChangeStreamResource changeStreamResource = new ChangeStreamResource(changeStreamService);
+        this.restChangeStreamMockMvc = MockMvcBuilders.standaloneSetup(changeStreamResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setConversionService(createFormattingConversionService())
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Test
+    public void streamEmployeeChanges() throws Exception {
+        MvcResult streaming = restChangeStreamMockMvc.perform(get("/api/_stream/employees").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andExpect(status().isOk())
+            .andReturn();
+        Long employeeId = null;
+        try {
+            EmployeeDTO employeeDTO = new EmployeeDTO();
+            employeeDTO.setFirstName("STREAMED");
+            employeeDTO.setLastName("STREAMED");
+            employeeId = employeeService.save(employeeDTO).getId();
+
+            String upsert = awaitEvent(streaming.getResponse(), "\"operation\":\"UPSERT\"");
+            assertThat(streaming.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+            assertThat(upsert).contains("event:change");
+            assertThat(upsert).contains("\"id\":" + employeeId);
+            assertThat(upsert).contains("\"firstName\":\"STREAMED\"");
+
+            employeeService.delete(employeeId);
+            employeeId = null;
+
+            String delete = awaitEvent(streaming.getResponse(), "\"operation\":\"DELETE\"");
+            assertThat(delete).contains("event:change");
+        } finally {
+            if (employeeId != null) {
+                employeeService.delete(employeeId);
+            }
+            searchIndexDispatcher.flush();
+            // Disconnects the client
+            streaming.getRequest().getAsyncContext().complete();
+        }
+    }
+
+    @Test
+    public void streamChangesOfUnknownEntity() throws Exception {
+        restChangeStreamMockMvc.perform(get("/api/_stream/regions").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Wait for an event containing a text to be written to the response.
+     *
+     * @return the event, as written.
+     */
+    private static String awaitEvent(MockHttpServletResponse response, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            for (String event : response.getContentAsString().split("\n\n")) {
+                if (event.contains(text)) {
+                    return event;
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No event containing " + text + " in " + response.getContentAsString());
+    }
+}
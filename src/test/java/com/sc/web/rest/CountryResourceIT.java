@@ -4,6 +4,7 @@ import com.sc.JhipsterSampleApplicationApp;
 import com.sc.domain.Country;
 import com.sc.repository.CountryRepository;
 import com.sc.repository.search.CountrySearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.CountryService;
 import com.sc.service.dto.CountryDTO;
 import com.sc.service.mapper.CountryMapper;
@@ -60,6 +61,9 @@ public class CountryResourceIT {
     @Autowired
     private CountrySearchRepository mockCountrySearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -138,7 +142,8 @@ public class CountryResourceIT {
         assertThat(testCountry.getCountryName()).isEqualTo(DEFAULT_COUNTRY_NAME);
 
         // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(1)).save(testCountry);
+        searchIndexDispatcher.flush();
+        verify(mockCountrySearchRepository, times(1)).saveAll(Collections.singletonList(testCountry));
     }
 
     @Test
@@ -161,7 +166,8 @@ public class CountryResourceIT {
         assertThat(countryList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(0)).save(country);
+        searchIndexDispatcher.flush();
+        verify(mockCountrySearchRepository, times(0)).saveAll(any());
     }
 
 
@@ -229,7 +235,8 @@ public class CountryResourceIT {
         assertThat(testCountry.getCountryName()).isEqualTo(UPDATED_COUNTRY_NAME);
 
         // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(1)).save(testCountry);
+        searchIndexDispatcher.flush();
+        verify(mockCountrySearchRepository, times(1)).saveAll(Collections.singletonList(testCountry));
     }
 
     @Test
@@ -251,7 +258,8 @@ public class CountryResourceIT {
         assertThat(countryList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Country in Elasticsearch
-        verify(mockCountrySearchRepository, times(0)).save(country);
+        searchIndexDispatcher.flush();
+        verify(mockCountrySearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -272,6 +280,7 @@ public class CountryResourceIT {
         assertThat(countryList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Country in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockCountrySearchRepository, times(1)).deleteById(country.getId());
     }
 
@@ -4,6 +4,7 @@ import com.sc.JhipsterSampleApplicationApp;
 import com.sc.domain.Department;
 import com.sc.repository.DepartmentRepository;
 import com.sc.repository.search.DepartmentSearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.DepartmentService;
 import com.sc.service.dto.DepartmentDTO;
 import com.sc.service.mapper.DepartmentMapper;
@@ -60,6 +61,9 @@ public class DepartmentResourceIT {
     @Autowired
     private DepartmentSearchRepository mockDepartmentSearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -138,7 +142,8 @@ public class DepartmentResourceIT {
         assertThat(testDepartment.getDepartmentName()).isEqualTo(DEFAULT_DEPARTMENT_NAME);
 
         // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(1)).save(testDepartment);
+        searchIndexDispatcher.flush();
+        verify(mockDepartmentSearchRepository, times(1)).saveAll(Collections.singletonList(testDepartment));
     }
 
     @Test
@@ -161,7 +166,8 @@ public class DepartmentResourceIT {
         assertThat(departmentList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(0)).save(department);
+        searchIndexDispatcher.flush();
+        verify(mockDepartmentSearchRepository, times(0)).saveAll(any());
     }
 
 
@@ -248,7 +254,8 @@ public class DepartmentResourceIT {
         assertThat(testDepartment.getDepartmentName()).isEqualTo(UPDATED_DEPARTMENT_NAME);
 
         // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(1)).save(testDepartment);
+        searchIndexDispatcher.flush();
+        verify(mockDepartmentSearchRepository, times(1)).saveAll(Collections.singletonList(testDepartment));
     }
 
     @Test
@@ -270,7 +277,8 @@ public class DepartmentResourceIT {
         assertThat(departmentList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Department in Elasticsearch
-        verify(mockDepartmentSearchRepository, times(0)).save(department);
+        searchIndexDispatcher.flush();
+        verify(mockDepartmentSearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -291,6 +299,7 @@ public class DepartmentResourceIT {
         assertThat(departmentList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Department in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockDepartmentSearchRepository, times(1)).deleteById(department.getId());
     }
 
@@ -6,10 +6,13 @@ import com.sc.domain.Job;
 import com.sc.domain.Employee;
 import com.sc.domain.Department;
 import com.sc.repository.EmployeeRepository;
+import com.sc.repository.StreamingQueryRepository;
 import com.sc.repository.search.EmployeeSearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.EmployeeService;
 import com.sc.service.dto.EmployeeDTO;
 import com.sc.service.mapper.EmployeeMapper;
+import com.sc.web.rest.errors.ErrorConstants;
 import com.sc.web.rest.errors.ExceptionTranslator;
 import com.sc.service.dto.EmployeeCriteria;
 import com.sc.service.EmployeeQueryService;
@@ -22,9 +25,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.Validator;
@@ -32,12 +37,15 @@ import org.springframework.validation.Validator;
 import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static com.sc.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -54,6 +62,7 @@ public class EmployeeResourceIT {
 
     private static final String DEFAULT_LAST_NAME = "AAAAAAAAAA";
     private static final String UPDATED_LAST_NAME = "BBBBBBBBBB";
+    private static final String EXPORT_LAST_NAME = "EXPORTED";
 
     private static final String DEFAULT_EMAIL = "AAAAAAAAAA";
     private static final String UPDATED_EMAIL = "BBBBBBBBBB";
@@ -89,6 +98,9 @@ public class EmployeeResourceIT {
     @Autowired
     private EmployeeSearchRepository mockEmployeeSearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private EmployeeQueryService employeeQueryService;
 
@@ -107,6 +119,9 @@ public class EmployeeResourceIT {
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private javax.validation.Validator beanValidator;
+
     private MockMvc restEmployeeMockMvc;
 
     private Employee employee;
@@ -114,7 +129,8 @@ public class EmployeeResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final EmployeeResource employeeResource = new EmployeeResource(employeeService, employeeQueryService);
+        final EmployeeResource employeeResource = new EmployeeResource(employeeService, employeeQueryService,
+            jacksonMessageConverter.getObjectMapper(), beanValidator);
         this.restEmployeeMockMvc = MockMvcBuilders.standaloneSetup(employeeResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -188,7 +204,8 @@ public class EmployeeResourceIT {
         assertThat(testEmployee.getCommissionPct()).isEqualTo(DEFAULT_COMMISSION_PCT);
 
         // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(1)).save(testEmployee);
+        searchIndexDispatcher.flush();
+        verify(mockEmployeeSearchRepository, times(1)).saveAll(Collections.singletonList(testEmployee));
     }
 
     @Test
@@ -211,7 +228,197 @@ public class EmployeeResourceIT {
         assertThat(employeeList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(0)).save(employee);
+        searchIndexDispatcher.flush();
+        verify(mockEmployeeSearchRepository, times(0)).saveAll(any());
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveEmployees() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        int databaseSizeBeforeCreate = employeeRepository.findAll().size();
+
+        // One update and one creation
+        EmployeeDTO updatedEmployeeDTO = employeeMapper.toDto(employee);
+        updatedEmployeeDTO.setFirstName(UPDATED_FIRST_NAME);
+        EmployeeDTO newEmployeeDTO = employeeMapper.toDto(createEntity(em));
+
+        restEmployeeMockMvc.perform(post("/api/employees/_bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedEmployeeDTO, newEmployeeDTO))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(employee.getId().intValue()))
+            .andExpect(jsonPath("$.[0].status").value(200))
+            .andExpect(jsonPath("$.[1].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value(201));
+
+        // Validate the Employees in the database
+        List<Employee> employeeList = employeeRepository.findAll();
+        assertThat(employeeList).hasSize(databaseSizeBeforeCreate + 1);
+        assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo(UPDATED_FIRST_NAME);
+
+        // Validate the Employees in Elasticsearch, indexed in one bulk request
+        searchIndexDispatcher.flush();
+        verify(mockEmployeeSearchRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveEmployeesWithMalformedItems() throws Exception {
+        int databaseSizeBeforeCreate = employeeRepository.findAll().size();
+        String employeeJson = new String(TestUtil.convertObjectToJsonBytes(employeeMapper.toDto(createEntity(em))), "UTF-8");
+
+        // Items which are not objects are rejected, and the items after them are still saved
+        restEmployeeMockMvc.perform(post("/api/employees/_bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content("[" + employeeJson + ", null, 5, [1, 2], " + employeeJson + "]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3, 4)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 400, 400, 400, 201)))
+            .andExpect(jsonPath("$.[1].error").value(ErrorConstants.ERR_VALIDATION));
+
+        assertThat(employeeRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveEmployeesWithUnclosedArray() throws Exception {
+        String employeeJson = new String(TestUtil.convertObjectToJsonBytes(employeeMapper.toDto(createEntity(em))), "UTF-8");
+
+        restEmployeeMockMvc.perform(post("/api/employees/_bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content("[" + employeeJson + ", {"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveEmployeesWithMalformedEndSavesNothing() throws Exception {
+        int databaseSizeBeforeCreate = employeeRepository.findAll().size();
+        String employeeJson = new String(TestUtil.convertObjectToJsonBytes(employeeMapper.toDto(createEntity(em))), "UTF-8");
+
+        // More than one chunk of valid items, then a body which is not JSON
+        StringBuilder content = new StringBuilder("[");
+        for (int i = 0; i <= EmployeeResource.BULK_CHUNK_SIZE; i++) {
+            content.append(employeeJson).append(", ");
+        }
+        content.append("}");
+
+        restEmployeeMockMvc.perform(post("/api/employees/_bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(content.toString()))
+            .andExpect(status().isBadRequest());
+
+        assertThat(employeeRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    public void bulkSaveEmployeesWithInvalidItem() throws Exception {
+        int databaseSizeBeforeCreate = employeeRepository.findAll().size();
+        String employeeJson = new String(TestUtil.convertObjectToJsonBytes(employeeMapper.toDto(createEntity(em))), "UTF-8");
+
+        // The salary of the second item is not a number: it is rejected with an error key, without its message
+        restEmployeeMockMvc.perform(post("/api/employees/_bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content("[" + employeeJson + ", {\"id\": 42, \"salary\": \"many\"}]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(201))
+            .andExpect(jsonPath("$.[1].id").value(42))
+            .andExpect(jsonPath("$.[1].status").value(400))
+            .andExpect(jsonPath("$.[1].error").value(ErrorConstants.ERR_VALIDATION));
+
+        assertThat(employeeRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    /**
+     * Not transactional: the items of a failed chunk are retried in their own transactions.
+     */
+    @Test
+    public void bulkSaveEmployeesFallsBackToItems() throws Exception {
+        Employee existing = employeeRepository.saveAndFlush(createEntity(em));
+        List<Long> createdIds = new ArrayList<>();
+        try {
+            // The update has a stale version, so the chunk fails and its items are saved one by one
+            EmployeeDTO staleEmployeeDTO = employeeMapper.toDto(existing);
+            staleEmployeeDTO.setVersion(existing.getVersion() + 1);
+            staleEmployeeDTO.setFirstName(UPDATED_FIRST_NAME);
+            EmployeeDTO newEmployeeDTO = employeeMapper.toDto(createEntity(em));
+
+            String body = restEmployeeMockMvc.perform(post("/api/employees/_bulk")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(newEmployeeDTO, staleEmployeeDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].status").value(201))
+                .andExpect(jsonPath("$.[1].id").value(existing.getId().intValue()))
+                .andExpect(jsonPath("$.[1].status").value(409))
+                .andExpect(jsonPath("$.[1].error").value(ErrorConstants.ERR_CONCURRENCY_FAILURE))
+                .andReturn().getResponse().getContentAsString();
+            createdIds.add(jacksonMessageConverter.getObjectMapper().readTree(body).get(0).get("id").asLong());
+
+            assertThat(employeeRepository.findById(createdIds.get(0))).isPresent();
+            assertThat(employeeRepository.findById(existing.getId()).get().getFirstName()).isEqualTo(DEFAULT_FIRST_NAME);
+        } finally {
+            createdIds.forEach(employeeRepository::deleteById);
+            employeeRepository.deleteById(existing.getId());
+            searchIndexDispatcher.flush();
+        }
+    }
+
+
+    /**
+     * Not transactional: the export reads in its own transaction, after more than one fetch of rows.
+     */
+    @Test
+    public void exportEmployees() throws Exception {
+        int count = StreamingQueryRepository.FETCH_SIZE + 1;
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(createEntity(em).lastName(EXPORT_LAST_NAME));
+        }
+        employees = employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+        try {
+            MvcResult ndjsonResult = restEmployeeMockMvc.perform(get("/api/employees/_export?lastName.equals=" + EXPORT_LAST_NAME))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String ndjson = restEmployeeMockMvc.perform(asyncDispatch(ndjsonResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+            // Every record is terminated, the last one too
+            assertThat(ndjson).endsWith("\n");
+            String[] records = ndjson.split("\n");
+            assertThat(records).hasSize(count);
+            EmployeeDTO first = jacksonMessageConverter.getObjectMapper().readValue(records[0], EmployeeDTO.class);
+            assertThat(first.getId()).isEqualTo(employees.get(0).getId());
+            assertThat(first.getLastName()).isEqualTo(EXPORT_LAST_NAME);
+
+            MvcResult csvResult = restEmployeeMockMvc.perform(get("/api/employees/_export?format=csv&lastName.equals=" + EXPORT_LAST_NAME))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String csv = restEmployeeMockMvc.perform(asyncDispatch(csvResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.csv\""))
+                .andReturn().getResponse().getContentAsString();
+            String[] lines = csv.split("\n");
+            assertThat(lines).hasSize(count + 1);
+            assertThat(lines[0].split(",")).contains("id", "firstName", "lastName", "salary");
+            assertThat(lines[1]).contains(EXPORT_LAST_NAME);
+        } finally {
+            employeeRepository.deleteInBatch(employees);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void exportEmployeesWithUnknownFormat() throws Exception {
+        restEmployeeMockMvc.perform(get("/api/employees/_export?format=xml"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.exportformat"));
     }
 
 
@@ -235,6 +442,56 @@ public class EmployeeResourceIT {
             .andExpect(jsonPath("$.[*].commissionPct").value(hasItem(DEFAULT_COMMISSION_PCT.intValue())));
     }
     
+    @Test
+    @Transactional
+    public void getAllEmployeesWithFields() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+
+        // Get only the requested fields
+        restEmployeeMockMvc.perform(get("/api/employees?sort=id,desc&fields=id,firstName,departmentId"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(employee.getId().intValue()))
+            .andExpect(jsonPath("$.[0].firstName").value(DEFAULT_FIRST_NAME))
+            .andExpect(jsonPath("$.[0].departmentId").isEmpty())
+            .andExpect(jsonPath("$.[0].lastName").doesNotExist())
+            .andExpect(jsonPath("$.[0].version").doesNotExist());
+
+        // Unknown fields are rejected
+        restEmployeeMockMvc.perform(get("/api/employees?fields=id,password"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllEmployeesWithCursor() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        Employee otherEmployee = createEntity(em);
+        employeeRepository.saveAndFlush(otherEmployee);
+
+        // Get the first slice (same hire date, so ordered by id desc), which has a next cursor and no total count
+        MvcResult result = restEmployeeMockMvc.perform(get("/api/employees?after=&size=1&sort=hireDate,desc&id.greaterThanOrEqual=" + employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(otherEmployee.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn();
+
+        // Get the last slice, seeking after the cursor
+        restEmployeeMockMvc.perform(get("/api/employees?size=1&sort=hireDate,desc&id.greaterThanOrEqual=" + employee.getId())
+            .param("after", result.getResponse().getHeader("X-Next-Cursor")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(employee.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        // A cursor cannot be replayed with another sort
+        restEmployeeMockMvc.perform(get("/api/employees?size=1&sort=lastName,asc")
+            .param("after", result.getResponse().getHeader("X-Next-Cursor")))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getEmployee() throws Exception {
@@ -949,6 +1206,32 @@ public class EmployeeResourceIT {
     }
 
 
+    @Test
+    @Transactional
+    public void getEmployeesById() throws Exception {
+        // Initialize the database
+        employeeRepository.saveAndFlush(employee);
+        Employee otherEmployee = createEntity(em);
+        employeeRepository.saveAndFlush(otherEmployee);
+
+        // In the order of the ids, without duplicates nor missing ids
+        restEmployeeMockMvc.perform(get("/api/employees?ids={ids}",
+            otherEmployee.getId() + "," + Long.MAX_VALUE + "," + employee.getId() + "," + otherEmployee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(otherEmployee.getId().intValue(), employee.getId().intValue())))
+            .andExpect(jsonPath("$.[*].firstName").value(contains(DEFAULT_FIRST_NAME, DEFAULT_FIRST_NAME)));
+    }
+
+    @Test
+    @Transactional
+    public void getEmployeesByTooManyIds() throws Exception {
+        String ids = String.join(",", Collections.nCopies(1001, "1"));
+
+        restEmployeeMockMvc.perform(get("/api/employees?ids={ids}", ids))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getNonExistingEmployee() throws Exception {
@@ -997,7 +1280,8 @@ public class EmployeeResourceIT {
         assertThat(testEmployee.getCommissionPct()).isEqualTo(UPDATED_COMMISSION_PCT);
 
         // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(1)).save(testEmployee);
+        searchIndexDispatcher.flush();
+        verify(mockEmployeeSearchRepository, times(1)).saveAll(Collections.singletonList(testEmployee));
     }
 
     @Test
@@ -1019,7 +1303,8 @@ public class EmployeeResourceIT {
         assertThat(employeeList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Employee in Elasticsearch
-        verify(mockEmployeeSearchRepository, times(0)).save(employee);
+        searchIndexDispatcher.flush();
+        verify(mockEmployeeSearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -1040,6 +1325,7 @@ public class EmployeeResourceIT {
         assertThat(employeeList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Employee in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockEmployeeSearchRepository, times(1)).deleteById(employee.getId());
     }
 
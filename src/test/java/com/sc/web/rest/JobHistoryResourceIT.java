@@ -3,7 +3,9 @@ package com.sc.web.rest;
 import com.sc.JhipsterSampleApplicationApp;
 import com.sc.domain.JobHistory;
 import com.sc.repository.JobHistoryRepository;
+import com.sc.repository.StreamingQueryRepository;
 import com.sc.repository.search.JobHistorySearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.JobHistoryService;
 import com.sc.service.dto.JobHistoryDTO;
 import com.sc.service.mapper.JobHistoryMapper;
@@ -17,9 +19,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.Validator;
@@ -27,12 +31,15 @@ import org.springframework.validation.Validator;
 import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import static com.sc.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -71,6 +78,9 @@ public class JobHistoryResourceIT {
     @Autowired
     private JobHistorySearchRepository mockJobHistorySearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -93,7 +103,7 @@ public class JobHistoryResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final JobHistoryResource jobHistoryResource = new JobHistoryResource(jobHistoryService);
+        final JobHistoryResource jobHistoryResource = new JobHistoryResource(jobHistoryService, jacksonMessageConverter.getObjectMapper());
         this.restJobHistoryMockMvc = MockMvcBuilders.standaloneSetup(jobHistoryResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -155,7 +165,8 @@ public class JobHistoryResourceIT {
         assertThat(testJobHistory.getLanguage()).isEqualTo(DEFAULT_LANGUAGE);
 
         // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(1)).save(testJobHistory);
+        searchIndexDispatcher.flush();
+        verify(mockJobHistorySearchRepository, times(1)).saveAll(Collections.singletonList(testJobHistory));
     }
 
     @Test
@@ -178,7 +189,8 @@ public class JobHistoryResourceIT {
         assertThat(jobHistoryList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(0)).save(jobHistory);
+        searchIndexDispatcher.flush();
+        verify(mockJobHistorySearchRepository, times(0)).saveAll(any());
     }
 
 
@@ -197,6 +209,91 @@ public class JobHistoryResourceIT {
             .andExpect(jsonPath("$.[*].endDate").value(hasItem(DEFAULT_END_DATE.toString())))
             .andExpect(jsonPath("$.[*].language").value(hasItem(DEFAULT_LANGUAGE.toString())));
     }
+
+    /**
+     * Not transactional: the export reads in its own transaction, after more than one fetch of rows.
+     */
+    @Test
+    public void exportJobHistories() throws Exception {
+        List<JobHistory> jobHistories = new ArrayList<>();
+        for (int i = 0; i <= StreamingQueryRepository.FETCH_SIZE; i++) {
+            jobHistories.add(createEntity(em));
+        }
+        jobHistories = jobHistoryRepository.saveAll(jobHistories);
+        jobHistoryRepository.flush();
+        try {
+            long count = jobHistoryRepository.count();
+
+            MvcResult ndjsonResult = restJobHistoryMockMvc.perform(get("/api/job-histories/_export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String ndjson = restJobHistoryMockMvc.perform(asyncDispatch(ndjsonResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"job-histories.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+            // Every record is terminated, the last one too
+            assertThat(ndjson).endsWith("\n");
+            String[] records = ndjson.split("\n");
+            assertThat(records).hasSize((int) count);
+            JobHistoryDTO last = jacksonMessageConverter.getObjectMapper().readValue(records[records.length - 1], JobHistoryDTO.class);
+            assertThat(last.getId()).isEqualTo(jobHistories.get(jobHistories.size() - 1).getId());
+            assertThat(last.getLanguage()).isEqualTo(DEFAULT_LANGUAGE);
+
+            MvcResult csvResult = restJobHistoryMockMvc.perform(get("/api/job-histories/_export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String csv = restJobHistoryMockMvc.perform(asyncDispatch(csvResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"job-histories.csv\""))
+                .andReturn().getResponse().getContentAsString();
+            String[] lines = csv.split("\n");
+            assertThat(lines).hasSize((int) count + 1);
+            assertThat(lines[0].split(",")).contains("id", "startDate", "endDate", "language");
+        } finally {
+            jobHistoryRepository.deleteInBatch(jobHistories);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void exportJobHistoriesWithUnknownFormat() throws Exception {
+        restJobHistoryMockMvc.perform(get("/api/job-histories/_export?format=xml"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.exportformat"));
+    }
+
+    @Test
+    @Transactional
+    public void getAllJobHistoriesWithCursor() throws Exception {
+        // Initialize the database, after any other job history
+        Instant latest = Instant.parse("3000-01-01T00:00:00Z");
+        JobHistory first = jobHistoryRepository.saveAndFlush(createEntity(em).startDate(latest));
+        JobHistory second = jobHistoryRepository.saveAndFlush(createEntity(em).startDate(latest.minus(1, ChronoUnit.DAYS)));
+        JobHistory third = jobHistoryRepository.saveAndFlush(createEntity(em).startDate(latest.minus(2, ChronoUnit.DAYS)));
+
+        // Get the first slice, which has a next cursor and no total count
+        MvcResult result = restJobHistoryMockMvc.perform(get("/api/job-histories?after=&size=2&sort=startDate,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        String cursor = result.getResponse().getHeader("X-Next-Cursor");
+
+        // Get the next slice, seeking after the cursor
+        restJobHistoryMockMvc.perform(get("/api/job-histories?size=2&sort=startDate,desc").param("after", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()));
+
+        // A cursor cannot be replayed with another direction, and must be one
+        restJobHistoryMockMvc.perform(get("/api/job-histories?size=2&sort=startDate,asc").param("after", cursor))
+            .andExpect(status().isBadRequest());
+        restJobHistoryMockMvc.perform(get("/api/job-histories?size=2&sort=startDate,desc").param("after", "not a cursor"))
+            .andExpect(status().isBadRequest());
+    }
     
     @Test
     @Transactional
@@ -254,7 +351,8 @@ public class JobHistoryResourceIT {
         assertThat(testJobHistory.getLanguage()).isEqualTo(UPDATED_LANGUAGE);
 
         // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(1)).save(testJobHistory);
+        searchIndexDispatcher.flush();
+        verify(mockJobHistorySearchRepository, times(1)).saveAll(Collections.singletonList(testJobHistory));
     }
 
     @Test
@@ -276,7 +374,8 @@ public class JobHistoryResourceIT {
         assertThat(jobHistoryList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the JobHistory in Elasticsearch
-        verify(mockJobHistorySearchRepository, times(0)).save(jobHistory);
+        searchIndexDispatcher.flush();
+        verify(mockJobHistorySearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -297,6 +396,7 @@ public class JobHistoryResourceIT {
         assertThat(jobHistoryList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the JobHistory in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockJobHistorySearchRepository, times(1)).deleteById(jobHistory.getId());
     }
 
@@ -6,6 +6,7 @@ import com.sc.domain.Task;
 import com.sc.domain.Employee;
 import com.sc.repository.JobRepository;
 import com.sc.repository.search.JobSearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.JobService;
 import com.sc.service.dto.JobDTO;
 import com.sc.service.mapper.JobMapper;
@@ -82,6 +83,9 @@ public class JobResourceIT {
     @Autowired
     private JobSearchRepository mockJobSearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private JobQueryService jobQueryService;
 
@@ -169,7 +173,8 @@ public class JobResourceIT {
         assertThat(testJob.getMaxSalary()).isEqualTo(DEFAULT_MAX_SALARY);
 
         // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(1)).save(testJob);
+        searchIndexDispatcher.flush();
+        verify(mockJobSearchRepository, times(1)).saveAll(Collections.singletonList(testJob));
     }
 
     @Test
@@ -192,7 +197,8 @@ public class JobResourceIT {
         assertThat(jobList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(0)).save(job);
+        searchIndexDispatcher.flush();
+        verify(mockJobSearchRepository, times(0)).saveAll(any());
     }
 
 
@@ -685,7 +691,8 @@ public class JobResourceIT {
         assertThat(testJob.getMaxSalary()).isEqualTo(UPDATED_MAX_SALARY);
 
         // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(1)).save(testJob);
+        searchIndexDispatcher.flush();
+        verify(mockJobSearchRepository, times(1)).saveAll(Collections.singletonList(testJob));
     }
 
     @Test
@@ -707,7 +714,8 @@ public class JobResourceIT {
         assertThat(jobList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Job in Elasticsearch
-        verify(mockJobSearchRepository, times(0)).save(job);
+        searchIndexDispatcher.flush();
+        verify(mockJobSearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -728,6 +736,7 @@ public class JobResourceIT {
         assertThat(jobList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Job in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockJobSearchRepository, times(1)).deleteById(job.getId());
     }
 
@@ -4,6 +4,7 @@ import com.sc.JhipsterSampleApplicationApp;
 import com.sc.domain.Location;
 import com.sc.repository.LocationRepository;
 import com.sc.repository.search.LocationSearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.LocationService;
 import com.sc.service.dto.LocationDTO;
 import com.sc.service.mapper.LocationMapper;
@@ -69,6 +70,9 @@ public class LocationResourceIT {
     @Autowired
     private LocationSearchRepository mockLocationSearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -156,7 +160,8 @@ public class LocationResourceIT {
         assertThat(testLocation.getStateProvince()).isEqualTo(DEFAULT_STATE_PROVINCE);
 
         // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(1)).save(testLocation);
+        searchIndexDispatcher.flush();
+        verify(mockLocationSearchRepository, times(1)).saveAll(Collections.singletonList(testLocation));
     }
 
     @Test
@@ -179,7 +184,8 @@ public class LocationResourceIT {
         assertThat(locationList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(0)).save(location);
+        searchIndexDispatcher.flush();
+        verify(mockLocationSearchRepository, times(0)).saveAll(any());
     }
 
 
@@ -259,7 +265,8 @@ public class LocationResourceIT {
         assertThat(testLocation.getStateProvince()).isEqualTo(UPDATED_STATE_PROVINCE);
 
         // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(1)).save(testLocation);
+        searchIndexDispatcher.flush();
+        verify(mockLocationSearchRepository, times(1)).saveAll(Collections.singletonList(testLocation));
     }
 
     @Test
@@ -281,7 +288,8 @@ public class LocationResourceIT {
         assertThat(locationList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Location in Elasticsearch
-        verify(mockLocationSearchRepository, times(0)).save(location);
+        searchIndexDispatcher.flush();
+        verify(mockLocationSearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -302,6 +310,7 @@ public class LocationResourceIT {
         assertThat(locationList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Location in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockLocationSearchRepository, times(1)).deleteById(location.getId());
     }
 
@@ -4,6 +4,7 @@ import com.sc.JhipsterSampleApplicationApp;
 import com.sc.domain.Region;
 import com.sc.repository.RegionRepository;
 import com.sc.repository.search.RegionSearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.RegionService;
 import com.sc.service.dto.RegionDTO;
 import com.sc.service.mapper.RegionMapper;
@@ -15,6 +16,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
@@ -60,6 +62,9 @@ public class RegionResourceIT {
     @Autowired
     private RegionSearchRepository mockRegionSearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -138,7 +143,8 @@ public class RegionResourceIT {
         assertThat(testRegion.getRegionName()).isEqualTo(DEFAULT_REGION_NAME);
 
         // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(1)).save(testRegion);
+        searchIndexDispatcher.flush();
+        verify(mockRegionSearchRepository, times(1)).saveAll(Collections.singletonList(testRegion));
     }
 
     @Test
@@ -161,7 +167,8 @@ public class RegionResourceIT {
         assertThat(regionList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(0)).save(region);
+        searchIndexDispatcher.flush();
+        verify(mockRegionSearchRepository, times(0)).saveAll(any());
     }
 
 
@@ -229,7 +236,50 @@ public class RegionResourceIT {
         assertThat(testRegion.getRegionName()).isEqualTo(UPDATED_REGION_NAME);
 
         // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(1)).save(testRegion);
+        searchIndexDispatcher.flush();
+        verify(mockRegionSearchRepository, times(1)).saveAll(Collections.singletonList(testRegion));
+    }
+
+    @Test
+    @Transactional
+    public void getRegionNotModified() throws Exception {
+        // Initialize the database
+        regionRepository.saveAndFlush(region);
+
+        String entityTag = restRegionMockMvc.perform(get("/api/regions/{id}", region.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        restRegionMockMvc.perform(get("/api/regions/{id}", region.getId()).header(HttpHeaders.IF_NONE_MATCH, entityTag))
+            .andExpect(status().isNotModified());
+
+        String listEntityTag = restRegionMockMvc.perform(get("/api/regions"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        restRegionMockMvc.perform(get("/api/regions").header(HttpHeaders.IF_NONE_MATCH, listEntityTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    public void updateRegionWithStaleEntityTag() throws Exception {
+        // Initialize the database
+        regionRepository.saveAndFlush(region);
+
+        RegionDTO regionDTO = regionMapper.toDto(region);
+        regionDTO.setRegionName(UPDATED_REGION_NAME);
+
+        restRegionMockMvc.perform(put("/api/regions")
+            .header(HttpHeaders.IF_MATCH, "\"" + (region.getVersion() + 1) + "\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(regionDTO)))
+            .andExpect(status().isPreconditionFailed());
+        restRegionMockMvc.perform(put("/api/regions")
+            .header(HttpHeaders.IF_MATCH, "\"" + region.getVersion() + "\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(regionDTO)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (region.getVersion() + 1) + "\""));
     }
 
     @Test
@@ -251,7 +301,8 @@ public class RegionResourceIT {
         assertThat(regionList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Region in Elasticsearch
-        verify(mockRegionSearchRepository, times(0)).save(region);
+        searchIndexDispatcher.flush();
+        verify(mockRegionSearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -272,6 +323,7 @@ public class RegionResourceIT {
         assertThat(regionList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Region in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockRegionSearchRepository, times(1)).deleteById(region.getId());
     }
 
@@ -0,0 +1,197 @@
+package com.sc.web.rest;
+
+import com.sc.JhipsterSampleApplicationApp;
+import com.sc.domain.Country;
+import com.sc.domain.Department;
+import com.sc.domain.Employee;
+import com.sc.domain.Location;
+import com.sc.domain.Region;
+import com.sc.service.CountryService;
+import com.sc.service.DepartmentService;
+import com.sc.service.EmployeeQueryService;
+import com.sc.service.EmployeeService;
+import com.sc.service.LocationService;
+import com.sc.web.rest.errors.ExceptionTranslator;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+
+import static com.sc.web.rest.TestUtil.createFormattingConversionService;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests asserting the number of SQL statements issued by the REST endpoints reading
+ * the employee and geography graph, so that an eager association cascade cannot creep back in.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class SqlStatementCountIT {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeQueryService employeeQueryService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private PageableHandlerMethodArgumentResolver pageableArgumentResolver;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private Validator validator;
+
+    private MockMvc restMockMvc;
+
+    private Statistics statistics;
+
+    private Employee manager;
+
+    private Employee employee;
+
+    private Employee otherEmployee;
+
+    @BeforeEach
+    public void setup() {
+        this.restMockMvc = MockMvcBuilders.standaloneSetup(
+                new EmployeeResource(employeeService, employeeQueryService, jacksonMessageConverter.getObjectMapper(), validator),
+                new DepartmentResource(departmentService),
+                new LocationResource(locationService),
+                new CountryResource(countryService))
+            .setCustomArgumentResolvers(pageableArgumentResolver)
+            .setControllerAdvice(exceptionTranslator)
+            .setConversionService(createFormattingConversionService())
+            .setMessageConverters(jacksonMessageConverter).build();
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @BeforeEach
+    public void initTest() {
+        Region region = RegionResourceIT.createEntity(em);
+        em.persist(region);
+        Country country = CountryResourceIT.createEntity(em).region(region);
+        em.persist(country);
+        Location location = LocationResourceIT.createEntity(em).country(country);
+        em.persist(location);
+        Department department = DepartmentResourceIT.createEntity(em).location(location);
+        em.persist(department);
+        Employee director = EmployeeResourceIT.createEntity(em).department(department);
+        em.persist(director);
+        manager = EmployeeResourceIT.createEntity(em).department(department).manager(director);
+        em.persist(manager);
+        employee = EmployeeResourceIT.createEntity(em).department(department).manager(manager);
+        em.persist(employee);
+        otherEmployee = EmployeeResourceIT.createEntity(em).department(department).manager(manager);
+        em.persist(otherEmployee);
+    }
+
+    /**
+     * Detach everything, so that the request below reads from the database, and start counting.
+     */
+    private void startCounting() {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @Transactional
+    public void getEmployeePageIssuesOneStatement() throws Exception {
+        startCounting();
+
+        restMockMvc.perform(get("/api/employees?sort=id,asc&id.in=" + manager.getId() + "," + employee.getId() + "," + otherEmployee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].managerId").value(hasItem(manager.getId().intValue())));
+
+        // The count query is skipped for a partial first page, and managers/departments are not loaded
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void getEmployeeIssuesOneStatement() throws Exception {
+        startCounting();
+
+        restMockMvc.perform(get("/api/employees/{id}", employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.managerId").value(manager.getId().intValue()))
+            .andExpect(jsonPath("$.departmentId").value(employee.getDepartment().getId().intValue()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void getDepartmentIssuesOneStatement() throws Exception {
+        startCounting();
+
+        restMockMvc.perform(get("/api/departments/{id}", employee.getDepartment().getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.locationId").value(employee.getDepartment().getLocation().getId().intValue()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void getLocationIssuesOneStatement() throws Exception {
+        Location location = employee.getDepartment().getLocation();
+        startCounting();
+
+        restMockMvc.perform(get("/api/locations/{id}", location.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.countryId").value(location.getCountry().getId().intValue()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    public void getCountryIssuesOneStatement() throws Exception {
+        Country country = employee.getDepartment().getLocation().getCountry();
+        startCounting();
+
+        restMockMvc.perform(get("/api/countries/{id}", country.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.regionId").value(country.getRegion().getId().intValue()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -4,6 +4,7 @@ import com.sc.JhipsterSampleApplicationApp;
 import com.sc.domain.Task;
 import com.sc.repository.TaskRepository;
 import com.sc.repository.search.TaskSearchRepository;
+import com.sc.service.SearchIndexDispatcher;
 import com.sc.service.TaskService;
 import com.sc.service.dto.TaskDTO;
 import com.sc.service.mapper.TaskMapper;
@@ -63,6 +64,9 @@ public class TaskResourceIT {
     @Autowired
     private TaskSearchRepository mockTaskSearchRepository;
 
+    @Autowired
+    private SearchIndexDispatcher searchIndexDispatcher;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -144,7 +148,8 @@ public class TaskResourceIT {
         assertThat(testTask.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
 
         // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(1)).save(testTask);
+        searchIndexDispatcher.flush();
+        verify(mockTaskSearchRepository, times(1)).saveAll(Collections.singletonList(testTask));
     }
 
     @Test
@@ -167,7 +172,8 @@ public class TaskResourceIT {
         assertThat(taskList).hasSize(databaseSizeBeforeCreate);
 
         // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(0)).save(task);
+        searchIndexDispatcher.flush();
+        verify(mockTaskSearchRepository, times(0)).saveAll(any());
     }
 
 
@@ -239,7 +245,8 @@ public class TaskResourceIT {
         assertThat(testTask.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
 
         // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(1)).save(testTask);
+        searchIndexDispatcher.flush();
+        verify(mockTaskSearchRepository, times(1)).saveAll(Collections.singletonList(testTask));
     }
 
     @Test
@@ -261,7 +268,8 @@ public class TaskResourceIT {
         assertThat(taskList).hasSize(databaseSizeBeforeUpdate);
 
         // Validate the Task in Elasticsearch
-        verify(mockTaskSearchRepository, times(0)).save(task);
+        searchIndexDispatcher.flush();
+        verify(mockTaskSearchRepository, times(0)).saveAll(any());
     }
 
     @Test
@@ -282,6 +290,7 @@ public class TaskResourceIT {
         assertThat(taskList).hasSize(databaseSizeBeforeDelete - 1);
 
         // Validate the Task in Elasticsearch
+        searchIndexDispatcher.flush();
         verify(mockTaskSearchRepository, times(1)).deleteById(task.getId());
     }
 
@@ -0,0 +1,103 @@
+package com.sc.web.rest.util;
+
+import com.sc.web.rest.errors.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ETagUtil}.
+ */
+public class ETagUtilTest {
+
+    @Test
+    public void testEntityTag() {
+        assertThat(ETagUtil.entityTag(3)).isEqualTo("\"3\"");
+        assertThat(ETagUtil.entityTag(3, 12, 2)).isEqualTo("\"3.12.2\"");
+    }
+
+    @Test
+    public void testMatches() {
+        assertThat(ETagUtil.matches("\"3\"", "\"3\"", false)).isTrue();
+        assertThat(ETagUtil.matches("\"1\", \"3\"", "\"3\"", false)).isTrue();
+        assertThat(ETagUtil.matches("*", "\"3\"", false)).isTrue();
+        assertThat(ETagUtil.matches("\"4\"", "\"3\"", false)).isFalse();
+        assertThat(ETagUtil.matches(null, "\"3\"", true)).isFalse();
+        assertThat(ETagUtil.matches("W/\"3\"", "\"3\"", true)).isTrue();
+        assertThat(ETagUtil.matches("W/\"3\"", "\"3\"", false)).isFalse();
+    }
+
+    @Test
+    public void testConditionalGetNotModified() {
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<String> response = ETagUtil.conditionalGet("\"7\"", () -> OptionalLong.of(7), () -> {
+            loads.incrementAndGet();
+            return "body";
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"7\"");
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    public void testConditionalGetModified() {
+        ResponseEntity<String> response = ETagUtil.conditionalGet("\"6\"", () -> OptionalLong.of(7), () -> "body");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"7\"");
+        assertThat(response.getBody()).isEqualTo("body");
+    }
+
+    @Test
+    public void testConditionalGetChangedWhileLoading() {
+        AtomicLong version = new AtomicLong(7);
+
+        ResponseEntity<String> response = ETagUtil.conditionalGet(null, () -> OptionalLong.of(version.get()), () -> {
+            version.incrementAndGet();
+            return "body";
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    public void testConditionalGetWithoutVersion() {
+        ResponseEntity<String> response = ETagUtil.conditionalGet("*", OptionalLong::empty, () -> "body");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    public void testCheckIfMatch() {
+        assertThat(ETagUtil.checkIfMatch(null, Optional.of(3L), ETagUtil::entityTag, "entity")).isNull();
+        assertThat(ETagUtil.checkIfMatch("\"3\"", Optional.of(3L), ETagUtil::entityTag, "entity")).isEqualTo(3L);
+        assertThatThrownBy(() -> ETagUtil.checkIfMatch("\"2\"", Optional.of(3L), ETagUtil::entityTag, "entity"))
+            .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETagUtil.checkIfMatch("*", Optional.<Long>empty(), ETagUtil::entityTag, "entity"))
+            .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    public void testUpdateIfMatch() {
+        assertThat(ETagUtil.updateIfMatch("\"3\"", () -> "updated", "entity")).isEqualTo("updated");
+        assertThatThrownBy(() -> ETagUtil.updateIfMatch("\"3\"", () -> {
+            throw new OptimisticLockingFailureException("conflict");
+        }, "entity")).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ETagUtil.updateIfMatch(null, () -> {
+            throw new OptimisticLockingFailureException("conflict");
+        }, "entity")).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.sc.web.rest.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sc.config.JacksonConfiguration;
+import com.sc.service.dto.EmployeeDTO;
+import com.sc.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SparseFieldsetUtil}.
+ */
+public class SparseFieldsetUtilTest {
+
+    private static final Set<String> KNOWN_FIELDS = new HashSet<>(Arrays.asList("id", "firstName", "departmentId"));
+
+    private static final Function<Set<String>, Set<String>> UNKNOWN_FIELDS = fields -> {
+        Set<String> unknown = new LinkedHashSet<>(fields);
+        unknown.removeAll(KNOWN_FIELDS);
+        return unknown;
+    };
+
+    private ObjectMapper objectMapper;
+
+    private EmployeeDTO employeeDTO;
+
+    @BeforeEach
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfiguration().sparseFieldsetCustomizer().customize(builder);
+        objectMapper = builder.build();
+        employeeDTO = new EmployeeDTO();
+        employeeDTO.setId(1L);
+        employeeDTO.setFirstName("first");
+        employeeDTO.setLastName("last");
+    }
+
+    @Test
+    public void testParseFields() {
+        assertThat(SparseFieldsetUtil.parseFields(null, UNKNOWN_FIELDS, "employee")).isNull();
+        assertThat(SparseFieldsetUtil.parseFields(" id, firstName,,id", UNKNOWN_FIELDS, "employee")).containsExactly("id", "firstName");
+        assertThatThrownBy(() -> SparseFieldsetUtil.parseFields("id,salary", UNKNOWN_FIELDS, "employee"))
+            .isInstanceOf(BadRequestAlertException.class)
+            .hasMessageContaining("salary");
+        assertThatThrownBy(() -> SparseFieldsetUtil.parseFields(",", UNKNOWN_FIELDS, "employee"))
+            .isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    public void testFilterWritesOnlyTheFields() throws Exception {
+        MappingJacksonValue value = SparseFieldsetUtil.filter(Collections.singletonList(employeeDTO),
+            new LinkedHashSet<>(Arrays.asList("id", "departmentId")));
+
+        String json = objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue());
+
+        assertThat(json).isEqualTo("[{\"id\":1,\"departmentId\":null}]");
+    }
+
+    @Test
+    public void testAllPropertiesAreWrittenWithoutFilter() throws Exception {
+        assertThat(SparseFieldsetUtil.filter(employeeDTO, null).getFilters()).isNull();
+
+        String json = objectMapper.writeValueAsString(employeeDTO);
+
+        assertThat(json).contains("\"lastName\":\"last\"", "\"salary\":null");
+    }
+}